@@ -0,0 +1,1086 @@
+package com.sarabarbara.compra.archive;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import com.sarabarbara.compra.model.ClientPurchaseSummary;
+import com.sarabarbara.compra.repository.ClientRepository;
+import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * PurchaseArchive class
+ * <p>
+ * Moves the purchases older than {@code compra.archive.after-months} months out of the purchase table into a
+ * {@link PurchaseSegment} file per month in {@code compra.archive.directory}, every day at
+ * {@code compra.archive.cron}; the job is off unless {@code compra.archive.enabled} is true. The segments are read
+ * whenever the directory exists: the searches and the exports whose dates reach an archived month read its segment
+ * too, and the segments outside the dates, or without the client or the item searched, are skipped by their header.
+ * The segments read are kept decoded in a cache of at most {@code compra.archive.cache-rows} rows, so the searches
+ * that keep reading the same months don't decompress them every time.
+ * <p>
+ * Each month is archived in its own transaction: its purchases are read, written to the segment with the ones
+ * already archived, and deleted, and the segment replaces the old one before the commit. If the commit then fails
+ * the purchases are left in both places until the month is archived again, which merges them by id. It is meant for
+ * months nobody writes to anymore: a purchase of the month written while it is archived makes the month fail and
+ * wait for the next run. The client summaries and the daily sales keep the archived purchases.
+ * <p>
+ * A segment is never written again to take out the purchases of a client or an item deleted after it was archived:
+ * the searches and the exports skip the archived purchases whose client or item no longer exists.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PurchaseArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseArchive.class);
+
+    /**
+     * The name of the segment file of a month
+     */
+
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("'purchases-'yyyy-MM'.seg'");
+
+    /**
+     * The extension of a segment being written
+     */
+
+    private static final String TMP = ".tmp";
+
+    /**
+     * The rows whose client and item are looked up together
+     */
+
+    private static final int LOOKUP_ROWS = 1000;
+
+    /**
+     * The purchaseRepository
+     */
+
+    private final PurchaseRepository purchaseRepository;
+
+    /**
+     * The clientRepository
+     */
+
+    private final ClientRepository clientRepository;
+
+    /**
+     * The itemRepository
+     */
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * The transaction of each month
+     */
+
+    private final TransactionTemplate monthTransaction;
+
+    /**
+     * The directory of the segments
+     */
+
+    private final Path directory;
+
+    /**
+     * If the purchases are archived
+     */
+
+    private final boolean enabled;
+
+    /**
+     * The months of the current one and before it that stay in the purchase table
+     */
+
+    private final int afterMonths;
+
+    /**
+     * The headers of the segments, by month
+     */
+
+    private final NavigableMap<YearMonth, PurchaseSegmentHeader> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * The segments read, by their header, which changes when the segment is written again
+     */
+
+    private final Cache<PurchaseSegmentDTO, PurchaseSegment> decoded;
+
+    /**
+     * The constructor
+     *
+     * @param purchaseRepository the purchase repository
+     * @param clientRepository   the client repository
+     * @param itemRepository     the item repository
+     * @param transactionManager the transaction manager
+     * @param directory          the directory of the segments
+     * @param enabled            if the purchases are archived
+     * @param afterMonths        the months before the current one that stay in the purchase table
+     * @param cacheRows          the most rows of the segments kept decoded
+     */
+
+    public PurchaseArchive(PurchaseRepository purchaseRepository, ClientRepository clientRepository,
+                           ItemRepository itemRepository, PlatformTransactionManager transactionManager,
+                           @Value("${compra.archive.directory:archive}") String directory,
+                           @Value("${compra.archive.enabled:false}") boolean enabled,
+                           @Value("${compra.archive.after-months:12}") int afterMonths,
+                           @Value("${compra.archive.cache-rows:1000000}") long cacheRows) {
+
+        if (afterMonths < 1) {
+            throw new IllegalArgumentException("compra.archive.after-months must be at least 1");
+        }
+
+        this.purchaseRepository = purchaseRepository;
+        this.clientRepository = clientRepository;
+        this.itemRepository = itemRepository;
+        this.monthTransaction = new TransactionTemplate(transactionManager);
+        this.monthTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.afterMonths = afterMonths;
+        this.decoded = Caffeine.newBuilder()
+                .maximumWeight(cacheRows)
+                .weigher((PurchaseSegmentDTO info, PurchaseSegment segment) -> segment.size())
+                .build();
+
+        loadSegments();
+    }
+
+    /**
+     * Archives the old purchases every day
+     */
+
+    @Scheduled(cron = "${compra.archive.cron:0 30 3 * * *}")
+    public void onSchedule() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+
+            archive();
+
+        } catch (RuntimeException e) {
+
+            logger.error("Can't archive the purchases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives the purchases of the months before the last {@code after-months} ones, oldest first
+     *
+     * @return the segments written
+     *
+     * @throws IllegalStateException if the purchases are not archived, or a month changed while it was archived
+     */
+
+    public synchronized List<PurchaseSegmentDTO> archive() {
+
+        if (!enabled) {
+            throw new IllegalStateException("The purchases are not archived");
+        }
+
+        YearMonth cutoff = YearMonth.now().minusMonths(afterMonths);
+        LocalDate oldest = purchaseRepository.findOldestPurchaseDateBefore(cutoff.atDay(1));
+        List<PurchaseSegmentDTO> written = new ArrayList<>();
+
+        if (oldest == null) {
+            return written;
+        }
+
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+
+            PurchaseSegmentDTO segment = archiveMonth(month);
+
+            if (segment != null) {
+                written.add(segment);
+            }
+        }
+
+        logger.info("Purchases archived before {}: {}", cutoff, written);
+        return written;
+    }
+
+    /**
+     * The segments of the archive
+     *
+     * @return the headers of the segments, in month order
+     */
+
+    public List<PurchaseSegmentDTO> segments() {
+
+        return segments.values().stream().map(PurchaseSegmentHeader::getInfo).toList();
+    }
+
+    /**
+     * If any segment has purchases between two dates
+     *
+     * @param from the first date, null for no first date
+     * @param to   the last date, null for no last date
+     *
+     * @return true if the archive has to be read for the dates
+     */
+
+    public boolean covers(LocalDate from, LocalDate to) {
+
+        return !segmentsBetween(from, to).isEmpty();
+    }
+
+    /**
+     * If any segment may have purchases that pass the filters
+     *
+     * @param filter the filters
+     *
+     * @return true if the archive has to be read for the filters
+     */
+
+    public boolean covers(PurchaseSearchFilter filter) {
+
+        return !segmentsFor(filter).isEmpty();
+    }
+
+    /**
+     * Searches the archived purchases that pass the filters
+     *
+     * @param filter the filters
+     * @param order  the order of the purchases
+     * @param limit  the first purchases in the order to return
+     *
+     * @return the first purchases and the number of all of them
+     *
+     * @throws UncheckedIOException if a segment can't be read
+     */
+
+    public Page<PurchaseSearchDTO> search(PurchaseSearchFilter filter, Comparator<PurchaseSearchDTO> order,
+                                          int limit) {
+
+        PriorityQueue<PurchaseSearchDTO> first = new PriorityQueue<>(order.reversed());
+        ExistingIds liveClients = new ExistingIds(clientRepository::findIdClientIn);
+        ExistingIds liveItems = new ExistingIds(itemRepository::findIdItemIn);
+        List<ArchivedPurchaseDTO> found = new ArrayList<>(LOOKUP_ROWS);
+        long total = 0;
+
+        for (PurchaseSegmentDTO info : segmentsFor(filter)) {
+
+            PurchaseSegment segment = readSegment(info);
+            BitSet rows = segment.find(filter);
+
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+
+                found.add(segment.get(row));
+
+                if (found.size() == LOOKUP_ROWS) {
+                    total += keepExisting(found, liveClients, liveItems, first, limit);
+                }
+            }
+        }
+
+        total += keepExisting(found, liveClients, liveItems, first, limit);
+
+        List<PurchaseSearchDTO> content = new ArrayList<>(first);
+        content.sort(order);
+
+        Map<Long, ClientDTO> clients = clients(content.stream().map(dto -> dto.getClient().getIdClient()).toList());
+        Map<Long, ItemDTO> items = items(content.stream().map(dto -> dto.getItem().getIdItem()).toList());
+
+        for (PurchaseSearchDTO purchase : content) {
+
+            purchase.setClient(clients.getOrDefault(purchase.getClient().getIdClient(), purchase.getClient()));
+            purchase.setItem(items.getOrDefault(purchase.getItem().getIdItem(), purchase.getItem()));
+        }
+
+        return new PageImpl<>(content, PageRequest.of(0, Math.max(limit, 1)), total);
+    }
+
+    /**
+     * Adds up the archived purchases of a client, of existing items or not, as its summary keeps them
+     *
+     * @param idClient the id of the client
+     *
+     * @return the totals of the archived purchases of the client
+     *
+     * @throws UncheckedIOException if a segment can't be read
+     */
+
+    public ClientPurchaseSummary summaryOf(Long idClient) {
+
+        PurchaseSearchFilter filter = PurchaseSearchFilter.builder().idClient(idClient).build();
+        ClientPurchaseSummary summary = new ClientPurchaseSummary(idClient, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        for (PurchaseSegmentDTO info : segmentsFor(filter)) {
+
+            PurchaseSegment segment = readSegment(info);
+            BitSet rows = segment.find(filter);
+
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+
+                ArchivedPurchaseDTO purchase = segment.get(row);
+                summary.setPurchaseCount(summary.getPurchaseCount() + 1);
+                summary.setUnits(summary.getUnits() + purchase.getQuantity());
+                summary.setTotal(summary.getTotal().add(purchase.getTotal()));
+                summary.setTotalPrice(summary.getTotalPrice().add(purchase.getTotalPrice()));
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * Adds the archived purchases between two dates to the ones of the purchase table, reading the segments one by
+     * one as the purchases are consumed
+     *
+     * @param purchases the purchases of the table, sorted by purchaseDate and idPurchase
+     * @param from      the first date, included
+     * @param to        the last date, included
+     *
+     * @return all the purchases, sorted by purchaseDate and idPurchase
+     */
+
+    public Iterator<PurchaseDTO> withArchived(Iterator<PurchaseDTO> purchases, LocalDate from, LocalDate to) {
+
+        List<PurchaseSegmentDTO> between = segmentsBetween(from, to);
+
+        if (between.isEmpty()) {
+            return purchases;
+        }
+
+        return new MergingIterator(new ArchivedIterator(between, from, to), purchases);
+    }
+
+    // Complementary methods
+
+    /**
+     * Archives the purchases of a month, in its own transaction
+     *
+     * @param month the month
+     *
+     * @return the segment of the month, null if the month had no purchases to archive
+     */
+
+    private PurchaseSegmentDTO archiveMonth(YearMonth month) {
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+        Path file = segmentFile(month);
+        Path tmp = file.resolveSibling(file.getFileName() + TMP);
+
+        Integer archived;
+
+        try {
+
+            archived = monthTransaction.execute(status -> {
+
+                List<ArchivedPurchaseDTO> purchases = purchaseRepository.findArchivedPurchaseDTOBetween(from, to);
+
+                if (purchases.isEmpty()) {
+                    return 0;
+                }
+
+                Map<Long, ArchivedPurchaseDTO> rows = new HashMap<>();
+
+                if (Files.exists(file)) {
+
+                    PurchaseSegment archivedBefore = readSegmentFile(month);
+
+                    for (int row = 0; row < archivedBefore.size(); row++) {
+                        rows.put(archivedBefore.idPurchase(row), archivedBefore.get(row));
+                    }
+                }
+
+                purchases.forEach(purchase -> rows.put(purchase.getIdPurchase(), purchase));
+
+                try {
+
+                    PurchaseSegment.of(month, rows.values()).write(tmp);
+
+                } catch (IOException e) {
+
+                    throw new UncheckedIOException("Can't write the segment of " + month, e);
+                }
+
+                int deleted = purchaseRepository.deletePurchasesBetween(from, to);
+
+                if (deleted != purchases.size()) {
+                    throw new IllegalStateException("The purchases of " + month + " changed while archived");
+                }
+
+                try {
+
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                } catch (IOException e) {
+
+                    throw new UncheckedIOException("Can't replace the segment of " + month, e);
+                }
+
+                return purchases.size();
+            });
+
+        } finally {
+
+            deleteQuietly(tmp);
+            loadSegment(month);
+        }
+
+        if (archived == null || archived == 0) {
+            return null;
+        }
+
+        logger.info("Purchases of {} archived: {}", month, archived);
+        return segments.containsKey(month) ? segments.get(month).getInfo() : null;
+    }
+
+    /**
+     * Loads the headers of the segments in the directory, if it exists, and deletes the segments left half written
+     */
+
+    private void loadSegments() {
+
+        if (!Files.isDirectory(directory)) {
+
+            if (enabled) {
+                createDirectory();
+            }
+
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "purchases-*.seg*")) {
+
+            for (Path file : files) {
+
+                if (file.getFileName().toString().endsWith(TMP)) {
+
+                    deleteQuietly(file);
+                    continue;
+                }
+
+                PurchaseSegmentHeader header = PurchaseSegment.readHeader(file);
+                segments.put(header.getInfo().getMonth(), header);
+            }
+
+        } catch (IOException e) {
+
+            throw new UncheckedIOException("Can't read the purchase archive " + directory, e);
+        }
+
+        logger.info("Purchase archive loaded from {}: {} segments", directory, segments.size());
+    }
+
+    /**
+     * Loads the header of the segment of a month again, after it was written, and drops the month from the cache
+     *
+     * @param month the month
+     */
+
+    private void loadSegment(YearMonth month) {
+
+        Path file = segmentFile(month);
+        decoded.asMap().keySet().removeIf(info -> info.getMonth().equals(month));
+
+        try {
+
+            if (Files.exists(file)) {
+                segments.put(month, PurchaseSegment.readHeader(file));
+            } else {
+                segments.remove(month);
+            }
+
+        } catch (IOException e) {
+
+            logger.error("Can't read the segment of {}: {}", month, e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the directory of the segments
+     */
+
+    private void createDirectory() {
+
+        try {
+
+            Files.createDirectories(directory);
+
+        } catch (IOException e) {
+
+            throw new UncheckedIOException("Can't create the purchase archive " + directory, e);
+        }
+    }
+
+    /**
+     * Reads a segment, from the cache if it was read before
+     *
+     * @param info the header of the segment
+     *
+     * @return the segment
+     */
+
+    private PurchaseSegment readSegment(PurchaseSegmentDTO info) {
+
+        return decoded.get(info, key -> readSegmentFile(key.getMonth()));
+    }
+
+    /**
+     * Reads the segment of a month from its file
+     *
+     * @param month the month
+     *
+     * @return the segment
+     */
+
+    private PurchaseSegment readSegmentFile(YearMonth month) {
+
+        try {
+
+            return PurchaseSegment.read(segmentFile(month));
+
+        } catch (IOException e) {
+
+            throw new UncheckedIOException("Can't read the segment of " + month, e);
+        }
+    }
+
+    /**
+     * The segments with purchases between two dates
+     *
+     * @param from the first date, null for no first date
+     * @param to   the last date, null for no last date
+     *
+     * @return the headers of the segments, in month order
+     */
+
+    private List<PurchaseSegmentDTO> segmentsBetween(LocalDate from, LocalDate to) {
+
+        return segments.values().stream()
+                .filter(header -> header.mayHaveDates(from, to))
+                .map(PurchaseSegmentHeader::getInfo)
+                .toList();
+    }
+
+    /**
+     * The segments that may have purchases that pass the filters, by their dates, clients and items
+     *
+     * @param filter the filters
+     *
+     * @return the headers of the segments, in month order
+     */
+
+    private List<PurchaseSegmentDTO> segmentsFor(PurchaseSearchFilter filter) {
+
+        LocalDate from = firstDay(filter);
+        LocalDate to = lastDay(filter);
+
+        return segments.values().stream()
+                .filter(header -> header.mayHaveDates(from, to) &&
+                        header.mayHave(filter.getIdClient(), filter.getIdItem()))
+                .map(PurchaseSegmentHeader::getInfo)
+                .toList();
+    }
+
+    /**
+     * The file of the segment of a month
+     *
+     * @param month the month
+     *
+     * @return the file
+     */
+
+    private Path segmentFile(YearMonth month) {
+
+        return directory.resolve(month.format(SEGMENT_NAME));
+    }
+
+    /**
+     * Deletes a file if it exists, logging instead of failing
+     *
+     * @param file the file
+     */
+
+    private static void deleteQuietly(Path file) {
+
+        try {
+
+            Files.deleteIfExists(file);
+
+        } catch (IOException e) {
+
+            logger.error("Can't delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * The first purchaseDate the filters accept
+     *
+     * @param filter the filters
+     *
+     * @return the first date, null for no first date
+     */
+
+    private static LocalDate firstDay(PurchaseSearchFilter filter) {
+
+        return filter.getPurchaseDate() != null ? filter.getPurchaseDate() : filter.getFromDate();
+    }
+
+    /**
+     * The last purchaseDate the filters accept
+     *
+     * @param filter the filters
+     *
+     * @return the last date, null for no last date
+     */
+
+    private static LocalDate lastDay(PurchaseSearchFilter filter) {
+
+        return filter.getPurchaseDate() != null ? filter.getPurchaseDate() : filter.getToDate();
+    }
+
+    /**
+     * A client known only by its id
+     *
+     * @param idClient the id of the client
+     *
+     * @return the client
+     */
+
+    private static ClientDTO clientOf(Long idClient) {
+
+        ClientDTO client = new ClientDTO();
+        client.setIdClient(idClient);
+
+        return client;
+    }
+
+    /**
+     * An item known only by its id
+     *
+     * @param idItem the id of the item
+     *
+     * @return the item
+     */
+
+    private static ItemDTO itemOf(Long idItem) {
+
+        ItemDTO item = new ItemDTO();
+        item.setIdItem(idItem);
+
+        return item;
+    }
+
+    /**
+     * Offers the archived purchases found whose client and item still exist to the first ones of a search, and
+     * empties the purchases found
+     *
+     * @param found       the archived purchases found
+     * @param liveClients the clients that exist
+     * @param liveItems   the items that exist
+     * @param first       the first purchases of the search, in the reverse order
+     * @param limit       the first purchases to keep
+     *
+     * @return the purchases offered
+     */
+
+    private static int keepExisting(List<ArchivedPurchaseDTO> found, ExistingIds liveClients, ExistingIds liveItems,
+                                    PriorityQueue<PurchaseSearchDTO> first, int limit) {
+
+        liveClients.lookUp(found.stream().map(ArchivedPurchaseDTO::getIdClient).toList());
+        liveItems.lookUp(found.stream().map(ArchivedPurchaseDTO::getIdItem).toList());
+
+        int kept = 0;
+
+        for (ArchivedPurchaseDTO purchase : found) {
+
+            if (!liveClients.exists(purchase.getIdClient()) || !liveItems.exists(purchase.getIdItem())) {
+                continue;
+            }
+
+            first.add(new PurchaseSearchDTO(purchase.getIdPurchase(), clientOf(purchase.getIdClient()),
+                    itemOf(purchase.getIdItem()), purchase.getPurchaseDate(), purchase.getQuantity(),
+                    purchase.getTotalPrice()));
+            kept++;
+
+            if (first.size() > limit) {
+                first.poll();
+            }
+        }
+
+        found.clear();
+        return kept;
+    }
+
+    /**
+     * Looks up the clients of some ids
+     *
+     * @param idClients the ids of the clients
+     *
+     * @return the clients found, by id
+     */
+
+    private Map<Long, ClientDTO> clients(Collection<Long> idClients) {
+
+        Map<Long, ClientDTO> clients = new HashMap<>();
+
+        if (!idClients.isEmpty()) {
+            clientRepository.findClientDTOIn(new HashSet<>(idClients))
+                    .forEach(client -> clients.put(client.getIdClient(), client));
+        }
+
+        return clients;
+    }
+
+    /**
+     * Looks up the items of some ids
+     *
+     * @param idItems the ids of the items
+     *
+     * @return the items found, by id
+     */
+
+    private Map<Long, ItemDTO> items(Collection<Long> idItems) {
+
+        Map<Long, ItemDTO> items = new HashMap<>();
+
+        if (!idItems.isEmpty()) {
+            itemRepository.findItemDTOIn(new HashSet<>(idItems))
+                    .forEach(item -> items.put(item.getIdItem(), item));
+        }
+
+        return items;
+    }
+
+    /**
+     * The archived purchases between two dates, with their client and item looked up every {@value #LOOKUP_ROWS}
+     * rows. A segment is read when the previous one is consumed
+     */
+
+    private final class ArchivedIterator implements Iterator<PurchaseDTO> {
+
+        /**
+         * The segments left to read
+         */
+
+        private final Iterator<PurchaseSegmentDTO> infos;
+
+        /**
+         * The first date
+         */
+
+        private final LocalDate from;
+
+        /**
+         * The last date
+         */
+
+        private final LocalDate to;
+
+        /**
+         * The purchases looked up and not consumed yet
+         */
+
+        private final Deque<PurchaseDTO> ready = new ArrayDeque<>();
+
+        /**
+         * The segment being read
+         */
+
+        private PurchaseSegment segment;
+
+        /**
+         * The rows of the segment between the dates
+         */
+
+        private BitSet rows;
+
+        /**
+         * The next row of the segment to look up
+         */
+
+        private int next = -1;
+
+        /**
+         * The constructor
+         *
+         * @param infos the segments to read, in month order
+         * @param from  the first date
+         * @param to    the last date
+         */
+
+        private ArchivedIterator(List<PurchaseSegmentDTO> infos, LocalDate from, LocalDate to) {
+
+            this.infos = infos.iterator();
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (ready.isEmpty()) {
+
+                if (next < 0) {
+
+                    if (!infos.hasNext()) {
+                        return false;
+                    }
+
+                    segment = readSegment(infos.next());
+                    rows = segment.find(PurchaseSearchFilter.builder().fromDate(from).toDate(to).build());
+                    next = rows.nextSetBit(0);
+                    continue;
+                }
+
+                lookUpNextRows();
+            }
+
+            return true;
+        }
+
+        @Override
+        public PurchaseDTO next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return ready.poll();
+        }
+
+        /**
+         * Looks up the client and the item of the next rows of the segment
+         */
+
+        private void lookUpNextRows() {
+
+            List<ArchivedPurchaseDTO> purchases = new ArrayList<>(LOOKUP_ROWS);
+
+            for (; next >= 0 && purchases.size() < LOOKUP_ROWS; next = rows.nextSetBit(next + 1)) {
+                purchases.add(segment.get(next));
+            }
+
+            Map<Long, ClientDTO> clients = clients(purchases.stream().map(ArchivedPurchaseDTO::getIdClient).toList());
+            Map<Long, ItemDTO> items = items(purchases.stream().map(ArchivedPurchaseDTO::getIdItem).toList());
+
+            for (ArchivedPurchaseDTO purchase : purchases) {
+
+                ClientDTO client = clients.get(purchase.getIdClient());
+                ItemDTO item = items.get(purchase.getIdItem());
+
+                // the client or the item was deleted after the purchase was archived
+                if (client == null || item == null) {
+                    continue;
+                }
+
+                ready.add(new PurchaseDTO(purchase.getIdPurchase(), client, item, purchase.getPurchaseDate(),
+                        purchase.getQuantity(), purchase.getTotal(), purchase.getIva(), purchase.getTotalIva(),
+                        purchase.getTotalPrice()));
+            }
+
+            if (next < 0) {
+                segment = null;
+                rows = null;
+            }
+        }
+
+    }
+
+    /**
+     * The ids of the clients or the items of a search that exist, each looked up once
+     */
+
+    private static final class ExistingIds {
+
+        /**
+         * The ids found of some ids
+         */
+
+        private final Function<Collection<Long>, List<Long>> finder;
+
+        /**
+         * The ids looked up, true if they exist
+         */
+
+        private final Map<Long, Boolean> known = new HashMap<>();
+
+        /**
+         * The constructor
+         *
+         * @param finder the ids found of some ids
+         */
+
+        private ExistingIds(Function<Collection<Long>, List<Long>> finder) {
+
+            this.finder = finder;
+        }
+
+        /**
+         * Looks up the ids not looked up before
+         *
+         * @param ids the ids
+         */
+
+        private void lookUp(Collection<Long> ids) {
+
+            Set<Long> unknown = new HashSet<>(ids);
+            unknown.removeAll(known.keySet());
+
+            if (unknown.isEmpty()) {
+                return;
+            }
+
+            unknown.forEach(id -> known.put(id, false));
+            finder.apply(unknown).forEach(id -> known.put(id, true));
+        }
+
+        /**
+         * If an id looked up exists
+         *
+         * @param id the id
+         *
+         * @return true if it exists
+         */
+
+        private boolean exists(Long id) {
+
+            return known.getOrDefault(id, false);
+        }
+
+    }
+
+    /**
+     * Merges two iterators of purchases sorted by purchaseDate and idPurchase into one
+     */
+
+    private static final class MergingIterator implements Iterator<PurchaseDTO> {
+
+        /**
+         * The order of the purchases
+         */
+
+        private static final Comparator<PurchaseDTO> ORDER = Comparator.comparing(PurchaseDTO::getPurchaseDate)
+                .thenComparing(PurchaseDTO::getIdPurchase);
+
+        /**
+         * The first iterator
+         */
+
+        private final Iterator<PurchaseDTO> left;
+
+        /**
+         * The second iterator
+         */
+
+        private final Iterator<PurchaseDTO> right;
+
+        /**
+         * The next purchase of the first iterator, null if not read yet
+         */
+
+        private PurchaseDTO leftNext;
+
+        /**
+         * The next purchase of the second iterator, null if not read yet
+         */
+
+        private PurchaseDTO rightNext;
+
+        /**
+         * The constructor
+         *
+         * @param left  the first iterator
+         * @param right the second iterator
+         */
+
+        private MergingIterator(Iterator<PurchaseDTO> left, Iterator<PurchaseDTO> right) {
+
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            return leftNext != null || rightNext != null || left.hasNext() || right.hasNext();
+        }
+
+        @Override
+        public PurchaseDTO next() {
+
+            if (leftNext == null && left.hasNext()) {
+                leftNext = left.next();
+            }
+
+            if (rightNext == null && right.hasNext()) {
+                rightNext = right.next();
+            }
+
+            if (leftNext == null && rightNext == null) {
+                throw new NoSuchElementException();
+            }
+
+            PurchaseDTO purchase;
+
+            if (rightNext == null || leftNext != null && ORDER.compare(leftNext, rightNext) <= 0) {
+                purchase = leftNext;
+                leftNext = null;
+            } else {
+                purchase = rightNext;
+                rightNext = null;
+            }
+
+            return purchase;
+        }
+
+    }
+
+}
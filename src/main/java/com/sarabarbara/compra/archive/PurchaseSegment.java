@@ -0,0 +1,691 @@
+package com.sarabarbara.compra.archive;
+
+import com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PurchaseSegment class
+ * <p>
+ * The purchases of a month in the archive, sorted by purchaseDate and idPurchase and kept by column: each column is
+ * an array, and the file stores the columns one after the other, gzipped. The values of a column look alike, so they
+ * compress well, and a filter is checked one column at a time.
+ * <p>
+ * The file starts with a {@link PurchaseSegmentHeader} that isn't compressed, so the archive reads it without the
+ * columns. The dates are stored as the days after the first one and the amounts
+ * as unscaled longs with the scale of their column.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class PurchaseSegment {
+
+    /**
+     * The size of the buffers of the files
+     */
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The header of the segment
+     */
+
+    private final PurchaseSegmentDTO info;
+
+    /**
+     * The idPurchase column
+     */
+
+    private final long[] idPurchase;
+
+    /**
+     * The idClient column
+     */
+
+    private final long[] idClient;
+
+    /**
+     * The idItem column
+     */
+
+    private final long[] idItem;
+
+    /**
+     * The purchaseDate column, as the days after the first one
+     */
+
+    private final int[] day;
+
+    /**
+     * The quantity column
+     */
+
+    private final int[] quantity;
+
+    /**
+     * The total column
+     */
+
+    private final Amounts total;
+
+    /**
+     * The iva column
+     */
+
+    private final Amounts iva;
+
+    /**
+     * The totalIva column
+     */
+
+    private final Amounts totalIva;
+
+    /**
+     * The totalPrice column
+     */
+
+    private final Amounts totalPrice;
+
+    /**
+     * The constructor
+     *
+     * @param info       the header
+     * @param idPurchase the idPurchase column
+     * @param idClient   the idClient column
+     * @param idItem     the idItem column
+     * @param day        the purchaseDate column
+     * @param quantity   the quantity column
+     * @param total      the total column
+     * @param iva        the iva column
+     * @param totalIva   the totalIva column
+     * @param totalPrice the totalPrice column
+     */
+
+    private PurchaseSegment(PurchaseSegmentDTO info, long[] idPurchase, long[] idClient, long[] idItem, int[] day,
+                            int[] quantity, Amounts total, Amounts iva, Amounts totalIva, Amounts totalPrice) {
+
+        this.info = info;
+        this.idPurchase = idPurchase;
+        this.idClient = idClient;
+        this.idItem = idItem;
+        this.day = day;
+        this.quantity = quantity;
+        this.total = total;
+        this.iva = iva;
+        this.totalIva = totalIva;
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Builds the segment of a month
+     *
+     * @param month     the month
+     * @param purchases the purchases of the month, at least one
+     *
+     * @return the segment
+     */
+
+    public static PurchaseSegment of(YearMonth month, Collection<ArchivedPurchaseDTO> purchases) {
+
+        List<ArchivedPurchaseDTO> sorted = new ArrayList<>(purchases);
+        sorted.sort(Comparator.comparing(ArchivedPurchaseDTO::getPurchaseDate)
+                .thenComparing(ArchivedPurchaseDTO::getIdPurchase));
+
+        int rows = sorted.size();
+        LocalDate minDate = sorted.get(0).getPurchaseDate();
+        long[] idPurchase = new long[rows];
+        long[] idClient = new long[rows];
+        long[] idItem = new long[rows];
+        int[] day = new int[rows];
+        int[] quantity = new int[rows];
+        List<BigDecimal> total = new ArrayList<>(rows);
+        List<BigDecimal> iva = new ArrayList<>(rows);
+        List<BigDecimal> totalIva = new ArrayList<>(rows);
+        List<BigDecimal> totalPrice = new ArrayList<>(rows);
+
+        for (int row = 0; row < rows; row++) {
+
+            ArchivedPurchaseDTO purchase = sorted.get(row);
+
+            idPurchase[row] = purchase.getIdPurchase();
+            idClient[row] = purchase.getIdClient();
+            idItem[row] = purchase.getIdItem();
+            day[row] = (int) (purchase.getPurchaseDate().toEpochDay() - minDate.toEpochDay());
+            quantity[row] = purchase.getQuantity();
+            total.add(purchase.getTotal());
+            iva.add(purchase.getIva());
+            totalIva.add(purchase.getTotalIva());
+            totalPrice.add(purchase.getTotalPrice());
+        }
+
+        PurchaseSegmentDTO info = PurchaseSegmentDTO.builder()
+                .month(month)
+                .rows(rows)
+                .minDate(minDate)
+                .maxDate(sorted.get(rows - 1).getPurchaseDate())
+                .minId(min(idPurchase))
+                .maxId(max(idPurchase))
+                .minIdClient(min(idClient))
+                .maxIdClient(max(idClient))
+                .minIdItem(min(idItem))
+                .maxIdItem(max(idItem))
+                .build();
+
+        return new PurchaseSegment(info, idPurchase, idClient, idItem, day, quantity, Amounts.of(total),
+                Amounts.of(iva), Amounts.of(totalIva), Amounts.of(totalPrice));
+    }
+
+    /**
+     * Reads the header of a segment file, without its columns
+     *
+     * @param file the file
+     *
+     * @return the header
+     *
+     * @throws IOException if the file can't be read or isn't a segment
+     */
+
+    public static PurchaseSegmentHeader readHeader(Path file) throws IOException {
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return PurchaseSegmentHeader.read(in, Files.size(file));
+        }
+    }
+
+    /**
+     * Reads a segment file
+     *
+     * @param file the file
+     *
+     * @return the segment
+     *
+     * @throws IOException if the file can't be read or isn't a segment
+     */
+
+    public static PurchaseSegment read(Path file) throws IOException {
+
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+
+            PurchaseSegmentDTO info = PurchaseSegmentHeader.read(new DataInputStream(raw), Files.size(file)).getInfo();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(raw, BUFFER_SIZE),
+                    BUFFER_SIZE));
+            int rows = info.getRows();
+
+            return new PurchaseSegment(info, readLongs(in, rows), readLongs(in, rows), readLongs(in, rows),
+                    readInts(in, rows), readInts(in, rows), Amounts.read(in, rows), Amounts.read(in, rows),
+                    Amounts.read(in, rows), Amounts.read(in, rows));
+        }
+    }
+
+    /**
+     * Writes the segment to a file, replacing it
+     *
+     * @param file the file
+     *
+     * @throws IOException if the file can't be written
+     */
+
+    public void write(Path file) throws IOException {
+
+        try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+
+            DataOutputStream header = new DataOutputStream(raw);
+            PurchaseSegmentHeader.of(info, idClient, idItem).write(header);
+            header.flush();
+
+            GZIPOutputStream gzip = new GZIPOutputStream(raw, BUFFER_SIZE);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+
+            writeLongs(out, idPurchase);
+            writeLongs(out, idClient);
+            writeLongs(out, idItem);
+            writeInts(out, day);
+            writeInts(out, quantity);
+            total.write(out);
+            iva.write(out);
+            totalIva.write(out);
+            totalPrice.write(out);
+
+            out.flush();
+            gzip.finish();
+        }
+    }
+
+    /**
+     * The header of the segment
+     *
+     * @return the header, without the bytes of the file if it wasn't read from one
+     */
+
+    public PurchaseSegmentDTO getInfo() {
+
+        return info;
+    }
+
+    /**
+     * The purchases of the segment
+     *
+     * @return the purchases
+     */
+
+    public int size() {
+
+        return idPurchase.length;
+    }
+
+    /**
+     * The rows that pass the filters, checked one column at a time
+     *
+     * @param filter the filters, the null ones are not applied
+     *
+     * @return the rows
+     */
+
+    public BitSet find(PurchaseSearchFilter filter) {
+
+        BitSet rows = new BitSet(size());
+        rows.set(0, size());
+
+        keepEqual(rows, idClient, filter.getIdClient());
+        keepEqual(rows, idItem, filter.getIdItem());
+        keepDays(rows, filter.getPurchaseDate(), filter.getPurchaseDate());
+        keepDays(rows, filter.getFromDate(), filter.getToDate());
+        keepRange(rows, quantity, filter.getQuantity(), filter.getQuantity());
+        keepRange(rows, quantity, filter.getMinQuantity(), filter.getMaxQuantity());
+        totalPrice.keepRange(rows, filter.getTotalPrice(), filter.getTotalPrice());
+        totalPrice.keepRange(rows, filter.getMinTotal(), filter.getMaxTotal());
+
+        return rows;
+    }
+
+    /**
+     * A purchase of the segment
+     *
+     * @param row the row
+     *
+     * @return the purchase
+     */
+
+    public ArchivedPurchaseDTO get(int row) {
+
+        return new ArchivedPurchaseDTO(idPurchase[row], idClient[row], idItem[row], purchaseDate(row), quantity[row],
+                total.get(row), iva.get(row), totalIva.get(row), totalPrice.get(row));
+    }
+
+    /**
+     * The idPurchase of a row
+     *
+     * @param row the row
+     *
+     * @return the idPurchase
+     */
+
+    public long idPurchase(int row) {
+
+        return idPurchase[row];
+    }
+
+    /**
+     * The purchaseDate of a row
+     *
+     * @param row the row
+     *
+     * @return the purchaseDate
+     */
+
+    public LocalDate purchaseDate(int row) {
+
+        return info.getMinDate().plusDays(day[row]);
+    }
+
+    /**
+     * The quantity of a row
+     *
+     * @param row the row
+     *
+     * @return the quantity
+     */
+
+    public int quantity(int row) {
+
+        return quantity[row];
+    }
+
+    /**
+     * The totalPrice of a row
+     *
+     * @param row the row
+     *
+     * @return the totalPrice
+     */
+
+    public BigDecimal totalPrice(int row) {
+
+        return totalPrice.get(row);
+    }
+
+    // Complementary methods
+
+    /**
+     * Keeps the rows with a given value of a column
+     *
+     * @param rows   the rows
+     * @param column the column
+     * @param value  the value, null to keep them all
+     */
+
+    private static void keepEqual(BitSet rows, long[] column, Long value) {
+
+        if (value == null) {
+            return;
+        }
+
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+
+            if (column[row] != value) {
+                rows.clear(row);
+            }
+        }
+    }
+
+    /**
+     * Keeps the rows with a value of a column in a range
+     *
+     * @param rows   the rows
+     * @param column the column
+     * @param min    the minimum, null for no minimum
+     * @param max    the maximum, null for no maximum
+     */
+
+    private static void keepRange(BitSet rows, int[] column, Integer min, Integer max) {
+
+        if (min == null && max == null) {
+            return;
+        }
+
+        long low = min == null ? Long.MIN_VALUE : min;
+        long high = max == null ? Long.MAX_VALUE : max;
+
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+
+            if (column[row] < low || column[row] > high) {
+                rows.clear(row);
+            }
+        }
+    }
+
+    /**
+     * Keeps the rows of the days of a range. The rows are sorted by date, so the range is a run of rows
+     *
+     * @param rows the rows
+     * @param from the first day, null for no first day
+     * @param to   the last day, null for no last day
+     */
+
+    private void keepDays(BitSet rows, LocalDate from, LocalDate to) {
+
+        if (from == null && to == null) {
+            return;
+        }
+
+        long first = info.getMinDate().toEpochDay();
+        long low = from == null ? Long.MIN_VALUE : from.toEpochDay() - first;
+        long high = to == null ? Long.MAX_VALUE : to.toEpochDay() - first;
+        int start = 0;
+        int end = day.length;
+
+        while (start < end && day[start] < low) {
+            start++;
+        }
+
+        while (end > start && day[end - 1] > high) {
+            end--;
+        }
+
+        rows.clear(0, start);
+        rows.clear(end, day.length);
+    }
+
+    /**
+     * The lowest value of a column
+     *
+     * @param column the column, not empty
+     *
+     * @return the lowest value
+     */
+
+    private static long min(long[] column) {
+
+        long min = Long.MAX_VALUE;
+
+        for (long value : column) {
+            min = Math.min(min, value);
+        }
+
+        return min;
+    }
+
+    /**
+     * The highest value of a column
+     *
+     * @param column the column, not empty
+     *
+     * @return the highest value
+     */
+
+    private static long max(long[] column) {
+
+        long max = Long.MIN_VALUE;
+
+        for (long value : column) {
+            max = Math.max(max, value);
+        }
+
+        return max;
+    }
+
+    /**
+     * Reads a column of longs
+     *
+     * @param in   the input
+     * @param rows the rows
+     *
+     * @return the column
+     *
+     * @throws IOException if the input fails
+     */
+
+    private static long[] readLongs(DataInputStream in, int rows) throws IOException {
+
+        long[] column = new long[rows];
+
+        for (int row = 0; row < rows; row++) {
+            column[row] = in.readLong();
+        }
+
+        return column;
+    }
+
+    /**
+     * Reads a column of ints
+     *
+     * @param in   the input
+     * @param rows the rows
+     *
+     * @return the column
+     *
+     * @throws IOException if the input fails
+     */
+
+    private static int[] readInts(DataInputStream in, int rows) throws IOException {
+
+        int[] column = new int[rows];
+
+        for (int row = 0; row < rows; row++) {
+            column[row] = in.readInt();
+        }
+
+        return column;
+    }
+
+    /**
+     * Writes a column of longs
+     *
+     * @param out    the output
+     * @param column the column
+     *
+     * @throws IOException if the output fails
+     */
+
+    private static void writeLongs(DataOutputStream out, long[] column) throws IOException {
+
+        for (long value : column) {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Writes a column of ints
+     *
+     * @param out    the output
+     * @param column the column
+     *
+     * @throws IOException if the output fails
+     */
+
+    private static void writeInts(DataOutputStream out, int[] column) throws IOException {
+
+        for (int value : column) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * A column of amounts: the unscaled values and the scale they share
+     *
+     * @param scale    the scale
+     * @param unscaled the unscaled values
+     */
+
+    private record Amounts(int scale, long[] unscaled) {
+
+        /**
+         * Builds the column of some amounts, with the largest of their scales
+         *
+         * @param amounts the amounts
+         *
+         * @return the column
+         *
+         * @throws ArithmeticException if an amount doesn't fit in a long at that scale
+         */
+
+        static Amounts of(List<BigDecimal> amounts) {
+
+            int scale = 0;
+
+            for (BigDecimal amount : amounts) {
+                scale = Math.max(scale, amount.scale());
+            }
+
+            long[] unscaled = new long[amounts.size()];
+
+            for (int row = 0; row < unscaled.length; row++) {
+                unscaled[row] = amounts.get(row).setScale(scale).unscaledValue().longValueExact();
+            }
+
+            return new Amounts(scale, unscaled);
+        }
+
+        /**
+         * Reads a column of amounts
+         *
+         * @param in   the input
+         * @param rows the rows
+         *
+         * @return the column
+         *
+         * @throws IOException if the input fails
+         */
+
+        static Amounts read(DataInputStream in, int rows) throws IOException {
+
+            int scale = in.readInt();
+            return new Amounts(scale, readLongs(in, rows));
+        }
+
+        /**
+         * Writes the column
+         *
+         * @param out the output
+         *
+         * @throws IOException if the output fails
+         */
+
+        void write(DataOutputStream out) throws IOException {
+
+            out.writeInt(scale);
+            writeLongs(out, unscaled);
+        }
+
+        /**
+         * The amount of a row
+         *
+         * @param row the row
+         *
+         * @return the amount
+         */
+
+        BigDecimal get(int row) {
+
+            return BigDecimal.valueOf(unscaled[row], scale);
+        }
+
+        /**
+         * Keeps the rows with an amount in a range
+         *
+         * @param rows the rows
+         * @param min  the minimum, null for no minimum
+         * @param max  the maximum, null for no maximum
+         */
+
+        void keepRange(BitSet rows, BigDecimal min, BigDecimal max) {
+
+            if (min == null && max == null) {
+                return;
+            }
+
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+
+                BigDecimal amount = get(row);
+
+                if (min != null && amount.compareTo(min) < 0 || max != null && amount.compareTo(max) > 0) {
+                    rows.clear(row);
+                }
+            }
+        }
+
+    }
+
+}
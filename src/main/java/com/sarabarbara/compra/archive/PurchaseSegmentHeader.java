@@ -0,0 +1,410 @@
+package com.sarabarbara.compra.archive;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * PurchaseSegmentHeader class
+ * <p>
+ * The header of a {@link PurchaseSegment} file, read without its columns: the bounds of the dates and the ids, and a
+ * bloom filter of the clients and another of the items of the segment, so a search by client or item skips the
+ * segments that can't have it without decompressing them. A bloom filter has no false negatives, and about one false
+ * positive in a hundred with {@value #BITS_PER_ID} bits for each id.
+ * <p>
+ * The segments written before the filters have no bounds of the clients and the items, and are always read.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class PurchaseSegmentHeader {
+
+    /**
+     * The first bytes of a segment file without the bounds of the clients and the items
+     */
+
+    private static final int MAGIC_WITHOUT_IDS = 0x43505331;
+
+    /**
+     * The first bytes of a segment file
+     */
+
+    private static final int MAGIC = 0x43505332;
+
+    /**
+     * The bits of a bloom filter for each id
+     */
+
+    private static final int BITS_PER_ID = 10;
+
+    /**
+     * The hashes of an id in a bloom filter
+     */
+
+    private static final int HASHES = 7;
+
+    /**
+     * The header as shown
+     */
+
+    private final PurchaseSegmentDTO info;
+
+    /**
+     * The ids of the clients
+     */
+
+    private final IdFilter clients;
+
+    /**
+     * The ids of the items
+     */
+
+    private final IdFilter items;
+
+    /**
+     * The constructor
+     *
+     * @param info    the header as shown
+     * @param clients the ids of the clients
+     * @param items   the ids of the items
+     */
+
+    private PurchaseSegmentHeader(PurchaseSegmentDTO info, IdFilter clients, IdFilter items) {
+
+        this.info = info;
+        this.clients = clients;
+        this.items = items;
+    }
+
+    /**
+     * Builds the header of some columns
+     *
+     * @param info     the header as shown
+     * @param idClient the idClient column
+     * @param idItem   the idItem column
+     *
+     * @return the header
+     */
+
+    static PurchaseSegmentHeader of(PurchaseSegmentDTO info, long[] idClient, long[] idItem) {
+
+        return new PurchaseSegmentHeader(info, IdFilter.of(idClient), IdFilter.of(idItem));
+    }
+
+    /**
+     * Reads a header
+     *
+     * @param in    the file
+     * @param bytes the bytes of the file
+     *
+     * @return the header
+     *
+     * @throws IOException if the file can't be read or isn't a segment
+     */
+
+    static PurchaseSegmentHeader read(DataInputStream in, long bytes) throws IOException {
+
+        int magic = in.readInt();
+
+        if (magic != MAGIC && magic != MAGIC_WITHOUT_IDS) {
+            throw new IOException("Not a purchase segment");
+        }
+
+        PurchaseSegmentDTO info = PurchaseSegmentDTO.builder()
+                .month(YearMonth.of(in.readInt(), in.readInt()))
+                .rows(in.readInt())
+                .minDate(LocalDate.ofEpochDay(in.readLong()))
+                .maxDate(LocalDate.ofEpochDay(in.readLong()))
+                .minId(in.readLong())
+                .maxId(in.readLong())
+                .bytes(bytes)
+                .build();
+
+        if (magic == MAGIC_WITHOUT_IDS) {
+            return new PurchaseSegmentHeader(info, IdFilter.ANY, IdFilter.ANY);
+        }
+
+        IdFilter clients = IdFilter.read(in);
+        IdFilter items = IdFilter.read(in);
+
+        info.setMinIdClient(clients.min);
+        info.setMaxIdClient(clients.max);
+        info.setMinIdItem(items.min);
+        info.setMaxIdItem(items.max);
+
+        return new PurchaseSegmentHeader(info, clients, items);
+    }
+
+    /**
+     * Writes the header
+     *
+     * @param out the file
+     *
+     * @throws IOException if the file can't be written
+     */
+
+    void write(DataOutputStream out) throws IOException {
+
+        out.writeInt(MAGIC);
+        out.writeInt(info.getMonth().getYear());
+        out.writeInt(info.getMonth().getMonthValue());
+        out.writeInt(info.getRows());
+        out.writeLong(info.getMinDate().toEpochDay());
+        out.writeLong(info.getMaxDate().toEpochDay());
+        out.writeLong(info.getMinId());
+        out.writeLong(info.getMaxId());
+        clients.write(out);
+        items.write(out);
+    }
+
+    /**
+     * The header as shown
+     *
+     * @return the header
+     */
+
+    public PurchaseSegmentDTO getInfo() {
+
+        return info;
+    }
+
+    /**
+     * If the segment may have purchases between two dates
+     *
+     * @param from the first date, null for no first date
+     * @param to   the last date, null for no last date
+     *
+     * @return false if it has none
+     */
+
+    public boolean mayHaveDates(LocalDate from, LocalDate to) {
+
+        return (from == null || !info.getMaxDate().isBefore(from)) && (to == null || !info.getMinDate().isAfter(to));
+    }
+
+    /**
+     * If the segment may have purchases of a client and an item
+     *
+     * @param idClient the id of the client, null for any client
+     * @param idItem   the id of the item, null for any item
+     *
+     * @return false if it has none
+     */
+
+    public boolean mayHave(Long idClient, Long idItem) {
+
+        return (idClient == null || clients.mayContain(idClient)) && (idItem == null || items.mayContain(idItem));
+    }
+
+    // Complementary methods
+
+    /**
+     * The position of the bit of a hash of an id
+     *
+     * @param hash the hash of the id
+     * @param i    the number of the hash
+     * @param bits the bits of the filter
+     *
+     * @return the position
+     */
+
+    private static int bit(long hash, int i, int bits) {
+
+        return (int) Math.floorMod((int) hash + i * (int) (hash >>> 32), (long) bits);
+    }
+
+    /**
+     * Mixes the bits of an id, so close ids hash far apart
+     *
+     * @param id the id
+     *
+     * @return the hash
+     */
+
+    private static long hash(long id) {
+
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    /**
+     * IdFilter class
+     * <p>
+     * The ids of a column: their bounds and a bloom filter of them
+     */
+
+    private static final class IdFilter {
+
+        /**
+         * The filter of the segments written without it, which may contain any id
+         */
+
+        private static final IdFilter ANY = new IdFilter(null, null, null);
+
+        /**
+         * The lowest id, null if unknown
+         */
+
+        private final Long min;
+
+        /**
+         * The highest id, null if unknown
+         */
+
+        private final Long max;
+
+        /**
+         * The bits of the bloom filter, null if unknown
+         */
+
+        private final long[] words;
+
+        /**
+         * The constructor
+         *
+         * @param min   the lowest id, null if unknown
+         * @param max   the highest id, null if unknown
+         * @param words the bits of the bloom filter, null if unknown
+         */
+
+        private IdFilter(Long min, Long max, long[] words) {
+
+            this.min = min;
+            this.max = max;
+            this.words = words;
+        }
+
+        /**
+         * Builds the filter of a column
+         *
+         * @param column the column, not empty
+         *
+         * @return the filter
+         */
+
+        private static IdFilter of(long[] column) {
+
+            long[] sorted = column.clone();
+            Arrays.sort(sorted);
+
+            int distinct = 0;
+
+            for (int row = 0; row < sorted.length; row++) {
+
+                if (row == 0 || sorted[row] != sorted[row - 1]) {
+                    distinct++;
+                }
+            }
+
+            long[] words = new long[Math.max(1, (int) (((long) distinct * BITS_PER_ID + 63) / 64))];
+            int bits = words.length * 64;
+
+            for (int row = 0; row < sorted.length; row++) {
+
+                if (row > 0 && sorted[row] == sorted[row - 1]) {
+                    continue;
+                }
+
+                long hash = hash(sorted[row]);
+
+                for (int i = 0; i < HASHES; i++) {
+
+                    int bit = bit(hash, i, bits);
+                    words[bit >>> 6] |= 1L << bit;
+                }
+            }
+
+            return new IdFilter(sorted[0], sorted[sorted.length - 1], words);
+        }
+
+        /**
+         * Reads a filter
+         *
+         * @param in the file
+         *
+         * @return the filter
+         *
+         * @throws IOException if the file can't be read
+         */
+
+        private static IdFilter read(DataInputStream in) throws IOException {
+
+            long min = in.readLong();
+            long max = in.readLong();
+            long[] words = new long[in.readInt()];
+
+            for (int word = 0; word < words.length; word++) {
+                words[word] = in.readLong();
+            }
+
+            return new IdFilter(min, max, words);
+        }
+
+        /**
+         * Writes the filter
+         *
+         * @param out the file
+         *
+         * @throws IOException if the file can't be written
+         */
+
+        private void write(DataOutputStream out) throws IOException {
+
+            out.writeLong(min);
+            out.writeLong(max);
+            out.writeInt(words.length);
+
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        /**
+         * If the column may contain an id
+         *
+         * @param id the id
+         *
+         * @return false if it doesn't
+         */
+
+        private boolean mayContain(long id) {
+
+            if (words == null) {
+                return true;
+            }
+
+            if (id < min || id > max) {
+                return false;
+            }
+
+            long hash = hash(id);
+            int bits = words.length * 64;
+
+            for (int i = 0; i < HASHES; i++) {
+
+                int bit = bit(hash, i, bits);
+
+                if ((words[bit >>> 6] & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+    }
+
+}
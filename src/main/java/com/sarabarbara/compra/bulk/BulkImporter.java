@@ -0,0 +1,740 @@
+package com.sarabarbara.compra.bulk;
+
+import com.sarabarbara.compra.dto.imports.ImportRejectedRowDTO;
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * BulkImporter class
+ * <p>
+ * Imports the rows of a CSV by chunks of {@code compra.bulk.chunk-size} rows. The rows of a chunk are parsed and
+ * validated in parallel; then each of their unique keys is checked against the rest of the file with a set and
+ * against the database with one {@code IN} query for the whole chunk, and the accepted rows are inserted in their
+ * own transaction, with batched inserts. Every unique index of the table must be a unique key here: a row that breaks
+ * one makes the whole chunk fail to save, and rejects its rows; the chunks before it stay saved.
+ * <p>
+ * The CSV is read as it arrives, only one chunk is held at a time.
+ *
+ * @param <T> the entity imported
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public abstract class BulkImporter<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImporter.class);
+
+    /**
+     * The rejected rows kept in the report, the rest are only counted
+     */
+
+    private static final int MAX_REPORTED_ROWS = 1000;
+
+    /**
+     * The format of the dates
+     */
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * The entity manager, cleared after every chunk
+     */
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The transaction of each chunk
+     */
+
+    private final TransactionTemplate chunkTransaction;
+
+    /**
+     * The validator of the entities
+     */
+
+    private final Validator validator;
+
+    /**
+     * The rows of a chunk
+     */
+
+    private final int chunkSize;
+
+    /**
+     * The constructor
+     *
+     * @param transactionManager the transaction manager
+     * @param validator          the validator of the entities
+     * @param chunkSize          the rows of a chunk
+     */
+
+    protected BulkImporter(PlatformTransactionManager transactionManager, Validator validator, int chunkSize) {
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be at least 1");
+        }
+
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a CSV. Its first line is the header, with the {@link #columns()} in any order
+     *
+     * @param csv the CSV, in UTF-8
+     *
+     * @return the report of the import
+     *
+     * @throws IOException              if the CSV can't be read
+     * @throws IllegalArgumentException if the CSV is empty, misses a column or is malformed
+     */
+
+    public ImportReportDTO importCsv(InputStream csv) throws IOException {
+
+        long start = System.nanoTime();
+        Report report = new Report();
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+
+            String[] header = reader.next();
+
+            if (header == null) {
+                throw new IllegalArgumentException("The CSV is empty");
+            }
+
+            int[] positions = positions(header);
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String[] record;
+
+            while ((record = reader.next()) != null) {
+
+                chunk.add(new Row(reader.getLine(), record));
+
+                if (chunk.size() == chunkSize) {
+
+                    importChunk(chunk, positions, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, positions, report);
+            }
+        }
+
+        return report.toDTO(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * The columns of the CSV, in the order {@link #parse(String[])} gets them
+     *
+     * @return the names of the columns
+     */
+
+    protected abstract List<String> columns();
+
+    /**
+     * Builds an entity from a row. Runs in parallel with the other rows of the chunk
+     *
+     * @param values the values, in the order of {@link #columns()}, trimmed
+     *
+     * @return the entity, not saved
+     *
+     * @throws IllegalArgumentException if a value is missing or wrong
+     */
+
+    protected abstract T parse(String[] values);
+
+    /**
+     * The values that must be unique among the entities, one for each unique index of the table
+     *
+     * @return the unique keys
+     */
+
+    protected abstract List<UniqueKey<T>> uniqueKeys();
+
+    /**
+     * Saves the entities of a chunk, inside its transaction
+     *
+     * @param entities the entities
+     *
+     * @return the saved entities
+     */
+
+    protected abstract List<T> saveAll(List<T> entities);
+
+    /**
+     * Runs after a chunk is committed, e.g. to index the entities
+     *
+     * @param saved the saved entities
+     */
+
+    protected abstract void afterCommit(List<T> saved);
+
+    /**
+     * A required text value
+     *
+     * @param values the values
+     * @param column the column
+     *
+     * @return the value
+     */
+
+    protected String text(String[] values, int column) {
+
+        String value = values[column];
+
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("The " + columns().get(column) + " is required");
+        }
+
+        return value;
+    }
+
+    /**
+     * A required integer value
+     *
+     * @param values the values
+     * @param column the column
+     *
+     * @return the value
+     */
+
+    protected int integer(String[] values, int column) {
+
+        try {
+
+            return Integer.parseInt(text(values, column));
+
+        } catch (NumberFormatException nf) {
+
+            throw new IllegalArgumentException("The " + columns().get(column) + " must be an integer");
+        }
+    }
+
+    /**
+     * A required decimal value
+     *
+     * @param values the values
+     * @param column the column
+     *
+     * @return the value
+     */
+
+    protected BigDecimal decimal(String[] values, int column) {
+
+        try {
+
+            return new BigDecimal(text(values, column));
+
+        } catch (NumberFormatException nf) {
+
+            throw new IllegalArgumentException("The " + columns().get(column) + " must be a number");
+        }
+    }
+
+    /**
+     * A required date value, dd/MM/yyyy
+     *
+     * @param values the values
+     * @param column the column
+     *
+     * @return the value
+     */
+
+    protected LocalDate date(String[] values, int column) {
+
+        try {
+
+            return LocalDate.parse(text(values, column), DATE_FORMAT);
+
+        } catch (DateTimeParseException dp) {
+
+            throw new IllegalArgumentException("The " + columns().get(column) + " must be a dd/MM/yyyy date");
+        }
+    }
+
+    // Complementary methods
+
+    /**
+     * Finds the position of every column in the header
+     *
+     * @param header the header
+     *
+     * @return the position in the record of each of the {@link #columns()}
+     */
+
+    private int[] positions(String[] header) {
+
+        Map<String, Integer> byName = new HashMap<>();
+
+        for (int k = 0; k < header.length; k++) {
+            byName.putIfAbsent(header[k].trim().toLowerCase(Locale.ROOT), k);
+        }
+
+        List<String> columns = columns();
+        int[] positions = new int[columns.size()];
+
+        for (int k = 0; k < positions.length; k++) {
+
+            Integer position = byName.get(columns.get(k).toLowerCase(Locale.ROOT));
+
+            if (position == null) {
+                throw new IllegalArgumentException("The CSV has no " + columns.get(k) + " column");
+            }
+
+            positions[k] = position;
+        }
+
+        return positions;
+    }
+
+    /**
+     * Imports a chunk
+     *
+     * @param chunk     the rows
+     * @param positions the position of each column
+     * @param report    the report
+     */
+
+    private void importChunk(List<Row> chunk, int[] positions, Report report) {
+
+        List<UniqueKey<T>> uniqueKeys = uniqueKeys();
+        List<Parsed<T>> parsed = chunk.parallelStream()
+                .map(row -> parseRow(row, positions, uniqueKeys))
+                .toList();
+
+        List<Set<String>> seen = new ArrayList<>(uniqueKeys.size());
+        uniqueKeys.forEach(uniqueKey -> seen.add(new HashSet<>()));
+
+        List<Parsed<T>> unique = new ArrayList<>(parsed.size());
+
+        for (Parsed<T> row : parsed) {
+
+            if (row.error != null) {
+
+                report.reject(row.line, row.error);
+                continue;
+            }
+
+            int repeated = firstKeyIn(row, seen);
+
+            if (repeated >= 0) {
+
+                report.reject(row.line, "Repeated in the CSV: " + uniqueKeys.get(repeated).value.apply(row.entity));
+                continue;
+            }
+
+            for (int k = 0; k < seen.size(); k++) {
+                seen.get(k).add(row.keys[k]);
+            }
+
+            unique.add(row);
+        }
+
+        if (!unique.isEmpty()) {
+
+            List<Set<String>> taken = new ArrayList<>(uniqueKeys.size());
+
+            for (UniqueKey<T> uniqueKey : uniqueKeys) {
+
+                taken.add(uniqueKey.taken.apply(unique.stream().map(row -> uniqueKey.value.apply(row.entity))
+                                .toList())
+                        .stream()
+                        .map(BulkImporter::keyOf)
+                        .collect(Collectors.toSet()));
+            }
+
+            List<Parsed<T>> accepted = new ArrayList<>(unique.size());
+
+            for (Parsed<T> row : unique) {
+
+                int takenKey = firstKeyIn(row, taken);
+
+                if (takenKey >= 0) {
+
+                    UniqueKey<T> uniqueKey = uniqueKeys.get(takenKey);
+                    report.reject(row.line, "The " + uniqueKey.name + " " + uniqueKey.value.apply(row.entity) +
+                            " is already taken.");
+
+                } else {
+
+                    accepted.add(row);
+                }
+            }
+
+            save(accepted, report);
+        }
+
+        report.read += chunk.size();
+        report.chunks++;
+        logger.info("Chunk {} imported: {} read, {} accepted, {} rejected", report.chunks, report.read,
+                report.accepted, report.rejected);
+    }
+
+    /**
+     * Parses and validates a row
+     *
+     * @param row        the row
+     * @param positions  the position of each column
+     * @param uniqueKeys the unique keys
+     *
+     * @return the entity, or the reason it was rejected
+     */
+
+    private Parsed<T> parseRow(Row row, int[] positions, List<UniqueKey<T>> uniqueKeys) {
+
+        try {
+
+            String[] values = new String[positions.length];
+
+            for (int k = 0; k < positions.length; k++) {
+
+                if (positions[k] >= row.values.length) {
+                    throw new IllegalArgumentException("The row has " + row.values.length + " columns");
+                }
+
+                values[k] = row.values[positions[k]].trim();
+            }
+
+            T entity = parse(values);
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+
+            if (!violations.isEmpty()) {
+
+                return new Parsed<>(row.line, null, null, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+
+            String[] keys = new String[uniqueKeys.size()];
+
+            for (int k = 0; k < keys.length; k++) {
+                keys[k] = keyOf(uniqueKeys.get(k).value.apply(entity));
+            }
+
+            return new Parsed<>(row.line, entity, keys, null);
+
+        } catch (IllegalArgumentException | NullPointerException e) {
+
+            return new Parsed<>(row.line, null, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the accepted rows of a chunk in its own transaction
+     *
+     * @param accepted the accepted rows
+     * @param report   the report
+     */
+
+    private void save(List<Parsed<T>> accepted, Report report) {
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<T> entities = accepted.stream().map(row -> row.entity).toList();
+
+        try {
+
+            List<T> saved = chunkTransaction.execute(status -> {
+
+                List<T> result = saveAll(entities);
+
+                entityManager.flush();
+                entityManager.clear();
+
+                return result;
+            });
+
+            report.accepted += accepted.size();
+            afterCommit(saved);
+
+        } catch (RuntimeException e) {
+
+            logger.error("Can't save the chunk {}: {}", report.chunks + 1, e.getMessage());
+            accepted.forEach(row -> report.reject(row.line, "Can't save the row: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The first unique key of a row that is in its set
+     *
+     * @param row  the row
+     * @param sets the sets of keys, one for each unique key
+     *
+     * @return the position of the unique key, -1 if none is in its set
+     */
+
+    private static int firstKeyIn(Parsed<?> row, List<Set<String>> sets) {
+
+        for (int k = 0; k < sets.size(); k++) {
+
+            if (sets.get(k).contains(row.keys[k])) {
+                return k;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * The key used to compare, the database compares the unique values without case
+     *
+     * @param value the unique value
+     *
+     * @return the key
+     */
+
+    private static String keyOf(String value) {
+
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * UniqueKey class
+     * <p>
+     * A value that must be unique among the entities: how it is read and which of its values are already taken
+     *
+     * @param <T> the entity
+     */
+
+    protected static final class UniqueKey<T> {
+
+        /**
+         * The name of the value, for the messages
+         */
+
+        private final String name;
+
+        /**
+         * The value of an entity
+         */
+
+        private final Function<T, String> value;
+
+        /**
+         * The values already taken among some, with one query
+         */
+
+        private final Function<Collection<String>, List<String>> taken;
+
+        /**
+         * The constructor
+         *
+         * @param name  the name of the value, for the messages
+         * @param value the value of an entity
+         * @param taken the values already taken among some, with one query
+         */
+
+        public UniqueKey(String name, Function<T, String> value, Function<Collection<String>, List<String>> taken) {
+
+            this.name = name;
+            this.value = value;
+            this.taken = taken;
+        }
+
+    }
+
+    /**
+     * Row class
+     * <p>
+     * A record of the CSV and its line
+     */
+
+    private static final class Row {
+
+        /**
+         * The line
+         */
+
+        private final int line;
+
+        /**
+         * The values
+         */
+
+        private final String[] values;
+
+        /**
+         * The constructor
+         *
+         * @param line   the line
+         * @param values the values
+         */
+
+        private Row(int line, String[] values) {
+
+            this.line = line;
+            this.values = values;
+        }
+
+    }
+
+    /**
+     * Parsed class
+     * <p>
+     * A parsed row: its entity and keys, or the reason it was rejected
+     *
+     * @param <T> the entity
+     */
+
+    private static final class Parsed<T> {
+
+        /**
+         * The line
+         */
+
+        private final int line;
+
+        /**
+         * The entity
+         */
+
+        private final T entity;
+
+        /**
+         * The unique keys of the entity, in the order of the {@link #uniqueKeys()}
+         */
+
+        private final String[] keys;
+
+        /**
+         * The reason the row was rejected
+         */
+
+        private final String error;
+
+        /**
+         * The constructor
+         *
+         * @param line   the line
+         * @param entity the entity
+         * @param keys   the unique keys of the entity
+         * @param error  the reason the row was rejected
+         */
+
+        private Parsed(int line, T entity, String[] keys, String error) {
+
+            this.line = line;
+            this.entity = entity;
+            this.keys = keys;
+            this.error = error;
+        }
+
+    }
+
+    /**
+     * Report class
+     * <p>
+     * The counters of an import in progress
+     */
+
+    private static final class Report {
+
+        /**
+         * The rows read
+         */
+
+        private long read;
+
+        /**
+         * The rows saved
+         */
+
+        private long accepted;
+
+        /**
+         * The rows rejected
+         */
+
+        private long rejected;
+
+        /**
+         * The chunks
+         */
+
+        private int chunks;
+
+        /**
+         * The first rejected rows
+         */
+
+        private final List<ImportRejectedRowDTO> rejectedRows = new ArrayList<>();
+
+        /**
+         * Rejects a row
+         *
+         * @param line    the line
+         * @param message the reason
+         */
+
+        private void reject(int line, String message) {
+
+            rejected++;
+
+            if (rejectedRows.size() < MAX_REPORTED_ROWS) {
+                rejectedRows.add(new ImportRejectedRowDTO(line, message));
+            }
+        }
+
+        /**
+         * The report
+         *
+         * @param elapsedMillis the time the import took
+         *
+         * @return the report
+         */
+
+        private ImportReportDTO toDTO(long elapsedMillis) {
+
+            rejectedRows.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+
+            return ImportReportDTO.builder()
+                    .read(read)
+                    .accepted(accepted)
+                    .rejected(rejected)
+                    .chunks(chunks)
+                    .elapsedMillis(elapsedMillis)
+                    .rejectedRows(rejectedRows)
+                    .build();
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.sarabarbara.compra.bulk;
+
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.repository.ClientRepository;
+import com.sarabarbara.compra.search.ClientNgramIndex;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * ClientBulkImporter class
+ * <p>
+ * Imports clients from a CSV with the columns name, surname, company, position, address, zipCode, province,
+ * phoneNumber and birthDate (dd/MM/yyyy). The company and the phone number must be unique, as in the table.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ClientBulkImporter extends BulkImporter<Client> {
+
+    /**
+     * The columns of the CSV
+     */
+
+    private static final List<String> COLUMNS = List.of("name", "surname", "company", "position", "address",
+            "zipCode", "province", "phoneNumber", "birthDate");
+
+    /**
+     * The clientRepository
+     */
+
+    private final ClientRepository clientRepository;
+
+    /**
+     * The clientNgramIndex
+     */
+
+    private final ClientNgramIndex clientNgramIndex;
+
+    /**
+     * The constructor
+     *
+     * @param transactionManager the transaction manager
+     * @param validator          the validator of the clients
+     * @param chunkSize          the rows of a chunk
+     * @param clientRepository   the client repository
+     * @param clientNgramIndex   the client n-gram index
+     */
+
+    public ClientBulkImporter(PlatformTransactionManager transactionManager, Validator validator,
+                              @Value("${compra.bulk.chunk-size:1000}") int chunkSize,
+                              ClientRepository clientRepository, ClientNgramIndex clientNgramIndex) {
+
+        super(transactionManager, validator, chunkSize);
+        this.clientRepository = clientRepository;
+        this.clientNgramIndex = clientNgramIndex;
+    }
+
+    @Override
+    protected List<String> columns() {
+
+        return COLUMNS;
+    }
+
+    @Override
+    protected Client parse(String[] values) {
+
+        return Client.builder()
+                .name(text(values, 0))
+                .surname(text(values, 1))
+                .company(text(values, 2))
+                .position(text(values, 3))
+                .address(text(values, 4))
+                .zipCode(text(values, 5))
+                .province(text(values, 6))
+                .phoneNumber(text(values, 7))
+                .birthDate(date(values, 8))
+                .build();
+    }
+
+    @Override
+    protected List<UniqueKey<Client>> uniqueKeys() {
+
+        return List.of(
+                new UniqueKey<>("company", Client::getCompany, clientRepository::findCompaniesIn),
+                new UniqueKey<>("phone number", Client::getPhoneNumber, clientRepository::findPhoneNumbersIn));
+    }
+
+    @Override
+    protected List<Client> saveAll(List<Client> clients) {
+
+        return clientRepository.saveAll(clients);
+    }
+
+    @Override
+    protected void afterCommit(List<Client> saved) {
+
+        saved.forEach(clientNgramIndex::put);
+    }
+
+}
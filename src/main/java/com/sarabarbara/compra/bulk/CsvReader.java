@@ -0,0 +1,191 @@
+package com.sarabarbara.compra.bulk;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader class
+ * <p>
+ * Reads a CSV record by record, without holding more than the current one: comma separated, fields optionally
+ * quoted with {@code "}, a doubled quote inside a quoted field is a quote, and quoted fields may span lines. The empty
+ * lines are skipped.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class CsvReader implements Closeable {
+
+    /**
+     * The size of the read buffer
+     */
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The byte order mark some editors put at the start
+     */
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * The reader
+     */
+
+    private final BufferedReader reader;
+
+    /**
+     * The physical lines read so far
+     */
+
+    private int lines;
+
+    /**
+     * The line where the last record starts, from 1
+     */
+
+    private int line;
+
+    /**
+     * The constructor
+     *
+     * @param reader the reader of the CSV
+     */
+
+    public CsvReader(Reader reader) {
+
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return the fields of the record, or null at the end
+     *
+     * @throws IOException if the reader fails
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+
+    public String[] next() throws IOException {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+
+        while ((c = reader.read()) != -1) {
+
+            if (c == BOM && lines == 0 && empty && field.isEmpty()) {
+                continue;
+            }
+
+            if (empty) {
+
+                empty = false;
+                line = lines + 1;
+            }
+
+            if (quoted) {
+
+                if (c == '"') {
+
+                    reader.mark(1);
+
+                    if (reader.read() == '"') {
+
+                        field.append('"');
+
+                    } else {
+
+                        reader.reset();
+                        quoted = false;
+                    }
+
+                } else {
+
+                    if (c == '\n') {
+                        lines++;
+                    }
+
+                    field.append((char) c);
+                }
+
+            } else if (c == '"') {
+
+                quoted = true;
+
+            } else if (c == ',') {
+
+                fields.add(field.toString());
+                field.setLength(0);
+
+            } else if (c == '\n' || c == '\r') {
+
+                if (c == '\r') {
+
+                    reader.mark(1);
+
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+
+                lines++;
+
+                if (fields.isEmpty() && field.isEmpty()) {
+
+                    empty = true;
+                    continue;
+                }
+
+                fields.add(field.toString());
+                return fields.toArray(String[]::new);
+
+            } else {
+
+                field.append((char) c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Line " + line + ": a quoted field is not closed");
+        }
+
+        if (empty) {
+            return null;
+        }
+
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    /**
+     * The line where the last record read starts
+     *
+     * @return the line, from 1
+     */
+
+    public int getLine() {
+
+        return line;
+    }
+
+    /**
+     * Closes the reader
+     *
+     * @throws IOException if the reader fails
+     */
+
+    @Override
+    public void close() throws IOException {
+
+        reader.close();
+    }
+
+}
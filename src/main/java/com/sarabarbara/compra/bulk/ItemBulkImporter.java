@@ -0,0 +1,136 @@
+package com.sarabarbara.compra.bulk;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.search.ItemNgramIndex;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ItemBulkImporter class
+ * <p>
+ * Imports items from a CSV with the columns name, description, unitPrice, itemStock, type and supplier. The name
+ * and the description must be unique, as in the table, and the date is the day of the import.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ItemBulkImporter extends BulkImporter<Item> {
+
+    /**
+     * The columns of the CSV
+     */
+
+    private static final List<String> COLUMNS = List.of("name", "description", "unitPrice", "itemStock", "type",
+            "supplier");
+
+    /**
+     * The itemRepository
+     */
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * The itemNgramIndex
+     */
+
+    private final ItemNgramIndex itemNgramIndex;
+
+    /**
+     * The constructor
+     *
+     * @param transactionManager the transaction manager
+     * @param validator          the validator of the items
+     * @param chunkSize          the rows of a chunk
+     * @param itemRepository     the item repository
+     * @param itemNgramIndex     the item n-gram index
+     */
+
+    public ItemBulkImporter(PlatformTransactionManager transactionManager, Validator validator,
+                            @Value("${compra.bulk.chunk-size:1000}") int chunkSize,
+                            ItemRepository itemRepository, ItemNgramIndex itemNgramIndex) {
+
+        super(transactionManager, validator, chunkSize);
+        this.itemRepository = itemRepository;
+        this.itemNgramIndex = itemNgramIndex;
+    }
+
+    @Override
+    protected List<String> columns() {
+
+        return COLUMNS;
+    }
+
+    @Override
+    protected Item parse(String[] values) {
+
+        int itemStock = integer(values, 3);
+
+        if (itemStock < 0) {
+            throw new IllegalArgumentException("The itemStock can't be negative");
+        }
+
+        return Item.builder()
+                .name(text(values, 0))
+                .description(text(values, 1))
+                .unitPrice(decimal(values, 2))
+                .itemStock(itemStock)
+                .type(type(text(values, 4)))
+                .supplier(text(values, 5))
+                .date(LocalDate.now())
+                .build();
+    }
+
+    @Override
+    protected List<UniqueKey<Item>> uniqueKeys() {
+
+        return List.of(
+                new UniqueKey<>("name", Item::getName, itemRepository::findNamesIn),
+                new UniqueKey<>("description", Item::getDescription, itemRepository::findDescriptionsIn));
+    }
+
+    @Override
+    protected List<Item> saveAll(List<Item> items) {
+
+        return itemRepository.saveAll(items);
+    }
+
+    @Override
+    protected void afterCommit(List<Item> saved) {
+
+        saved.forEach(itemNgramIndex::put);
+    }
+
+    // Complementary methods
+
+    /**
+     * The type of a row
+     *
+     * @param value the value, the name of the type in any case
+     *
+     * @return the type
+     */
+
+    private static Type type(String value) {
+
+        try {
+
+            return Type.valueOf(value.toUpperCase(Locale.ROOT));
+
+        } catch (IllegalArgumentException ia) {
+
+            throw new IllegalArgumentException("Unknown type: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.sarabarbara.compra.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.sarabarbara.compra.dto.cache.EntityCacheRegionDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * EntityCacheStatistics class
+ * <p>
+ * The state of the regions of the second level cache: the entries held against the limit of each region, from the
+ * cache itself, and the hits, misses and puts counted by Hibernate since the application started.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class EntityCacheStatistics {
+
+    /**
+     * The statistics of Hibernate
+     */
+
+    private final Statistics statistics;
+
+    /**
+     * The cache manager of the second level cache
+     */
+
+    private final CacheManager entityCacheManager;
+
+    /**
+     * The constructor
+     *
+     * @param entityManagerFactory the entity manager factory
+     * @param entityCacheManager   the cache manager of the second level cache
+     */
+
+    public EntityCacheStatistics(EntityManagerFactory entityManagerFactory, CacheManager entityCacheManager) {
+
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.entityCacheManager = entityCacheManager;
+    }
+
+    /**
+     * The statistics of every region
+     *
+     * @return the regions, by name
+     */
+
+    public List<EntityCacheRegionDTO> regions() {
+
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(this::region)
+                .toList();
+    }
+
+    // Complementary methods
+
+    /**
+     * The statistics of a region
+     *
+     * @param region the name of the region
+     *
+     * @return the statistics
+     */
+
+    private EntityCacheRegionDTO region(String region) {
+
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        Cache<Object, Object> cache = entityCacheManager.getCache(region);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> entries =
+                cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+
+        return EntityCacheRegionDTO.builder()
+                .region(region)
+                .size(entries.estimatedSize())
+                .maximumSize(entries.policy().eviction().map(Policy.Eviction::getMaximum).orElse(-1L))
+                .hits(regionStatistics.getHitCount())
+                .misses(regionStatistics.getMissCount())
+                .puts(regionStatistics.getPutCount())
+                .build();
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.sarabarbara.compra.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sarabarbara.compra.dto.items.ItemCacheStatsDTO;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ItemCatalogCache class
+ * <p>
+ * Bounded read-through cache of the items by id and by name, in front of the {@link ItemRepository}. A hit costs no
+ * database round trip; a miss loads the item and caches it, an unknown id or name is never cached.
+ * <p>
+ * The cached items are detached and shared between requests, so they are read-only: the writes load the item from
+ * the repository and evict it here. The stock is as old as the entry, at most the expiry; the cache is local to each
+ * instance of the application.
+ * <p>
+ * Its hits and misses are published as the {@code cache.gets} metrics of the {@code item-catalog-by-id} and
+ * {@code item-catalog-by-name} caches.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ItemCatalogCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemCatalogCache.class);
+
+    /**
+     * The itemRepository
+     */
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * The items by id
+     */
+
+    private final Cache<Long, Item> byId;
+
+    /**
+     * The ids by name
+     */
+
+    private final Cache<String, Long> byName;
+
+    /**
+     * The constructor
+     *
+     * @param itemRepository   the item repository
+     * @param maximumSize      the maximum number of cached items
+     * @param expireAfterWrite the time an item stays cached after it is loaded
+     */
+
+    public ItemCatalogCache(ItemRepository itemRepository,
+                            @Value("${compra.cache.item.maximum-size:10000}") long maximumSize,
+                            @Value("${compra.cache.item.expire-after-write:10m}") Duration expireAfterWrite) {
+
+        this.itemRepository = itemRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.byName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Searches an item by the id
+     *
+     * @param idItem the id of the item
+     *
+     * @return the item, read-only
+     */
+
+    public Optional<Item> findById(Long idItem) {
+
+        return Optional.ofNullable(byId.get(idItem, id -> {
+
+            Item item = itemRepository.findById(id).orElse(null);
+
+            if (item != null) {
+                byName.put(item.getName(), id);
+            }
+
+            return item;
+        }));
+    }
+
+    /**
+     * Searches many items by the id. The cached ones cost nothing, the rest are loaded with one query
+     *
+     * @param idItems the ids of the items
+     *
+     * @return the items found by id, read-only
+     */
+
+    public Map<Long, Item> findAllById(Collection<Long> idItems) {
+
+        return byId.getAll(idItems, missing -> {
+
+            Map<Long, Item> loaded = new HashMap<>();
+
+            for (Item item : itemRepository.findAllById(new ArrayList<Long>(missing))) {
+
+                loaded.put(item.getIdItem(), item);
+                byName.put(item.getName(), item.getIdItem());
+            }
+
+            return loaded;
+        });
+    }
+
+    /**
+     * Searches an item by the name
+     *
+     * @param name the name of the item
+     *
+     * @return the item, read-only
+     */
+
+    public Optional<Item> findByName(String name) {
+
+        Long idItem = byName.getIfPresent(name);
+
+        if (idItem != null) {
+
+            Item item = byId.getIfPresent(idItem);
+
+            if (item != null && name.equals(item.getName())) {
+                return Optional.of(item);
+            }
+        }
+
+        Optional<Item> item = itemRepository.findByName(name);
+        item.ifPresent(this::put);
+
+        return item;
+    }
+
+    /**
+     * Evicts an item, by its id and by its old and new names
+     *
+     * @param idItem  the id of the item
+     * @param oldName the name the item had
+     * @param newName the name the item has now, may be the same
+     */
+
+    public void evict(Long idItem, String oldName, String newName) {
+
+        if (idItem != null) {
+            byId.invalidate(idItem);
+        }
+
+        if (oldName != null) {
+            byName.invalidate(oldName);
+        }
+
+        if (newName != null) {
+            byName.invalidate(newName);
+        }
+
+        logger.info("Item {} evicted from the catalog cache", idItem);
+    }
+
+    /**
+     * The statistics of the lookups
+     *
+     * @return the hits, misses and evictions by id and by name
+     */
+
+    public ItemCacheStatsDTO stats() {
+
+        CacheStats idStats = byId.stats();
+        CacheStats nameStats = byName.stats();
+
+        return ItemCacheStatsDTO.builder()
+                .size(byId.estimatedSize())
+                .idHits(idStats.hitCount())
+                .idMisses(idStats.missCount())
+                .idEvictions(idStats.evictionCount())
+                .nameHits(nameStats.hitCount())
+                .nameMisses(nameStats.missCount())
+                .nameEvictions(nameStats.evictionCount())
+                .build();
+    }
+
+    /**
+     * Publishes the statistics of the lookups as metrics
+     *
+     * @param registry the registry of the metrics
+     */
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+
+        CaffeineCacheMetrics.monitor(registry, byId, "item-catalog-by-id");
+        CaffeineCacheMetrics.monitor(registry, byName, "item-catalog-by-name");
+    }
+
+    // Complementary methods
+
+    /**
+     * Caches an item loaded by name
+     *
+     * @param item the item
+     */
+
+    private void put(Item item) {
+
+        byId.put(item.getIdItem(), item);
+        byName.put(item.getName(), item.getIdItem());
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.sarabarbara.compra.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EntityCacheConfig class
+ * <p>
+ * The second level cache of Hibernate, kept in Caffeine through JCache. Only the entities marked as cacheable are
+ * kept, each in its own bounded region, and their natural ids in another. Every region is created here; Hibernate
+ * fails at startup if an entity asks for a region that doesn't exist, instead of creating it unbounded.
+ * <p>
+ * Every application context gets a cache manager of its own, not the default one of the JVM, so a second context
+ * (a test context with other properties, a devtools restart) neither fails on the existing regions nor shares the
+ * cached entities of the first.
+ * <p>
+ * The items are not here: every purchase changes their stock with a bulk update, which empties the whole region of
+ * the items, so under purchase traffic it would be almost always empty. They are cached by the ItemCatalogCache.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Configuration
+public class EntityCacheConfig {
+
+    /**
+     * The region of the clients
+     */
+
+    public static final String CLIENT_REGION = "client";
+
+    /**
+     * The region of the clients by phone number
+     */
+
+    public static final String CLIENT_PHONE_NUMBER_REGION = "client-phone-number";
+
+    /**
+     * The cache managers created in the JVM, for the URI of the next one
+     */
+
+    private static final AtomicInteger cacheManagers = new AtomicInteger();
+
+    /**
+     * The cache manager of the second level cache
+     *
+     * @param clientSize       the maximum number of cached clients
+     * @param expireAfterWrite the time an entity stays cached after it is loaded or written
+     *
+     * @return the cache manager
+     */
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${compra.cache.entity.client.maximum-size:10000}") long clientSize,
+            @Value("${compra.cache.entity.expire-after-write:30m}") Duration expireAfterWrite) {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("compra-entities-" + cacheManagers.incrementAndGet()),
+                        EntityCacheConfig.class.getClassLoader());
+
+        cacheManager.createCache(CLIENT_REGION, region(clientSize, expireAfterWrite));
+        cacheManager.createCache(CLIENT_PHONE_NUMBER_REGION, region(clientSize, expireAfterWrite));
+
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager to Hibernate
+     *
+     * @param entityCacheManager the cache manager of the second level cache
+     *
+     * @return the customizer of the properties of Hibernate
+     */
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+
+        return properties -> {
+
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Complementary methods
+
+    /**
+     * The configuration of a region
+     *
+     * @param maximumSize      the maximum number of entries
+     * @param expireAfterWrite the time an entry stays after it is written
+     *
+     * @return the configuration
+     */
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration expireAfterWrite) {
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+
+        return configuration;
+    }
+
+}
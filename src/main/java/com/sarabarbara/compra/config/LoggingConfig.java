@@ -0,0 +1,36 @@
+package com.sarabarbara.compra.config;
+
+import com.sarabarbara.compra.enums.LogMode;
+import com.sarabarbara.compra.logging.LogSampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * LoggingConfig class
+ * <p>
+ * The mode the hot paths log in when the application starts; it can be changed later from the logging controller.
+ * The logs are written by an asynchronous appender (see logback-spring.xml), so the requests don't wait for the
+ * console.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * The constructor
+     *
+     * @param mode        the mode of the logs of the hot paths, full or sampled
+     * @param sampleEvery the calls between two logged ones, in the sampled mode
+     */
+
+    public LoggingConfig(@Value("${compra.logging.mode:full}") String mode,
+                         @Value("${compra.logging.sample-every:100}") int sampleEvery) {
+
+        LogSampler.configure(LogMode.of(mode), sampleEvery);
+    }
+
+}
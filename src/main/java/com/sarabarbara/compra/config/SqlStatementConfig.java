@@ -0,0 +1,60 @@
+package com.sarabarbara.compra.config;
+
+import com.sarabarbara.compra.sql.SqlBudgetInterceptor;
+import com.sarabarbara.compra.sql.SqlStatementInspector;
+import com.sarabarbara.compra.sql.SqlTimingListener;
+import lombok.AllArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * SqlStatementConfig class
+ * <p>
+ * The counting of the statements of every request: Hibernate hands each statement and its execution time to the
+ * counter of the request, and the interceptor checks them against the budget of the endpoint.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Configuration
+@AllArgsConstructor
+public class SqlStatementConfig implements WebMvcConfigurer {
+
+    private final SqlBudgetInterceptor sqlBudgetInterceptor;
+
+    /**
+     * Registers the interceptor of the budgets
+     *
+     * @param registry the registry of the interceptors
+     */
+
+    @Override
+    public void addInterceptors(@NotNull InterceptorRegistry registry) {
+
+        registry.addInterceptor(sqlBudgetInterceptor);
+    }
+
+    /**
+     * Hands the statements and their executions to the counters
+     *
+     * @return the customizer of the properties of Hibernate
+     */
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCustomizer() {
+
+        return properties -> {
+
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+        };
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.sarabarbara.compra.controller;
+
+import com.sarabarbara.compra.cache.EntityCacheStatistics;
+import com.sarabarbara.compra.dto.cache.EntityCacheRegionDTO;
+import com.sarabarbara.compra.metrics.EndpointErrors;
+import com.sarabarbara.compra.responses.cache.EntityCacheStatsResponse;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * CacheController class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/cache")
+public class CacheController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheController.class);
+
+    private final EntityCacheStatistics entityCacheStatistics;
+
+    /**
+     * The second level cache statistics controller
+     *
+     * @return the size, limit, hits, misses and puts of every region
+     */
+
+    @GetMapping("/entities")
+    public ResponseEntity<EntityCacheStatsResponse> entityCacheStats() {
+
+        try {
+
+            List<EntityCacheRegionDTO> regions = entityCacheStatistics.regions();
+
+            logger.info("Second level cache: {}", regions);
+            return ResponseEntity.status(HttpStatus.OK).body(new EntityCacheStatsResponse(true, regions,
+                    "Successfully"));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the second level cache statistics: Some internal error occurred. {}",
+                    e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new EntityCacheStatsResponse(false, null, e.getMessage()));
+        }
+    }
+
+}
@@ -4,23 +4,33 @@ import com.sarabarbara.compra.dto.clients.ClientCreateDTO;
 import com.sarabarbara.compra.dto.clients.ClientDTO;
 import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
 import com.sarabarbara.compra.dto.clients.ClientUpdateDTO;
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import com.sarabarbara.compra.enums.CountMode;
 import com.sarabarbara.compra.exceptions.client.ClientValidateException;
+import com.sarabarbara.compra.logging.LogSampler;
+import com.sarabarbara.compra.metrics.EndpointErrors;
 import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.pagination.CursorPage;
+import com.sarabarbara.compra.responses.ImportResponse;
 import com.sarabarbara.compra.responses.SearchResponse;
 import com.sarabarbara.compra.responses.clients.ClientSheetResponse;
 import com.sarabarbara.compra.responses.clients.CreateClientResponse;
 import com.sarabarbara.compra.responses.clients.UpdateClientResponse;
 import com.sarabarbara.compra.service.ClientService;
 import com.sarabarbara.compra.sheets.ClientSheet;
+import com.sarabarbara.compra.sql.SqlBudget;
 import lombok.AllArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 import static com.sarabarbara.compra.mapper.ClientMapper.*;
@@ -39,6 +49,10 @@ import static com.sarabarbara.compra.mapper.ClientMapper.*;
 public class ClientController {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientController.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+    private static final LogSampler sheetLog = new LogSampler();
 
     private final ClientService clientService;
 
@@ -71,6 +85,7 @@ public class ClientController {
                     "Client created successfully"));
         } catch (ClientValidateException cv) {
 
+            EndpointErrors.record(cv);
             logger.error("Can't create the client: A conflict had occurred {}", cv.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(new CreateClientResponse(false, null,
@@ -78,6 +93,7 @@ public class ClientController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't create the client: Some internal error occurred {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CreateClientResponse(false, null,
@@ -87,41 +103,97 @@ public class ClientController {
     }
 
     /**
-     * The client list controller
+     * The client import controller.
+     * Reads a CSV with a header from the body and saves its clients by chunks, a rejected row doesn't stop the
+     * others
      *
-     * @param page the page
-     * @param size the size of the page
+     * @param csv the CSV
+     *
+     * @return the report of the import
+     */
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportResponse> importClients(InputStream csv) {
+
+        try {
+
+            logger.info("Importing clients started");
+
+            ImportReportDTO report = clientService.importClients(csv);
+
+            logger.info("Importing clients finished: {} accepted, {} rejected", report.getAccepted(),
+                    report.getRejected());
+            return ResponseEntity.status(HttpStatus.OK).body(new ImportResponse(true, report,
+                    "Import processed successfully"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't import the clients: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ImportResponse(false, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't import the clients: Some internal error occurred {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ImportResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The client list controller.
+     * With the after param it works in keyset mode: an empty after asks for the first page and every response
+     * carries the nextCursor to send as after for the next one
+     *
+     * @param page  the page
+     * @param size  the size of the page
+     * @param after the cursor of the last page, only in keyset mode
      *
      * @return the list of all clients
      */
 
     @GetMapping
+    @SqlBudget(statements = 2, repeated = 1)
     public ResponseEntity<SearchResponse<ClientDTO>> clientList(@RequestParam(defaultValue = "1") int page,
-                                                                @RequestParam(defaultValue = "10") int size) {
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String after) {
 
         try {
             logger.info("List of clients started");
 
-            List<Client> clientList = clientService.clientList(page - 1, size);
-            int totalPages = (int) Math.ceil((double) clientList.size() / size);
+            if (after != null) {
+
+                return clientListAfter(after, size);
+            }
+
+            List<ClientDTO> clientDTO = clientService.clientList(page - 1, size);
+            int totalPages = (int) Math.ceil((double) clientDTO.size() / size);
 
-            if (clientList.isEmpty()) {
+            if (clientDTO.isEmpty()) {
 
                 logger.info("Client list finished without content");
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<ClientDTO> clientDTO = toClientDTOListMapper(clientList);
-
-            logger.info("List of clients:");
-            clientDTO.forEach(client -> logger.info("  - name: {}, surname: {}, company: {}",
-                    client.getName(), client.getSurname(), client.getCompany()));
+            listLog.each(logger, "List of clients", clientDTO, ClientDTO::getIdClient,
+                    client -> logger.info("  - name: {}, surname: {}, company: {}", client.getName(),
+                            client.getSurname(), client.getCompany()));
 
             return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
                     clientDTO, clientDTO.size(), page, totalPages, "Successful"));
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't get the client list: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't get the client list. Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -130,7 +202,37 @@ public class ClientController {
     }
 
     /**
-     * The search client controller
+     * The client list in keyset mode
+     *
+     * @param after the cursor of the last page
+     * @param size  the size of the page
+     *
+     * @return the page of clients with the cursor of the next one
+     */
+
+    private ResponseEntity<SearchResponse<ClientDTO>> clientListAfter(String after, int size) {
+
+        CursorPage<ClientDTO> clientPage = clientService.clientListAfter(after, size);
+        List<ClientDTO> clientDTO = clientPage.getContent();
+
+        if (clientDTO.isEmpty()) {
+
+            logger.info("Client list finished without content");
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        }
+
+        listAfterLog.each(logger, "List of clients", clientDTO, ClientDTO::getIdClient,
+                client -> logger.info("  - name: {}, surname: {}, company: {}", client.getName(), client.getSurname(),
+                        client.getCompany()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
+                clientDTO, clientDTO.size(), 0, 0, "Successful", clientPage.getNextCursor()));
+    }
+
+    /**
+     * The search client controller.
+     * The totals are exact with count true, cached for a while with count approx, and left out with count false,
+     * where hasNext tells if there is a next page
      *
      * @param name        the name of the client
      * @param surname     the surname of the client
@@ -141,11 +243,13 @@ public class ClientController {
      * @param phoneNumber the phone number of the client
      * @param page        the page
      * @param size        the size of the page
+     * @param count       how the clients are counted, true, false or approx
      *
      * @return the searched client
      */
 
     @GetMapping("/search")
+    @SqlBudget(statements = 3, repeated = 1)
     public ResponseEntity<SearchResponse<ClientSearchDTO>> searchClient(@RequestParam(required = false) String name,
                                                                         @RequestParam(required = false) String surname,
                                                                         @RequestParam(required = false) String company,
@@ -154,16 +258,19 @@ public class ClientController {
                                                                         @RequestParam(required = false) String province,
                                                                         @RequestParam(required = false) String phoneNumber,
                                                                         @RequestParam(defaultValue = "1") int page,
-                                                                        @RequestParam(defaultValue = "10") int size) {
+                                                                        @RequestParam(defaultValue = "10") int size,
+                                                                        @RequestParam(defaultValue = "true") String count) {
 
         try {
 
             logger.info("Searching client started");
 
-            List<Client> searchedClient = clientService.searchClient(name, surname, company, position, zipCode,
-                    province, phoneNumber, page, size);
+            CountMode countMode = CountMode.of(count);
+            Slice<ClientSearchDTO> clientSlice = clientService.searchClient(name, surname, company, position,
+                    zipCode, province, phoneNumber, page, size, countMode);
+            List<ClientSearchDTO> clientSearchDTO = clientSlice.getContent();
 
-            if (searchedClient.isEmpty()) {
+            if (clientSearchDTO.isEmpty()) {
 
                 logger.info("No clients found");
 
@@ -171,22 +278,26 @@ public class ClientController {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<ClientSearchDTO> clientSearchDTO = toClientSearchDTOMapper(searchedClient);
-
-            int totalPage = (int) Math.ceil((double) searchedClient.size() / size);
+            SearchResponse<ClientSearchDTO> response = new SearchResponse<>(clientSlice,
+                    countMode == CountMode.APPROXIMATE, "Successfully");
 
-            SearchResponse<ClientSearchDTO> response = new SearchResponse<>(
-                    clientSearchDTO, searchedClient.size(), page, totalPage, "Successfully");
-
-            logger.info("Clients found:");
-            clientSearchDTO.forEach(client -> logger.info("  - name: {}, surname: {}, company: {}",
-                    client.getName(), client.getSurname(), client.getCompany()));
+            searchLog.each(logger, "Clients found", clientSearchDTO, ClientSearchDTO::getCompany,
+                    client -> logger.info("  - name: {}, surname: {}, company: {}", client.getName(),
+                            client.getSurname(), client.getCompany()));
 
             logger.info("Searching client finished");
             return ResponseEntity.status(HttpStatus.OK).body(response);
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't search client: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't search client: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -195,15 +306,22 @@ public class ClientController {
     }
 
     /**
-     * The  client sheet controller
+     * The  client sheet controller.
+     * The sheet carries a page of the purchases of the client, the latest first, and its lifetime totals; the
+     * nextPurchasesCursor is sent as after for the older purchases
      *
      * @param idClient the id of the client
+     * @param after    the cursor of the last page of purchases
+     * @param size     the size of the page of purchases
      *
      * @return the sheet of the client
      */
 
     @GetMapping("/profile/{idClient}")
-    public ResponseEntity<ClientSheetResponse> clientSheet(@PathVariable Long idClient) {
+    @SqlBudget(statements = 3, repeated = 1)
+    public ResponseEntity<ClientSheetResponse> clientSheet(@PathVariable Long idClient,
+                                                           @RequestParam(required = false) String after,
+                                                           @RequestParam(defaultValue = "10") int size) {
 
         try {
 
@@ -211,14 +329,31 @@ public class ClientController {
 
             Client client = clientService.clientSheet(idClient);
 
-            ClientSheet clientSheet = toClientSheetMapper(client);
+            if (client == null) {
 
-            logger.info("Client sheet for id {}: {}", idClient, clientSheet);
+                logger.error("Can't load client's sheet: Client {} not found", idClient);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ClientSheetResponse(false, null, "Client not found"));
+            }
+
+            ClientSheet clientSheet = toClientSheetMapper(client,
+                    clientService.clientPurchases(idClient, after, size),
+                    clientService.clientPurchaseSummary(idClient));
+
+            sheetLog.info(logger, "Client sheet for id {}: {}", idClient, clientSheet);
             return ResponseEntity.status(HttpStatus.OK).body(new ClientSheetResponse(true, clientSheet,
                     "Successfully"));
 
+        } catch (IllegalArgumentException e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load client's sheet: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ClientSheetResponse(false, null, e.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't load client's sheet: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ClientSheetResponse(false, null, e.getMessage()));
@@ -256,6 +391,7 @@ public class ClientController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't update client: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new UpdateClientResponse(false, null, e.getMessage()));
@@ -284,6 +420,7 @@ public class ClientController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't delete client: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(e.getMessage());
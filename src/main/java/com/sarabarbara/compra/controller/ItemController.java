@@ -1,27 +1,39 @@
 package com.sarabarbara.compra.controller;
 
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import com.sarabarbara.compra.dto.items.ItemCacheStatsDTO;
 import com.sarabarbara.compra.dto.items.ItemCreateDTO;
 import com.sarabarbara.compra.dto.items.ItemDTO;
 import com.sarabarbara.compra.dto.items.ItemSearchDTO;
 import com.sarabarbara.compra.dto.items.ItemUpdateDTO;
+import com.sarabarbara.compra.enums.CountMode;
 import com.sarabarbara.compra.enums.Type;
 import com.sarabarbara.compra.exceptions.item.ItemValidateException;
+import com.sarabarbara.compra.logging.LogSampler;
+import com.sarabarbara.compra.metrics.EndpointErrors;
 import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.pagination.CursorPage;
+import com.sarabarbara.compra.responses.ImportResponse;
 import com.sarabarbara.compra.responses.SearchResponse;
 import com.sarabarbara.compra.responses.item.CreateItemResponse;
+import com.sarabarbara.compra.responses.item.ItemCacheStatsResponse;
 import com.sarabarbara.compra.responses.item.ItemSheetResponse;
 import com.sarabarbara.compra.responses.item.UpdateItemResponse;
 import com.sarabarbara.compra.service.ItemService;
 import com.sarabarbara.compra.sheets.ItemSheet;
+import com.sarabarbara.compra.sql.SqlBudget;
 import lombok.AllArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -41,6 +53,10 @@ import static com.sarabarbara.compra.mapper.ItemMapper.*;
 public class ItemController {
 
     private static final Logger logger = LoggerFactory.getLogger(ItemController.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+    private static final LogSampler sheetLog = new LogSampler();
 
     private final ItemService itemService;
 
@@ -72,12 +88,14 @@ public class ItemController {
                     "Item created successfully"));
         } catch (ItemValidateException iv) {
 
+            EndpointErrors.record(iv);
             logger.error("Can't create the item: A conflict had occurred {}", iv.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT)
                     .body(new CreateItemResponse(false, null, iv.getMessage()));
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't create the item: Some internal error occurred {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CreateItemResponse(false, null, e.getMessage()));
@@ -86,41 +104,97 @@ public class ItemController {
     }
 
     /**
-     * The item list controller
+     * The item import controller.
+     * Reads a CSV with a header from the body and saves its items by chunks, a rejected row doesn't stop the
+     * others
      *
-     * @param page the page
-     * @param size the size of the page
+     * @param csv the CSV
+     *
+     * @return the report of the import
+     */
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportResponse> importItems(InputStream csv) {
+
+        try {
+
+            logger.info("Importing items started");
+
+            ImportReportDTO report = itemService.importItems(csv);
+
+            logger.info("Importing items finished: {} accepted, {} rejected", report.getAccepted(),
+                    report.getRejected());
+            return ResponseEntity.status(HttpStatus.OK).body(new ImportResponse(true, report,
+                    "Import processed successfully"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't import the items: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ImportResponse(false, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't import the items: Some internal error occurred {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ImportResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The item list controller.
+     * With the after param it works in keyset mode: an empty after asks for the first page and every response
+     * carries the nextCursor to send as after for the next one
+     *
+     * @param page  the page
+     * @param size  the size of the page
+     * @param after the cursor of the last page, only in keyset mode
      *
      * @return the list of all items
      */
 
     @GetMapping
+    @SqlBudget(statements = 2, repeated = 1)
     public ResponseEntity<SearchResponse<ItemDTO>> itemList(@RequestParam(defaultValue = "1") int page,
-                                                            @RequestParam(defaultValue = "10") int size) {
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(required = false) String after) {
 
         try {
             logger.info("List of items started");
 
-            List<Item> itemList = itemService.itemList(page - 1, size);
-            int totalPages = (int) Math.ceil((double) itemList.size() / size);
+            if (after != null) {
+
+                return itemListAfter(after, size);
+            }
+
+            List<ItemDTO> itemDTO = itemService.itemList(page - 1, size);
+            int totalPages = (int) Math.ceil((double) itemDTO.size() / size);
 
-            if (itemList.isEmpty()) {
+            if (itemDTO.isEmpty()) {
 
                 logger.info("Items list finished without content");
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<ItemDTO> itemDTO = toItemDTOListMapper(itemList);
-
-            logger.info("List of items:");
-            itemDTO.forEach(item -> logger.info("  - name: {}, type: {}, stock: {}",
-                    item.getName(), item.getType(), item.getItemStock()));
+            listLog.each(logger, "List of items", itemDTO, ItemDTO::getIdItem,
+                    item -> logger.info("  - name: {}, type: {}, stock: {}", item.getName(), item.getType(),
+                            item.getItemStock()));
 
             return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
                     itemDTO, itemDTO.size(), page, totalPages, "Successful"));
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't get the item list: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't get the item list. Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -129,30 +203,66 @@ public class ItemController {
     }
 
     /**
-     * The search item controller
+     * The item list in keyset mode
+     *
+     * @param after the cursor of the last page
+     * @param size  the size of the page
+     *
+     * @return the page of items with the cursor of the next one
+     */
+
+    private ResponseEntity<SearchResponse<ItemDTO>> itemListAfter(String after, int size) {
+
+        CursorPage<ItemDTO> itemPage = itemService.itemListAfter(after, size);
+        List<ItemDTO> itemDTO = itemPage.getContent();
+
+        if (itemDTO.isEmpty()) {
+
+            logger.info("Items list finished without content");
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        }
+
+        listAfterLog.each(logger, "List of items", itemDTO, ItemDTO::getIdItem,
+                item -> logger.info("  - name: {}, type: {}, stock: {}", item.getName(), item.getType(),
+                        item.getItemStock()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
+                itemDTO, itemDTO.size(), 0, 0, "Successful", itemPage.getNextCursor()));
+    }
+
+    /**
+     * The search item controller.
+     * The totals are exact with count true, cached for a while with count approx, and left out with count false,
+     * where hasNext tells if there is a next page
      *
-     * @param page the page
-     * @param size the size of the page
+     * @param page  the page
+     * @param size  the size of the page
+     * @param count how the items are counted, true, false or approx
      *
      * @return the searched item
      */
 
     @PostMapping("/search")
+    @SqlBudget(statements = 3, repeated = 1)
     public ResponseEntity<SearchResponse<ItemSearchDTO>> searchItem(@RequestParam(required = false) String name,
                                                                     @RequestParam(required = false) Integer itemStock,
                                                                     @RequestParam(required = false) Type type,
                                                                     @RequestParam(required = false) String supplier,
                                                                     @RequestParam(required = false) LocalDate date,
                                                                     @RequestParam(defaultValue = "1") int page,
-                                                                    @RequestParam(defaultValue = "10") int size) {
+                                                                    @RequestParam(defaultValue = "10") int size,
+                                                                    @RequestParam(defaultValue = "true") String count) {
 
         try {
 
             logger.info("Searching item started");
 
-            List<Item> searchedItem = itemService.searchItem(name, itemStock, type, supplier, date, page, size);
+            CountMode countMode = CountMode.of(count);
+            Slice<ItemSearchDTO> itemSlice = itemService.searchItem(name, itemStock, type, supplier, date, page,
+                    size, countMode);
+            List<ItemSearchDTO> itemSearchDTO = itemSlice.getContent();
 
-            if (searchedItem.isEmpty()) {
+            if (itemSearchDTO.isEmpty()) {
 
                 logger.info("No item found");
 
@@ -160,22 +270,26 @@ public class ItemController {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<ItemSearchDTO> itemSearchDTO = toItemSearchDTOMapper(searchedItem);
-
-            int totalPage = (int) Math.ceil((double) searchedItem.size() / size);
+            SearchResponse<ItemSearchDTO> response = new SearchResponse<>(itemSlice,
+                    countMode == CountMode.APPROXIMATE, "Successfully");
 
-            SearchResponse<ItemSearchDTO> response = new SearchResponse<>(
-                    itemSearchDTO, searchedItem.size(), page, totalPage, "Successfully");
-
-            logger.info("List of items:");
-            itemSearchDTO.forEach(itemSearched -> logger.info("  - name: {}, type: {}, stock: {}",
-                    itemSearched.getName(), itemSearched.getType(), itemSearched.getItemStock()));
+            searchLog.each(logger, "List of items", itemSearchDTO, ItemSearchDTO::getName,
+                    itemSearched -> logger.info("  - name: {}, type: {}, stock: {}", itemSearched.getName(),
+                            itemSearched.getType(), itemSearched.getItemStock()));
 
             logger.info("Searching item finished");
             return ResponseEntity.status(HttpStatus.OK).body(response);
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't search item: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't search item: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -192,6 +306,7 @@ public class ItemController {
      */
 
     @GetMapping("/{idItem}")
+    @SqlBudget(statements = 1, repeated = 1)
     public ResponseEntity<ItemSheetResponse> itemSheet(@PathVariable Long idItem) {
 
         try {
@@ -202,12 +317,13 @@ public class ItemController {
 
             ItemSheet itemSheet = toItemSheetDTOMapper(item);
 
-            logger.info("Item sheet for id {}: {}", idItem, itemSheet);
+            sheetLog.info(logger, "Item sheet for id {}: {}", idItem, itemSheet);
             return ResponseEntity.status(HttpStatus.OK).body(new ItemSheetResponse(true, itemSheet,
                     "Successfully"));
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't load item's sheet: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ItemSheetResponse(false, null, e.getMessage()));
@@ -216,6 +332,32 @@ public class ItemController {
 
     }
 
+    /**
+     * The item catalog cache statistics controller
+     *
+     * @return the hits, misses and evictions of the cache
+     */
+
+    @GetMapping("/cache")
+    public ResponseEntity<ItemCacheStatsResponse> catalogCacheStats() {
+
+        try {
+
+            ItemCacheStatsDTO cacheStats = itemService.catalogCacheStats();
+
+            logger.info("Item catalog cache: {}", cacheStats);
+            return ResponseEntity.status(HttpStatus.OK).body(new ItemCacheStatsResponse(true, cacheStats,
+                    "Successfully"));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the item cache statistics: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ItemCacheStatsResponse(false, null, e.getMessage()));
+        }
+    }
+
     /**
      * The update item controller
      *
@@ -245,6 +387,7 @@ public class ItemController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't update item: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new UpdateItemResponse(false, null, e.getMessage()));
@@ -273,6 +416,7 @@ public class ItemController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't delete item: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(e.getMessage());
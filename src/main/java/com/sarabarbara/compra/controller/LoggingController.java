@@ -0,0 +1,98 @@
+package com.sarabarbara.compra.controller;
+
+import com.sarabarbara.compra.dto.logging.LoggingModeDTO;
+import com.sarabarbara.compra.enums.LogMode;
+import com.sarabarbara.compra.logging.LogSampler;
+import com.sarabarbara.compra.metrics.EndpointErrors;
+import com.sarabarbara.compra.responses.logging.LoggingModeResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * LoggingController class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@RestController
+@RequestMapping("/logging")
+public class LoggingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingController.class);
+
+    /**
+     * The logging mode controller
+     *
+     * @return the mode of the logs of the hot paths
+     */
+
+    @GetMapping("/mode")
+    public ResponseEntity<LoggingModeResponse> loggingMode() {
+
+        return ResponseEntity.status(HttpStatus.OK).body(new LoggingModeResponse(true, loggingModeDTO(),
+                "Successfully"));
+    }
+
+    /**
+     * The logging mode change controller
+     *
+     * @param mode        the mode, full or sampled
+     * @param sampleEvery the calls between two logged ones in the sampled mode, the current ones if not given
+     *
+     * @return the new mode of the logs of the hot paths
+     */
+
+    @PutMapping("/mode")
+    public ResponseEntity<LoggingModeResponse> changeLoggingMode(@RequestParam String mode,
+                                                                 @RequestParam(required = false)
+                                                                 Integer sampleEvery) {
+
+        try {
+
+            LogSampler.configure(LogMode.of(mode), sampleEvery != null ? sampleEvery : LogSampler.sampleEvery());
+
+            LoggingModeDTO loggingModeDTO = loggingModeDTO();
+
+            logger.info("Logging mode changed: {}", loggingModeDTO);
+            return ResponseEntity.status(HttpStatus.OK).body(new LoggingModeResponse(true, loggingModeDTO,
+                    "Successfully"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't change the logging mode: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new LoggingModeResponse(false, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't change the logging mode: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new LoggingModeResponse(false, null, e.getMessage()));
+        }
+    }
+
+    // Complementary methods
+
+    /**
+     * The current mode
+     *
+     * @return the mode and the calls between two logged ones
+     */
+
+    private static LoggingModeDTO loggingModeDTO() {
+
+        return new LoggingModeDTO(LogSampler.mode(), LogSampler.sampleEvery());
+    }
+
+}
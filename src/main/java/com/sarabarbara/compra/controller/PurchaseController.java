@@ -3,24 +3,48 @@ package com.sarabarbara.compra.controller;
 import com.sarabarbara.compra.dto.clients.ClientDTO;
 import com.sarabarbara.compra.dto.items.ItemDTO;
 import com.sarabarbara.compra.dto.purchases.*;
+import com.sarabarbara.compra.enums.CountMode;
+import com.sarabarbara.compra.enums.ExportFormat;
+import com.sarabarbara.compra.enums.StatsGroup;
+import com.sarabarbara.compra.exceptions.client.ClientNotFoundException;
+import com.sarabarbara.compra.exceptions.item.ItemNotFoundException;
+import com.sarabarbara.compra.exceptions.item.ItemOutOfStockException;
+import com.sarabarbara.compra.exceptions.purchase.IngestionQueueFullException;
+import com.sarabarbara.compra.idempotency.PurchaseIdempotencyStore;
+import com.sarabarbara.compra.logging.LogSampler;
+import com.sarabarbara.compra.metrics.EndpointErrors;
 import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.pagination.CursorPage;
 import com.sarabarbara.compra.responses.SearchResponse;
+import com.sarabarbara.compra.responses.purchases.BatchPurchaseResponse;
 import com.sarabarbara.compra.responses.purchases.CreatePurchaseResponse;
+import com.sarabarbara.compra.responses.purchases.PurchasePartitionsResponse;
+import com.sarabarbara.compra.responses.purchases.PurchaseSegmentsResponse;
 import com.sarabarbara.compra.responses.purchases.PurchaseSheetResponse;
+import com.sarabarbara.compra.responses.purchases.PurchaseTicketResponse;
+import com.sarabarbara.compra.responses.purchases.SalesStatsResponse;
 import com.sarabarbara.compra.responses.purchases.UpdatePurchaseResponse;
 import com.sarabarbara.compra.service.PurchaseService;
+import com.sarabarbara.compra.sql.SqlBudget;
 import lombok.AllArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import static com.sarabarbara.compra.mapper.ClientMapper.toClientDTOMapper;
@@ -41,26 +65,66 @@ import static com.sarabarbara.compra.mapper.PurchaseMapper.*;
 public class PurchaseController {
 
     private static final Logger logger = LoggerFactory.getLogger(PurchaseController.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+    private static final LogSampler sheetLog = new LogSampler();
+
+    /**
+     * The header that makes the creation of a purchase idempotent
+     */
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * The header of the responses answered from a former request with the same Idempotency-Key
+     */
+
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
     private final PurchaseService purchaseService;
 
+    private final PurchaseIdempotencyStore purchaseIdempotencyStore;
+
     /**
-     * The creation purchase controller
+     * The creation purchase controller.
+     * With an Idempotency-Key, a retry of a created purchase gets the same response, from memory, and the purchase
+     * is not created again; the same key with another purchase is refused
      *
-     * @param purchase the purchase to create
+     * @param idempotencyKey the Idempotency-Key, optional
+     * @param purchase       the purchase to create
      *
      * @return the created purchase
      */
 
     @PostMapping("/create")
-    public ResponseEntity<CreatePurchaseResponse> createPurchase(@NotNull @Validated @RequestBody PurchaseCreateDTO purchase) {
+    public ResponseEntity<CreatePurchaseResponse> createPurchase(@RequestHeader(value = IDEMPOTENCY_KEY,
+                                                                         required = false) String idempotencyKey,
+                                                                 @NotNull @Validated @RequestBody
+                                                                 PurchaseCreateDTO purchase) {
+
+        if (idempotencyKey != null) {
+
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > PurchaseIdempotencyStore.MAX_KEY_LENGTH) {
+
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new CreatePurchaseResponse(false, null,
+                        "The " + IDEMPOTENCY_KEY + " must have between 1 and "
+                                + PurchaseIdempotencyStore.MAX_KEY_LENGTH + " characters"));
+            }
+
+            CreatePurchaseResponse stored = purchaseIdempotencyStore.find(idempotencyKey);
+
+            if (stored != null) {
+                return replay(idempotencyKey, stored, purchase);
+            }
+        }
 
         try {
 
             logger.info("Creating purchase started");
 
             Purchase createdPurchase = purchaseService.createPurchase(purchase.getIdClient(), purchase.getIdItem(),
-                    purchase.getQuantity());
+                    purchase.getQuantity(), idempotencyKey);
 
             ClientDTO clientDTO = toClientDTOMapper(createdPurchase.getClient());
             ItemDTO itemDTO = toItemDTOMapper(createdPurchase.getItem());
@@ -71,12 +135,47 @@ public class PurchaseController {
 
             logger.info("Creating purchase finished");
 
+            CreatePurchaseResponse response = new CreatePurchaseResponse(true, createPurchaseDTO,
+                    "Purchase created successfully");
+
+            if (idempotencyKey != null) {
+                purchaseIdempotencyStore.put(idempotencyKey, response);
+            }
+
             logger.info("Purchase created successfully: {}", createPurchaseDTO);
-            return ResponseEntity.status(HttpStatus.CREATED).body(new CreatePurchaseResponse(true,
-                    createPurchaseDTO, "Purchase created successfully"));
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (DataIntegrityViolationException dv) {
+
+            // another request with the same key committed first, this one was rolled back
+            Purchase existing = idempotencyKey == null ? null
+                    : purchaseService.purchaseByIdempotencyKey(idempotencyKey);
+
+            if (existing == null) {
+
+                logger.error("Can't create the purchase: Some internal error occurred {}", dv.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(new CreatePurchaseResponse(false, null, dv.getMessage()));
+            }
+
+            CreatePurchaseResponse response = new CreatePurchaseResponse(true,
+                    toPurchaseCreateDTOMapper(existing.getClient().getIdClient(), existing.getItem().getIdItem(),
+                            existing.getQuantity()), "Purchase created successfully");
+
+            purchaseIdempotencyStore.put(idempotencyKey, response);
+            return replay(idempotencyKey, response, purchase);
+
+        } catch (ItemOutOfStockException os) {
+
+            EndpointErrors.record(os);
+            logger.error("Can't create the purchase: A conflict had occurred {}", os.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CreatePurchaseResponse(false, null,
+                            os.getMessage()));
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't create the purchase: Some internal error occurred {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CreatePurchaseResponse(false, null,
@@ -86,41 +185,207 @@ public class PurchaseController {
     }
 
     /**
-     * The purchase list controller
+     * Answers a request with the response of a former one with the same Idempotency-Key
+     *
+     * @param idempotencyKey the Idempotency-Key
+     * @param stored         the response of the former request
+     * @param purchase       the purchase of this request
+     *
+     * @return the former response, or a conflict if the purchase is not the same
+     */
+
+    private ResponseEntity<CreatePurchaseResponse> replay(String idempotencyKey, CreatePurchaseResponse stored,
+                                                          PurchaseCreateDTO purchase) {
+
+        if (!purchase.equals(stored.getPurchaseCreate())) {
+
+            logger.error("The {} {} was used with another purchase", IDEMPOTENCY_KEY, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(new CreatePurchaseResponse(false,
+                    null, "The " + IDEMPOTENCY_KEY + " was already used with another purchase"));
+        }
+
+        logger.info("Purchase already created with the {} {}", IDEMPOTENCY_KEY, idempotencyKey);
+        return ResponseEntity.status(HttpStatus.CREATED).header(IDEMPOTENT_REPLAYED, "true").body(stored);
+    }
+
+    /**
+     * The batch purchase controller.
+     * Creates all the purchases in one transaction and answers the result of every line, a rejected line doesn't stop
+     * the others
+     *
+     * @param purchases the purchases to create
+     *
+     * @return the result of every line
+     */
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchPurchaseResponse> createPurchaseBatch(@NotNull @RequestBody
+                                                                     List<PurchaseCreateDTO> purchases) {
+
+        try {
+
+            logger.info("Creating batch of purchases started");
+
+            List<PurchaseBatchLineDTO> results = purchaseService.createPurchaseBatch(purchases);
+
+            int created = (int) results.stream().filter(PurchaseBatchLineDTO::isSuccess).count();
+
+            logger.info("Creating batch of purchases finished: {} created, {} rejected", created,
+                    results.size() - created);
+            return ResponseEntity.status(HttpStatus.OK).body(new BatchPurchaseResponse(true, created,
+                    results.size() - created, results, "Batch processed successfully"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't create the batch of purchases: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new BatchPurchaseResponse(false, 0, 0, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't create the batch of purchases: Some internal error occurred {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new BatchPurchaseResponse(false, 0, 0, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The asynchronous purchase controller.
+     * Checks and prices the purchase and queues it, answering with a ticket before it is saved; the ticket
+     * controller tells when it is committed or why it was rejected. Only with the write-behind mode enabled
+     *
+     * @param purchase the purchase to create
+     *
+     * @return the ticket of the purchase
+     */
+
+    @PostMapping("/submit")
+    public ResponseEntity<PurchaseTicketResponse> submitPurchase(@NotNull @Validated @RequestBody
+                                                                 PurchaseCreateDTO purchase) {
+
+        try {
+
+            logger.info("Submitting purchase started");
+
+            PurchaseTicketDTO ticket = purchaseService.submitPurchase(purchase.getIdClient(), purchase.getIdItem(),
+                    purchase.getQuantity());
+
+            logger.info("Purchase submitted successfully: {}", ticket);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new PurchaseTicketResponse(true, ticket,
+                    "Purchase queued successfully"));
+
+        } catch (ClientNotFoundException | ItemNotFoundException nf) {
+
+            EndpointErrors.record(nf);
+            logger.error("Can't submit the purchase: {}", nf.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new PurchaseTicketResponse(false, null, nf.getMessage()));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't submit the purchase: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new PurchaseTicketResponse(false, null, ia.getMessage()));
+
+        } catch (IngestionQueueFullException qf) {
+
+            EndpointErrors.record(qf);
+            logger.error("Can't submit the purchase: {}", qf.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new PurchaseTicketResponse(false, null, qf.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't submit the purchase: Some internal error occurred {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchaseTicketResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The ticket controller
+     *
+     * @param ticketId the id of the ticket
+     *
+     * @return the status of the submitted purchase
+     */
+
+    @GetMapping("/ticket/{ticketId}")
+    public ResponseEntity<PurchaseTicketResponse> purchaseTicket(@PathVariable String ticketId) {
+
+        PurchaseTicketDTO ticket = purchaseService.purchaseTicket(ticketId);
+
+        if (ticket == null) {
+
+            logger.error("The ticket {} is unknown or expired", ticketId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new PurchaseTicketResponse(false, null, "Ticket not found"));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(new PurchaseTicketResponse(true, ticket,
+                ticket.getStatus().getDescription()));
+    }
+
+    /**
+     * The purchase list controller.
+     * With the after param it works in keyset mode: an empty after asks for the first page and every response
+     * carries the nextCursor to send as after for the next one. In keyset mode sort=purchaseDate walks the purchases
+     * by date instead of by id
      *
-     * @param page the page
-     * @param size the size of the page
+     * @param page  the page
+     * @param size  the size of the page
+     * @param after the cursor of the last page, only in keyset mode
+     * @param sort  the sort column of the keyset mode, idPurchase or purchaseDate
      *
      * @return the list of all purchases
      */
 
     @GetMapping
+    @SqlBudget(statements = 2, repeated = 1)
     public ResponseEntity<SearchResponse<PurchaseDTO>> purchaseList(@RequestParam(defaultValue = "1") int page,
-                                                                    @RequestParam(defaultValue = "10") int size) {
+                                                                    @RequestParam(defaultValue = "10") int size,
+                                                                    @RequestParam(required = false) String after,
+                                                                    @RequestParam(defaultValue = "idPurchase")
+                                                                    String sort) {
 
         try {
             logger.info("List of clients started");
 
-            List<Purchase> purchaseList = purchaseService.purchaseList(page - 1, size);
-            int totalPages = (int) Math.ceil((double) purchaseList.size() / size);
+            if (after != null) {
+
+                return purchaseListAfter(after, size, sort);
+            }
+
+            List<PurchaseDTO> purchaseDTO = purchaseService.purchaseList(page - 1, size);
+            int totalPages = (int) Math.ceil((double) purchaseDTO.size() / size);
 
-            if (purchaseList.isEmpty()) {
+            if (purchaseDTO.isEmpty()) {
 
                 logger.info("Client list finished without content");
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<PurchaseDTO> purchaseDTO = toPurchaseDTOListMapper(purchaseList);
-
-            logger.info("List of purchases:");
-            purchaseDTO.forEach(purchase -> logger.info("  - client's name: {}, item's name: {}",
-                    purchase.getClient().getName(), purchase.getItem().getName()));
+            listLog.each(logger, "List of purchases", purchaseDTO, PurchaseDTO::getIdPurchase,
+                    purchase -> logger.info("  - client's name: {}, item's name: {}", purchase.getClient().getName(),
+                            purchase.getItem().getName()));
 
             return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
                     purchaseDTO, purchaseDTO.size(), page, totalPages, "Successful"));
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't get the purchase list: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't get the purchase list. Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -129,37 +394,430 @@ public class PurchaseController {
     }
 
     /**
-     * The search client controller
+     * The purchase list in keyset mode
+     *
+     * @param after the cursor of the last page
+     * @param size  the size of the page
+     * @param sort  the sort column, idPurchase or purchaseDate
+     *
+     * @return the page of purchases with the cursor of the next one
+     */
+
+    private ResponseEntity<SearchResponse<PurchaseDTO>> purchaseListAfter(String after, int size, String sort) {
+
+        boolean sortByDate = switch (sort) {
+            case "idPurchase" -> false;
+            case "purchaseDate" -> true;
+            default -> throw new IllegalArgumentException("Can't sort purchases by " + sort);
+        };
+
+        CursorPage<PurchaseDTO> purchasePage = purchaseService.purchaseListAfter(after, size, sortByDate);
+        List<PurchaseDTO> purchaseDTO = purchasePage.getContent();
+
+        if (purchaseDTO.isEmpty()) {
+
+            logger.info("Purchase list finished without content");
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        }
+
+        listAfterLog.each(logger, "List of purchases", purchaseDTO, PurchaseDTO::getIdPurchase,
+                purchase -> logger.info("  - client's name: {}, item's name: {}", purchase.getClient().getName(),
+                        purchase.getItem().getName()));
+
+        return ResponseEntity.status(HttpStatus.OK).body(new SearchResponse<>(
+                purchaseDTO, purchaseDTO.size(), 0, 0, "Successful", purchasePage.getNextCursor()));
+    }
+
+    /**
+     * The purchase export controller.
+     * Streams the purchases between two dates in the body as they are read, one JSON object per line (ndjson) or
+     * one CSV row per purchase (csv). Once the export has started its status can't change: a failure cuts the body
+     *
+     * @param from   the first date, included
+     * @param to     the last date, included
+     * @param format the format, ndjson or csv
+     *
+     * @return the purchases between the dates
+     */
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPurchases(
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat;
+
+        try {
+
+            exportFormat = ExportFormat.of(format);
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't export the purchases: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        if (from.isAfter(to)) {
+
+            logger.error("Can't export the purchases: {} is after {}", from, to);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        logger.info("Export of purchases from {} to {} started", from, to);
+
+        StreamingResponseBody body = out -> {
+
+            try {
+
+                purchaseService.exportPurchases(from, to, exportFormat, out);
+                logger.info("Export of purchases from {} to {} finished", from, to);
+
+            } catch (Exception e) {
+
+                logger.error("Can't export the purchases: Some error occurred while streaming {}", e.getMessage());
+                throw e;
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"purchases_" + from + "_" + to + "."
+                        + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * The sales stats controller.
+     * Adds up the sales between two dates by item, by type of item or by day, reading only the daily rollup
+     *
+     * @param from    the first date, included
+     * @param to      the last date, included
+     * @param groupBy the group, item, type or day
+     *
+     * @return the sales of every group with sales
+     */
+
+    @GetMapping("/stats")
+    public ResponseEntity<SalesStatsResponse> salesStats(
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy) {
+
+        try {
+
+            logger.info("Sales stats started");
+
+            List<SalesStatsDTO> stats = purchaseService.salesStats(from, to, StatsGroup.of(groupBy));
+
+            logger.info("Sales stats from {} to {} by {}: {} groups", from, to, groupBy, stats.size());
+            return ResponseEntity.status(HttpStatus.OK).body(new SalesStatsResponse(true, stats, "Successful"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't load the sales stats: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SalesStatsResponse(false, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the sales stats: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new SalesStatsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The sales stats rebuild controller.
+     * Builds the daily rollup between two dates again from the purchases, e.g. to fill it for the old purchases, and
+     * answers the rebuilt days
+     *
+     * @param from the first date, included
+     * @param to   the last date, included
+     *
+     * @return the sales of every rebuilt day with sales
+     */
+
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<SalesStatsResponse> rebuildSalesStats(
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate to) {
+
+        try {
+
+            logger.info("Sales stats rebuild started");
+
+            long rows = purchaseService.rebuildSalesStats(from, to);
+            List<SalesStatsDTO> stats = purchaseService.salesStats(from, to, StatsGroup.DAY);
+
+            logger.info("Sales stats rebuilt from {} to {}: {} rows", from, to, rows);
+            return ResponseEntity.status(HttpStatus.OK).body(new SalesStatsResponse(true, stats,
+                    "Rebuilt " + rows + " rows"));
+
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't rebuild the sales stats: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SalesStatsResponse(false, null, ia.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't rebuild the sales stats: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new SalesStatsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The purchase partitions controller
+     *
+     * @return the monthly partitions of the purchases and their sizes
+     */
+
+    @GetMapping("/partitions")
+    public ResponseEntity<PurchasePartitionsResponse> purchasePartitions() {
+
+        try {
+
+            List<PurchasePartitionDTO> partitions = purchaseService.purchasePartitions();
+
+            logger.info("Purchase partitions: {}", partitions);
+            return ResponseEntity.status(HttpStatus.OK).body(new PurchasePartitionsResponse(true, partitions,
+                    "Successful"));
+
+        } catch (IllegalStateException is) {
+
+            EndpointErrors.record(is);
+            logger.error("Can't load the purchase partitions: {}", is.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new PurchasePartitionsResponse(false, null, is.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the purchase partitions: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchasePartitionsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The create purchase partitions controller.
+     * Creates now the partitions of the coming months that the daily run would create
+     *
+     * @return the monthly partitions of the purchases and their sizes
+     */
+
+    @PostMapping("/partitions")
+    public ResponseEntity<PurchasePartitionsResponse> createPurchasePartitions() {
+
+        try {
+
+            List<String> created = purchaseService.createPurchasePartitions();
+
+            logger.info("Purchase partitions created: {}", created);
+            return ResponseEntity.status(HttpStatus.OK).body(new PurchasePartitionsResponse(true,
+                    purchaseService.purchasePartitions(), "Created " + created.size() + " partitions"));
+
+        } catch (IllegalStateException is) {
+
+            EndpointErrors.record(is);
+            logger.error("Can't create the purchase partitions: {}", is.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new PurchasePartitionsResponse(false, null, is.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't create the purchase partitions: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchasePartitionsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The drop purchase partition controller.
+     * Deletes all the purchases of a past month at once, dropping its partition
+     *
+     * @param month the month, as yyyy-MM
+     *
+     * @return the monthly partitions of the purchases left and their sizes
+     */
+
+    @DeleteMapping("/partitions/{month}")
+    public ResponseEntity<PurchasePartitionsResponse> dropPurchasePartition(@PathVariable String month) {
+
+        try {
+
+            YearMonth yearMonth = YearMonth.parse(month);
+            purchaseService.dropPurchasePartition(yearMonth);
+
+            logger.info("Purchases of {} dropped", yearMonth);
+            return ResponseEntity.status(HttpStatus.OK).body(new PurchasePartitionsResponse(true,
+                    purchaseService.purchasePartitions(), "Dropped the purchases of " + yearMonth));
+
+        } catch (DateTimeParseException | IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't drop the purchase partition: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new PurchasePartitionsResponse(false, null, ia.getMessage()));
+
+        } catch (IllegalStateException is) {
+
+            EndpointErrors.record(is);
+            logger.error("Can't drop the purchase partition: {}", is.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new PurchasePartitionsResponse(false, null, is.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't drop the purchase partition: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchasePartitionsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The purchase archive controller
+     *
+     * @return the monthly segments of the archived purchases
+     */
+
+    @GetMapping("/archive")
+    public ResponseEntity<PurchaseSegmentsResponse> purchaseSegments() {
+
+        try {
+
+            List<PurchaseSegmentDTO> segments = purchaseService.purchaseSegments();
+
+            logger.info("Purchase archive: {}", segments);
+            return ResponseEntity.status(HttpStatus.OK).body(new PurchaseSegmentsResponse(true, segments,
+                    "Successful"));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the purchase archive: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchaseSegmentsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The archive purchases controller.
+     * Archives now the old purchases that the daily run would archive
+     *
+     * @return the monthly segments of the archived purchases
+     */
+
+    @PostMapping("/archive")
+    public ResponseEntity<PurchaseSegmentsResponse> archivePurchases() {
+
+        try {
+
+            List<PurchaseSegmentDTO> written = purchaseService.archivePurchases();
+
+            logger.info("Purchase segments written: {}", written);
+            return ResponseEntity.status(HttpStatus.OK).body(new PurchaseSegmentsResponse(true,
+                    purchaseService.purchaseSegments(), "Written " + written.size() + " segments"));
+
+        } catch (IllegalStateException is) {
+
+            EndpointErrors.record(is);
+            logger.error("Can't archive the purchases: {}", is.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new PurchaseSegmentsResponse(false, null, is.getMessage()));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't archive the purchases: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new PurchaseSegmentsResponse(false, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * The search client controller.
+     * The ranges include both ends and may be open on either side; the purchases come sorted by sort, the latest
+     * first by default. The totals are exact with count true, cached for a while with count approx, and left out
+     * with count false, where hasNext tells if there is a next page
      *
      * @param idClient     the id of the client
      * @param idItem       the id of the item
      * @param purchaseDate the date of the purchase
      * @param quantity     the quantity of the purchase
      * @param totalPrice   the total price of the purchase
+     * @param fromDate     the first date of the purchase
+     * @param toDate       the last date of the purchase
+     * @param minTotal     the minimum total price of the purchase
+     * @param maxTotal     the maximum total price of the purchase
+     * @param minQuantity  the minimum quantity of the purchase
+     * @param maxQuantity  the maximum quantity of the purchase
+     * @param sort         the attribute to sort by, purchaseDate, totalPrice, quantity or idPurchase
+     * @param direction    the direction of the sort, asc or desc
      * @param page         the page
      * @param size         the size of the page
+     * @param count        how the purchases are counted, true, false or approx
      *
      * @return the searched client
      */
 
     @GetMapping("/search")
+    @SqlBudget(statements = 3, repeated = 1)
     public ResponseEntity<SearchResponse<PurchaseSearchDTO>> searchPurchase(
             @RequestParam(required = false) Long idClient,
             @RequestParam(required = false) Long idItem,
             @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate purchaseDate,
             @RequestParam(required = false) Integer quantity,
             @RequestParam(required = false) BigDecimal totalPrice,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd/MM/yyyy") LocalDate toDate,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) Integer minQuantity,
+            @RequestParam(required = false) Integer maxQuantity,
+            @RequestParam(defaultValue = "purchaseDate") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") String count) {
 
         try {
 
             logger.info("Searching client started");
 
-            List<Purchase> searchedPurchase = purchaseService.searchPurchase(idClient, idItem, purchaseDate, quantity,
-                    totalPrice, page, size);
+            PurchaseSearchFilter filter = PurchaseSearchFilter.builder()
+                    .idClient(idClient)
+                    .idItem(idItem)
+                    .purchaseDate(purchaseDate)
+                    .quantity(quantity)
+                    .totalPrice(totalPrice)
+                    .fromDate(fromDate)
+                    .toDate(toDate)
+                    .minTotal(minTotal)
+                    .maxTotal(maxTotal)
+                    .minQuantity(minQuantity)
+                    .maxQuantity(maxQuantity)
+                    .build();
+
+            if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+                throw new IllegalArgumentException("The direction must be asc or desc");
+            }
+
+            CountMode countMode = CountMode.of(count);
+            Slice<PurchaseSearchDTO> purchaseSlice = purchaseService.searchPurchase(filter, sort,
+                    "asc".equalsIgnoreCase(direction), page, size, countMode);
+            List<PurchaseSearchDTO> purchaseSearchDTO = purchaseSlice.getContent();
 
-            if (searchedPurchase.isEmpty()) {
+            if (purchaseSearchDTO.isEmpty()) {
 
                 logger.info("No clients found");
 
@@ -167,24 +825,27 @@ public class PurchaseController {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
             }
 
-            List<PurchaseSearchDTO> purchaseSearchDTO = toPurchaseSearchDTOMapper(searchedPurchase);
+            SearchResponse<PurchaseSearchDTO> response = new SearchResponse<>(purchaseSlice,
+                    countMode == CountMode.APPROXIMATE, "Successfully");
 
-            int totalPage = (int) Math.ceil((double) searchedPurchase.size() / size);
-
-            SearchResponse<PurchaseSearchDTO> response = new SearchResponse<>(
-                    purchaseSearchDTO, searchedPurchase.size(), page, totalPage, "Successfully");
-
-            logger.info("List of purchases:");
-            purchaseSearchDTO.forEach(purchase -> logger.info("  - idClient: {}, idItem: {}, " +
-                            "purchaseDate: {}, quantity: {}, totalPrice: {}", purchase.getClient().getName(),
-                    purchase.getItem().getName(), purchase.getPurchaseDate(), purchase.getQuantity(),
-                    purchase.getTotalPrice()));
+            searchLog.each(logger, "List of purchases", purchaseSearchDTO, PurchaseSearchDTO::getIdPurchase,
+                    purchase -> logger.info("  - idClient: {}, idItem: {}, purchaseDate: {}, quantity: {}, " +
+                                    "totalPrice: {}", purchase.getClient().getName(), purchase.getItem().getName(),
+                            purchase.getPurchaseDate(), purchase.getQuantity(), purchase.getTotalPrice()));
 
             logger.info("Searching purchase finished");
             return ResponseEntity.status(HttpStatus.OK).body(response);
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't search purchase: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SearchResponse<>(null, 0, 0, 0, ia.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't search client: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new SearchResponse<>(null, 0, 0, 0,
@@ -201,6 +862,7 @@ public class PurchaseController {
      */
 
     @GetMapping("/{idPurchase}")
+    @SqlBudget(statements = 1, repeated = 1)
     public ResponseEntity<PurchaseSheetResponse> clientSheet(@PathVariable Long idPurchase) {
 
         try {
@@ -211,12 +873,13 @@ public class PurchaseController {
 
             PurchaseSheet purchaseSheet = toPurchaseSheetMapper(purchase);
 
-            logger.info("Purchase sheet for id {}: {}", idPurchase, purchaseSheet);
+            sheetLog.info(logger, "Purchase sheet for id {}: {}", idPurchase, purchaseSheet);
             return ResponseEntity.status(HttpStatus.OK).body(new PurchaseSheetResponse(true, purchaseSheet,
                     "Successfully"));
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't load purchase's sheet: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new PurchaseSheetResponse(false, null, e.getMessage()));
@@ -253,8 +916,23 @@ public class PurchaseController {
                     .body(new UpdatePurchaseResponse(true, purchaseUpdateDTO,
                             "Client updated successfully"));
 
+        } catch (IllegalArgumentException ia) {
+
+            EndpointErrors.record(ia);
+            logger.error("Can't update purchase: {}", ia.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new UpdatePurchaseResponse(false, null, ia.getMessage()));
+
+        } catch (ItemOutOfStockException os) {
+
+            EndpointErrors.record(os);
+            logger.error("Can't update purchase: A conflict had occurred {}", os.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new UpdatePurchaseResponse(false, null, os.getMessage()));
+
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't update purchase: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new UpdatePurchaseResponse(false, null, e.getMessage()));
@@ -281,6 +959,7 @@ public class PurchaseController {
 
         } catch (Exception e) {
 
+            EndpointErrors.record(e);
             logger.error("Can't delete purchase: Some internal error occurred. {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(e.getMessage());
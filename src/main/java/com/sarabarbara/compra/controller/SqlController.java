@@ -0,0 +1,60 @@
+package com.sarabarbara.compra.controller;
+
+import com.sarabarbara.compra.dto.sql.SqlEndpointDTO;
+import com.sarabarbara.compra.metrics.EndpointErrors;
+import com.sarabarbara.compra.responses.sql.SqlStatsResponse;
+import com.sarabarbara.compra.sql.SqlStatementMetrics;
+import lombok.AllArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * SqlController class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/sql")
+public class SqlController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlController.class);
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    /**
+     * The SQL statistics controller
+     *
+     * @return the statements, time and requests over the budget of every endpoint
+     */
+
+    @GetMapping("/endpoints")
+    public ResponseEntity<SqlStatsResponse> sqlStats() {
+
+        try {
+
+            List<SqlEndpointDTO> endpoints = sqlStatementMetrics.endpoints();
+
+            logger.info("SQL statistics of {} endpoints", endpoints.size());
+            return ResponseEntity.status(HttpStatus.OK).body(new SqlStatsResponse(true, endpoints, "Successfully"));
+
+        } catch (Exception e) {
+
+            EndpointErrors.record(e);
+            logger.error("Can't load the SQL statistics: Some internal error occurred. {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new SqlStatsResponse(false, null, e.getMessage()));
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.sarabarbara.compra.dto.cache;
+
+import lombok.*;
+
+/**
+ * EntityCacheRegionDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class EntityCacheRegionDTO {
+
+    /**
+     * The region
+     */
+
+    private String region;
+
+    /**
+     * The cached entries
+     */
+
+    private long size;
+
+    /**
+     * The maximum entries of the region
+     */
+
+    private long maximumSize;
+
+    /**
+     * The loads served by the region
+     */
+
+    private long hits;
+
+    /**
+     * The loads not found in the region
+     */
+
+    private long misses;
+
+    /**
+     * The entries put in the region
+     */
+
+    private long puts;
+
+}
@@ -1,18 +1,15 @@
 package com.sarabarbara.compra.dto.clients;
 
-import com.sarabarbara.compra.model.Item;
-import jakarta.persistence.Column;
-import jakarta.persistence.FetchType;
-import jakarta.persistence.JoinColumn;
-import jakarta.persistence.ManyToOne;
-import jakarta.validation.constraints.NotNull;
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * ClientPurchaseDTO class
+ * <p>
+ * A purchase as the profile of its client shows it.
  *
  * @author sarabarbaraam
  * @version 1.0
@@ -29,33 +26,40 @@ import java.util.Date;
 public class ClientPurchaseDTO {
 
     /**
-     * The idItem;
+     * The idPurchase
      */
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "id_item", nullable = false)
-    private Item idItem;
+    private Long idPurchase;
 
     /**
-     * The purchaseDate;
+     * The idItem
      */
 
-    @NonNull
-    @Column(name = "purchase_date")
-    private Date purchaseDate;
+    private Long idItem;
 
     /**
-     * The quantity;
+     * The name of the item
      */
 
-    @NotNull
-    private int quantity;
+    private String itemName;
 
     /**
-     * The totalPrice;
+     * The purchaseDate
+     */
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
+    private LocalDate purchaseDate;
+
+    /**
+     * The quantity
+     */
+
+    private Integer quantity;
+
+    /**
+     * The totalPrice
      */
 
-    @NonNull
-    @Column(name = "total_price")
     private BigDecimal totalPrice;
+
 }
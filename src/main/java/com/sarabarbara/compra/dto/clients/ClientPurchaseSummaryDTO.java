@@ -0,0 +1,50 @@
+package com.sarabarbara.compra.dto.clients;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * ClientPurchaseSummaryDTO class
+ * <p>
+ * The lifetime totals of the purchases of a client.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class ClientPurchaseSummaryDTO {
+
+    /**
+     * The number of purchases
+     */
+
+    private long purchaseCount;
+
+    /**
+     * The units bought
+     */
+
+    private long units;
+
+    /**
+     * The total, without IVA
+     */
+
+    private BigDecimal total;
+
+    /**
+     * The totalPrice, with IVA
+     */
+
+    private BigDecimal totalPrice;
+
+}
@@ -0,0 +1,34 @@
+package com.sarabarbara.compra.dto.imports;
+
+import lombok.*;
+
+/**
+ * ImportRejectedRowDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class ImportRejectedRowDTO {
+
+    /**
+     * The line of the CSV where the row starts, from 1
+     */
+
+    private int line;
+
+    /**
+     * The reason
+     */
+
+    private String message;
+
+}
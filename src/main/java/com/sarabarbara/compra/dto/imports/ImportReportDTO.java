@@ -0,0 +1,61 @@
+package com.sarabarbara.compra.dto.imports;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ImportReportDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class ImportReportDTO {
+
+    /**
+     * The rows read, without the header
+     */
+
+    private long read;
+
+    /**
+     * The rows saved
+     */
+
+    private long accepted;
+
+    /**
+     * The rows rejected
+     */
+
+    private long rejected;
+
+    /**
+     * The chunks written
+     */
+
+    private int chunks;
+
+    /**
+     * The time the import took, in milliseconds
+     */
+
+    private long elapsedMillis;
+
+    /**
+     * The rejected rows, only the first ones if there are many
+     */
+
+    @ToString.Exclude
+    private List<ImportRejectedRowDTO> rejectedRows;
+
+}
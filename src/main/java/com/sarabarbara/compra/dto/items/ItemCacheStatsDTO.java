@@ -0,0 +1,63 @@
+package com.sarabarbara.compra.dto.items;
+
+import lombok.*;
+
+/**
+ * ItemCacheStatsDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ItemCacheStatsDTO {
+
+    /**
+     * The cached items
+     */
+
+    private long size;
+
+    /**
+     * The hits by id
+     */
+
+    private long idHits;
+
+    /**
+     * The misses by id
+     */
+
+    private long idMisses;
+
+    /**
+     * The evictions by size or expiry by id
+     */
+
+    private long idEvictions;
+
+    /**
+     * The hits by name
+     */
+
+    private long nameHits;
+
+    /**
+     * The misses by name
+     */
+
+    private long nameMisses;
+
+    /**
+     * The evictions by size or expiry by name
+     */
+
+    private long nameEvictions;
+
+}
@@ -0,0 +1,34 @@
+package com.sarabarbara.compra.dto.logging;
+
+import com.sarabarbara.compra.enums.LogMode;
+import lombok.*;
+
+/**
+ * LoggingModeDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class LoggingModeDTO {
+
+    /**
+     * The mode of the logs of the hot paths
+     */
+
+    private LogMode mode;
+
+    /**
+     * The calls between two logged ones, in the sampled mode
+     */
+
+    private int sampleEvery;
+
+}
@@ -0,0 +1,81 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * ArchivedPurchaseDTO class
+ * <p>
+ * The columns of a purchase kept in the archive: the client and the item only by their ids.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class ArchivedPurchaseDTO {
+
+    /**
+     * The idPurchase
+     */
+
+    private Long idPurchase;
+
+    /**
+     * The idClient
+     */
+
+    private Long idClient;
+
+    /**
+     * The idItem
+     */
+
+    private Long idItem;
+
+    /**
+     * The purchaseDate
+     */
+
+    private LocalDate purchaseDate;
+
+    /**
+     * The quantity
+     */
+
+    private int quantity;
+
+    /**
+     * The total
+     */
+
+    private BigDecimal total;
+
+    /**
+     * The iva
+     */
+
+    private BigDecimal iva;
+
+    /**
+     * The totalIva
+     */
+
+    private BigDecimal totalIva;
+
+    /**
+     * The totalPrice
+     */
+
+    private BigDecimal totalPrice;
+
+}
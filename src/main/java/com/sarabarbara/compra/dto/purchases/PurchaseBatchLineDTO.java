@@ -0,0 +1,56 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * PurchaseBatchLineDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurchaseBatchLineDTO {
+
+    /**
+     * The line, from 0, in the order of the request
+     */
+
+    private int line;
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The idPurchase, only if it was created
+     */
+
+    private Long idPurchase;
+
+    /**
+     * The totalPrice, only if it was created
+     */
+
+    private BigDecimal totalPrice;
+
+    /**
+     * The message, only if it was rejected
+     */
+
+    private String message;
+
+}
@@ -0,0 +1,54 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import lombok.*;
+
+/**
+ * PurchasePartitionDTO class
+ * <p>
+ * A partition of the purchase table and its size. The sizes are the estimates of the database statistics.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class PurchasePartitionDTO {
+
+    /**
+     * The name, p followed by the year and the month, or pmax
+     */
+
+    private String name;
+
+    /**
+     * The first date not in the partition, MAXVALUE for the last one
+     */
+
+    private String lessThan;
+
+    /**
+     * The estimated rows
+     */
+
+    private long rows;
+
+    /**
+     * The bytes of the data
+     */
+
+    private long dataBytes;
+
+    /**
+     * The bytes of the indexes
+     */
+
+    private long indexBytes;
+
+}
@@ -1,8 +1,10 @@
 package com.sarabarbara.compra.dto.purchases;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.sarabarbara.compra.dto.clients.ClientDTO;
 import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.enums.Type;
 import jakarta.persistence.Column;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
@@ -28,6 +30,13 @@ import java.time.LocalDate;
 @ToString
 public class PurchaseSearchDTO {
 
+    /**
+     * The idPurchase, the last key of the order of a search
+     */
+
+    @JsonIgnore
+    private Long idPurchase;
+
     /**
      * The client;
      */
@@ -65,4 +74,47 @@ public class PurchaseSearchDTO {
     @Column(name = "total_price")
     private BigDecimal totalPrice;
 
+    /**
+     * The projection constructor used by PurchaseRepository, it receives the columns of the purchase, its client
+     * and its item in a single row
+     *
+     * @param idPurchase   the id of the purchase
+     * @param idClient     the id of the client
+     * @param clientName   the name of the client
+     * @param surname      the surname of the client
+     * @param company      the company of the client
+     * @param position     the position of the client
+     * @param address      the address of the client
+     * @param zipCode      the zip code of the client
+     * @param province     the province of the client
+     * @param phoneNumber  the phone number of the client
+     * @param birthDate    the birthdate of the client
+     * @param idItem       the id of the item
+     * @param itemName     the name of the item
+     * @param description  the description of the item
+     * @param unitPrice    the unit price of the item
+     * @param itemStock    the stock of the item
+     * @param type         the type of the item
+     * @param supplier     the supplier of the item
+     * @param date         the date of the item
+     * @param purchaseDate the date of the purchase
+     * @param quantity     the quantity of the purchase
+     * @param totalPrice   the total price
+     */
+
+    public PurchaseSearchDTO(Long idPurchase, Long idClient, String clientName, String surname, String company,
+                             String position, String address, String zipCode, String province, String phoneNumber,
+                             LocalDate birthDate, Long idItem, String itemName, String description,
+                             BigDecimal unitPrice, int itemStock, Type type, String supplier, LocalDate date,
+                             LocalDate purchaseDate, int quantity, BigDecimal totalPrice) {
+
+        this.idPurchase = idPurchase;
+        this.client = new ClientDTO(idClient, clientName, surname, company, position, address, zipCode, province,
+                phoneNumber, birthDate);
+        this.item = new ItemDTO(idItem, itemName, description, unitPrice, itemStock, type, supplier, date);
+        this.purchaseDate = purchaseDate;
+        this.quantity = quantity;
+        this.totalPrice = totalPrice;
+    }
+
 }
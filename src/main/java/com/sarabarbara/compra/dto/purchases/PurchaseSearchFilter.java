@@ -0,0 +1,94 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * PurchaseSearchFilter class
+ * <p>
+ * The filters of a purchase search; the null ones are not applied. The ranges include both ends and may be open on
+ * either side.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class PurchaseSearchFilter {
+
+    /**
+     * The idClient
+     */
+
+    private Long idClient;
+
+    /**
+     * The idItem
+     */
+
+    private Long idItem;
+
+    /**
+     * The exact purchaseDate
+     */
+
+    private LocalDate purchaseDate;
+
+    /**
+     * The exact quantity
+     */
+
+    private Integer quantity;
+
+    /**
+     * The exact totalPrice
+     */
+
+    private BigDecimal totalPrice;
+
+    /**
+     * The first purchaseDate
+     */
+
+    private LocalDate fromDate;
+
+    /**
+     * The last purchaseDate
+     */
+
+    private LocalDate toDate;
+
+    /**
+     * The minimum totalPrice
+     */
+
+    private BigDecimal minTotal;
+
+    /**
+     * The maximum totalPrice
+     */
+
+    private BigDecimal maxTotal;
+
+    /**
+     * The minimum quantity
+     */
+
+    private Integer minQuantity;
+
+    /**
+     * The maximum quantity
+     */
+
+    private Integer maxQuantity;
+
+}
@@ -0,0 +1,98 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * PurchaseSegmentDTO class
+ * <p>
+ * A segment of the purchase archive: the purchases of a month moved out of the purchase table, and the bounds a
+ * search checks before reading it.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class PurchaseSegmentDTO {
+
+    /**
+     * The month
+     */
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM")
+    private YearMonth month;
+
+    /**
+     * The purchases
+     */
+
+    private int rows;
+
+    /**
+     * The first purchaseDate
+     */
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
+    private LocalDate minDate;
+
+    /**
+     * The last purchaseDate
+     */
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
+    private LocalDate maxDate;
+
+    /**
+     * The lowest idPurchase
+     */
+
+    private long minId;
+
+    /**
+     * The highest idPurchase
+     */
+
+    private long maxId;
+
+    /**
+     * The lowest idClient, null if the segment was written without it
+     */
+
+    private Long minIdClient;
+
+    /**
+     * The highest idClient, null if the segment was written without it
+     */
+
+    private Long maxIdClient;
+
+    /**
+     * The lowest idItem, null if the segment was written without it
+     */
+
+    private Long minIdItem;
+
+    /**
+     * The highest idItem, null if the segment was written without it
+     */
+
+    private Long maxIdItem;
+
+    /**
+     * The bytes of the file
+     */
+
+    private long bytes;
+
+}
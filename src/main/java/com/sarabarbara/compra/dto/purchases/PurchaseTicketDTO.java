@@ -0,0 +1,49 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sarabarbara.compra.enums.TicketStatus;
+import lombok.*;
+
+/**
+ * PurchaseTicketDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurchaseTicketDTO {
+
+    /**
+     * The ticketId
+     */
+
+    private String ticketId;
+
+    /**
+     * The status
+     */
+
+    private TicketStatus status;
+
+    /**
+     * The idPurchase, once it is committed
+     */
+
+    private Long idPurchase;
+
+    /**
+     * The reason, if it was rejected
+     */
+
+    private String message;
+
+}
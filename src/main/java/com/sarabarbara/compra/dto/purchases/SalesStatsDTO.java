@@ -0,0 +1,138 @@
+package com.sarabarbara.compra.dto.purchases;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sarabarbara.compra.enums.Type;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * SalesStatsDTO class
+ * <p>
+ * The sales of a group, a day, an item or a type of item; only the fields of the group are set.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesStatsDTO {
+
+    /**
+     * The day
+     */
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
+    private LocalDate day;
+
+    /**
+     * The idItem
+     */
+
+    private Long idItem;
+
+    /**
+     * The name of the item
+     */
+
+    private String itemName;
+
+    /**
+     * The type of the item
+     */
+
+    private Type type;
+
+    /**
+     * The number of purchases
+     */
+
+    private Long purchaseCount;
+
+    /**
+     * The units sold
+     */
+
+    private Long quantity;
+
+    /**
+     * The net amount, without IVA
+     */
+
+    private BigDecimal net;
+
+    /**
+     * The tax, the IVA amount
+     */
+
+    private BigDecimal tax;
+
+    /**
+     * The gross amount, with IVA
+     */
+
+    private BigDecimal gross;
+
+    /**
+     * The constructor of the sales of a day
+     *
+     * @param day           the day
+     * @param purchaseCount the number of purchases
+     * @param quantity      the units sold
+     * @param net           the net amount
+     * @param tax           the tax
+     * @param gross         the gross amount
+     */
+
+    public SalesStatsDTO(LocalDate day, Long purchaseCount, Long quantity, BigDecimal net, BigDecimal tax,
+                         BigDecimal gross) {
+
+        this(day, null, null, null, purchaseCount, quantity, net, tax, gross);
+    }
+
+    /**
+     * The constructor of the sales of an item
+     *
+     * @param idItem        the id of the item
+     * @param itemName      the name of the item
+     * @param purchaseCount the number of purchases
+     * @param quantity      the units sold
+     * @param net           the net amount
+     * @param tax           the tax
+     * @param gross         the gross amount
+     */
+
+    public SalesStatsDTO(Long idItem, String itemName, Long purchaseCount, Long quantity, BigDecimal net,
+                         BigDecimal tax, BigDecimal gross) {
+
+        this(null, idItem, itemName, null, purchaseCount, quantity, net, tax, gross);
+    }
+
+    /**
+     * The constructor of the sales of a type of item
+     *
+     * @param type          the type of the item
+     * @param purchaseCount the number of purchases
+     * @param quantity      the units sold
+     * @param net           the net amount
+     * @param tax           the tax
+     * @param gross         the gross amount
+     */
+
+    public SalesStatsDTO(Type type, Long purchaseCount, Long quantity, BigDecimal net, BigDecimal tax,
+                         BigDecimal gross) {
+
+        this(null, null, null, type, purchaseCount, quantity, net, tax, gross);
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.sarabarbara.compra.dto.sql;
+
+import lombok.*;
+
+/**
+ * SqlEndpointDTO class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Builder
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class SqlEndpointDTO {
+
+    /**
+     * The endpoint, as its method and path
+     */
+
+    private String endpoint;
+
+    /**
+     * The requests served
+     */
+
+    private long requests;
+
+    /**
+     * The statements run by all the requests
+     */
+
+    private long statements;
+
+    /**
+     * The most statements run by one request
+     */
+
+    private long maxStatements;
+
+    /**
+     * The milliseconds spent executing the statements of all the requests
+     */
+
+    private double jdbcMillis;
+
+    /**
+     * The requests over the budget
+     */
+
+    private long overBudget;
+
+    /**
+     * Why the last request over the budget was over it
+     */
+
+    private String lastOverBudget;
+
+}
@@ -0,0 +1,59 @@
+package com.sarabarbara.compra.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * CountMode class
+ * <p>
+ * How a search counts its results: exactly, not at all (only if there is a next page), or with a count cached for
+ * a while.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public enum CountMode {
+
+    /**
+     * The CountMode enum
+     */
+
+    EXACT("true"),
+    NONE("false"),
+    APPROXIMATE("approx");
+
+    /**
+     * The value of the count parameter
+     */
+
+    private final String value;
+
+    /**
+     * Finds a mode by the value of the count parameter, ignoring the case
+     *
+     * @param value the value
+     *
+     * @return the mode
+     *
+     * @throws IllegalArgumentException if no mode has the value
+     */
+
+    public static CountMode of(String value) {
+
+        for (CountMode mode : values()) {
+
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException("The count must be true, false or approx");
+    }
+
+}
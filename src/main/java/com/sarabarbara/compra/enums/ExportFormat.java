@@ -0,0 +1,62 @@
+package com.sarabarbara.compra.enums;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * ExportFormat class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public enum ExportFormat {
+
+    /**
+     * The ExportFormat enum
+     */
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    /**
+     * The content type
+     */
+
+    private final String contentType;
+
+    /**
+     * The file extension
+     */
+
+    private final String extension;
+
+    /**
+     * Finds a format by its name, ignoring the case
+     *
+     * @param name the name of the format
+     *
+     * @return the format
+     *
+     * @throws IllegalArgumentException if there is no such format
+     */
+
+    public static ExportFormat of(String name) {
+
+        for (ExportFormat format : values()) {
+
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+
+}
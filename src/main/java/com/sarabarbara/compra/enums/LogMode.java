@@ -0,0 +1,57 @@
+package com.sarabarbara.compra.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * LogMode class
+ * <p>
+ * How the hot paths log: everything, or a sample of their calls with the lists summed up as their size and ids.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public enum LogMode {
+
+    /**
+     * The LogMode enum
+     */
+
+    FULL("full"),
+    SAMPLED("sampled");
+
+    /**
+     * The value of the mode parameter
+     */
+
+    private final String value;
+
+    /**
+     * Finds a mode by the value of the mode parameter, ignoring the case
+     *
+     * @param value the value
+     *
+     * @return the mode
+     *
+     * @throws IllegalArgumentException if no mode has the value
+     */
+
+    public static LogMode of(String value) {
+
+        for (LogMode mode : values()) {
+
+            if (mode.value.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException("The log mode must be full or sampled");
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.sarabarbara.compra.enums;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * PurchaseSort class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public enum PurchaseSort {
+
+    /**
+     * The PurchaseSort enum
+     */
+
+    PURCHASE_DATE("purchaseDate"),
+    TOTAL_PRICE("totalPrice"),
+    QUANTITY("quantity"),
+    ID_PURCHASE("idPurchase");
+
+    /**
+     * The attribute of the purchase
+     */
+
+    private final String attribute;
+
+    /**
+     * Finds a sort by the attribute, ignoring the case
+     *
+     * @param attribute the attribute of the purchase
+     *
+     * @return the sort
+     *
+     * @throws IllegalArgumentException if the purchases can't be sorted by the attribute
+     */
+
+    public static PurchaseSort of(String attribute) {
+
+        for (PurchaseSort sort : values()) {
+
+            if (sort.attribute.equalsIgnoreCase(attribute)) {
+                return sort;
+            }
+        }
+
+        throw new IllegalArgumentException("The purchases can't be sorted by " + attribute);
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.sarabarbara.compra.enums;
+
+
+import lombok.ToString;
+
+/**
+ * StatsGroup class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@ToString
+public enum StatsGroup {
+
+    /**
+     * The StatsGroup enum
+     */
+
+    ITEM,
+    TYPE,
+    DAY;
+
+    /**
+     * Finds a group by its name, ignoring the case
+     *
+     * @param name the name of the group
+     *
+     * @return the group
+     *
+     * @throws IllegalArgumentException if there is no such group
+     */
+
+    public static StatsGroup of(String name) {
+
+        for (StatsGroup group : values()) {
+
+            if (group.name().equalsIgnoreCase(name)) {
+                return group;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown stats group: " + name);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.sarabarbara.compra.enums;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * TicketStatus class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public enum TicketStatus {
+
+    /**
+     * The TicketStatus enum
+     */
+
+    QUEUED("Queued, not saved yet"),
+    COMMITTED("Saved"),
+    REJECTED("Not saved");
+
+    /**
+     * The description
+     */
+
+    private final String description;
+
+}
@@ -0,0 +1,17 @@
+package com.sarabarbara.compra.exceptions.item;
+
+/**
+ * ItemOutOfStockException class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class ItemOutOfStockException extends RuntimeException {
+
+    public ItemOutOfStockException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.sarabarbara.compra.exceptions.purchase;
+
+/**
+ * IngestionQueueFullException class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(String message) {
+        super(message);
+    }
+
+}
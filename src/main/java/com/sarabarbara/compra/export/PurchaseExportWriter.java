@@ -0,0 +1,256 @@
+package com.sarabarbara.compra.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseDTO;
+import com.sarabarbara.compra.enums.ExportFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+/**
+ * PurchaseExportWriter class
+ * <p>
+ * Writes the purchases of an export one by one, as they are read, through a fixed size buffer: the memory of an
+ * export doesn't grow with its rows.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PurchaseExportWriter {
+
+    /**
+     * The size of the buffer in front of the response
+     */
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The header of the CSV
+     */
+
+    private static final String CSV_HEADER = "idPurchase,purchaseDate,idClient,clientName,clientSurname," +
+            "clientCompany,idItem,itemName,type,unitPrice,quantity,total,iva,totalIva,totalPrice";
+
+    /**
+     * The format of the dates, the same as the JSON one
+     */
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * The writer of the NDJSON rows, which doesn't close the response after each row
+     */
+
+    private final ObjectWriter jsonWriter;
+
+    /**
+     * The constructor
+     *
+     * @param objectMapper the object mapper
+     */
+
+    public PurchaseExportWriter(ObjectMapper objectMapper) {
+
+        this.jsonWriter = objectMapper.writerFor(PurchaseDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+    }
+
+    /**
+     * Writes the purchases
+     *
+     * @param purchases the purchases, read as they are written
+     * @param format    the format
+     * @param out       the output, not closed
+     *
+     * @return the number of purchases written
+     *
+     * @throws IOException if the output fails, e.g. the client went away
+     */
+
+    public long write(Iterator<PurchaseDTO> purchases, ExportFormat format, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long rows = format == ExportFormat.CSV ? writeCsv(purchases, writer) : writeNdjson(purchases, writer);
+
+        writer.flush();
+        return rows;
+    }
+
+    // Complementary methods
+
+    /**
+     * Writes the purchases as one JSON object per line
+     *
+     * @param purchases the purchases
+     * @param writer    the writer
+     *
+     * @return the number of purchases written
+     *
+     * @throws IOException if the output fails
+     */
+
+    private long writeNdjson(Iterator<PurchaseDTO> purchases, Writer writer) throws IOException {
+
+        long rows = 0;
+
+        try (SequenceWriter sequence = jsonWriter.writeValues(writer)) {
+
+            while (purchases.hasNext()) {
+
+                sequence.write(purchases.next());
+                rows++;
+            }
+        }
+
+        if (rows > 0) {
+            writer.write('\n');
+        }
+
+        return rows;
+    }
+
+    /**
+     * Writes the purchases as CSV, with a header
+     *
+     * @param purchases the purchases
+     * @param writer    the writer
+     *
+     * @return the number of purchases written
+     *
+     * @throws IOException if the output fails
+     */
+
+    private static long writeCsv(Iterator<PurchaseDTO> purchases, Writer writer) throws IOException {
+
+        long rows = 0;
+        StringBuilder line = new StringBuilder(256);
+
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (purchases.hasNext()) {
+
+            PurchaseDTO purchase = purchases.next();
+            ClientDTO client = purchase.getClient();
+            ItemDTO item = purchase.getItem();
+
+            line.setLength(0);
+            line.append(purchase.getIdPurchase()).append(',');
+            appendDate(line, purchase.getPurchaseDate());
+            line.append(',').append(client.getIdClient()).append(',');
+            appendText(line, client.getName());
+            line.append(',');
+            appendText(line, client.getSurname());
+            line.append(',');
+            appendText(line, client.getCompany());
+            line.append(',').append(item.getIdItem()).append(',');
+            appendText(line, item.getName());
+            line.append(',').append(item.getType() == null ? "" : item.getType().name()).append(',');
+            appendAmount(line, item.getUnitPrice());
+            line.append(',').append(purchase.getQuantity()).append(',');
+            appendAmount(line, purchase.getTotal());
+            line.append(',');
+            appendAmount(line, purchase.getIva());
+            line.append(',');
+            appendAmount(line, purchase.getTotalIva());
+            line.append(',');
+            appendAmount(line, purchase.getTotalPrice());
+            line.append('\n');
+
+            writer.append(line);
+            rows++;
+        }
+
+        return rows;
+    }
+
+    /**
+     * Appends a text field, quoted if it has a separator, a quote or a line break
+     *
+     * @param line  the line
+     * @param value the value, may be null
+     */
+
+    private static void appendText(StringBuilder line, String value) {
+
+        if (value == null) {
+            return;
+        }
+
+        boolean quoted = false;
+
+        for (int k = 0; k < value.length() && !quoted; k++) {
+
+            char c = value.charAt(k);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+
+        for (int k = 0; k < value.length(); k++) {
+
+            char c = value.charAt(k);
+
+            if (c == '"') {
+                line.append('"');
+            }
+
+            line.append(c);
+        }
+
+        line.append('"');
+    }
+
+    /**
+     * Appends an amount, without exponent
+     *
+     * @param line   the line
+     * @param amount the amount, may be null
+     */
+
+    private static void appendAmount(StringBuilder line, BigDecimal amount) {
+
+        if (amount != null) {
+            line.append(amount.toPlainString());
+        }
+    }
+
+    /**
+     * Appends a date
+     *
+     * @param line the line
+     * @param date the date, may be null
+     */
+
+    private static void appendDate(StringBuilder line, LocalDate date) {
+
+        if (date != null) {
+            DATE_FORMAT.formatTo(date, line);
+        }
+    }
+
+}
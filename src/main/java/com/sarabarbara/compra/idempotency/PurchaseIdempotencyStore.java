@@ -0,0 +1,80 @@
+package com.sarabarbara.compra.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarabarbara.compra.responses.purchases.CreatePurchaseResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * PurchaseIdempotencyStore class
+ * <p>
+ * The responses of the purchases created with an Idempotency-Key, so a retry is answered from memory without
+ * creating the purchase again. It is bounded ({@code compra.idempotency.maximum-size}) and forgets the keys after
+ * {@code compra.idempotency.expire-after-write}; past that, or on another instance, the unique (idempotency_key,
+ * purchase_date) key of the purchase still keeps a retry of the same day from inserting twice.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PurchaseIdempotencyStore {
+
+    /**
+     * The maximum length of a key, the length of the column
+     */
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    /**
+     * The responses by key
+     */
+
+    private final Cache<String, CreatePurchaseResponse> responses;
+
+    /**
+     * The constructor
+     *
+     * @param maximumSize      the maximum number of keys
+     * @param expireAfterWrite the time a key is remembered
+     */
+
+    public PurchaseIdempotencyStore(@Value("${compra.idempotency.maximum-size:100000}") long maximumSize,
+                                    @Value("${compra.idempotency.expire-after-write:24h}") Duration expireAfterWrite) {
+
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Searches the response of a key
+     *
+     * @param key the Idempotency-Key
+     *
+     * @return the response, null if the key is unknown
+     */
+
+    public CreatePurchaseResponse find(String key) {
+
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Remembers the response of a key
+     *
+     * @param key      the Idempotency-Key
+     * @param response the response of the created purchase
+     */
+
+    public void put(String key, CreatePurchaseResponse response) {
+
+        responses.put(key, response);
+    }
+
+}
@@ -0,0 +1,541 @@
+package com.sarabarbara.compra.ingestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarabarbara.compra.dto.purchases.PurchaseTicketDTO;
+import com.sarabarbara.compra.enums.TicketStatus;
+import com.sarabarbara.compra.exceptions.purchase.IngestionQueueFullException;
+import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import com.sarabarbara.compra.stock.StockReservationEngine;
+import com.sarabarbara.compra.stock.StockReservationEngine.Reservation;
+import com.sarabarbara.compra.summary.ClientPurchaseSummaryRecorder;
+import com.sarabarbara.compra.summary.SalesDailyRecorder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PurchaseIngestionQueue class
+ * <p>
+ * The write-behind mode of the purchases, off unless {@code compra.purchase.ingestion.enabled} is true. A purchase,
+ * already validated and priced, is queued and answered with a ticket at once; a single writer thread takes the
+ * queued purchases in groups of up to {@code max-batch}, waiting at most {@code max-wait} for a group to fill, and
+ * saves each group, stock included, in one transaction with batched inserts. So the requests don't wait for a commit
+ * each, and the database sees one commit per group. The stock of each purchase is held before the transaction of its
+ * group begins, and taken inside it.
+ * <p>
+ * The queue holds at most {@code queue-capacity} purchases: when it is full the purchase is refused at once instead
+ * of queuing the burst without limit. The ticket tells when the purchase is committed, and then it is durable, or
+ * rejected (e.g. no stock left). The tickets live in memory for {@code ticket-ttl}; the queued purchases are saved
+ * before the application stops, but they are lost if the process dies.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PurchaseIngestionQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseIngestionQueue.class);
+
+    /**
+     * The time the writer waits for the first purchase of a group before looking if it must stop
+     */
+
+    private static final long IDLE_POLL_MILLIS = 500;
+
+    /**
+     * The time the application waits for the writer to save the queued purchases when it stops
+     */
+
+    private static final long SHUTDOWN_WAIT_MILLIS = 30_000;
+
+    /**
+     * The purchaseRepository
+     */
+
+    private final PurchaseRepository purchaseRepository;
+
+    /**
+     * The stockReservationEngine
+     */
+
+    private final StockReservationEngine stockReservationEngine;
+
+    /**
+     * The clientPurchaseSummaryRecorder
+     */
+
+    private final ClientPurchaseSummaryRecorder clientPurchaseSummaryRecorder;
+
+    /**
+     * The salesDailyRecorder
+     */
+
+    private final SalesDailyRecorder salesDailyRecorder;
+
+    /**
+     * The transaction of each group, and of each purchase when a group fails
+     */
+
+    private final TransactionTemplate groupTransaction;
+
+    /**
+     * If the write-behind mode is enabled
+     */
+
+    private final boolean enabled;
+
+    /**
+     * The maximum purchases of a group
+     */
+
+    private final int maxBatch;
+
+    /**
+     * The maximum time a group waits to fill, in nanoseconds
+     */
+
+    private final long maxWaitNanos;
+
+    /**
+     * The queued purchases
+     */
+
+    private final BlockingQueue<Entry> queue;
+
+    /**
+     * The tickets by id
+     */
+
+    private final Cache<String, PurchaseTicketDTO> tickets;
+
+    /**
+     * The writer thread
+     */
+
+    private Thread writer;
+
+    /**
+     * If the application is stopping
+     */
+
+    private volatile boolean stopping;
+
+    /**
+     * The constructor
+     *
+     * @param purchaseRepository            the purchase repository
+     * @param stockReservationEngine        the stock reservation engine
+     * @param clientPurchaseSummaryRecorder the client purchase summary recorder
+     * @param salesDailyRecorder            the sales daily recorder
+     * @param transactionManager            the transaction manager
+     * @param enabled                       if the write-behind mode is enabled
+     * @param queueCapacity                 the maximum queued purchases
+     * @param maxBatch                      the maximum purchases of a group
+     * @param maxWait                       the maximum time a group waits to fill
+     * @param ticketTtl                     the time a ticket is kept
+     */
+
+    public PurchaseIngestionQueue(PurchaseRepository purchaseRepository,
+                                  StockReservationEngine stockReservationEngine,
+                                  ClientPurchaseSummaryRecorder clientPurchaseSummaryRecorder,
+                                  SalesDailyRecorder salesDailyRecorder,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${compra.purchase.ingestion.enabled:false}") boolean enabled,
+                                  @Value("${compra.purchase.ingestion.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${compra.purchase.ingestion.max-batch:500}") int maxBatch,
+                                  @Value("${compra.purchase.ingestion.max-wait:20ms}") Duration maxWait,
+                                  @Value("${compra.purchase.ingestion.ticket-ttl:1h}") Duration ticketTtl) {
+
+        this.purchaseRepository = purchaseRepository;
+        this.stockReservationEngine = stockReservationEngine;
+        this.clientPurchaseSummaryRecorder = clientPurchaseSummaryRecorder;
+        this.salesDailyRecorder = salesDailyRecorder;
+        this.groupTransaction = new TransactionTemplate(transactionManager);
+        this.groupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .build();
+    }
+
+    /**
+     * Starts the writer
+     */
+
+    @PostConstruct
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        writer = new Thread(this::drain, "purchase-ingestion");
+        writer.setDaemon(true);
+        writer.start();
+
+        logger.info("Purchase ingestion started: groups of up to {} purchases or {} ms", maxBatch,
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+
+    /**
+     * Stops taking purchases and waits for the writer to save the queued ones
+     */
+
+    @PreDestroy
+    public void stop() {
+
+        if (writer == null) {
+            return;
+        }
+
+        stopping = true;
+
+        try {
+
+            writer.join(SHUTDOWN_WAIT_MILLIS);
+
+        } catch (InterruptedException ie) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        if (!queue.isEmpty()) {
+            logger.error("Purchase ingestion stopped with {} purchases not saved", queue.size());
+        }
+    }
+
+    /**
+     * If the write-behind mode is enabled
+     *
+     * @return true if it is enabled
+     */
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Queues a purchase, already validated and priced
+     *
+     * @param purchase the purchase, not saved
+     *
+     * @return the ticket, queued
+     *
+     * @throws IngestionQueueFullException if the queue is full or the application is stopping
+     */
+
+    public PurchaseTicketDTO submit(Purchase purchase) {
+
+        if (!enabled || stopping) {
+            throw new IngestionQueueFullException("The purchase ingestion is not taking purchases");
+        }
+
+        PurchaseTicketDTO ticket = new PurchaseTicketDTO(UUID.randomUUID().toString(), TicketStatus.QUEUED, null,
+                null);
+
+        tickets.put(ticket.getTicketId(), ticket);
+
+        if (!queue.offer(new Entry(ticket.getTicketId(), purchase))) {
+
+            tickets.invalidate(ticket.getTicketId());
+            throw new IngestionQueueFullException("The purchase ingestion queue is full, try again later");
+        }
+
+        return ticket;
+    }
+
+    /**
+     * Searches a ticket
+     *
+     * @param ticketId the id of the ticket
+     *
+     * @return the ticket, empty if it is unknown or expired
+     */
+
+    public Optional<PurchaseTicketDTO> ticket(String ticketId) {
+
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+
+    /**
+     * The queued purchases
+     *
+     * @return the number of queued purchases
+     */
+
+    public int size() {
+
+        return queue.size();
+    }
+
+    // Complementary methods
+
+    /**
+     * The loop of the writer: takes a group and saves it, until the application stops and the queue is empty
+     */
+
+    private void drain() {
+
+        List<Entry> group = new ArrayList<>(maxBatch);
+
+        while (!stopping || !queue.isEmpty()) {
+
+            try {
+
+                Entry first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+
+                while (group.size() < maxBatch) {
+
+                    queue.drainTo(group, maxBatch - group.size());
+                    long left = deadline - System.nanoTime();
+
+                    if (group.size() >= maxBatch || left <= 0) {
+                        break;
+                    }
+
+                    Entry next = queue.poll(left, TimeUnit.NANOSECONDS);
+
+                    if (next != null) {
+                        group.add(next);
+                    }
+                }
+
+                save(group);
+
+            } catch (InterruptedException ie) {
+
+                Thread.currentThread().interrupt();
+                return;
+
+            } catch (RuntimeException e) {
+
+                logger.error("Purchase ingestion failed: {}", e.getMessage());
+                group.forEach(entry -> reject(entry, "Can't save the purchase: " + e.getMessage()));
+
+            } finally {
+
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Saves a group in one transaction. If the transaction fails each purchase is saved alone, so one bad purchase
+     * doesn't reject the others
+     *
+     * @param group the group
+     */
+
+    private void save(List<Entry> group) {
+
+        List<Entry> committed = new ArrayList<>(group.size());
+        List<Entry> outOfStock = new ArrayList<>();
+        Map<Entry, Reservation> reservations = new IdentityHashMap<>(group.size());
+
+        try {
+
+            for (Entry entry : group) {
+                reservations.put(entry, hold(entry));
+            }
+
+            groupTransaction.executeWithoutResult(status -> {
+
+                for (Entry entry : group) {
+
+                    Reservation reservation = reservations.get(entry);
+                    (reservation != null && stockReservationEngine.take(reservation) ? committed : outOfStock)
+                            .add(entry);
+                }
+
+                List<Purchase> purchases = committed.stream().map(entry -> entry.purchase).toList();
+
+                purchaseRepository.saveAll(purchases);
+                clientPurchaseSummaryRecorder.purchasesAdded(purchases);
+                salesDailyRecorder.purchasesAdded(purchases);
+            });
+
+        } catch (RuntimeException e) {
+
+            logger.error("Can't save a group of {} purchases, saving them one by one: {}", group.size(),
+                    e.getMessage());
+            reservations.values().forEach(stockReservationEngine::release);
+            group.forEach(this::saveAlone);
+            return;
+
+        } finally {
+
+            reservations.values().forEach(stockReservationEngine::release);
+        }
+
+        committed.forEach(this::commit);
+        outOfStock.forEach(this::rejectOutOfStock);
+        logger.info("Purchase ingestion group saved: {} committed, {} rejected", committed.size(), outOfStock.size());
+    }
+
+    /**
+     * Saves a purchase in its own transaction
+     *
+     * @param entry the queued purchase
+     */
+
+    private void saveAlone(Entry entry) {
+
+        entry.purchase.setIdPurchase(null);
+        Reservation reservation;
+
+        try {
+
+            reservation = hold(entry);
+
+        } catch (RuntimeException e) {
+
+            reject(entry, "Can't save the purchase: " + e.getMessage());
+            return;
+        }
+
+        try {
+
+            boolean saved = reservation != null && Boolean.TRUE.equals(groupTransaction.execute(status -> {
+
+                if (!stockReservationEngine.take(reservation)) {
+                    return false;
+                }
+
+                purchaseRepository.save(entry.purchase);
+                clientPurchaseSummaryRecorder.purchaseAdded(entry.purchase);
+                salesDailyRecorder.purchaseAdded(entry.purchase);
+                return true;
+            }));
+
+            if (saved) {
+                commit(entry);
+            } else {
+                rejectOutOfStock(entry);
+            }
+
+        } catch (RuntimeException e) {
+
+            reject(entry, "Can't save the purchase: " + e.getMessage());
+
+        } finally {
+
+            stockReservationEngine.release(reservation);
+        }
+    }
+
+    /**
+     * Holds the stock of a queued purchase, before its transaction
+     *
+     * @param entry the queued purchase
+     *
+     * @return the reservation, null if the item has not the units
+     */
+
+    private Reservation hold(Entry entry) {
+
+        return stockReservationEngine.hold(entry.purchase.getItem().getIdItem(), entry.purchase.getQuantity());
+    }
+
+    /**
+     * Marks a ticket as committed
+     *
+     * @param entry the saved purchase
+     */
+
+    private void commit(Entry entry) {
+
+        tickets.put(entry.ticketId, new PurchaseTicketDTO(entry.ticketId, TicketStatus.COMMITTED,
+                entry.purchase.getIdPurchase(), null));
+    }
+
+    /**
+     * Marks a ticket as rejected for lack of stock
+     *
+     * @param entry the queued purchase
+     */
+
+    private void rejectOutOfStock(Entry entry) {
+
+        reject(entry, "Can't create purchase: Not enough stock of item " + entry.purchase.getItem().getIdItem());
+    }
+
+    /**
+     * Marks a ticket as rejected
+     *
+     * @param entry   the queued purchase
+     * @param message the reason
+     */
+
+    private void reject(Entry entry, String message) {
+
+        tickets.put(entry.ticketId, new PurchaseTicketDTO(entry.ticketId, TicketStatus.REJECTED, null, message));
+    }
+
+    /**
+     * Entry class
+     * <p>
+     * A queued purchase and its ticket
+     */
+
+    private static final class Entry {
+
+        /**
+         * The id of the ticket
+         */
+
+        private final String ticketId;
+
+        /**
+         * The purchase
+         */
+
+        private final Purchase purchase;
+
+        /**
+         * The constructor
+         *
+         * @param ticketId the id of the ticket
+         * @param purchase the purchase
+         */
+
+        private Entry(String ticketId, Purchase purchase) {
+
+            this.ticketId = ticketId;
+            this.purchase = purchase;
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.sarabarbara.compra.logging;
+
+import com.sarabarbara.compra.enums.LogMode;
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * LogSampler class
+ * <p>
+ * The logs of a hot path, as the lists and the sheets, which are written on every request. Each call site has its
+ * own sampler. In the {@link LogMode#FULL} mode every call is logged as it always was; in the
+ * {@link LogMode#SAMPLED} mode only one call of every {@link #sampleEvery()} is logged, and the lists are logged as
+ * a {@link LogSummary}. A call not logged only increments a counter: nothing is formatted nor allocated.
+ * <p>
+ * The mode is the same for every sampler and can be changed while the application runs.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class LogSampler {
+
+    /**
+     * The mode of every sampler
+     */
+
+    private static volatile LogMode mode = LogMode.FULL;
+
+    /**
+     * The calls between two logged ones, in the sampled mode
+     */
+
+    private static volatile int sampleEvery = 100;
+
+    /**
+     * The calls of this site
+     */
+
+    private final AtomicLong calls = new AtomicLong();
+
+    /**
+     * Changes the mode of every sampler
+     *
+     * @param newMode        the mode
+     * @param newSampleEvery the calls between two logged ones, in the sampled mode
+     *
+     * @throws IllegalArgumentException if the calls between two logged ones are not positive
+     */
+
+    public static void configure(LogMode newMode, int newSampleEvery) {
+
+        if (newSampleEvery < 1) {
+            throw new IllegalArgumentException("The calls between two logs must be positive");
+        }
+
+        sampleEvery = newSampleEvery;
+        mode = newMode;
+    }
+
+    /**
+     * The mode of every sampler
+     *
+     * @return the mode
+     */
+
+    public static LogMode mode() {
+
+        return mode;
+    }
+
+    /**
+     * The calls between two logged ones, in the sampled mode
+     *
+     * @return the calls
+     */
+
+    public static int sampleEvery() {
+
+        return sampleEvery;
+    }
+
+    /**
+     * Counts a call and tells if it is logged
+     *
+     * @return if the call is logged
+     */
+
+    public boolean sample() {
+
+        return mode == LogMode.FULL || calls.getAndIncrement() % sampleEvery == 0;
+    }
+
+    /**
+     * A list as it is logged in the current mode
+     *
+     * @param elements the elements
+     * @param id       the id of an element
+     * @param <T>      the type of the elements
+     *
+     * @return the list itself in the full mode, its summary in the sampled one
+     */
+
+    public static <T> Object summary(Collection<T> elements, Function<? super T, ?> id) {
+
+        return mode == LogMode.FULL ? elements : new LogSummary<>(elements, id);
+    }
+
+    /**
+     * Logs a call at INFO, if it is sampled
+     *
+     * @param logger   the logger
+     * @param format   the format of the message
+     * @param argument the argument of the message
+     */
+
+    public void info(Logger logger, String format, Object argument) {
+
+        if (logger.isInfoEnabled() && sample()) {
+            logger.info(format, argument);
+        }
+    }
+
+    /**
+     * Logs a call at INFO, if it is sampled
+     *
+     * @param logger the logger
+     * @param format the format of the message
+     * @param first  the first argument of the message
+     * @param second the second argument of the message
+     */
+
+    public void info(Logger logger, String format, Object first, Object second) {
+
+        if (logger.isInfoEnabled() && sample()) {
+            logger.info(format, first, second);
+        }
+    }
+
+    /**
+     * Logs a list at INFO, if the call is sampled: whole in the full mode, as a summary in the sampled one
+     *
+     * @param logger   the logger
+     * @param format   the format of the message, with the list as its only argument
+     * @param elements the elements
+     * @param id       the id of an element
+     * @param <T>      the type of the elements
+     */
+
+    public <T> void list(Logger logger, String format, Collection<T> elements, Function<? super T, ?> id) {
+
+        if (logger.isInfoEnabled() && sample()) {
+            logger.info(format, summary(elements, id));
+        }
+    }
+
+    /**
+     * Logs a count and a list at INFO, if the call is sampled: the list whole in the full mode, as a summary in the
+     * sampled one. The count is boxed only for the calls logged
+     *
+     * @param logger   the logger
+     * @param format   the format of the message, with the count and the list as its arguments
+     * @param count    the count
+     * @param elements the elements
+     * @param id       the id of an element
+     * @param <T>      the type of the elements
+     */
+
+    public <T> void list(Logger logger, String format, long count, Collection<T> elements,
+                         Function<? super T, ?> id) {
+
+        if (logger.isInfoEnabled() && sample()) {
+            logger.info(format, count, summary(elements, id));
+        }
+    }
+
+    /**
+     * Logs a list at INFO, if the call is sampled: a title and a line for every element in the full mode, the title
+     * and a summary in the sampled one
+     *
+     * @param logger   the logger
+     * @param title    the title
+     * @param elements the elements
+     * @param id       the id of an element
+     * @param line     logs the line of an element
+     * @param <T>      the type of the elements
+     */
+
+    public <T> void each(Logger logger, String title, Collection<T> elements, Function<? super T, ?> id,
+                         Consumer<? super T> line) {
+
+        if (!logger.isInfoEnabled() || !sample()) {
+            return;
+        }
+
+        if (mode == LogMode.FULL) {
+
+            logger.info("{}:", title);
+            elements.forEach(line);
+
+        } else {
+
+            logger.info("{}: {}", title, new LogSummary<>(elements, id));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.sarabarbara.compra.logging;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * LogSummary class
+ * <p>
+ * A list logged as its size and the ids of its first elements, instead of every element. The summary is only built
+ * if the log is written, when its {@link #toString()} is called.
+ *
+ * @param <T> the type of the elements
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class LogSummary<T> {
+
+    /**
+     * The most ids written
+     */
+
+    static final int MAX_IDS = 10;
+
+    /**
+     * The elements
+     */
+
+    private final Collection<T> elements;
+
+    /**
+     * The id of an element
+     */
+
+    private final Function<? super T, ?> id;
+
+    /**
+     * The constructor
+     *
+     * @param elements the elements
+     * @param id       the id of an element
+     */
+
+    LogSummary(Collection<T> elements, Function<? super T, ?> id) {
+
+        this.elements = elements;
+        this.id = id;
+    }
+
+    /**
+     * The summary
+     *
+     * @return the size and the first ids, as {@code 25 [1, 2, ..., 10, ...]}
+     */
+
+    @Override
+    public String toString() {
+
+        StringBuilder summary = new StringBuilder().append(elements.size()).append(" [");
+        int written = 0;
+
+        for (T element : elements) {
+
+            if (written == MAX_IDS) {
+
+                summary.append(", ...");
+                break;
+            }
+
+            if (written > 0) {
+                summary.append(", ");
+            }
+
+            summary.append(id.apply(element));
+            written++;
+        }
+
+        return summary.append(']').toString();
+    }
+
+}
@@ -2,9 +2,12 @@ package com.sarabarbara.compra.mapper;
 
 import com.sarabarbara.compra.dto.clients.ClientCreateDTO;
 import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.clients.ClientPurchaseDTO;
+import com.sarabarbara.compra.dto.clients.ClientPurchaseSummaryDTO;
 import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
 import com.sarabarbara.compra.dto.clients.ClientUpdateDTO;
 import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.pagination.CursorPage;
 import com.sarabarbara.compra.sheets.ClientSheet;
 import lombok.Builder;
 import org.jetbrains.annotations.NotNull;
@@ -136,12 +139,15 @@ public class ClientMapper {
     /**
      * The Client to ClientSheet Mapper
      *
-     * @param client the client
+     * @param client          the client
+     * @param purchases       the page of the most recent purchases of the client, may be null
+     * @param purchaseSummary the lifetime totals of the purchases of the client, may be null
      *
      * @return the sheet of the client
      */
 
-    public static ClientSheet toClientSheetMapper(@NotNull Client client) {
+    public static ClientSheet toClientSheetMapper(@NotNull Client client, CursorPage<ClientPurchaseDTO> purchases,
+                                                  ClientPurchaseSummaryDTO purchaseSummary) {
 
         return ClientSheet.builder()
                 .name(client.getName())
@@ -153,7 +159,9 @@ public class ClientMapper {
                 .province(client.getProvince())
                 .phoneNumber(client.getPhoneNumber())
                 .birthDate(client.getBirthDate())
-                //.purchases(client)
+                .purchases(purchases == null ? null : purchases.getContent())
+                .nextPurchasesCursor(purchases == null ? null : purchases.getNextCursor())
+                .purchaseSummary(purchaseSummary)
                 .build();
     }
 
@@ -85,6 +85,7 @@ public class PurchaseMapper {
 
         return purchaseList.stream()
                 .map(purchase -> PurchaseSearchDTO.builder()
+                        .idPurchase(purchase.getIdPurchase())
                         .client(toClientDTOMapper(purchase.getClient()))
                         .item(toItemDTOMapper(purchase.getItem()))
                         .purchaseDate(purchase.getPurchaseDate())
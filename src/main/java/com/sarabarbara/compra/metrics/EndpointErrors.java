@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.metrics;
+
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+/**
+ * EndpointErrors class
+ * <p>
+ * The controllers answer their errors themselves, so the exceptions never reach the observation of the request and
+ * its {@code http.server.requests} metrics would have no exception. Recording the exception before answering tags
+ * the request with its type, which gives the error rate of every endpoint by exception.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class EndpointErrors {
+
+    /**
+     * The private constructor
+     */
+
+    private EndpointErrors() {
+
+    }
+
+    /**
+     * Records the exception a request failed with
+     *
+     * @param error the exception
+     */
+
+    public static void record(Throwable error) {
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            ServerHttpObservationFilter.findObservationContext(attributes.getRequest())
+                    .ifPresent(context -> context.setError(error));
+        }
+    }
+
+}
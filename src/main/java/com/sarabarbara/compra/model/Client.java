@@ -1,18 +1,30 @@
 package com.sarabarbara.compra.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
+import static com.sarabarbara.compra.config.EntityCacheConfig.CLIENT_PHONE_NUMBER_REGION;
+import static com.sarabarbara.compra.config.EntityCacheConfig.CLIENT_REGION;
+import static com.sarabarbara.compra.search.SearchNormalizer.normalize;
+
 /**
  * Client class
+ * <p>
+ * Kept in the second level cache, by id and by phone number, so the repeated loads of a client don't reach the
+ * database.
  *
  * @author sarabarbaraam
  * @version 1.0
@@ -27,7 +39,18 @@ import java.util.Objects;
 @Getter
 @Setter
 @ToString
-@Table(name = "client")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CLIENT_REGION)
+@NaturalIdCache(region = CLIENT_PHONE_NUMBER_REGION)
+@Table(name = "client", indexes = {
+        @Index(name = "idx_client_name_norm", columnList = "name_norm"),
+        @Index(name = "idx_client_surname_norm", columnList = "surname_norm"),
+        @Index(name = "idx_client_company_norm", columnList = "company_norm"),
+        @Index(name = "idx_client_position_norm", columnList = "position_norm"),
+        @Index(name = "idx_client_province_norm", columnList = "province_norm"),
+        @Index(name = "idx_client_zip_code", columnList = "zip_code"),
+        @Index(name = "idx_client_phone_number", columnList = "phone_number")
+})
 public class Client implements Serializable {
 
     /**
@@ -108,6 +131,7 @@ public class Client implements Serializable {
      */
 
     @NonNull
+    @NaturalId(mutable = true)
     @Size(min = 9, max = 45, message = "The phoneNumber must be between 9 and 45 characters")
     @Column(name = "phone_number")
     private String phoneNumber;
@@ -122,6 +146,66 @@ public class Client implements Serializable {
     @Column(name = "birth_date")
     private LocalDate birthDate;
 
+    /**
+     * The normalized name, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "name_norm")
+    private String nameNorm;
+
+    /**
+     * The normalized surname, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "surname_norm")
+    private String surnameNorm;
+
+    /**
+     * The normalized company, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "company_norm")
+    private String companyNorm;
+
+    /**
+     * The normalized position, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "position_norm")
+    private String positionNorm;
+
+    /**
+     * The normalized province, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "province_norm")
+    private String provinceNorm;
+
+    /**
+     * Fills the normalized columns before every insert and update
+     */
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeSearchColumns() {
+
+        nameNorm = normalize(name);
+        surnameNorm = normalize(surname);
+        companyNorm = normalize(company);
+        positionNorm = normalize(position);
+        provinceNorm = normalize(province);
+    }
+
     /**
      * The equals
      *
@@ -0,0 +1,78 @@
+package com.sarabarbara.compra.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * ClientPurchaseSummary class
+ * <p>
+ * The lifetime totals of the purchases of a client, kept up to date by the writes of the purchases in their own
+ * transaction, so the profile of the client reads them by the primary key instead of adding up its purchases.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Table(name = "client_purchase_summary")
+public class ClientPurchaseSummary implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The idClient, the same as the client's
+     */
+
+    @Id
+    @Column(name = "id_client")
+    private Long idClient;
+
+    /**
+     * The number of purchases
+     */
+
+    @Column(name = "purchase_count", nullable = false)
+    private long purchaseCount;
+
+    /**
+     * The units bought
+     */
+
+    @Column(nullable = false)
+    private long units;
+
+    /**
+     * The total, without IVA
+     */
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal total;
+
+    /**
+     * The totalPrice, with IVA
+     */
+
+    @Column(name = "total_price", nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalPrice;
+
+}
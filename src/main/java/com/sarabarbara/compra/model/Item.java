@@ -1,6 +1,7 @@
 package com.sarabarbara.compra.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.sarabarbara.compra.enums.Type;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
@@ -8,6 +9,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -15,8 +17,13 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
 
+import static com.sarabarbara.compra.search.SearchNormalizer.normalize;
+
 /**
  * Item class
+ * <p>
+ * Not in the second level cache: the stock is changed by a bulk update on every purchase, which would empty the whole
+ * region each time. The reads of the hot paths go through the ItemCatalogCache instead.
  *
  * @author sarabarbaraam
  * @version 1.0
@@ -31,7 +38,10 @@ import java.util.Objects;
 @Getter
 @Setter
 @ToString
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_name_norm", columnList = "name_norm"),
+        @Index(name = "idx_item_supplier_norm", columnList = "supplier_norm")
+})
 public class Item implements Serializable {
 
     /**
@@ -55,6 +65,7 @@ public class Item implements Serializable {
      */
 
     @NonNull
+    @NaturalId(mutable = true)
     @Size(min = 3, max = 45, message = "The name must be between 3 and 45 characters")
     private String name;
 
@@ -108,6 +119,36 @@ public class Item implements Serializable {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy")
     private LocalDate date;
 
+    /**
+     * The normalized name, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "name_norm")
+    private String nameNorm;
+
+    /**
+     * The normalized supplier, for the searches
+     */
+
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "supplier_norm")
+    private String supplierNorm;
+
+    /**
+     * Fills the normalized columns before every insert and update
+     */
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeSearchColumns() {
+
+        nameNorm = normalize(name);
+        supplierNorm = normalize(supplier);
+    }
+
     /**
      * The equals
      *
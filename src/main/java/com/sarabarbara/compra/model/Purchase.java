@@ -1,16 +1,19 @@
 package com.sarabarbara.compra.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Purchase class
@@ -27,7 +30,17 @@ import java.util.Objects;
 @NoArgsConstructor
 @Getter
 @Setter
-@Table(name = "purchase")
+@Table(name = "purchase", indexes = {
+        @Index(name = "idx_purchase_date", columnList = "purchase_date"),
+        @Index(name = "idx_purchase_client_date", columnList = "id_client, purchase_date"),
+        @Index(name = "idx_purchase_item_date", columnList = "id_item, purchase_date")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_purchase_idempotency_key", columnNames = {"idempotency_key", "purchase_date"})
+})
+@NamedEntityGraph(name = Purchase.WITH_CLIENT_AND_ITEM, attributeNodes = {
+        @NamedAttributeNode("client"),
+        @NamedAttributeNode("item")
+})
 public class Purchase implements Serializable {
 
     /**
@@ -37,6 +50,12 @@ public class Purchase implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The fetch plan that loads the client and the item together with the purchase
+     */
+
+    public static final String WITH_CLIENT_AND_ITEM = "Purchase.withClientAndItem";
+
     /**
      * The idPurchase;
      */
@@ -109,6 +128,14 @@ public class Purchase implements Serializable {
     @Column(name = "total_price")
     private BigDecimal totalPrice;
 
+    /**
+     * The Idempotency-Key the purchase was created with, if any
+     */
+
+    @JsonIgnore
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
     /**
      * The equals
      *
@@ -144,7 +171,8 @@ public class Purchase implements Serializable {
     }
 
     /**
-     * The toString
+     * The toString. The client and the item are written as their ids, read from the proxy if they aren't loaded, so
+     * logging a purchase never loads them
      *
      * @return the string
      */
@@ -153,8 +181,8 @@ public class Purchase implements Serializable {
     public String toString() {
         return "Purchase{" +
                 "idPurchase=" + idPurchase +
-                ", idClient=" + client +
-                ", idItem=" + item +
+                ", idClient=" + idOf(client, Client::getIdClient) +
+                ", idItem=" + idOf(item, Item::getIdItem) +
                 ", purchaseDate=" + purchaseDate +
                 ", quantity=" + quantity +
                 ", total=" + total +
@@ -164,4 +192,25 @@ public class Purchase implements Serializable {
                 '}';
     }
 
+    // Complementary methods
+
+    /**
+     * The id of an association, without loading it
+     *
+     * @param association the association
+     * @param id          the id of the association, once loaded
+     * @param <T>         the type of the association
+     *
+     * @return the id, or null if there is no association
+     */
+
+    private static <T> Object idOf(T association, Function<T, Long> id) {
+
+        if (association instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+
+        return association == null ? null : id.apply(association);
+    }
+
 }
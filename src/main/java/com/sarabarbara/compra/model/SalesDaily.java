@@ -0,0 +1,124 @@
+package com.sarabarbara.compra.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * SalesDaily class
+ * <p>
+ * The sales of an item in a day, kept up to date by the writes of the purchases in their own transaction, so the
+ * reports read a few rows per day and item instead of every purchase. The sales of a day and item are split in
+ * shards, added up when they are read: the shard 0 is the base, built from the purchases, and the rest only take the
+ * amounts of the purchases that come after it, so the concurrent purchases of an item don't all wait for one row.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@IdClass(SalesDailyId.class)
+@Table(name = "sales_daily")
+public class SalesDaily implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The day
+     */
+
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    /**
+     * The idItem
+     */
+
+    @Id
+    @Column(name = "id_item")
+    private Long idItem;
+
+    /**
+     * The shard, 0 for the base
+     */
+
+    @Id
+    @Column(name = "shard")
+    private int shard;
+
+    /**
+     * The number of purchases
+     */
+
+    @Column(name = "purchase_count", nullable = false)
+    private long purchaseCount;
+
+    /**
+     * The units sold
+     */
+
+    @Column(nullable = false)
+    private long quantity;
+
+    /**
+     * The net amount, the sum of the totals without IVA
+     */
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal net;
+
+    /**
+     * The tax, the sum of the IVA amounts
+     */
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal tax;
+
+    /**
+     * The gross amount, the sum of the total prices
+     */
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal gross;
+
+    /**
+     * The constructor of the base shard
+     *
+     * @param day           the day
+     * @param idItem        the idItem
+     * @param purchaseCount the number of purchases
+     * @param quantity      the units sold
+     * @param net           the net amount
+     * @param tax           the tax
+     * @param gross         the gross amount
+     */
+
+    public SalesDaily(LocalDate day, Long idItem, long purchaseCount, long quantity, BigDecimal net, BigDecimal tax,
+                      BigDecimal gross) {
+
+        this(day, idItem, 0, purchaseCount, quantity, net, tax, gross);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.sarabarbara.compra.model;
+
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * SalesDailyId class
+ * <p>
+ * The key of a {@link SalesDaily}: the day, the item and the shard.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class SalesDailyId implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The day
+     */
+
+    private LocalDate day;
+
+    /**
+     * The idItem
+     */
+
+    private Long idItem;
+
+    /**
+     * The shard
+     */
+
+    private int shard;
+
+}
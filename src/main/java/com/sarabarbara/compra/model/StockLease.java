@@ -0,0 +1,67 @@
+package com.sarabarbara.compra.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * StockLease class
+ * <p>
+ * The units of a hot item an instance of the application claimed from the stock and hasn't accounted yet. The sales
+ * from the lease are kept apart, as {@link StockLeaseSale}s, so the units leased and not sold are these units minus
+ * the ones of the sales, whatever happened to the instance.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@IdClass(StockLeaseId.class)
+@Table(name = "stock_lease")
+public class StockLease implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The instance of the application that holds the lease
+     */
+
+    @Id
+    @Column(length = 64)
+    private String owner;
+
+    /**
+     * The idItem
+     */
+
+    @Id
+    @Column(name = "id_item")
+    private Long idItem;
+
+    /**
+     * The units claimed and not accounted yet
+     */
+
+    @Column(nullable = false)
+    private long units;
+
+}
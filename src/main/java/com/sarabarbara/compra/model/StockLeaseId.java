@@ -0,0 +1,45 @@
+package com.sarabarbara.compra.model;
+
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * StockLeaseId class
+ * <p>
+ * The key of a {@link StockLease}: the instance and the item.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class StockLeaseId implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The instance of the application
+     */
+
+    private String owner;
+
+    /**
+     * The idItem
+     */
+
+    private Long idItem;
+
+}
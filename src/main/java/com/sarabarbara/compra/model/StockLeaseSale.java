@@ -0,0 +1,76 @@
+package com.sarabarbara.compra.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * StockLeaseSale class
+ * <p>
+ * The units of a purchase taken from a {@link StockLease}, written in the purchase transaction so it is committed or
+ * rolled back with the purchase. The next claim of the item takes them off the lease.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+@Table(name = "stock_lease_sale", indexes = {
+        @Index(name = "idx_stock_lease_sale_lease", columnList = "owner, id_item")
+})
+public class StockLeaseSale implements Serializable {
+
+    /**
+     * The serialVersionUID
+     */
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the sale
+     */
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_sale")
+    private Long idSale;
+
+    /**
+     * The instance of the application that holds the lease
+     */
+
+    @Column(length = 64, nullable = false)
+    private String owner;
+
+    /**
+     * The idItem
+     */
+
+    @Column(name = "id_item", nullable = false)
+    private Long idItem;
+
+    /**
+     * The units sold
+     */
+
+    @Column(nullable = false)
+    private int quantity;
+
+}
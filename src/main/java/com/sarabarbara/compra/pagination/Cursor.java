@@ -0,0 +1,145 @@
+package com.sarabarbara.compra.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor class
+ * <p>
+ * The position of a keyset page: the id of the last row returned and, when the rows are sorted by date, its date.
+ * It travels to the clients as an opaque url-safe string.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+@ToString
+@EqualsAndHashCode
+public class Cursor {
+
+    /**
+     * The cursor before the first row
+     */
+
+    private static final Cursor START = new Cursor(null, 0L);
+
+    /**
+     * The date of the last row, only for the cursors sorted by date
+     */
+
+    private final LocalDate date;
+
+    /**
+     * The id of the last row
+     */
+
+    private final long id;
+
+    /**
+     * Builds the cursor of a row sorted by id
+     *
+     * @param id the id of the row
+     *
+     * @return the cursor
+     */
+
+    public static Cursor of(long id) {
+
+        return new Cursor(null, id);
+    }
+
+    /**
+     * Builds the cursor of a row sorted by date and id
+     *
+     * @param date the date of the row
+     * @param id   the id of the row
+     *
+     * @return the cursor
+     */
+
+    public static Cursor of(LocalDate date, long id) {
+
+        return new Cursor(date, id);
+    }
+
+    /**
+     * The cursor before the first row
+     *
+     * @return the start cursor
+     */
+
+    public static Cursor start() {
+
+        return START;
+    }
+
+    /**
+     * Checks if the cursor is before the first row
+     *
+     * @return true if there is no row before the cursor
+     */
+
+    public boolean isStart() {
+
+        return date == null && id == 0L;
+    }
+
+    /**
+     * Encodes the cursor as an opaque string
+     *
+     * @return the encoded cursor
+     */
+
+    public String encode() {
+
+        String raw = date == null ? Long.toString(id) : date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor received from a client. A null or empty cursor is the start cursor
+     *
+     * @param encoded the encoded cursor
+     *
+     * @return the cursor
+     *
+     * @throws IllegalArgumentException if the cursor is not valid
+     */
+
+    public static Cursor decode(String encoded) {
+
+        if (encoded == null || encoded.isBlank()) {
+
+            return START;
+        }
+
+        try {
+
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+
+            if (separator < 0) {
+
+                return of(Long.parseLong(raw));
+            }
+
+            return of(LocalDate.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+
+            throw new IllegalArgumentException("Invalid cursor " + encoded);
+        }
+    }
+
+}
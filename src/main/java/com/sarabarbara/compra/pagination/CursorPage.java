@@ -0,0 +1,59 @@
+package com.sarabarbara.compra.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage class
+ * <p>
+ * A keyset page: the rows and the cursor of the next page, null when it is the last one.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class CursorPage<T> {
+
+    /**
+     * The content
+     */
+
+    private final List<T> content;
+
+    /**
+     * The nextCursor
+     */
+
+    private final String nextCursor;
+
+    /**
+     * Builds the page from the rows read with a limit of size + 1, the extra row only tells if there is a next page
+     *
+     * @param rows     the rows read
+     * @param size     the size of the page
+     * @param cursorOf the cursor of a row
+     * @param <T>      the type of the rows
+     *
+     * @return the page
+     */
+
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+
+        if (rows.size() <= size) {
+
+            return new CursorPage<>(rows, null);
+        }
+
+        List<T> content = rows.subList(0, size);
+        return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)).encode());
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.sarabarbara.compra.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * SlicePage class
+ * <p>
+ * Offset pages that are not counted: one row more than the page is read, and only tells if there is a next page.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class SlicePage {
+
+    /**
+     * The private constructor
+     */
+
+    private SlicePage() {
+
+    }
+
+    /**
+     * The rows to read for a page, one more than its size
+     *
+     * @param pageable the pageable
+     *
+     * @return the rows to read
+     */
+
+    public static int limit(Pageable pageable) {
+
+        return pageable.getPageSize() + 1;
+    }
+
+    /**
+     * Builds the slice from the rows read with a limit of size + 1
+     *
+     * @param rows     the rows read
+     * @param pageable the pageable
+     * @param <T>      the type of the rows
+     *
+     * @return the slice
+     */
+
+    public static <T> Slice<T> of(List<T> rows, Pageable pageable) {
+
+        if (rows.size() <= pageable.getPageSize()) {
+
+            return new SliceImpl<>(rows, pageable, false);
+        }
+
+        return new SliceImpl<>(rows.subList(0, pageable.getPageSize()), pageable, true);
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.sarabarbara.compra.partition;
+
+import com.sarabarbara.compra.dto.purchases.PurchasePartitionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * PurchasePartitionManager class
+ * <p>
+ * Keeps the monthly partitions of the purchase table, partitioned by range of purchase_date as in
+ * {@code src/sql/1-MySQLCreateTables.sql}: one partition per month named p followed by the year and the month, and a
+ * last pmax partition that takes anything later. Only with MySQL and off unless
+ * {@code compra.purchase.partitions.enabled} is true.
+ * <p>
+ * At startup and every day at {@code compra.purchase.partitions.cron} it creates the partitions up to
+ * {@code months-ahead} months from now, splitting them off the empty pmax, so the new purchases never land in pmax.
+ * A month is removed by dropping its partition, which costs the same whatever its rows.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PurchasePartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurchasePartitionManager.class);
+
+    /**
+     * The partitioned table
+     */
+
+    private static final String TABLE = "purchase";
+
+    /**
+     * The last partition, for the dates after the monthly ones
+     */
+
+    private static final String MAX_PARTITION = "pmax";
+
+    /**
+     * The name of the partition of a month
+     */
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * The partitions of the table, in order
+     */
+
+    private static final String PARTITIONS_QUERY = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS, " +
+            "DATA_LENGTH, INDEX_LENGTH FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() " +
+            "AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+
+    /**
+     * The jdbcTemplate
+     */
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * If the partitions are managed
+     */
+
+    private final boolean enabled;
+
+    /**
+     * The months ahead of the current one that must have a partition
+     */
+
+    private final int monthsAhead;
+
+    /**
+     * The constructor
+     *
+     * @param jdbcTemplate the jdbc template
+     * @param enabled      if the partitions are managed
+     * @param monthsAhead  the months ahead of the current one that must have a partition
+     */
+
+    public PurchasePartitionManager(JdbcTemplate jdbcTemplate,
+                                    @Value("${compra.purchase.partitions.enabled:false}") boolean enabled,
+                                    @Value("${compra.purchase.partitions.months-ahead:3}") int monthsAhead) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Creates the missing partitions when the application starts
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+
+        maintainQuietly();
+    }
+
+    /**
+     * Creates the missing partitions every day
+     */
+
+    @Scheduled(cron = "${compra.purchase.partitions.cron:0 0 3 * * *}")
+    public void onSchedule() {
+
+        maintainQuietly();
+    }
+
+    /**
+     * If the partitions are managed
+     *
+     * @return true if they are managed
+     */
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Creates the partitions of the months from the last one up to {@code months-ahead} months from now
+     *
+     * @return the names of the partitions created
+     *
+     * @throws IllegalStateException if the partitions are not managed or the table is not partitioned
+     */
+
+    public synchronized List<String> createFuturePartitions() {
+
+        checkEnabled();
+
+        List<PurchasePartitionDTO> partitions = partitions();
+        YearMonth next = null;
+        boolean hasMax = false;
+
+        for (PurchasePartitionDTO partition : partitions) {
+
+            if (MAX_PARTITION.equals(partition.getName())) {
+                hasMax = true;
+            } else {
+                next = YearMonth.from(LocalDate.parse(partition.getLessThan()));
+            }
+        }
+
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+        if (next == null) {
+            throw new IllegalStateException("The " + TABLE + " table has no monthly partitions");
+        }
+
+        List<String> created = new ArrayList<>();
+        StringJoiner definitions = new StringJoiner(", ");
+
+        for (YearMonth month = next; !month.isAfter(last); month = month.plusMonths(1)) {
+
+            created.add(month.format(PARTITION_NAME));
+            definitions.add("PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('" +
+                    month.plusMonths(1).atDay(1) + "')");
+        }
+
+        if (created.isEmpty()) {
+            return created;
+        }
+
+        if (hasMax) {
+
+            definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                    definitions + ")");
+
+        } else {
+
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PARTITION (" + definitions + ")");
+        }
+
+        logger.info("Purchase partitions created: {}", created);
+        return created;
+    }
+
+    /**
+     * The partitions of the purchase table and their sizes
+     *
+     * @return the partitions, in date order
+     *
+     * @throws IllegalStateException if the partitions are not managed
+     */
+
+    public List<PurchasePartitionDTO> partitions() {
+
+        checkEnabled();
+
+        return jdbcTemplate.query(PARTITIONS_QUERY, (rs, row) -> new PurchasePartitionDTO(
+                rs.getString("PARTITION_NAME"),
+                rs.getString("PARTITION_DESCRIPTION").replace("'", ""),
+                rs.getLong("TABLE_ROWS"),
+                rs.getLong("DATA_LENGTH"),
+                rs.getLong("INDEX_LENGTH")), TABLE);
+    }
+
+    /**
+     * The first day surely kept whole by the partitions: the first day of the month of the oldest one. The oldest
+     * partition takes every earlier date too, but the months before it may have been dropped
+     *
+     * @return the first day, null if the partitions are not managed or there is no monthly partition
+     */
+
+    public LocalDate firstKeptDay() {
+
+        if (!enabled) {
+            return null;
+        }
+
+        return partitions().stream()
+                .map(PurchasePartitionDTO::getName)
+                .filter(name -> !MAX_PARTITION.equals(name))
+                .findFirst()
+                .map(name -> YearMonth.parse(name, PARTITION_NAME).atDay(1))
+                .orElse(null);
+    }
+
+    /**
+     * Drops the partition of a month, and with it all the purchases of the month, without deleting them one by
+     * one. The client summaries and the daily sales keep the month
+     *
+     * @param month the month, before the current one
+     *
+     * @throws IllegalStateException    if the partitions are not managed
+     * @throws IllegalArgumentException if the month is not before the current one or has no partition
+     */
+
+    public synchronized void dropMonth(YearMonth month) {
+
+        checkEnabled();
+
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only the months before the current one can be dropped");
+        }
+
+        String name = month.format(PARTITION_NAME);
+
+        if (partitions().stream().noneMatch(partition -> name.equals(partition.getName()))) {
+            throw new IllegalArgumentException("There is no partition for " + month);
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + name);
+        logger.info("Purchase partition {} dropped", name);
+    }
+
+    // Complementary methods
+
+    /**
+     * Creates the missing partitions if they are managed, logging instead of failing
+     */
+
+    private void maintainQuietly() {
+
+        if (!enabled) {
+            return;
+        }
+
+        try {
+
+            createFuturePartitions();
+
+        } catch (RuntimeException e) {
+
+            logger.error("Can't create the purchase partitions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks that the partitions are managed
+     */
+
+    private void checkEnabled() {
+
+        if (!enabled) {
+            throw new IllegalStateException("The purchase partitions are not managed");
+        }
+    }
+
+}
@@ -0,0 +1,195 @@
+package com.sarabarbara.compra.patch;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * EntityPatcher class
+ * <p>
+ * Copies the non-null properties of an object onto another of the same type, for the partial updates. The getters
+ * and setters are looked up once, when the patcher is built, and kept as method handles, so a patch is only a loop
+ * of calls, without reflection or shared configuration; a patcher is immutable and can be used from many threads.
+ * <p>
+ * Only the properties with a getter and a setter are copied, except the skipped ones. A primitive is never null, so
+ * it is always copied.
+ *
+ * @param <T> the type patched
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class EntityPatcher<T> {
+
+    /**
+     * The type of the getters, once adapted
+     */
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * The type of the setters, once adapted
+     */
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The getters of the copied properties
+     */
+
+    private final MethodHandle[] getters;
+
+    /**
+     * The setters of the copied properties, in the order of the getters
+     */
+
+    private final MethodHandle[] setters;
+
+    /**
+     * The names of the copied properties, in the order of the getters
+     */
+
+    private final List<String> properties;
+
+    /**
+     * The constructor
+     *
+     * @param getters    the getters
+     * @param setters    the setters
+     * @param properties the names of the properties
+     */
+
+    private EntityPatcher(MethodHandle[] getters, MethodHandle[] setters, List<String> properties) {
+
+        this.getters = getters;
+        this.setters = setters;
+        this.properties = properties;
+    }
+
+    /**
+     * Builds the patcher of a type
+     *
+     * @param type    the type
+     * @param skipped the properties never copied
+     * @param <T>     the type
+     *
+     * @return the patcher
+     *
+     * @throws IllegalArgumentException if a skipped property doesn't exist or a property can't be accessed
+     */
+
+    public static <T> EntityPatcher<T> of(Class<T> type, String... skipped) {
+
+        Set<String> skip = Set.of(skipped);
+        List<MethodHandle> getters = new ArrayList<>();
+        List<MethodHandle> setters = new ArrayList<>();
+        List<String> properties = new ArrayList<>();
+        List<String> known = new ArrayList<>();
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        for (PropertyDescriptor property : descriptors(type)) {
+
+            known.add(property.getName());
+
+            if (property.getReadMethod() == null || property.getWriteMethod() == null ||
+                    skip.contains(property.getName())) {
+                continue;
+            }
+
+            try {
+
+                getters.add(lookup.unreflect(property.getReadMethod()).asType(GETTER));
+                setters.add(lookup.unreflect(property.getWriteMethod()).asType(SETTER));
+                properties.add(property.getName());
+
+            } catch (IllegalAccessException e) {
+
+                throw new IllegalArgumentException("Can't access the property " + property.getName() + " of " +
+                        type.getSimpleName(), e);
+            }
+        }
+
+        for (String name : skip) {
+
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException(type.getSimpleName() + " has no property " + name);
+            }
+        }
+
+        return new EntityPatcher<>(getters.toArray(MethodHandle[]::new), setters.toArray(MethodHandle[]::new),
+                List.copyOf(properties));
+    }
+
+    /**
+     * Copies the non-null properties of the source onto the target
+     *
+     * @param source the object with the new values
+     * @param target the object updated
+     */
+
+    public void patch(T source, T target) {
+
+        try {
+
+            for (int i = 0; i < getters.length; i++) {
+
+                Object value = getters[i].invokeExact((Object) source);
+
+                if (value != null) {
+                    setters[i].invokeExact((Object) target, value);
+                }
+            }
+
+        } catch (RuntimeException | Error e) {
+
+            throw e;
+
+        } catch (Throwable e) {
+
+            throw new IllegalStateException("Can't patch the " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * The names of the properties copied
+     *
+     * @return the names
+     */
+
+    public List<String> properties() {
+
+        return properties;
+    }
+
+    // Complementary methods
+
+    /**
+     * The properties of a type, without the ones of Object
+     *
+     * @param type the type
+     *
+     * @return the properties
+     */
+
+    private static PropertyDescriptor[] descriptors(Class<?> type) {
+
+        try {
+
+            return Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+
+        } catch (IntrospectionException e) {
+
+            throw new IllegalArgumentException("Can't read the properties of " + type.getSimpleName(), e);
+        }
+    }
+
+}
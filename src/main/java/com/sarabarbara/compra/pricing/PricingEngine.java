@@ -0,0 +1,255 @@
+package com.sarabarbara.compra.pricing;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Purchase;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * PricingEngine class
+ * <p>
+ * Computes the totals of the purchases in cents, with longs, and only turns them into {@link BigDecimal} to store
+ * them. Every amount has two decimals and the IVA is rounded half up to the cent, so the same purchase gets the same
+ * totals on every node.
+ * <p>
+ * The IVA of each {@link Type} is {@code compra.pricing.iva.<TYPE>}, by default {@code compra.pricing.iva.default},
+ * which is 21 by default.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class PricingEngine {
+
+    /**
+     * The decimals of the amounts
+     */
+
+    public static final int SCALE = 2;
+
+    /**
+     * The 100% of a rate, the rates are in hundredths of a percent
+     */
+
+    private static final long RATE_ONE = 10_000;
+
+    /**
+     * The rates by type ordinal, in hundredths of a percent
+     */
+
+    private final int[] rates = new int[Type.values().length];
+
+    /**
+     * The IVA by type ordinal, as stored in the purchase
+     */
+
+    private final BigDecimal[] ivas = new BigDecimal[Type.values().length];
+
+    /**
+     * The rate of the items without type
+     */
+
+    private final int defaultRate;
+
+    /**
+     * The IVA of the items without type
+     */
+
+    private final BigDecimal defaultIva;
+
+    /**
+     * The constructor
+     *
+     * @param environment the environment with the rates
+     */
+
+    public PricingEngine(Environment environment) {
+
+        BigDecimal fallback = environment.getProperty("compra.pricing.iva.default", BigDecimal.class,
+                BigDecimal.valueOf(21));
+
+        this.defaultRate = toRate(fallback);
+        this.defaultIva = BigDecimal.valueOf(defaultRate, SCALE);
+
+        for (Type type : Type.values()) {
+
+            BigDecimal iva = environment.getProperty("compra.pricing.iva." + type.name(), BigDecimal.class, fallback);
+
+            rates[type.ordinal()] = toRate(iva);
+            ivas[type.ordinal()] = BigDecimal.valueOf(rates[type.ordinal()], SCALE);
+        }
+    }
+
+    /**
+     * Computes the totals of a purchase
+     *
+     * @param unitPrice the unit price of the item
+     * @param type      the type of the item
+     * @param quantity  the quantity
+     *
+     * @return the total, the IVA, the total IVA and the total price
+     */
+
+    public Totals totals(BigDecimal unitPrice, Type type, int quantity) {
+
+        int rate = type == null ? defaultRate : rates[type.ordinal()];
+
+        long total = total(toMinor(unitPrice), quantity);
+        long totalIva = tax(total, rate);
+
+        return new Totals(toDecimal(total), ivaOf(type), toDecimal(totalIva), toDecimal(total + totalIva));
+    }
+
+    /**
+     * Sets the total, the IVA, the total IVA and the total price of a purchase
+     *
+     * @param purchase  the purchase
+     * @param unitPrice the unit price of the item
+     * @param type      the type of the item
+     * @param quantity  the quantity
+     */
+
+    public void price(Purchase purchase, BigDecimal unitPrice, Type type, int quantity) {
+
+        Totals totals = totals(unitPrice, type, quantity);
+
+        purchase.setTotal(totals.getTotal());
+        purchase.setIva(totals.getIva());
+        purchase.setTotalIva(totals.getTotalIva());
+        purchase.setTotalPrice(totals.getTotalPrice());
+    }
+
+    /**
+     * The IVA of a type
+     *
+     * @param type the type, null for the default
+     *
+     * @return the IVA, a percent with two decimals
+     */
+
+    public BigDecimal ivaOf(Type type) {
+
+        return type == null ? defaultIva : ivas[type.ordinal()];
+    }
+
+    /**
+     * The total of a line
+     *
+     * @param unitMinor the unit price in cents
+     * @param quantity  the quantity
+     *
+     * @return the total in cents
+     */
+
+    public static long total(long unitMinor, int quantity) {
+
+        return Math.multiplyExact(unitMinor, quantity);
+    }
+
+    /**
+     * The tax of a total, rounded half up to the cent
+     *
+     * @param totalMinor the total in cents
+     * @param rate       the rate in hundredths of a percent
+     *
+     * @return the tax in cents
+     */
+
+    public static long tax(long totalMinor, int rate) {
+
+        long scaled = Math.multiplyExact(totalMinor, rate);
+
+        return scaled >= 0
+                ? (scaled + RATE_ONE / 2) / RATE_ONE
+                : -((-scaled + RATE_ONE / 2) / RATE_ONE);
+    }
+
+    /**
+     * Turns an amount into cents, rounded half up
+     *
+     * @param amount the amount
+     *
+     * @return the cents
+     */
+
+    public static long toMinor(BigDecimal amount) {
+
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Turns cents into an amount with two decimals
+     *
+     * @param minor the cents
+     *
+     * @return the amount
+     */
+
+    public static BigDecimal toDecimal(long minor) {
+
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // Complementary methods
+
+    /**
+     * Turns a percent into hundredths of a percent
+     *
+     * @param percent the percent
+     *
+     * @return the rate
+     */
+
+    private static int toRate(BigDecimal percent) {
+
+        if (percent.signum() < 0) {
+            throw new IllegalArgumentException("The IVA can't be negative: " + percent);
+        }
+
+        return percent.movePointRight(SCALE).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    /**
+     * Totals class
+     * <p>
+     * The amounts of a purchase, with two decimals
+     */
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Totals {
+
+        /**
+         * The total, without IVA
+         */
+
+        private final BigDecimal total;
+
+        /**
+         * The IVA, a percent
+         */
+
+        private final BigDecimal iva;
+
+        /**
+         * The IVA of the total
+         */
+
+        private final BigDecimal totalIva;
+
+        /**
+         * The total with IVA
+         */
+
+        private final BigDecimal totalPrice;
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.Client;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * ClientNaturalIdRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public interface ClientNaturalIdRepository {
+
+    /**
+     * Searches a client by the phone number.
+     * A lookup by natural id: the id of the phone number and then the client come from the second level cache when
+     * they are there, without a query
+     *
+     * @param phoneNumber the phone number of the client
+     *
+     * @return the client searched
+     */
+
+    Optional<Client> findByPhoneNumber(@NotNull String phoneNumber);
+
+}
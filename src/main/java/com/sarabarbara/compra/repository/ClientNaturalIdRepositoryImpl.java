@@ -0,0 +1,38 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.Client;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * ClientNaturalIdRepositoryImpl class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class ClientNaturalIdRepositoryImpl implements ClientNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Client> findByPhoneNumber(@NotNull String phoneNumber) {
+
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Client.class)
+                .loadOptional(phoneNumber);
+    }
+
+}
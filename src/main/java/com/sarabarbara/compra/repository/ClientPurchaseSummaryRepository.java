@@ -0,0 +1,98 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.ClientPurchaseSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ClientPurchaseSummaryRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Repository
+public interface ClientPurchaseSummaryRepository extends JpaRepository<ClientPurchaseSummary, Long> {
+
+    /**
+     * Adds to the totals of a client, negative amounts subtract, creating the summary with the amounts if the client
+     * has none. A single upsert relative to the current values: the concurrent purchases of the client don't lose
+     * each other's amounts, two first purchases never both insert, and the row lock is held only until the purchase
+     * commits
+     *
+     * @param idClient      the id of the client
+     * @param purchaseCount the purchases to add
+     * @param units         the units to add
+     * @param total         the total to add, without IVA
+     * @param totalPrice    the total to add, with IVA
+     *
+     * @return 1 if the summary was created, 2 if it was added to
+     */
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "client_purchase_summary"))
+    @Query(value = "INSERT INTO client_purchase_summary (id_client, purchase_count, units, total, total_price) " +
+            "VALUES (:idClient, :purchaseCount, :units, :total, :totalPrice) ON DUPLICATE KEY UPDATE " +
+            "purchase_count = purchase_count + :purchaseCount, units = units + :units, total = total + :total, " +
+            "total_price = total_price + :totalPrice", nativeQuery = true)
+    int addToSummary(@Param("idClient") Long idClient, @Param("purchaseCount") long purchaseCount,
+                     @Param("units") long units, @Param("total") BigDecimal total,
+                     @Param("totalPrice") BigDecimal totalPrice);
+
+    /**
+     * Adds up the purchases of a client, reading them by the (id_client, purchase_date) index
+     *
+     * @param idClient the id of the client
+     *
+     * @return the totals of the client, empty if the client has no purchases
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.model.ClientPurchaseSummary(p.client.idClient, COUNT(p), " +
+            "SUM(p.quantity), SUM(p.total), SUM(p.totalPrice)) FROM Purchase p WHERE p.client.idClient = :idClient " +
+            "GROUP BY p.client.idClient")
+    Optional<ClientPurchaseSummary> sumPurchasesOf(@Param("idClient") Long idClient);
+
+    /**
+     * Replaces the totals of a client
+     *
+     * @param idClient      the id of the client
+     * @param purchaseCount the purchases
+     * @param units         the units
+     * @param total         the total, without IVA
+     * @param totalPrice    the total, with IVA
+     *
+     * @return 1 if the client has a summary, 0 otherwise
+     */
+
+    @Modifying
+    @Query("UPDATE ClientPurchaseSummary s SET s.purchaseCount = :purchaseCount, s.units = :units, " +
+            "s.total = :total, s.totalPrice = :totalPrice WHERE s.idClient = :idClient")
+    int replaceSummary(@Param("idClient") Long idClient, @Param("purchaseCount") long purchaseCount,
+                       @Param("units") long units, @Param("total") BigDecimal total,
+                       @Param("totalPrice") BigDecimal totalPrice);
+
+    /**
+     * Adds up the purchases of an item by client, reading them by the (id_item, purchase_date) index
+     *
+     * @param idItem the id of the item
+     *
+     * @return the totals of the purchases of the item of every client that bought it
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.model.ClientPurchaseSummary(p.client.idClient, COUNT(p), " +
+            "SUM(p.quantity), SUM(p.total), SUM(p.totalPrice)) FROM Purchase p WHERE p.item.idItem = :idItem " +
+            "GROUP BY p.client.idClient")
+    List<ClientPurchaseSummary> sumPurchasesOfItem(@Param("idItem") Long idItem);
+
+}
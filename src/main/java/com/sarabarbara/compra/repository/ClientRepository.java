@@ -1,8 +1,10 @@
 package com.sarabarbara.compra.repository;
 
 
+import com.sarabarbara.compra.dto.clients.ClientDTO;
 import com.sarabarbara.compra.model.Client;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +12,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,7 +25,8 @@ import java.util.Optional;
  */
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, ClientSearchRepository,
+        ClientNaturalIdRepository {
 
     /**
      * Searches all the clients
@@ -34,49 +39,31 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
     @NotNull Page<Client> findAll(@NotNull Pageable pageable);
 
     /**
-     * Searches a client by an only or many parameters
-     *
-     * @param name        the name of the client
-     * @param surname     the surname of the client
-     * @param company     the company of the client
-     * @param position    the position of the client
-     * @param zipCode     the zip code of the client
-     * @param province    the province of the client
-     * @param phoneNumber the phone number of the client
-     * @param pageable    the pageable
-     *
-     * @return the searched client
+     * Searches all the clients, reading only the columns of the ClientDTO
+     *
+     * @param pageable the pageable
+     *
+     * @return the list of all clients
      */
 
-    // LIKE CONCAT('%', :param, '%') busca coincidencias parciales
-    @Query("SELECT c FROM Client c WHERE " +
-            "(:name IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:surname IS NULL OR LOWER(c.surname) LIKE LOWER(CONCAT('%', :surname, '%'))) AND " +
-            "(:company IS NULL OR LOWER(c.company) LIKE LOWER(CONCAT('%', :company, '%'))) AND " +
-            "(:position IS NULL OR LOWER(c.position) LIKE LOWER(CONCAT('%', :position, '%'))) AND " +
-            "(:zipCode IS NULL OR LOWER(c.zipCode) LIKE LOWER(CONCAT('%', :zipCode, '%'))) AND " +
-            "(:province IS NULL OR LOWER(c.province) LIKE LOWER(CONCAT('%', :province, '%'))) AND " +
-            "(:phoneNumber IS NULL OR LOWER(c.phoneNumber) LIKE LOWER(CONCAT('%', :phoneNumber, '%')))")
-    Page<Client> searchClients(
-            @Param("name") String name,
-            @Param("surname") String surname,
-            @Param("company") String company,
-            @Param("position") String position,
-            @Param("zipCode") String zipCode,
-            @Param("province") String province,
-            @Param("phoneNumber") String phoneNumber,
-            @NotNull Pageable pageable
-    );
+    @Query(value = "SELECT new com.sarabarbara.compra.dto.clients.ClientDTO(c.idClient, c.name, c.surname, " +
+            "c.company, c.position, c.address, c.zipCode, c.province, c.phoneNumber, c.birthDate) FROM Client c",
+            countQuery = "SELECT COUNT(c) FROM Client c")
+    Page<ClientDTO> findAllClientDTO(@NotNull Pageable pageable);
 
     /**
-     * Searches a client by the phone number
+     * Searches the clients after a given id, in id order, without counting them
      *
-     * @param phoneNumber the phone number of the client
+     * @param after the id of the last client already read, 0 for the first page
+     * @param limit the maximum number of clients
      *
-     * @return the client searched
+     * @return the clients after the id
      */
 
-    Optional<Client> findByPhoneNumber(@NotNull String phoneNumber);
+    @Query("SELECT new com.sarabarbara.compra.dto.clients.ClientDTO(c.idClient, c.name, c.surname, c.company, " +
+            "c.position, c.address, c.zipCode, c.province, c.phoneNumber, c.birthDate) FROM Client c " +
+            "WHERE c.idClient > :after ORDER BY c.idClient")
+    List<ClientDTO> findClientDTOAfter(@Param("after") long after, Limit limit);
 
     /**
      * Searches a client by the id
@@ -98,4 +85,50 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
 
     @NotNull Optional<Client> findByCompany(@NotNull String company);
 
+    /**
+     * Searches which of the companies are already taken, with one query
+     *
+     * @param companies the companies
+     *
+     * @return the companies taken
+     */
+
+    @Query("SELECT c.company FROM Client c WHERE c.company IN :companies")
+    List<String> findCompaniesIn(@Param("companies") Collection<String> companies);
+
+    /**
+     * Searches which of the phone numbers are already taken, with one query
+     *
+     * @param phoneNumbers the phone numbers
+     *
+     * @return the phone numbers taken
+     */
+
+    @Query("SELECT c.phoneNumber FROM Client c WHERE c.phoneNumber IN :phoneNumbers")
+    List<String> findPhoneNumbersIn(@Param("phoneNumbers") Collection<String> phoneNumbers);
+
+    /**
+     * Searches the clients of some ids, reading only the columns of the ClientDTO
+     *
+     * @param idClients the ids of the clients
+     *
+     * @return the clients found
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.clients.ClientDTO(c.idClient, c.name, c.surname, c.company, " +
+            "c.position, c.address, c.zipCode, c.province, c.phoneNumber, c.birthDate) FROM Client c " +
+            "WHERE c.idClient IN :idClients")
+    List<ClientDTO> findClientDTOIn(@Param("idClients") Collection<Long> idClients);
+
+    /**
+     * Searches which of some ids are of a client
+     *
+     * @param idClients the ids
+     *
+     * @return the ids of the clients found
+     */
+
+    @Query("SELECT c.idClient FROM Client c WHERE c.idClient IN :idClients")
+    List<Long> findIdClientIn(@Param("idClients") Collection<Long> idClients);
+
 }
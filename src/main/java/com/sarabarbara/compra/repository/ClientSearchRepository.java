@@ -0,0 +1,61 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+
+/**
+ * ClientSearchRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public interface ClientSearchRepository {
+
+    /**
+     * Searches a client by an only or many parameters.
+     * Only the supplied parameters become conditions: the texts are prefix matches over the normalized columns and
+     * the phone number is an exact match. When the ids are supplied the clients come in id order. The clients are
+     * not counted, see {@link #countClients}
+     *
+     * @param ids         the ids the client must have, null for any
+     * @param name        the start of the name of the client
+     * @param surname     the start of the surname of the client
+     * @param company     the start of the company of the client
+     * @param position    the start of the position of the client
+     * @param zipCode     the start of the zip code of the client
+     * @param province    the start of the province of the client
+     * @param phoneNumber the phone number of the client
+     * @param pageable    the pageable
+     *
+     * @return the searched client, only with the columns of the ClientSearchDTO
+     */
+
+    Slice<ClientSearchDTO> searchClients(Collection<Long> ids, String name, String surname, String company,
+                                         String position, String zipCode, String province, String phoneNumber,
+                                         @NotNull Pageable pageable);
+
+    /**
+     * Counts the clients of a search, with the same conditions as {@link #searchClients}
+     *
+     * @param ids         the ids the client must have, null for any
+     * @param name        the start of the name of the client
+     * @param surname     the start of the surname of the client
+     * @param company     the start of the company of the client
+     * @param position    the start of the position of the client
+     * @param zipCode     the start of the zip code of the client
+     * @param province    the start of the province of the client
+     * @param phoneNumber the phone number of the client
+     *
+     * @return the number of clients searched
+     */
+
+    long countClients(Collection<Long> ids, String name, String surname, String company, String position,
+                      String zipCode, String province, String phoneNumber);
+
+}
@@ -0,0 +1,113 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.pagination.SlicePage;
+import com.sarabarbara.compra.search.PredicateBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ClientSearchRepositoryImpl class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class ClientSearchRepositoryImpl implements ClientSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public Slice<ClientSearchDTO> searchClients(Collection<Long> ids, String name, String surname, String company,
+                                                String position, String zipCode, String province, String phoneNumber,
+                                                @NotNull Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ClientSearchDTO> query = cb.createQuery(ClientSearchDTO.class);
+        Root<Client> client = query.from(Client.class);
+        query.select(cb.construct(ClientSearchDTO.class, client.get("name"), client.get("surname"),
+                        client.get("company")))
+                .where(filters(cb, client, ids, name, surname, company, position, zipCode, province, phoneNumber));
+
+        if (ids != null) {
+            query.orderBy(cb.asc(client.get("idClient")));
+        }
+
+        List<ClientSearchDTO> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(SlicePage.limit(pageable))
+                .getResultList();
+
+        return SlicePage.of(rows, pageable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public long countClients(Collection<Long> ids, String name, String surname, String company, String position,
+                             String zipCode, String province, String phoneNumber) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Client> counted = countQuery.from(Client.class);
+        countQuery.select(cb.count(counted))
+                .where(filters(cb, counted, ids, name, surname, company, position, zipCode, province, phoneNumber));
+
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    /**
+     * The conditions of the supplied parameters
+     *
+     * @param cb          the criteria builder
+     * @param client      the client root
+     * @param ids         the ids
+     * @param name        the start of the name
+     * @param surname     the start of the surname
+     * @param company     the start of the company
+     * @param position    the start of the position
+     * @param zipCode     the start of the zip code
+     * @param province    the start of the province
+     * @param phoneNumber the phone number
+     *
+     * @return the conditions
+     */
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Client> client, Collection<Long> ids, String name,
+                                       String surname, String company, String position, String zipCode,
+                                       String province, String phoneNumber) {
+
+        return new PredicateBuilder(cb)
+                .in(client.get("idClient"), ids)
+                .equal(client.get("phoneNumber"), phoneNumber)
+                .startsWith(client.get("nameNorm"), name)
+                .startsWith(client.get("surnameNorm"), surname)
+                .startsWith(client.get("companyNorm"), company)
+                .startsWith(client.get("positionNorm"), position)
+                .startsWith(client.get("provinceNorm"), province)
+                .startsWithExact(client.get("zipCode"), zipCode)
+                .build();
+    }
+
+}
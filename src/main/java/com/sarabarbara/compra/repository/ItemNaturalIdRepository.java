@@ -0,0 +1,30 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.Item;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+
+/**
+ * ItemNaturalIdRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public interface ItemNaturalIdRepository {
+
+    /**
+     * Searches an item by the name, a lookup by natural id.
+     * The items are not in the second level cache, so it always reads the database; the hot paths use the
+     * ItemCatalogCache
+     *
+     * @param name the name of the item
+     *
+     * @return the item searched
+     */
+
+    Optional<Item> findByName(@NotNull String name);
+
+}
@@ -0,0 +1,38 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * ItemNaturalIdRepositoryImpl class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class ItemNaturalIdRepositoryImpl implements ItemNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Item> findByName(@NotNull String name) {
+
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Item.class)
+                .loadOptional(name);
+    }
+
+}
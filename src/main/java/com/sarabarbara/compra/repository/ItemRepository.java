@@ -1,16 +1,19 @@
 package com.sarabarbara.compra.repository;
 
-import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.dto.items.ItemDTO;
 import com.sarabarbara.compra.model.Item;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,7 +25,8 @@ import java.util.Optional;
  */
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository,
+        ItemNaturalIdRepository {
 
     /**
      * Searches all the items
@@ -35,45 +39,81 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @NotNull Page<Item> findAll(@NotNull Pageable pageable);
 
     /**
-     * Searches an item
+     * Searches all the items, reading only the columns of the ItemDTO
      *
-     * @param name      the name of the item
-     * @param itemStock the stock of the item
-     * @param type      the type of the item
-     * @param supplier  the supplier of the item
-     * @param date      the date for the purchase or restock
-     * @param pageable  the pageable
+     * @param pageable the pageable
+     *
+     * @return the list of all items
+     */
+
+    @Query(value = "SELECT new com.sarabarbara.compra.dto.items.ItemDTO(i.idItem, i.name, i.description, " +
+            "i.unitPrice, i.itemStock, i.type, i.supplier, i.date) FROM Item i",
+            countQuery = "SELECT COUNT(i) FROM Item i")
+    Page<ItemDTO> findAllItemDTO(@NotNull Pageable pageable);
+
+    /**
+     * Searches the items after a given id, in id order, without counting them
+     *
+     * @param after the id of the last item already read, 0 for the first page
+     * @param limit the maximum number of items
+     *
+     * @return the items after the id
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.items.ItemDTO(i.idItem, i.name, i.description, i.unitPrice, " +
+            "i.itemStock, i.type, i.supplier, i.date) FROM Item i WHERE i.idItem > :after ORDER BY i.idItem")
+    List<ItemDTO> findItemDTOAfter(@Param("after") long after, Limit limit);
+
+    /**
+     * Takes units from the stock of an item, only if there are enough.
+     * A single conditional update: it never oversells, and the row lock it takes is held until the transaction that
+     * runs it commits, so it waits for the other transactions that took units of the item
+     *
+     * @param idItem   the id of the item
+     * @param quantity the units to take, at least 1
+     *
+     * @return 1 if the units were taken, 0 if the item has not enough stock or doesn't exist
+     */
+
+    @Modifying
+    @Query("UPDATE Item i SET i.itemStock = i.itemStock - :quantity " +
+            "WHERE i.idItem = :idItem AND i.itemStock >= :quantity")
+    int decrementStock(@Param("idItem") Long idItem, @Param("quantity") int quantity);
+
+    /**
+     * Gives units back to the stock of an item
+     *
+     * @param idItem   the id of the item
+     * @param quantity the units to give back
      *
-     * @return the item searched
+     * @return 1 if the item exists, 0 otherwise
      */
 
-    // LIKE CONCAT('%', :param, '%') busca coincidencias parciales
-    @Query("SELECT i FROM Item i WHERE " +
-            "(:name IS NULL OR LOWER(i.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:itemStock IS NULL OR i.itemStock = :itemStock) AND " +
-            "(:type IS NULL OR i.type = :type) AND " +
-            "(:supplier IS NULL OR LOWER(i.supplier) LIKE LOWER(CONCAT('%', :supplier, '%'))) AND " +
-            "(:date IS NULL OR i.date = :date)")
-    Page<Item> searchItems(
-            @Param("name") String name,
-            @Param("itemStock") Integer itemStock,
-            @Param("type") Type type,
-            @Param("supplier") String supplier,
-            @Param("date") LocalDate date,
-            @NotNull Pageable pageable
-    );
+    @Modifying
+    @Query("UPDATE Item i SET i.itemStock = i.itemStock + :quantity WHERE i.idItem = :idItem")
+    int incrementStock(@Param("idItem") Long idItem, @Param("quantity") int quantity);
 
+    /**
+     * Searches which of the names are already taken, with one query
+     *
+     * @param names the names
+     *
+     * @return the names taken
+     */
 
+    @Query("SELECT i.name FROM Item i WHERE i.name IN :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
 
     /**
-     * Searches an item by the name
+     * Searches which of the descriptions are already taken, with one query
      *
-     * @param name the name of the item
+     * @param descriptions the descriptions
      *
-     * @return the item searched
+     * @return the descriptions taken
      */
 
-    Optional<Item> findByName(@NotNull String name);
+    @Query("SELECT i.description FROM Item i WHERE i.description IN :descriptions")
+    List<String> findDescriptionsIn(@Param("descriptions") Collection<String> descriptions);
 
     /**
      * Searches an item by the id
@@ -85,4 +125,27 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     @NotNull Optional<Item> findById(@NotNull Long idItem);
 
+    /**
+     * Searches the items of some ids, reading only the columns of the ItemDTO
+     *
+     * @param idItems the ids of the items
+     *
+     * @return the items found
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.items.ItemDTO(i.idItem, i.name, i.description, i.unitPrice, " +
+            "i.itemStock, i.type, i.supplier, i.date) FROM Item i WHERE i.idItem IN :idItems")
+    List<ItemDTO> findItemDTOIn(@Param("idItems") Collection<Long> idItems);
+
+    /**
+     * Searches which of some ids are of an item
+     *
+     * @param idItems the ids
+     *
+     * @return the ids of the items found
+     */
+
+    @Query("SELECT i.idItem FROM Item i WHERE i.idItem IN :idItems")
+    List<Long> findIdItemIn(@Param("idItems") Collection<Long> idItems);
+
 }
\ No newline at end of file
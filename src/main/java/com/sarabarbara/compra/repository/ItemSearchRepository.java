@@ -0,0 +1,58 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.items.ItemSearchDTO;
+import com.sarabarbara.compra.enums.Type;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * ItemSearchRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public interface ItemSearchRepository {
+
+    /**
+     * Searches an item.
+     * Only the supplied parameters become conditions: the texts are prefix matches over the normalized columns and
+     * the rest are exact matches. When the ids are supplied the items come in id order. The items are not counted,
+     * see {@link #countItems}
+     *
+     * @param ids       the ids the item must have, null for any
+     * @param name      the start of the name of the item
+     * @param itemStock the stock of the item
+     * @param type      the type of the item
+     * @param supplier  the start of the supplier of the item
+     * @param date      the date for the purchase or restock
+     * @param pageable  the pageable
+     *
+     * @return the item searched, only with the columns of the ItemSearchDTO
+     */
+
+    Slice<ItemSearchDTO> searchItems(Collection<Long> ids, String name, Integer itemStock, Type type, String supplier,
+                                     LocalDate date, @NotNull Pageable pageable);
+
+    /**
+     * Counts the items of a search, with the same conditions as {@link #searchItems}
+     *
+     * @param ids       the ids the item must have, null for any
+     * @param name      the start of the name of the item
+     * @param itemStock the stock of the item
+     * @param type      the type of the item
+     * @param supplier  the start of the supplier of the item
+     * @param date      the date for the purchase or restock
+     *
+     * @return the number of items searched
+     */
+
+    long countItems(Collection<Long> ids, String name, Integer itemStock, Type type, String supplier,
+                    LocalDate date);
+
+}
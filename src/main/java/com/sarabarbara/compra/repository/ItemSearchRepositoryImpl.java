@@ -0,0 +1,109 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.items.ItemSearchDTO;
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.pagination.SlicePage;
+import com.sarabarbara.compra.search.PredicateBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ItemSearchRepositoryImpl class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public Slice<ItemSearchDTO> searchItems(Collection<Long> ids, String name, Integer itemStock, Type type,
+                                            String supplier, LocalDate date, @NotNull Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ItemSearchDTO> query = cb.createQuery(ItemSearchDTO.class);
+        Root<Item> item = query.from(Item.class);
+        query.select(cb.construct(ItemSearchDTO.class, item.get("name"), item.get("itemStock"), item.get("type"),
+                        item.get("supplier"), item.get("date")))
+                .where(filters(cb, item, ids, name, itemStock, type, supplier, date));
+
+        if (ids != null) {
+            query.orderBy(cb.asc(item.get("idItem")));
+        }
+
+        List<ItemSearchDTO> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(SlicePage.limit(pageable))
+                .getResultList();
+
+        return SlicePage.of(rows, pageable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public long countItems(Collection<Long> ids, String name, Integer itemStock, Type type, String supplier,
+                           LocalDate date) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Item> counted = countQuery.from(Item.class);
+        countQuery.select(cb.count(counted))
+                .where(filters(cb, counted, ids, name, itemStock, type, supplier, date));
+
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    /**
+     * The conditions of the supplied parameters
+     *
+     * @param cb        the criteria builder
+     * @param item      the item root
+     * @param ids       the ids
+     * @param name      the start of the name
+     * @param itemStock the stock
+     * @param type      the type
+     * @param supplier  the start of the supplier
+     * @param date      the date
+     *
+     * @return the conditions
+     */
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Item> item, Collection<Long> ids, String name,
+                                       Integer itemStock, Type type, String supplier, LocalDate date) {
+
+        return new PredicateBuilder(cb)
+                .in(item.get("idItem"), ids)
+                .startsWith(item.get("nameNorm"), name)
+                .equal(item.get("itemStock"), itemStock)
+                .equal(item.get("type"), type)
+                .startsWith(item.get("supplierNorm"), supplier)
+                .equal(item.get("date"), date)
+                .build();
+    }
+
+}
@@ -1,21 +1,34 @@
 package com.sarabarbara.compra.repository;
 
 
+import com.sarabarbara.compra.dto.clients.ClientPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseDTO;
 import com.sarabarbara.compra.model.Purchase;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * PurchaseRepository class
+ * <p>
+ * With the purchase table partitioned by month, the queries with a purchaseDate range read only the partitions of
+ * the range; the ones by id, client or item without a date look into every partition.
  *
  * @author sarabarbaraam
  * @version 1.0
@@ -23,56 +36,239 @@ import java.util.Optional;
  */
 
 @Repository
-public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
+public interface PurchaseRepository extends JpaRepository<Purchase, Long>, PurchaseSearchRepository {
 
     /**
-     * Searches all the purchases
+     * The client columns of the purchase projections
+     */
+
+    String CLIENT_COLUMNS = "c.idClient, c.name, c.surname, c.company, c.position, c.address, c.zipCode, " +
+            "c.province, c.phoneNumber, c.birthDate";
+
+    /**
+     * The item columns of the purchase projections
+     */
+
+    String ITEM_COLUMNS = "i.idItem, i.name, i.description, i.unitPrice, i.itemStock, i.type, i.supplier, i.date";
+
+    /**
+     * The select of the PurchaseDTO projection
+     */
+
+    String PURCHASE_DTO_SELECT = "SELECT new com.sarabarbara.compra.dto.purchases.PurchaseDTO(p.idPurchase, " +
+            CLIENT_COLUMNS + ", " + ITEM_COLUMNS + ", p.purchaseDate, p.quantity, p.total, p.iva, p.totalIva, " +
+            "p.totalPrice) FROM Purchase p JOIN p.client c JOIN p.item i ";
+
+    /**
+     * Searches all the purchases.
+     * The client and the item are fetched in the same query, the count runs apart
      *
      * @param pageable the pageable
      *
      * @return the list of all purchases
      */
 
+    @EntityGraph(Purchase.WITH_CLIENT_AND_ITEM)
     @NotNull Page<Purchase> findAll(@NotNull Pageable pageable);
 
     /**
-     * Searches a purchase by any of this param
+     * Searches all the purchases, reading only the columns of the PurchaseDTO
      *
-     * @param idClient     the id of the client
-     * @param idItem       the id of the item
-     * @param purchaseDate the date of the purchase
-     * @param quantity     the quantity of the purchase
-     * @param totalPrice   the total price
-     * @param pageable     the pageable
+     * @param pageable the pageable
      *
-     * @return the purchase to search
+     * @return the list of all purchases
      */
 
-    @Query("SELECT p FROM Purchase p WHERE " +
-            "(:idClient IS NULL OR p.client.id = :idClient) AND " +
-            "(:idItem IS NULL OR p.item.id = :idItem) AND " +
-            "(:purchaseDate IS NULL OR p.purchaseDate = :purchaseDate) AND " +
-            "(:quantity IS NULL OR p.quantity = :quantity) AND " +
-            "(:totalPrice IS NULL OR p.totalPrice = :totalPrice)")
-    Page<Purchase> searchPurchase(
-            @Param("idClient") Long idClient,   // Ahora es Long, no Client
-            @Param("idItem") Long idItem,       // Ahora es Long, no Item
-            @Param("purchaseDate") LocalDate purchaseDate,
-            @Param("quantity") Integer quantity,
-            @Param("totalPrice") BigDecimal totalPrice,
-            Pageable pageable
-    );
+    @Query(value = PURCHASE_DTO_SELECT, countQuery = "SELECT COUNT(p) FROM Purchase p")
+    Page<PurchaseDTO> findAllPurchaseDTO(@NotNull Pageable pageable);
 
+    /**
+     * Searches the purchases after a given id, in id order, without counting them
+     *
+     * @param after the id of the last purchase already read, 0 for the first page
+     * @param limit the maximum number of purchases
+     *
+     * @return the purchases after the id
+     */
 
+    @Query(PURCHASE_DTO_SELECT + "WHERE p.idPurchase > :after ORDER BY p.idPurchase")
+    List<PurchaseDTO> findPurchaseDTOAfter(@Param("after") long after, Limit limit);
 
     /**
-     * Find a purchase by the id
+     * Searches the first purchases in date order, without counting them
+     *
+     * @param limit the maximum number of purchases
+     *
+     * @return the first purchases by date
+     */
+
+    @Query(PURCHASE_DTO_SELECT + "ORDER BY p.purchaseDate, p.idPurchase")
+    List<PurchaseDTO> findFirstPurchaseDTOByDate(Limit limit);
+
+    /**
+     * Searches the purchases after a given date and id, in date order, without counting them.
+     * The redundant {@code purchaseDate >= :date} keeps the predicate a range on the purchase_date index
+     *
+     * @param date  the date of the last purchase already read
+     * @param after the id of the last purchase already read
+     * @param limit the maximum number of purchases
+     *
+     * @return the purchases after the date and id
+     */
+
+    @Query(PURCHASE_DTO_SELECT + "WHERE p.purchaseDate >= :date " +
+            "AND (p.purchaseDate > :date OR p.idPurchase > :after) ORDER BY p.purchaseDate, p.idPurchase")
+    List<PurchaseDTO> findPurchaseDTOAfterDate(@Param("date") LocalDate date, @Param("after") long after,
+                                               Limit limit);
+
+    /**
+     * The select of the ClientPurchaseDTO projection, of the purchases of a client
+     */
+
+    String CLIENT_PURCHASE_DTO_SELECT = "SELECT new com.sarabarbara.compra.dto.clients.ClientPurchaseDTO(" +
+            "p.idPurchase, i.idItem, i.name, p.purchaseDate, p.quantity, p.totalPrice) FROM Purchase p JOIN p.item i " +
+            "WHERE p.client.idClient = :idClient ";
+
+    /**
+     * Searches the latest purchases of a client, the latest first.
+     * A backward range on the (id_client, purchase_date) index, which stops after the limit
+     *
+     * @param idClient the id of the client
+     * @param limit    the maximum number of purchases
+     *
+     * @return the latest purchases of the client
+     */
+
+    @Query(CLIENT_PURCHASE_DTO_SELECT + "ORDER BY p.purchaseDate DESC, p.idPurchase DESC")
+    List<ClientPurchaseDTO> findLatestClientPurchaseDTO(@Param("idClient") Long idClient, Limit limit);
+
+    /**
+     * Searches the purchases of a client before a given date and id, the latest first.
+     * The redundant {@code purchaseDate <= :date} keeps the predicate a range on the (id_client, purchase_date) index
+     *
+     * @param idClient the id of the client
+     * @param date     the date of the last purchase already read
+     * @param before   the id of the last purchase already read
+     * @param limit    the maximum number of purchases
+     *
+     * @return the purchases of the client before the date and id
+     */
+
+    @Query(CLIENT_PURCHASE_DTO_SELECT + "AND p.purchaseDate <= :date " +
+            "AND (p.purchaseDate < :date OR p.idPurchase < :before) ORDER BY p.purchaseDate DESC, p.idPurchase DESC")
+    List<ClientPurchaseDTO> findClientPurchaseDTOBefore(@Param("idClient") Long idClient,
+                                                        @Param("date") LocalDate date, @Param("before") long before,
+                                                        Limit limit);
+
+    /**
+     * The rows fetched from the database at once by the exports. MySQL honours it only with useCursorFetch=true in
+     * the url
+     */
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Reads the purchases between two dates, in date order, as they are consumed.
+     * The rows are fetched {@link #EXPORT_FETCH_SIZE} at a time and nothing is kept in the persistence context, so the
+     * memory doesn't depend on the number of purchases. The stream must be read in a transaction and closed
+     *
+     * @param from the first date, included
+     * @param to   the last date, included
+     *
+     * @return the purchases between the dates
+     */
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(PURCHASE_DTO_SELECT + "WHERE p.purchaseDate BETWEEN :from AND :to ORDER BY p.purchaseDate, p.idPurchase")
+    Stream<PurchaseDTO> streamPurchaseDTOBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Find a purchase by the id, with its client and item
      *
      * @param idPurchase the id of the purchase
      *
      * @return the purchase to search
      */
 
+    @EntityGraph(Purchase.WITH_CLIENT_AND_ITEM)
     Optional<Purchase> findByIdPurchase(Long idPurchase);
 
+    /**
+     * Find the latest purchase created with an Idempotency-Key. The key is unique only by day, so a key reused on
+     * another day has several purchases: the one of the latest day is the one a conflicting insert collided with
+     *
+     * @param idempotencyKey the Idempotency-Key
+     *
+     * @return the latest purchase created with the key
+     */
+
+    Optional<Purchase> findFirstByIdempotencyKeyOrderByPurchaseDateDesc(String idempotencyKey);
+
+    /**
+     * Find the date of the oldest purchase before a day
+     *
+     * @param before the day
+     *
+     * @return the oldest purchaseDate, null if there are no purchases before the day
+     */
+
+    @Query("SELECT MIN(p.purchaseDate) FROM Purchase p WHERE p.purchaseDate < :before")
+    LocalDate findOldestPurchaseDateBefore(@Param("before") LocalDate before);
+
+    /**
+     * Find the purchases between two dates with the columns kept by the archive, without the client and the item
+     *
+     * @param from the first date, included
+     * @param to   the last date, included
+     *
+     * @return the purchases between the dates
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO(p.idPurchase, p.client.idClient, " +
+            "p.item.idItem, p.purchaseDate, p.quantity, p.total, p.iva, p.totalIva, p.totalPrice) FROM Purchase p " +
+            "WHERE p.purchaseDate BETWEEN :from AND :to")
+    List<ArchivedPurchaseDTO> findArchivedPurchaseDTOBetween(@Param("from") LocalDate from,
+                                                             @Param("to") LocalDate to);
+
+    /**
+     * Deletes the purchases between two dates with a single statement, without loading them
+     *
+     * @param from the first date, included
+     * @param to   the last date, included
+     *
+     * @return the purchases deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM Purchase p WHERE p.purchaseDate BETWEEN :from AND :to")
+    int deletePurchasesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Deletes the purchases of a client with a single statement, without loading them
+     *
+     * @param idClient the id of the client
+     *
+     * @return the purchases deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM Purchase p WHERE p.client.idClient = :idClient")
+    int deletePurchasesOfClient(@Param("idClient") Long idClient);
+
+    /**
+     * Deletes the purchases of an item with a single statement, without loading them
+     *
+     * @param idItem the id of the item
+     *
+     * @return the purchases deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM Purchase p WHERE p.item.idItem = :idItem")
+    int deletePurchasesOfItem(@Param("idItem") Long idItem);
+
 }
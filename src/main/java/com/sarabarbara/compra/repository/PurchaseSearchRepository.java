@@ -0,0 +1,41 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * PurchaseSearchRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public interface PurchaseSearchRepository {
+
+    /**
+     * Searches a purchase by any of this param.
+     * Only the supplied filters become conditions: exact matches and ranges, in the order of the pageable. The
+     * purchases are not counted, see {@link #countPurchase}
+     *
+     * @param filter   the filters
+     * @param pageable the pageable, with its sort
+     *
+     * @return the purchase to search, only with the columns of the PurchaseSearchDTO
+     */
+
+    Slice<PurchaseSearchDTO> searchPurchase(PurchaseSearchFilter filter, Pageable pageable);
+
+    /**
+     * Counts the purchases of a search, with the same conditions as {@link #searchPurchase}
+     *
+     * @param filter the filters
+     *
+     * @return the number of purchases searched
+     */
+
+    long countPurchase(PurchaseSearchFilter filter);
+
+}
@@ -0,0 +1,111 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.pagination.SlicePage;
+import com.sarabarbara.compra.search.PredicateBuilder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+/**
+ * PurchaseSearchRepositoryImpl class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class PurchaseSearchRepositoryImpl implements PurchaseSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public Slice<PurchaseSearchDTO> searchPurchase(PurchaseSearchFilter filter, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<PurchaseSearchDTO> query = cb.createQuery(PurchaseSearchDTO.class);
+        Root<Purchase> purchase = query.from(Purchase.class);
+        Join<Purchase, Client> client = purchase.join("client");
+        Join<Purchase, Item> item = purchase.join("item");
+
+        query.select(cb.construct(PurchaseSearchDTO.class, purchase.get("idPurchase"),
+                        client.get("idClient"), client.get("name"), client.get("surname"), client.get("company"),
+                        client.get("position"), client.get("address"), client.get("zipCode"),
+                        client.get("province"), client.get("phoneNumber"), client.get("birthDate"),
+                        item.get("idItem"), item.get("name"), item.get("description"), item.get("unitPrice"),
+                        item.get("itemStock"), item.get("type"), item.get("supplier"), item.get("date"),
+                        purchase.get("purchaseDate"), purchase.get("quantity"), purchase.get("totalPrice")))
+                .where(filters(cb, purchase, filter))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), purchase, cb));
+
+        List<PurchaseSearchDTO> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(SlicePage.limit(pageable))
+                .getResultList();
+
+        return SlicePage.of(rows, pageable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public long countPurchase(PurchaseSearchFilter filter) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Purchase> counted = countQuery.from(Purchase.class);
+        countQuery.select(cb.count(counted))
+                .where(filters(cb, counted, filter));
+
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    /**
+     * The conditions of the supplied filters. The ids are compared on the foreign key columns of the purchase,
+     * so they never need the join, and an id with a date range is a range scan of the (id_client, purchase_date) or
+     * (id_item, purchase_date) index
+     *
+     * @param cb       the criteria builder
+     * @param purchase the purchase root
+     * @param filter   the filters
+     *
+     * @return the conditions
+     */
+
+    private static Predicate[] filters(CriteriaBuilder cb, Root<Purchase> purchase, PurchaseSearchFilter filter) {
+
+        return new PredicateBuilder(cb)
+                .equal(purchase.get("client").get("idClient"), filter.getIdClient())
+                .equal(purchase.get("item").get("idItem"), filter.getIdItem())
+                .equal(purchase.get("purchaseDate"), filter.getPurchaseDate())
+                .equal(purchase.get("quantity"), filter.getQuantity())
+                .equal(purchase.get("totalPrice"), filter.getTotalPrice())
+                .range(purchase.get("purchaseDate"), filter.getFromDate(), filter.getToDate())
+                .range(purchase.get("totalPrice"), filter.getMinTotal(), filter.getMaxTotal())
+                .range(purchase.get("quantity"), filter.getMinQuantity(), filter.getMaxQuantity())
+                .build();
+    }
+
+}
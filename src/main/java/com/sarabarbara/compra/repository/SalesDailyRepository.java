@@ -0,0 +1,207 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.dto.purchases.SalesStatsDTO;
+import com.sarabarbara.compra.model.SalesDaily;
+import com.sarabarbara.compra.model.SalesDailyId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SalesDailyRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Repository
+public interface SalesDailyRepository extends JpaRepository<SalesDaily, SalesDailyId> {
+
+    /**
+     * The sums of the stats
+     */
+
+    String STATS_SUMS = "SUM(s.purchaseCount), SUM(s.quantity), SUM(s.net), SUM(s.tax), SUM(s.gross)";
+
+    /**
+     * The sums of the purchases, in the order of the SalesDaily fields
+     */
+
+    String PURCHASE_SUMS = "COUNT(p), SUM(p.quantity), SUM(p.total), SUM(p.totalIva), SUM(p.totalPrice)";
+
+    /**
+     * Adds to a shard of the sales of an item in a day, negative amounts subtract, creating the row with the amounts
+     * if the shard has none. A single upsert relative to the current values: the concurrent purchases don't lose
+     * each other's amounts and the first two of the shard never both insert
+     *
+     * @param day           the day
+     * @param idItem        the id of the item
+     * @param shard         the shard
+     * @param purchaseCount the purchases to add
+     * @param quantity      the units to add
+     * @param net           the net amount to add
+     * @param tax           the tax to add
+     * @param gross         the gross amount to add
+     *
+     * @return 1 if the row was created, 2 if it was added to
+     */
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_daily"))
+    @Query(value = "INSERT INTO sales_daily (sales_day, id_item, shard, purchase_count, quantity, net, tax, gross) " +
+            "VALUES (:day, :idItem, :shard, :purchaseCount, :quantity, :net, :tax, :gross) ON DUPLICATE KEY UPDATE " +
+            "purchase_count = purchase_count + :purchaseCount, quantity = quantity + :quantity, net = net + :net, " +
+            "tax = tax + :tax, gross = gross + :gross", nativeQuery = true)
+    int addToDay(@Param("day") LocalDate day, @Param("idItem") Long idItem, @Param("shard") int shard,
+                 @Param("purchaseCount") long purchaseCount, @Param("quantity") long quantity,
+                 @Param("net") BigDecimal net, @Param("tax") BigDecimal tax, @Param("gross") BigDecimal gross);
+
+    /**
+     * If the sales of an item in a day have their base shard, without locking it
+     *
+     * @param day    the day
+     * @param idItem the id of the item
+     *
+     * @return true if the base exists
+     */
+
+    @Query("SELECT COUNT(s) > 0 FROM SalesDaily s WHERE s.day = :day AND s.idItem = :idItem AND s.shard = 0")
+    boolean hasBase(@Param("day") LocalDate day, @Param("idItem") Long idItem);
+
+    /**
+     * Adds up the purchases of an item in a day
+     *
+     * @param day    the day
+     * @param idItem the id of the item
+     *
+     * @return the sales of the item in the day, empty if there are none
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.model.SalesDaily(p.purchaseDate, p.item.idItem, " + PURCHASE_SUMS +
+            ") FROM Purchase p WHERE p.purchaseDate = :day AND p.item.idItem = :idItem " +
+            "GROUP BY p.purchaseDate, p.item.idItem")
+    Optional<SalesDaily> sumPurchasesOf(@Param("day") LocalDate day, @Param("idItem") Long idItem);
+
+    /**
+     * Replaces the base shard of the sales of an item in a day
+     *
+     * @param day           the day
+     * @param idItem        the id of the item
+     * @param purchaseCount the purchases
+     * @param quantity      the units
+     * @param net           the net amount
+     * @param tax           the tax
+     * @param gross         the gross amount
+     *
+     * @return 1 if the day has sales of the item, 0 otherwise
+     */
+
+    @Modifying
+    @Query("UPDATE SalesDaily s SET s.purchaseCount = :purchaseCount, s.quantity = :quantity, s.net = :net, " +
+            "s.tax = :tax, s.gross = :gross WHERE s.day = :day AND s.idItem = :idItem AND s.shard = 0")
+    int replaceDay(@Param("day") LocalDate day, @Param("idItem") Long idItem,
+                   @Param("purchaseCount") long purchaseCount, @Param("quantity") long quantity,
+                   @Param("net") BigDecimal net, @Param("tax") BigDecimal tax, @Param("gross") BigDecimal gross);
+
+    /**
+     * Adds up the purchases of a day by item
+     *
+     * @param day the day
+     *
+     * @return the sales of every item sold in the day
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.model.SalesDaily(p.purchaseDate, p.item.idItem, " + PURCHASE_SUMS +
+            ") FROM Purchase p WHERE p.purchaseDate = :day GROUP BY p.purchaseDate, p.item.idItem")
+    List<SalesDaily> sumPurchasesOn(@Param("day") LocalDate day);
+
+    /**
+     * Adds up the purchases of a client by day and item, reading them by the (id_client, purchase_date) index
+     *
+     * @param idClient the id of the client
+     *
+     * @return the sales to the client of every day and item
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.model.SalesDaily(p.purchaseDate, p.item.idItem, " + PURCHASE_SUMS +
+            ") FROM Purchase p WHERE p.client.idClient = :idClient GROUP BY p.purchaseDate, p.item.idItem")
+    List<SalesDaily> sumPurchasesOfClient(@Param("idClient") Long idClient);
+
+    /**
+     * Deletes the sales of a day
+     *
+     * @param day the day
+     *
+     * @return the rows deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM SalesDaily s WHERE s.day = :day")
+    int deleteDay(@Param("day") LocalDate day);
+
+    /**
+     * Deletes the sales of an item
+     *
+     * @param idItem the id of the item
+     *
+     * @return the rows deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM SalesDaily s WHERE s.idItem = :idItem")
+    int deleteItem(@Param("idItem") Long idItem);
+
+    /**
+     * The sales between two dates by day
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     *
+     * @return the sales of every day with sales, in date order
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.purchases.SalesStatsDTO(s.day, " + STATS_SUMS + ") " +
+            "FROM SalesDaily s WHERE s.day BETWEEN :from AND :to " +
+            "GROUP BY s.day HAVING SUM(s.purchaseCount) > 0 ORDER BY s.day")
+    List<SalesStatsDTO> statsByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * The sales between two dates by item
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     *
+     * @return the sales of every item sold, the best sellers first
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.purchases.SalesStatsDTO(i.idItem, i.name, " + STATS_SUMS + ") " +
+            "FROM SalesDaily s JOIN Item i ON i.idItem = s.idItem WHERE s.day BETWEEN :from AND :to " +
+            "GROUP BY i.idItem, i.name HAVING SUM(s.purchaseCount) > 0 ORDER BY SUM(s.gross) DESC, i.idItem")
+    List<SalesStatsDTO> statsByItem(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * The sales between two dates by type of item
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     *
+     * @return the sales of every type sold, the best sellers first
+     */
+
+    @Query("SELECT new com.sarabarbara.compra.dto.purchases.SalesStatsDTO(i.type, " + STATS_SUMS + ") " +
+            "FROM SalesDaily s JOIN Item i ON i.idItem = s.idItem WHERE s.day BETWEEN :from AND :to " +
+            "GROUP BY i.type HAVING SUM(s.purchaseCount) > 0 ORDER BY SUM(s.gross) DESC")
+    List<SalesStatsDTO> statsByType(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
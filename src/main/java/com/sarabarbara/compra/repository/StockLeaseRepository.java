@@ -0,0 +1,80 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.StockLease;
+import com.sarabarbara.compra.model.StockLeaseId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * StockLeaseRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Repository
+public interface StockLeaseRepository extends JpaRepository<StockLease, StockLeaseId> {
+
+    /**
+     * Adds units to the lease of an item, negative units subtract, creating the lease if the instance has none.
+     * The row stays locked until the commit, so the claims of an item by an instance go one after the other
+     *
+     * @param owner  the instance of the application
+     * @param idItem the id of the item
+     * @param units  the units to add
+     *
+     * @return 1 if the lease was created, 2 if it was added to
+     */
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stock_lease"))
+    @Query(value = "INSERT INTO stock_lease (owner, id_item, units) VALUES (:owner, :idItem, :units) " +
+            "ON DUPLICATE KEY UPDATE units = units + :units", nativeQuery = true)
+    int addToLease(@Param("owner") String owner, @Param("idItem") Long idItem, @Param("units") long units);
+
+    /**
+     * Find the leases of an instance
+     *
+     * @param owner the instance of the application
+     *
+     * @return the leases
+     */
+
+    @Query("SELECT l FROM StockLease l WHERE l.owner = :owner")
+    List<StockLease> findLeasesOf(@Param("owner") String owner);
+
+    /**
+     * Deletes the lease of an instance on an item
+     *
+     * @param owner  the instance of the application
+     * @param idItem the id of the item
+     *
+     * @return the leases deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM StockLease l WHERE l.owner = :owner AND l.idItem = :idItem")
+    int deleteLease(@Param("owner") String owner, @Param("idItem") Long idItem);
+
+    /**
+     * Deletes the leases of an item, of every instance
+     *
+     * @param idItem the id of the item
+     *
+     * @return the leases deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM StockLease l WHERE l.idItem = :idItem")
+    int deleteItem(@Param("idItem") Long idItem);
+
+}
@@ -0,0 +1,80 @@
+package com.sarabarbara.compra.repository;
+
+import com.sarabarbara.compra.model.StockLeaseSale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * StockLeaseSaleRepository class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Repository
+public interface StockLeaseSaleRepository extends JpaRepository<StockLeaseSale, Long> {
+
+    /**
+     * Records the units of a purchase taken from a lease. A single insert, without the persistence context, in the
+     * purchase transaction
+     *
+     * @param owner    the instance of the application
+     * @param idItem   the id of the item
+     * @param quantity the units sold
+     *
+     * @return 1
+     */
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stock_lease_sale"))
+    @Query(value = "INSERT INTO stock_lease_sale (owner, id_item, quantity) VALUES (:owner, :idItem, :quantity)",
+            nativeQuery = true)
+    int addSale(@Param("owner") String owner, @Param("idItem") Long idItem, @Param("quantity") int quantity);
+
+    /**
+     * Find the committed sales from the lease of an instance on an item
+     *
+     * @param owner  the instance of the application
+     * @param idItem the id of the item
+     *
+     * @return the sales
+     */
+
+    @Query("SELECT s FROM StockLeaseSale s WHERE s.owner = :owner AND s.idItem = :idItem")
+    List<StockLeaseSale> findSalesOf(@Param("owner") String owner, @Param("idItem") Long idItem);
+
+    /**
+     * Deletes some sales
+     *
+     * @param idSales the ids of the sales
+     *
+     * @return the sales deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM StockLeaseSale s WHERE s.idSale IN :idSales")
+    int deleteSales(@Param("idSales") Collection<Long> idSales);
+
+    /**
+     * Deletes the sales from the leases of an item, of every instance
+     *
+     * @param idItem the id of the item
+     *
+     * @return the sales deleted
+     */
+
+    @Modifying
+    @Query("DELETE FROM StockLeaseSale s WHERE s.idItem = :idItem")
+    int deleteItem(@Param("idItem") Long idItem);
+
+}
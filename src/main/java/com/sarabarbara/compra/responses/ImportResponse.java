@@ -0,0 +1,41 @@
+package com.sarabarbara.compra.responses;
+
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import lombok.*;
+
+/**
+ * ImportResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ImportResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The report of the import
+     */
+
+    private ImportReportDTO report;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
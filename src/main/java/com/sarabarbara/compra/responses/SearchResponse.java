@@ -1,6 +1,9 @@
 package com.sarabarbara.compra.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -28,10 +31,11 @@ public class SearchResponse<T> {
     private List<T> results;
 
     /**
-     * The totalResults
+     * The totalResults, null when the search wasn't counted
      */
 
-    private int totalResults;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalResults;
 
     /**
      * The currentPage
@@ -40,10 +44,11 @@ public class SearchResponse<T> {
     private int currentPage;
 
     /**
-     * The totalPage
+     * The totalPage, null when the search wasn't counted
      */
 
-    private int totalPage;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPage;
 
     /**
      * The message
@@ -51,4 +56,80 @@ public class SearchResponse<T> {
 
     private String message;
 
+    /**
+     * The nextCursor, only in keyset mode; null on the last page
+     */
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    /**
+     * The hasNext, only in the searches
+     */
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasNext;
+
+    /**
+     * The approximate, true when the totals come from a cached count
+     */
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean approximate;
+
+    /**
+     * The offset mode constructor
+     *
+     * @param results      the results
+     * @param totalResults the total results
+     * @param currentPage  the current page
+     * @param totalPage    the total pages
+     * @param message      the message
+     */
+
+    public SearchResponse(List<T> results, int totalResults, int currentPage, int totalPage, String message) {
+
+        this(results, totalResults, currentPage, totalPage, message, null);
+    }
+
+    /**
+     * The keyset mode constructor
+     *
+     * @param results      the results
+     * @param totalResults the total results
+     * @param currentPage  the current page
+     * @param totalPage    the total pages
+     * @param message      the message
+     * @param nextCursor   the cursor of the next page, null on the last page
+     */
+
+    public SearchResponse(List<T> results, int totalResults, int currentPage, int totalPage, String message,
+                          String nextCursor) {
+
+        this(results, totalResults, currentPage, totalPage, message, nextCursor, null, null);
+    }
+
+    /**
+     * The search constructor. A page carries its totals, a slice only if there is a next page
+     *
+     * @param slice       the results of the search
+     * @param approximate if the totals come from a cached count
+     * @param message     the message
+     */
+
+    public SearchResponse(Slice<T> slice, boolean approximate, String message) {
+
+        this.results = slice.getContent();
+        this.currentPage = slice.getNumber() + 1;
+        this.message = message;
+        this.hasNext = slice.hasNext();
+
+        if (slice instanceof Page<T> page) {
+
+            this.totalResults = (int) page.getTotalElements();
+            this.totalPage = page.getTotalPages();
+            this.approximate = approximate ? Boolean.TRUE : null;
+        }
+    }
+
 }
@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.responses.cache;
+
+import com.sarabarbara.compra.dto.cache.EntityCacheRegionDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * EntityCacheStatsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class EntityCacheStatsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The regions
+     */
+
+    private List<EntityCacheRegionDTO> regions;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
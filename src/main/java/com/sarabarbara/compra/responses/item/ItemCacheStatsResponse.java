@@ -0,0 +1,41 @@
+package com.sarabarbara.compra.responses.item;
+
+import com.sarabarbara.compra.dto.items.ItemCacheStatsDTO;
+import lombok.*;
+
+/**
+ * ItemCacheStatsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class ItemCacheStatsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The cacheStats
+     */
+
+    private ItemCacheStatsDTO cacheStats;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
@@ -0,0 +1,41 @@
+package com.sarabarbara.compra.responses.logging;
+
+import com.sarabarbara.compra.dto.logging.LoggingModeDTO;
+import lombok.*;
+
+/**
+ * LoggingModeResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class LoggingModeResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The logging mode
+     */
+
+    private LoggingModeDTO loggingMode;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
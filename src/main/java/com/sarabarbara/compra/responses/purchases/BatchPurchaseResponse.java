@@ -0,0 +1,55 @@
+package com.sarabarbara.compra.responses.purchases;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseBatchLineDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * BatchPurchaseResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class BatchPurchaseResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The created purchases
+     */
+
+    private int created;
+
+    /**
+     * The rejected lines
+     */
+
+    private int rejected;
+
+    /**
+     * The result of every line
+     */
+
+    private List<PurchaseBatchLineDTO> results;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
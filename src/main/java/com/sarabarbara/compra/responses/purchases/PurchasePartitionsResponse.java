@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.responses.purchases;
+
+import com.sarabarbara.compra.dto.purchases.PurchasePartitionDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * PurchasePartitionsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class PurchasePartitionsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The partitions, in date order
+     */
+
+    private List<PurchasePartitionDTO> partitions;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
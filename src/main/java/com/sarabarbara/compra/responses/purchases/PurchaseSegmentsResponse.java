@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.responses.purchases;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * PurchaseSegmentsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class PurchaseSegmentsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The segments of the archive, in month order
+     */
+
+    private List<PurchaseSegmentDTO> segments;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
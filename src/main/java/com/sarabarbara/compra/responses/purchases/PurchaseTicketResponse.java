@@ -0,0 +1,41 @@
+package com.sarabarbara.compra.responses.purchases;
+
+import com.sarabarbara.compra.dto.purchases.PurchaseTicketDTO;
+import lombok.*;
+
+/**
+ * PurchaseTicketResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class PurchaseTicketResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The ticket
+     */
+
+    private PurchaseTicketDTO ticket;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
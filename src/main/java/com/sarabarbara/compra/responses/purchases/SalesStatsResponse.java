@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.responses.purchases;
+
+import com.sarabarbara.compra.dto.purchases.SalesStatsDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * SalesStatsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class SalesStatsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The stats, one per group
+     */
+
+    private List<SalesStatsDTO> stats;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
@@ -0,0 +1,43 @@
+package com.sarabarbara.compra.responses.sql;
+
+import com.sarabarbara.compra.dto.sql.SqlEndpointDTO;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * SqlStatsResponse class
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode
+public class SqlStatsResponse {
+
+    /**
+     * The success
+     */
+
+    private boolean success;
+
+    /**
+     * The endpoints
+     */
+
+    private List<SqlEndpointDTO> endpoints;
+
+    /**
+     * The message
+     */
+
+    private String message;
+
+}
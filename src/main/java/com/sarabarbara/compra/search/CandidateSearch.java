@@ -0,0 +1,101 @@
+package com.sarabarbara.compra.search;
+
+import com.sarabarbara.compra.pagination.SlicePage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * CandidateSearch class
+ * <p>
+ * Runs a search of the database over the candidates of an {@link NgramIndex}, for the filters the index doesn't
+ * know. The candidates are bound as the parameters of an {@code IN}, at most {@value #MAX_BOUND_IDS} per query, so a
+ * short or common term, with a candidate for most of the table, never goes past the limits of the driver or the
+ * database; it only costs more queries.
+ * <p>
+ * The chunks are read in id order, the order of the searches by id, and only until the page is full.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class CandidateSearch {
+
+    /**
+     * The most candidates bound as parameters of a query
+     */
+
+    public static final int MAX_BOUND_IDS = 1000;
+
+    /**
+     * The private constructor
+     */
+
+    private CandidateSearch() {
+
+    }
+
+    /**
+     * Searches a page among the candidates
+     *
+     * @param candidates the sorted ids of the candidates
+     * @param pageable   the page
+     * @param search     the search of some candidates, in id order, with a page of the rows to read
+     * @param <T>        the type of the results
+     *
+     * @return the page of results, without count
+     */
+
+    public static <T> Slice<T> page(long[] candidates, Pageable pageable,
+                                    BiFunction<List<Long>, Pageable, Slice<T>> search) {
+
+        long skip = pageable.getOffset();
+        int wanted = SlicePage.limit(pageable);
+        List<T> rows = new ArrayList<>(wanted);
+
+        for (int from = 0; from < candidates.length && rows.size() < wanted; from += MAX_BOUND_IDS) {
+
+            long limit = skip + wanted - rows.size();
+            List<T> found = search.apply(NgramIndex.slice(candidates, from, MAX_BOUND_IDS),
+                    PageRequest.of(0, (int) Math.min(limit, Integer.MAX_VALUE - 1))).getContent();
+
+            if (skip >= found.size()) {
+
+                skip -= found.size();
+                continue;
+            }
+
+            rows.addAll(found.subList((int) skip, found.size()));
+            skip = 0;
+        }
+
+        return SlicePage.of(rows, pageable);
+    }
+
+    /**
+     * Counts the results among the candidates, one count per chunk
+     *
+     * @param candidates the sorted ids of the candidates
+     * @param count      the count of the results of some candidates
+     *
+     * @return the results
+     */
+
+    public static long count(long[] candidates, ToLongFunction<List<Long>> count) {
+
+        long total = 0;
+
+        for (int from = 0; from < candidates.length; from += MAX_BOUND_IDS) {
+            total += count.applyAsLong(NgramIndex.slice(candidates, from, MAX_BOUND_IDS));
+        }
+
+        return total;
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.sarabarbara.compra.search;
+
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.pagination.Cursor;
+import com.sarabarbara.compra.repository.ClientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * ClientNgramIndex class
+ * <p>
+ * Substring index of the name, surname, company and phone number of the clients. It is off unless
+ * {@code compra.search.ngram.enabled} is true; it is loaded once the application is ready and, until then, the
+ * searches go to the database.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ClientNgramIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientNgramIndex.class);
+
+    /**
+     * The size of the pages read by the initial load
+     */
+
+    private static final int LOAD_PAGE = 1000;
+
+    /**
+     * The clientRepository
+     */
+
+    private final ClientRepository clientRepository;
+
+    /**
+     * If the index is enabled
+     */
+
+    private final boolean enabled;
+
+    /**
+     * If the initial load has finished
+     */
+
+    private volatile boolean ready;
+
+    /**
+     * The name index
+     */
+
+    private final NgramIndex name = new NgramIndex();
+
+    /**
+     * The surname index
+     */
+
+    private final NgramIndex surname = new NgramIndex();
+
+    /**
+     * The company index
+     */
+
+    private final NgramIndex company = new NgramIndex();
+
+    /**
+     * The phoneNumber index
+     */
+
+    private final NgramIndex phoneNumber = new NgramIndex();
+
+    /**
+     * The constructor
+     *
+     * @param clientRepository the client repository
+     * @param enabled          if the index is enabled
+     */
+
+    public ClientNgramIndex(ClientRepository clientRepository,
+                            @Value("${compra.search.ngram.enabled:false}") boolean enabled) {
+
+        this.clientRepository = clientRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads all the clients, by keyset pages
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        if (!enabled) {
+            return;
+        }
+
+        logger.info("Loading client n-gram index...");
+
+        long after = Cursor.start().getId();
+        List<ClientDTO> clients;
+
+        do {
+
+            clients = clientRepository.findClientDTOAfter(after, Limit.of(LOAD_PAGE));
+
+            for (ClientDTO client : clients) {
+
+                long id = client.getIdClient();
+                name.putIfAbsent(id, client.getName());
+                surname.putIfAbsent(id, client.getSurname());
+                company.putIfAbsent(id, client.getCompany());
+                phoneNumber.putIfAbsent(id, client.getPhoneNumber());
+                after = id;
+            }
+
+        } while (clients.size() == LOAD_PAGE);
+
+        ready = true;
+        logger.info("Client n-gram index loaded: {} clients", name.size());
+    }
+
+    /**
+     * Indexes a created or updated client
+     *
+     * @param client the saved client
+     */
+
+    public void put(Client client) {
+
+        if (!enabled || client.getIdClient() == null) {
+            return;
+        }
+
+        long id = client.getIdClient();
+        name.put(id, client.getName());
+        surname.put(id, client.getSurname());
+        company.put(id, client.getCompany());
+        phoneNumber.put(id, client.getPhoneNumber());
+    }
+
+    /**
+     * Removes a deleted client, once the transaction that deletes it commits, so a delete rolled back keeps it
+     *
+     * @param idClient the id of the client
+     */
+
+    public void remove(Long idClient) {
+
+        if (!enabled || idClient == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            removeNow(idClient);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                removeNow(idClient);
+            }
+        });
+    }
+
+    /**
+     * Searches the clients whose fields contain every supplied term
+     *
+     * @param nameTerm        the fragment of the name
+     * @param surnameTerm     the fragment of the surname
+     * @param companyTerm     the fragment of the company
+     * @param phoneNumberTerm the fragment of the phone number
+     *
+     * @return the sorted ids, or null if the index can't answer (disabled, loading or no term supplied)
+     */
+
+    public long[] search(String nameTerm, String surnameTerm, String companyTerm, String phoneNumberTerm) {
+
+        if (!ready) {
+            return null;
+        }
+
+        long[] ids = name.searchWithin(null, nameTerm);
+        ids = surname.searchWithin(ids, surnameTerm);
+        ids = company.searchWithin(ids, companyTerm);
+
+        return phoneNumber.searchWithin(ids, phoneNumberTerm);
+    }
+
+    // Complementary methods
+
+    /**
+     * Removes a client from the indexes
+     *
+     * @param idClient the id of the client
+     */
+
+    private void removeNow(long idClient) {
+
+        name.remove(idClient);
+        surname.remove(idClient);
+        company.remove(idClient);
+        phoneNumber.remove(idClient);
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.sarabarbara.compra.search;
+
+import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.pagination.Cursor;
+import com.sarabarbara.compra.repository.ItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * ItemNgramIndex class
+ * <p>
+ * Substring index of the name and supplier of the items. It is off unless {@code compra.search.ngram.enabled} is
+ * true; it is loaded once the application is ready and, until then, the searches go to the database.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ItemNgramIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemNgramIndex.class);
+
+    /**
+     * The size of the pages read by the initial load
+     */
+
+    private static final int LOAD_PAGE = 1000;
+
+    /**
+     * The itemRepository
+     */
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * If the index is enabled
+     */
+
+    private final boolean enabled;
+
+    /**
+     * If the initial load has finished
+     */
+
+    private volatile boolean ready;
+
+    /**
+     * The name index
+     */
+
+    private final NgramIndex name = new NgramIndex();
+
+    /**
+     * The supplier index
+     */
+
+    private final NgramIndex supplier = new NgramIndex();
+
+    /**
+     * The constructor
+     *
+     * @param itemRepository the item repository
+     * @param enabled        if the index is enabled
+     */
+
+    public ItemNgramIndex(ItemRepository itemRepository,
+                          @Value("${compra.search.ngram.enabled:false}") boolean enabled) {
+
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Loads all the items, by keyset pages
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+
+        if (!enabled) {
+            return;
+        }
+
+        logger.info("Loading item n-gram index...");
+
+        long after = Cursor.start().getId();
+        List<ItemDTO> items;
+
+        do {
+
+            items = itemRepository.findItemDTOAfter(after, Limit.of(LOAD_PAGE));
+
+            for (ItemDTO item : items) {
+
+                long id = item.getIdItem();
+                name.putIfAbsent(id, item.getName());
+                supplier.putIfAbsent(id, item.getSupplier());
+                after = id;
+            }
+
+        } while (items.size() == LOAD_PAGE);
+
+        ready = true;
+        logger.info("Item n-gram index loaded: {} items", name.size());
+    }
+
+    /**
+     * Indexes a created or updated item
+     *
+     * @param item the saved item
+     */
+
+    public void put(Item item) {
+
+        if (!enabled || item.getIdItem() == null) {
+            return;
+        }
+
+        long id = item.getIdItem();
+        name.put(id, item.getName());
+        supplier.put(id, item.getSupplier());
+    }
+
+    /**
+     * Removes a deleted item, once the transaction that deletes it commits, so a delete rolled back keeps it
+     *
+     * @param idItem the id of the item
+     */
+
+    public void remove(Long idItem) {
+
+        if (!enabled || idItem == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            removeNow(idItem);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                removeNow(idItem);
+            }
+        });
+    }
+
+    /**
+     * Searches the items whose fields contain every supplied term
+     *
+     * @param nameTerm     the fragment of the name
+     * @param supplierTerm the fragment of the supplier
+     *
+     * @return the sorted ids, or null if the index can't answer (disabled, loading or no term supplied)
+     */
+
+    public long[] search(String nameTerm, String supplierTerm) {
+
+        if (!ready) {
+            return null;
+        }
+
+        long[] ids = name.searchWithin(null, nameTerm);
+
+        return supplier.searchWithin(ids, supplierTerm);
+    }
+
+    // Complementary methods
+
+    /**
+     * Removes an item from the indexes
+     *
+     * @param idItem the id of the item
+     */
+
+    private void removeNow(long idItem) {
+
+        name.remove(idItem);
+        supplier.remove(idItem);
+    }
+
+}
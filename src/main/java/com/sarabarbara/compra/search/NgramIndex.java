@@ -0,0 +1,503 @@
+package com.sarabarbara.compra.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * NgramIndex class
+ * <p>
+ * In-memory trigram inverted index of one text field. Every id is posted under each trigram of its normalized value,
+ * so a substring search intersects the postings of the trigrams of the term and then verifies the candidates against
+ * the stored values. Terms shorter than a trigram scan the stored values.
+ * <p>
+ * The postings are sorted {@code long[]}: ids come from a sequence, so new ones are appended at the end.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class NgramIndex {
+
+    /**
+     * The length of the grams
+     */
+
+    private static final int GRAM = 3;
+
+    /**
+     * The empty result
+     */
+
+    private static final long[] NONE = new long[0];
+
+    /**
+     * The postings by gram
+     */
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * The normalized values by id
+     */
+
+    private final Map<Long, String> values = new HashMap<>();
+
+    /**
+     * The lock of the postings and the values
+     */
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the value of an id, replacing the previous one
+     *
+     * @param id    the id
+     * @param value the value as it is stored
+     */
+
+    public void put(long id, String value) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            unpost(id);
+            post(id, value);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the value of an id, only if the id is not indexed yet.
+     * Used by the initial load, so it never overwrites a newer value put while loading
+     *
+     * @param id    the id
+     * @param value the value as it is stored
+     */
+
+    public void putIfAbsent(long id, String value) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            if (!values.containsKey(id)) {
+                post(id, value);
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an id from the index
+     *
+     * @param id the id
+     */
+
+    public void remove(long id) {
+
+        lock.writeLock().lock();
+
+        try {
+
+            unpost(id);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the ids whose value contains the term, ignoring case and accents
+     *
+     * @param term the term as the user wrote it
+     *
+     * @return the sorted ids
+     */
+
+    public long[] search(String term) {
+
+        String normalized = SearchNormalizer.normalize(term);
+
+        if (normalized == null || normalized.isEmpty()) {
+            return NONE;
+        }
+
+        lock.readLock().lock();
+
+        try {
+
+            return normalized.length() < GRAM ? scan(normalized) : lookup(normalized);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Narrows the matches of the previous fields with the matches of a term over this one, if the term is supplied
+     *
+     * @param ids  the sorted ids so far, null if no term was supplied yet
+     * @param term the term as the user wrote it
+     *
+     * @return the sorted ids, null if still no term was supplied
+     */
+
+    public long[] searchWithin(long[] ids, String term) {
+
+        if (term == null || term.isBlank() || (ids != null && ids.length == 0)) {
+            return ids;
+        }
+
+        long[] matches = search(term);
+        return ids == null ? matches : intersect(ids, matches);
+    }
+
+    /**
+     * The number of indexed ids
+     *
+     * @return the number of indexed ids
+     */
+
+    public int size() {
+
+        lock.readLock().lock();
+
+        try {
+
+            return values.size();
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects two sorted id arrays
+     *
+     * @param a the first ids
+     * @param b the second ids
+     *
+     * @return the sorted ids in both
+     */
+
+    public static long[] intersect(long[] a, long[] b) {
+
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+
+        while (i < a.length && j < b.length) {
+
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * A slice of sorted ids, boxed for a query parameter
+     *
+     * @param ids    the sorted ids
+     * @param offset the first position
+     * @param size   the maximum number of ids
+     *
+     * @return the ids of the slice, empty if the offset is past the end
+     */
+
+    public static List<Long> slice(long[] ids, long offset, int size) {
+
+        int from = (int) Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + size, ids.length);
+        List<Long> slice = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++) {
+            slice.add(ids[i]);
+        }
+
+        return slice;
+    }
+
+    // Complementary methods
+
+    /**
+     * Posts an id under the grams of its value. Must hold the write lock
+     *
+     * @param id    the id
+     * @param value the value as it is stored
+     */
+
+    private void post(long id, String value) {
+
+        String normalized = SearchNormalizer.normalize(value);
+
+        if (normalized == null) {
+            return;
+        }
+
+        values.put(id, normalized);
+
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Removes an id from the grams of its current value. Must hold the write lock
+     *
+     * @param id the id
+     */
+
+    private void unpost(long id) {
+
+        String previous = values.remove(id);
+
+        if (previous == null) {
+            return;
+        }
+
+        for (String gram : grams(previous)) {
+
+            Postings ids = postings.get(gram);
+
+            if (ids != null && ids.remove(id) && ids.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Intersects the postings of the grams of the term, smallest first, and verifies the candidates.
+     * Must hold the read lock
+     *
+     * @param normalized the normalized term
+     *
+     * @return the sorted ids
+     */
+
+    private long[] lookup(String normalized) {
+
+        Set<String> grams = grams(normalized);
+        Postings[] lists = new Postings[grams.size()];
+        int n = 0;
+
+        for (String gram : grams) {
+
+            Postings ids = postings.get(gram);
+
+            if (ids == null) {
+                return NONE;
+            }
+
+            lists[n++] = ids;
+        }
+
+        Arrays.sort(lists, (x, y) -> Integer.compare(x.size, y.size));
+
+        long[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = candidates.length;
+
+        for (int k = 1; k < lists.length && size > 0; k++) {
+            size = retain(candidates, size, lists[k]);
+        }
+
+        // the grams only prove the id has every piece of the term, not that they are contiguous
+        int verified = 0;
+
+        for (int k = 0; k < size; k++) {
+
+            if (values.get(candidates[k]).contains(normalized)) {
+                candidates[verified++] = candidates[k];
+            }
+        }
+
+        return Arrays.copyOf(candidates, verified);
+    }
+
+    /**
+     * Scans the stored values, for the terms shorter than a gram. Must hold the read lock
+     *
+     * @param normalized the normalized term
+     *
+     * @return the sorted ids
+     */
+
+    private long[] scan(String normalized) {
+
+        long[] result = new long[values.size()];
+        int n = 0;
+
+        for (Map.Entry<Long, String> entry : values.entrySet()) {
+
+            if (entry.getValue().contains(normalized)) {
+                result[n++] = entry.getKey();
+            }
+        }
+
+        result = Arrays.copyOf(result, n);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Keeps in the candidates only the ids of the postings
+     *
+     * @param candidates the sorted candidates, compacted in place
+     * @param size       the number of candidates
+     * @param ids        the postings
+     *
+     * @return the number of candidates left
+     */
+
+    private static int retain(long[] candidates, int size, Postings ids) {
+
+        int n = 0;
+        int from = 0;
+
+        for (int k = 0; k < size; k++) {
+
+            int found = Arrays.binarySearch(ids.ids, from, ids.size, candidates[k]);
+
+            if (found >= 0) {
+                candidates[n++] = candidates[k];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * The distinct grams of a normalized value. A value shorter than a gram is a gram by itself
+     *
+     * @param normalized the normalized value
+     *
+     * @return the grams
+     */
+
+    private static Set<String> grams(String normalized) {
+
+        Set<String> grams = new LinkedHashSet<>();
+
+        if (normalized.length() < GRAM) {
+
+            if (!normalized.isEmpty()) {
+                grams.add(normalized);
+            }
+
+            return grams;
+        }
+
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+
+        return grams;
+    }
+
+    /**
+     * Postings class
+     * <p>
+     * The sorted ids of a gram
+     */
+
+    private static final class Postings {
+
+        /**
+         * The ids, sorted, only the first size are used
+         */
+
+        private long[] ids = new long[4];
+
+        /**
+         * The number of ids
+         */
+
+        private int size;
+
+        /**
+         * Adds an id, keeping the order
+         *
+         * @param id the id
+         */
+
+        private void add(long id) {
+
+            if (size > 0 && ids[size - 1] < id) {
+
+                grow();
+                ids[size++] = id;
+                return;
+            }
+
+            int at = Arrays.binarySearch(ids, 0, size, id);
+
+            if (at >= 0) {
+                return;
+            }
+
+            at = -at - 1;
+            grow();
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        /**
+         * Removes an id
+         *
+         * @param id the id
+         *
+         * @return true if the id was there
+         */
+
+        private boolean remove(long id) {
+
+            int at = Arrays.binarySearch(ids, 0, size, id);
+
+            if (at < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Makes room for one more id
+         */
+
+        private void grow() {
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+
+    }
+
+}
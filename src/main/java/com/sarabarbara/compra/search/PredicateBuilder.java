@@ -0,0 +1,195 @@
+package com.sarabarbara.compra.search;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * PredicateBuilder class
+ * <p>
+ * Collects the predicates of a search, skipping the filters that were not supplied, so the generated SQL only has
+ * the conditions of the current request and each combination of filters gets its own plan.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class PredicateBuilder {
+
+    /**
+     * The escape character of the LIKE patterns
+     */
+
+    private static final char ESCAPE = '\\';
+
+    /**
+     * The criteriaBuilder
+     */
+
+    private final CriteriaBuilder criteriaBuilder;
+
+    /**
+     * The predicates
+     */
+
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    /**
+     * The constructor
+     *
+     * @param criteriaBuilder the criteria builder
+     */
+
+    public PredicateBuilder(CriteriaBuilder criteriaBuilder) {
+
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    /**
+     * Adds an equality filter, only if the value is supplied
+     *
+     * @param path  the column
+     * @param value the value
+     *
+     * @return this builder
+     */
+
+    public PredicateBuilder equal(Expression<?> path, Object value) {
+
+        if (value != null) {
+
+            predicates.add(criteriaBuilder.equal(path, value));
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a range filter, both ends included, only with the ends that are supplied
+     *
+     * @param path the column
+     * @param min  the lowest value
+     * @param max  the highest value
+     * @param <C>  the type of the column
+     *
+     * @return this builder
+     */
+
+    public <C extends Comparable<? super C>> PredicateBuilder range(Expression<? extends C> path, C min, C max) {
+
+        if (min != null) {
+
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(path, min));
+        }
+
+        if (max != null) {
+
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(path, max));
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a membership filter, only if the values are supplied
+     *
+     * @param path   the column
+     * @param values the values
+     *
+     * @return this builder
+     */
+
+    public PredicateBuilder in(Expression<?> path, Collection<?> values) {
+
+        if (values != null) {
+
+            predicates.add(path.in(values));
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a prefix filter over a normalized column, only if the term is supplied.
+     * The term is normalized and escaped, so the predicate is a plain {@code LIKE 'term%'} range on the index
+     *
+     * @param normalizedPath the normalized column
+     * @param term           the term as the user wrote it
+     *
+     * @return this builder
+     */
+
+    public PredicateBuilder startsWith(Expression<String> normalizedPath, String term) {
+
+        String normalized = SearchNormalizer.normalize(term);
+
+        if (normalized != null && !normalized.isEmpty()) {
+
+            predicates.add(criteriaBuilder.like(normalizedPath, escapeLike(normalized) + "%", ESCAPE));
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds a prefix filter over a column stored as it is, only if the term is supplied
+     *
+     * @param path the column
+     * @param term the term
+     *
+     * @return this builder
+     */
+
+    public PredicateBuilder startsWithExact(Expression<String> path, String term) {
+
+        if (term != null && !term.isBlank()) {
+
+            predicates.add(criteriaBuilder.like(path, escapeLike(term.strip()) + "%", ESCAPE));
+        }
+
+        return this;
+    }
+
+    /**
+     * The collected predicates
+     *
+     * @return the predicates, empty if no filter was supplied
+     */
+
+    public Predicate[] build() {
+
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Escapes the wildcards of a LIKE term
+     *
+     * @param term the term
+     *
+     * @return the escaped term
+     */
+
+    private static String escapeLike(String term) {
+
+        StringBuilder escaped = new StringBuilder(term.length() + 4);
+
+        for (int i = 0; i < term.length(); i++) {
+
+            char c = term.charAt(i);
+
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.sarabarbara.compra.search;
+
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.pagination.Cursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sarabarbara.compra.search.SearchNormalizer.normalize;
+
+/**
+ * SearchColumnsBackfill class
+ * <p>
+ * Fills, once, the normalized search columns of the clients and the items written without the application, as the
+ * rows of the SQL scripts: MySQL has no function that strips the accents as {@link SearchNormalizer} does, so the
+ * scripts leave the columns empty. It is off unless {@code compra.search.backfill.enabled} is true, to be turned on
+ * for the start after such a load and off again; the application fills the columns of every row it saves.
+ * <p>
+ * Only the rows with an empty column are read, by keyset pages, as plain columns that never go through the second
+ * level cache. Each page is normalized and written in its own transaction, and a row is written only if its columns
+ * are the ones just read and still empty, so a client or an item saved meanwhile by the application keeps the columns
+ * it got. The clients written are evicted from the second level cache one by one, never the whole region.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SearchColumnsBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchColumnsBackfill.class);
+
+    /**
+     * The rows read at once
+     */
+
+    private static final int PAGE = 500;
+
+    /**
+     * The clients with an empty column after an id
+     */
+
+    private static final String CLIENTS_QUERY = "SELECT id_client, name, surname, company, position, province " +
+            "FROM client WHERE id_client > ? AND (name_norm IS NULL OR surname_norm IS NULL OR company_norm IS NULL " +
+            "OR position_norm IS NULL OR province_norm IS NULL) ORDER BY id_client LIMIT ?";
+
+    /**
+     * The columns of a client, if it is as read and they are still empty
+     */
+
+    private static final String CLIENT_UPDATE = "UPDATE client SET name_norm = ?, surname_norm = ?, " +
+            "company_norm = ?, position_norm = ?, province_norm = ? WHERE id_client = ? AND name = ? AND surname = ? " +
+            "AND company = ? AND position = ? AND province = ? AND (name_norm IS NULL OR surname_norm IS NULL " +
+            "OR company_norm IS NULL OR position_norm IS NULL OR province_norm IS NULL)";
+
+    /**
+     * The items with an empty column after an id
+     */
+
+    private static final String ITEMS_QUERY = "SELECT id_item, name, supplier FROM item WHERE id_item > ? " +
+            "AND (name_norm IS NULL OR supplier_norm IS NULL) ORDER BY id_item LIMIT ?";
+
+    /**
+     * The columns of an item, if it is as read and they are still empty
+     */
+
+    private static final String ITEM_UPDATE = "UPDATE item SET name_norm = ?, supplier_norm = ? WHERE id_item = ? " +
+            "AND name = ? AND supplier = ? AND (name_norm IS NULL OR supplier_norm IS NULL)";
+
+    /**
+     * The jdbcTemplate
+     */
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The entityManagerFactory, for the second level cache
+     */
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The transaction of each page
+     */
+
+    private final TransactionTemplate pageTransaction;
+
+    /**
+     * If the columns are filled
+     */
+
+    private final boolean enabled;
+
+    /**
+     * The constructor
+     *
+     * @param jdbcTemplate         the jdbc template
+     * @param entityManagerFactory the entity manager factory
+     * @param transactionManager   the transaction manager
+     * @param enabled              if the columns are filled
+     */
+
+    public SearchColumnsBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${compra.search.backfill.enabled:false}") boolean enabled) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pageTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Fills the empty columns of the clients and the items
+     */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+
+        if (!enabled) {
+            return;
+        }
+
+        int clients = backfillClients();
+        int items = backfillItems();
+
+        logger.info("Search columns normalized: {} clients and {} items, compra.search.backfill.enabled can be " +
+                "turned off", clients, items);
+    }
+
+    // Complementary methods
+
+    /**
+     * Fills the empty columns of the clients
+     *
+     * @return the clients written
+     */
+
+    private int backfillClients() {
+
+        long after = Cursor.start().getId();
+        int written = 0;
+        int read;
+
+        do {
+
+            long from = after;
+            Page page = pageTransaction.execute(status -> {
+
+                List<Object[]> updates = new ArrayList<>();
+                long last = jdbcTemplate.query(CLIENTS_QUERY, rs -> {
+
+                    long id = from;
+
+                    while (rs.next()) {
+
+                        id = rs.getLong(1);
+                        String name = rs.getString(2);
+                        String surname = rs.getString(3);
+                        String company = rs.getString(4);
+                        String position = rs.getString(5);
+                        String province = rs.getString(6);
+
+                        updates.add(new Object[]{normalize(name), normalize(surname), normalize(company),
+                                normalize(position), normalize(province), id, name, surname, company, position,
+                                province});
+                    }
+
+                    return id;
+                }, from, PAGE);
+
+                return new Page(updates.size(), last, writtenIds(updates, jdbcTemplate.batchUpdate(CLIENT_UPDATE,
+                        updates), 5));
+            });
+
+            if (page == null) {
+                break;
+            }
+
+            page.written.forEach(id -> entityManagerFactory.getCache().evict(Client.class, id));
+            written += page.written.size();
+            read = page.read;
+            after = page.last;
+
+        } while (read == PAGE);
+
+        return written;
+    }
+
+    /**
+     * Fills the empty columns of the items
+     *
+     * @return the items written
+     */
+
+    private int backfillItems() {
+
+        long after = Cursor.start().getId();
+        int written = 0;
+        int read;
+
+        do {
+
+            long from = after;
+            Page page = pageTransaction.execute(status -> {
+
+                List<Object[]> updates = new ArrayList<>();
+                long last = jdbcTemplate.query(ITEMS_QUERY, rs -> {
+
+                    long id = from;
+
+                    while (rs.next()) {
+
+                        id = rs.getLong(1);
+                        String name = rs.getString(2);
+                        String supplier = rs.getString(3);
+
+                        updates.add(new Object[]{normalize(name), normalize(supplier), id, name, supplier});
+                    }
+
+                    return id;
+                }, from, PAGE);
+
+                return new Page(updates.size(), last, writtenIds(updates, jdbcTemplate.batchUpdate(ITEM_UPDATE,
+                        updates), 2));
+            });
+
+            if (page == null) {
+                break;
+            }
+
+            written += page.written.size();
+            read = page.read;
+            after = page.last;
+
+        } while (read == PAGE);
+
+        return written;
+    }
+
+    /**
+     * The ids of the rows written by a batch of updates
+     *
+     * @param updates the arguments of the updates
+     * @param counts  the rows of each update
+     * @param idIndex the position of the id in the arguments
+     *
+     * @return the ids
+     */
+
+    private static List<Long> writtenIds(List<Object[]> updates, int[] counts, int idIndex) {
+
+        List<Long> ids = new ArrayList<>(counts.length);
+
+        for (int k = 0; k < counts.length; k++) {
+
+            if (counts[k] != 0) {
+                ids.add((Long) updates.get(k)[idIndex]);
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * Page class
+     * <p>
+     * The outcome of a page: the rows read, the last id read and the ids written
+     */
+
+    private static final class Page {
+
+        /**
+         * The rows read
+         */
+
+        private final int read;
+
+        /**
+         * The last id read
+         */
+
+        private final long last;
+
+        /**
+         * The ids written
+         */
+
+        private final List<Long> written;
+
+        /**
+         * The constructor
+         *
+         * @param read    the rows read
+         * @param last    the last id read
+         * @param written the ids written
+         */
+
+        private Page(int read, long last, List<Long> written) {
+
+            this.read = read;
+            this.last = last;
+            this.written = written;
+        }
+
+    }
+
+}
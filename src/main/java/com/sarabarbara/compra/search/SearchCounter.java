@@ -0,0 +1,90 @@
+package com.sarabarbara.compra.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sarabarbara.compra.enums.CountMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * SearchCounter class
+ * <p>
+ * Counts the results of the searches as their {@link CountMode} asks. The count is skipped whenever the page tells
+ * the total by itself, i.e. the first page isn't full or the page is the last one. The approximate counts are kept
+ * for {@code compra.search.count.ttl} by the search and its filters, so they may be that old.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SearchCounter {
+
+    /**
+     * The approximate counts by search
+     */
+
+    private final Cache<String, Long> counts;
+
+    /**
+     * The constructor
+     *
+     * @param maximumSize the maximum number of searches counted
+     * @param ttl         the time a count is kept
+     */
+
+    public SearchCounter(@Value("${compra.search.count.maximum-size:10000}") long maximumSize,
+                         @Value("${compra.search.count.ttl:60s}") Duration ttl) {
+
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Adds the count to a slice of results
+     *
+     * @param slice   the results of the page, without count
+     * @param mode    the count mode
+     * @param key     the search and its filters, the key of the approximate count
+     * @param counter the exact count of the search
+     * @param <T>     the type of the results
+     *
+     * @return the slice itself without count, a page otherwise
+     */
+
+    public <T> Slice<T> count(Slice<T> slice, CountMode mode, String key, LongSupplier counter) {
+
+        return switch (mode) {
+            case NONE -> slice;
+            case EXACT -> PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(), counter);
+            case APPROXIMATE -> PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                    () -> counts.get(key, search -> counter.getAsLong()));
+        };
+    }
+
+    /**
+     * Adds the count to a slice of results whose total is already known
+     *
+     * @param slice the results of the page, without count
+     * @param mode  the count mode
+     * @param total the total of results
+     * @param <T>   the type of the results
+     *
+     * @return the slice itself without count, a page otherwise
+     */
+
+    public <T> Slice<T> count(Slice<T> slice, CountMode mode, long total) {
+
+        return mode == CountMode.NONE ? slice : new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.sarabarbara.compra.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SearchNormalizer class
+ * <p>
+ * The normal form of the searchable texts: trimmed, lower case and without accents. The entities store it in their
+ * indexed *_norm columns and the searches normalize the terms the same way, so the case and the accents never need a
+ * function on the column.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class SearchNormalizer {
+
+    /**
+     * The combining marks left by the NFD decomposition
+     */
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * The private constructor
+     */
+
+    private SearchNormalizer() {
+
+    }
+
+    /**
+     * Normalizes a text
+     *
+     * @param text the text
+     *
+     * @return the normalized text, null if the text is null
+     */
+
+    public static String normalize(String text) {
+
+        if (text == null) {
+
+            return null;
+        }
+
+        String decomposed = Normalizer.normalize(text.strip(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+}
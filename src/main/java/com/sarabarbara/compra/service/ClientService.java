@@ -1,18 +1,47 @@
 package com.sarabarbara.compra.service;
 
+import com.sarabarbara.compra.bulk.ClientBulkImporter;
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.clients.ClientPurchaseDTO;
+import com.sarabarbara.compra.dto.clients.ClientPurchaseSummaryDTO;
+import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import com.sarabarbara.compra.enums.CountMode;
 import com.sarabarbara.compra.exceptions.client.ClientNotFoundException;
 import com.sarabarbara.compra.exceptions.client.ClientValidateException;
+import com.sarabarbara.compra.logging.LogSampler;
 import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.model.ClientPurchaseSummary;
+import com.sarabarbara.compra.model.SalesDaily;
+import com.sarabarbara.compra.pagination.Cursor;
+import com.sarabarbara.compra.pagination.CursorPage;
+import com.sarabarbara.compra.patch.EntityPatcher;
+import com.sarabarbara.compra.repository.ClientPurchaseSummaryRepository;
 import com.sarabarbara.compra.repository.ClientRepository;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import com.sarabarbara.compra.repository.SalesDailyRepository;
+import com.sarabarbara.compra.search.CandidateSearch;
+import com.sarabarbara.compra.search.ClientNgramIndex;
+import com.sarabarbara.compra.search.NgramIndex;
+import com.sarabarbara.compra.search.SearchCounter;
+import com.sarabarbara.compra.summary.SalesDailyRecorder;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,8 +58,30 @@ import java.util.Optional;
 public class ClientService {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientService.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+
+    /**
+     * The patcher of the partial updates of the clients, which never change the id
+     */
+
+    public static final EntityPatcher<Client> CLIENT_PATCHER = EntityPatcher.of(Client.class, "idClient");
+
     private ClientRepository clientRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private ClientNgramIndex clientNgramIndex;
+    private ClientBulkImporter clientBulkImporter;
+    private PurchaseRepository purchaseRepository;
+    private ClientPurchaseSummaryRepository clientPurchaseSummaryRepository;
+    private SalesDailyRepository salesDailyRepository;
+    private SalesDailyRecorder salesDailyRecorder;
+    private SearchCounter searchCounter;
+
+    /**
+     * The maximum purchases of a page of the profile of a client
+     */
+
+    private static final int MAX_PROFILE_PURCHASES = 100;
 
     /**
      * Method to create a client
@@ -47,8 +98,32 @@ public class ClientService {
         logger.info("Creating client...");
         validateNewClient(client);
 
+        Client createdClient = clientRepository.save(client);
+        clientNgramIndex.put(createdClient);
+
         logger.info("Client created successfully");
-        return clientRepository.save(client);
+        return createdClient;
+    }
+
+    /**
+     * Method to import clients from a CSV.
+     * The rows are validated in parallel and saved by chunks; a rejected row doesn't stop the others
+     *
+     * @param csv the CSV, with a header
+     *
+     * @return the report of the import
+     *
+     * @throws IOException the {@link IOException}
+     */
+
+    public ImportReportDTO importClients(InputStream csv) throws IOException {
+
+        logger.info("Importing clients...");
+
+        ImportReportDTO report = clientBulkImporter.importCsv(csv);
+
+        logger.info("Clients imported: {}", report);
+        return report;
     }
 
     /**
@@ -60,21 +135,52 @@ public class ClientService {
      * @return the list of all clients
      */
 
-    public List<Client> clientList(int page, int size) {
+    public List<ClientDTO> clientList(int page, int size) {
 
         logger.info("Client list. Page {}, size {}", page, size);
 
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Client> pageResult = clientRepository.findAll(pageRequest);
+        Page<ClientDTO> pageResult = clientRepository.findAllClientDTO(pageRequest);
 
-        List<Client> clientList = pageResult.getContent();
+        List<ClientDTO> clientList = pageResult.getContent();
 
-        logger.info("Clients list: {}. ", clientList);
+        listLog.list(logger, "Clients list: {}. ", clientList, ClientDTO::getIdClient);
         return clientList;
     }
 
     /**
-     * Method to search a client
+     * Method to get the list of all clients in keyset mode.
+     * It seeks to the cursor instead of skipping rows and it never counts, so every page costs the same
+     *
+     * @param after the cursor of the last page, null or empty for the first page
+     * @param size  the size of the page
+     *
+     * @return the page of clients and the cursor of the next one
+     */
+
+    public CursorPage<ClientDTO> clientListAfter(String after, int size) {
+
+        logger.info("Client list. After {}, size {}", after, size);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        Cursor cursor = Cursor.decode(after);
+        List<ClientDTO> clientList = clientRepository.findClientDTOAfter(cursor.getId(), Limit.of(size + 1));
+
+        CursorPage<ClientDTO> clientPage = CursorPage.of(clientList, size,
+                client -> Cursor.of(client.getIdClient()));
+
+        listAfterLog.list(logger, "Clients list: {}. ", clientPage.getContent(), ClientDTO::getIdClient);
+        return clientPage;
+    }
+
+    /**
+     * Method to search a client.
+     * With the n-gram index enabled the name, surname, company and phone number are substring matches answered by
+     * the index, and the database only reads the rows of the page; otherwise they are prefix matches, and the phone
+     * number an exact match, in the database. The results found by the index are counted by the index
      *
      * @param name        the name of the client
      * @param surname     the surname of the client
@@ -85,12 +191,14 @@ public class ClientService {
      * @param phoneNumber the phone number of the client
      * @param page        the page to search
      * @param size        the size of the page
+     * @param count       how the results are counted
      *
-     * @return the searched client
+     * @return the searched client, a page when counted
      */
 
-    public List<Client> searchClient(String name, String surname, String company, String position, String zipCode,
-                                     String province, String phoneNumber, int page, int size) {
+    public Slice<ClientSearchDTO> searchClient(String name, String surname, String company, String position,
+                                               String zipCode, String province, String phoneNumber, int page,
+                                               int size, CountMode count) {
 
         logger.info("Searching client...");
 
@@ -99,12 +207,45 @@ public class ClientService {
         }
 
         PageRequest pageRequest = PageRequest.of(page - 1, size);
+        long[] candidates = clientNgramIndex.search(name, surname, company, phoneNumber);
+
+        String key = "client " + Arrays.asList(name, surname, company, position, zipCode, province, phoneNumber);
+
+        Slice<ClientSearchDTO> searchedClient;
+
+        if (candidates == null) {
+
+            searchedClient = searchCounter.count(clientRepository.searchClients(null, name, surname, company,
+                            position, zipCode, province, phoneNumber, pageRequest), count, key,
+                    () -> clientRepository.countClients(null, name, surname, company, position, zipCode, province,
+                            phoneNumber));
+
+        } else if (candidates.length == 0) {
+
+            searchedClient = searchCounter.count(new SliceImpl<>(List.of(), pageRequest, false), count, 0);
 
-        Page<Client> searchedClient = clientRepository.searchClients(name, surname, company, position, zipCode,
-                province, phoneNumber, pageRequest);
+        } else if (!StringUtils.hasText(position) && !StringUtils.hasText(zipCode) && !StringUtils.hasText(province)) {
 
-        logger.info("Clients found: {}", searchedClient.getContent());
-        return searchedClient.getContent();
+            // the index answers the whole search, the database only reads the clients of the page
+            List<Long> pageIds = NgramIndex.slice(candidates, pageRequest.getOffset(), size);
+            List<ClientSearchDTO> content = pageIds.isEmpty() ? List.of() : clientRepository.searchClients(pageIds,
+                    null, null, null, null, null, null, null, PageRequest.of(0, size)).getContent();
+
+            searchedClient = searchCounter.count(new SliceImpl<>(content, pageRequest,
+                    pageRequest.getOffset() + size < candidates.length), count, candidates.length);
+
+        } else {
+
+            // the database filters the candidates of the index, a bounded chunk of them per query
+            searchedClient = searchCounter.count(CandidateSearch.page(candidates, pageRequest,
+                            (ids, chunkPage) -> clientRepository.searchClients(ids, null, null, null, position,
+                                    zipCode, province, null, chunkPage)), count, key,
+                    () -> CandidateSearch.count(candidates, ids -> clientRepository.countClients(ids, null, null,
+                            null, position, zipCode, province, null)));
+        }
+
+        searchLog.list(logger, "Clients found: {}", searchedClient.getContent(), ClientSearchDTO::getCompany);
+        return searchedClient;
 
     }
 
@@ -127,19 +268,14 @@ public class ClientService {
 
         logger.info("New client info: {}", newInfo);
 
-        // ignores the id field
-        modelMapper.typeMap(Client.class, Client.class).addMappings(mapper -> mapper.skip(Client::setIdClient));
-
-        // ignores the null fields
-        modelMapper.getConfiguration().setSkipNullEnabled(true);
-
-        /* copies the values of the Client object (newInfo, any non-null field)
+        /* copies the values of the Client object (newInfo, any non-null field but the id)
         to the existingClient object. */
 
-        modelMapper.map(newInfo, optionalClient);
+        CLIENT_PATCHER.patch(newInfo, optionalClient);
 
         logger.info("Updating client {} {}...", optionalClient.getName(), optionalClient.getSurname());
         clientRepository.save(optionalClient);
+        clientNgramIndex.put(optionalClient);
 
 
         logger.info("Client {} updated successfully", optionalClient);
@@ -147,13 +283,16 @@ public class ClientService {
     }
 
     /**
-     * Method to delete a client
+     * Method to delete a client with their purchases.
+     * The purchase table has no foreign keys, so the purchases are deleted here, in the same transaction, and taken
+     * out of the daily sales; the summary of the client goes with them
      *
      * @param phoneNumber the phone number of the client
      *
      * @throws ClientNotFoundException the {@link ClientNotFoundException}
      */
 
+    @Transactional
     public void deleteClient(String phoneNumber) throws ClientNotFoundException {
 
         Client optionalClient = clientRepository.findByPhoneNumber(phoneNumber)
@@ -162,8 +301,16 @@ public class ClientService {
         Long id = optionalClient.getIdClient();
 
         logger.info("Deleting client: {}", optionalClient);
+
+        List<SalesDaily> sales = salesDailyRepository.sumPurchasesOfClient(id);
+        int purchases = purchaseRepository.deletePurchasesOfClient(id);
+        salesDailyRecorder.purchasesRemoved(sales);
+
+        clientPurchaseSummaryRepository.deleteById(id);
         clientRepository.deleteById(id);
+        clientNgramIndex.remove(id);
 
+        logger.info("Deleted {} purchases of client {}", purchases, id);
         logger.info("Client with id {} (phone number: {}) has been deleted successfully.", id, phoneNumber);
     }
 
@@ -186,6 +333,67 @@ public class ClientService {
 
     }
 
+    /**
+     * Method to get the purchases of a client, the latest first, in keyset mode.
+     * It reads only the rows of the page, walking the (id_client, purchase_date) index backwards from the cursor
+     *
+     * @param idClient the id of the client
+     * @param after    the cursor of the last page, null or empty for the first page
+     * @param size     the size of the page, at most {@value #MAX_PROFILE_PURCHASES}
+     *
+     * @return the page of purchases and the cursor of the next one
+     */
+
+    public CursorPage<ClientPurchaseDTO> clientPurchases(Long idClient, String after, int size) {
+
+        logger.info("Client purchases for id {}. After {}, size {}", idClient, after, size);
+
+        if (size < 1 || size > MAX_PROFILE_PURCHASES) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PROFILE_PURCHASES);
+        }
+
+        Cursor cursor = Cursor.decode(after);
+        Limit limit = Limit.of(size + 1);
+        List<ClientPurchaseDTO> purchaseList;
+
+        if (cursor.isStart()) {
+
+            purchaseList = purchaseRepository.findLatestClientPurchaseDTO(idClient, limit);
+
+        } else if (cursor.getDate() != null) {
+
+            purchaseList = purchaseRepository.findClientPurchaseDTOBefore(idClient, cursor.getDate(), cursor.getId(),
+                    limit);
+
+        } else {
+
+            throw new IllegalArgumentException("The cursor was not built for the purchases of a client");
+        }
+
+        return CursorPage.of(purchaseList, size,
+                purchase -> Cursor.of(purchase.getPurchaseDate(), purchase.getIdPurchase()));
+    }
+
+    /**
+     * Method to get the lifetime totals of the purchases of a client.
+     * They are kept up to date by the purchases, so this is a single read by the primary key; a client whose summary
+     * is not built yet gets its purchases added up
+     *
+     * @param idClient the id of the client
+     *
+     * @return the totals of the client, all zero if the client has no purchases
+     */
+
+    public ClientPurchaseSummaryDTO clientPurchaseSummary(Long idClient) {
+
+        ClientPurchaseSummary summary = clientPurchaseSummaryRepository.findById(idClient)
+                .or(() -> clientPurchaseSummaryRepository.sumPurchasesOf(idClient))
+                .orElseGet(() -> new ClientPurchaseSummary(idClient, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+
+        return new ClientPurchaseSummaryDTO(summary.getPurchaseCount(), summary.getUnits(), summary.getTotal(),
+                summary.getTotalPrice());
+    }
+
     // Complementary methods
 
     /**
@@ -1,21 +1,48 @@
 package com.sarabarbara.compra.service;
 
+import com.sarabarbara.compra.bulk.ItemBulkImporter;
+import com.sarabarbara.compra.cache.ItemCatalogCache;
+import com.sarabarbara.compra.dto.imports.ImportReportDTO;
+import com.sarabarbara.compra.dto.items.ItemCacheStatsDTO;
+import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.dto.items.ItemSearchDTO;
+import com.sarabarbara.compra.enums.CountMode;
 import com.sarabarbara.compra.enums.Type;
 import com.sarabarbara.compra.exceptions.client.ClientValidateException;
 import com.sarabarbara.compra.exceptions.item.ItemNotFoundException;
 import com.sarabarbara.compra.exceptions.item.ItemValidateException;
+import com.sarabarbara.compra.logging.LogSampler;
+import com.sarabarbara.compra.model.ClientPurchaseSummary;
 import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.pagination.Cursor;
+import com.sarabarbara.compra.pagination.CursorPage;
+import com.sarabarbara.compra.patch.EntityPatcher;
+import com.sarabarbara.compra.repository.ClientPurchaseSummaryRepository;
 import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import com.sarabarbara.compra.repository.SalesDailyRepository;
+import com.sarabarbara.compra.search.CandidateSearch;
+import com.sarabarbara.compra.search.ItemNgramIndex;
+import com.sarabarbara.compra.search.NgramIndex;
+import com.sarabarbara.compra.search.SearchCounter;
+import com.sarabarbara.compra.stock.StockReservationEngine;
+import com.sarabarbara.compra.summary.ClientPurchaseSummaryRecorder;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,8 +59,26 @@ import java.util.Optional;
 public class ItemService {
 
     private static final Logger logger = LoggerFactory.getLogger(ItemService.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+
+    /**
+     * The patcher of the partial updates of the items, which never change the id nor the price
+     */
+
+    public static final EntityPatcher<Item> ITEM_PATCHER = EntityPatcher.of(Item.class, "idItem", "unitPrice");
+
     private ItemRepository itemRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private ItemNgramIndex itemNgramIndex;
+    private ItemCatalogCache itemCatalogCache;
+    private ItemBulkImporter itemBulkImporter;
+    private SearchCounter searchCounter;
+    private PurchaseRepository purchaseRepository;
+    private ClientPurchaseSummaryRepository clientPurchaseSummaryRepository;
+    private ClientPurchaseSummaryRecorder clientPurchaseSummaryRecorder;
+    private SalesDailyRepository salesDailyRepository;
+    private StockReservationEngine stockReservationEngine;
 
     /**
      * Method to create an item
@@ -50,8 +95,32 @@ public class ItemService {
         logger.info("Creating client...");
         validateNewItem(item);
 
+        Item createdItem = itemRepository.save(item);
+        itemNgramIndex.put(createdItem);
+
         logger.info("Client created successfully");
-        return itemRepository.save(item);
+        return createdItem;
+    }
+
+    /**
+     * Method to import items from a CSV.
+     * The rows are validated in parallel and saved by chunks; a rejected row doesn't stop the others
+     *
+     * @param csv the CSV, with a header
+     *
+     * @return the report of the import
+     *
+     * @throws IOException the {@link IOException}
+     */
+
+    public ImportReportDTO importItems(InputStream csv) throws IOException {
+
+        logger.info("Importing items...");
+
+        ImportReportDTO report = itemBulkImporter.importCsv(csv);
+
+        logger.info("Items imported: {}", report);
+        return report;
     }
 
     /**
@@ -63,21 +132,51 @@ public class ItemService {
      * @return the list of all items
      */
 
-    public List<Item> itemList(int page, int size) {
+    public List<ItemDTO> itemList(int page, int size) {
 
         logger.info("Item list. Page {}, size {}", page, size);
 
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Item> pageResult = itemRepository.findAll(pageRequest);
+        Page<ItemDTO> pageResult = itemRepository.findAllItemDTO(pageRequest);
 
-        List<Item> itemList = pageResult.getContent();
+        List<ItemDTO> itemList = pageResult.getContent();
 
-        logger.info("Clients list: {}. ", itemList);
+        listLog.list(logger, "Clients list: {}. ", itemList, ItemDTO::getIdItem);
         return itemList;
     }
 
     /**
-     * Method to search an item
+     * Method to get the list of all items in keyset mode.
+     * It seeks to the cursor instead of skipping rows and it never counts, so every page costs the same
+     *
+     * @param after the cursor of the last page, null or empty for the first page
+     * @param size  the size of the page
+     *
+     * @return the page of items and the cursor of the next one
+     */
+
+    public CursorPage<ItemDTO> itemListAfter(String after, int size) {
+
+        logger.info("Item list. After {}, size {}", after, size);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        Cursor cursor = Cursor.decode(after);
+        List<ItemDTO> itemList = itemRepository.findItemDTOAfter(cursor.getId(), Limit.of(size + 1));
+
+        CursorPage<ItemDTO> itemPage = CursorPage.of(itemList, size, item -> Cursor.of(item.getIdItem()));
+
+        listAfterLog.list(logger, "Items list: {}. ", itemPage.getContent(), ItemDTO::getIdItem);
+        return itemPage;
+    }
+
+    /**
+     * Method to search an item.
+     * With the n-gram index enabled the name and supplier are substring matches answered by the index, and the
+     * database only reads the rows of the page; otherwise they are prefix matches in the database. The results found
+     * by the index are counted by the index
      *
      * @param name      the name of the item
      * @param itemStock the stock of the item
@@ -86,12 +185,13 @@ public class ItemService {
      * @param date      the date of the purchase or restock
      * @param page      the page
      * @param size      the size of the page
+     * @param count     how the results are counted
      *
-     * @return the item searched
+     * @return the item searched, a page when counted
      */
 
-    public List<Item> searchItem(String name, Integer itemStock, Type type, String supplier, LocalDate date, int page,
-                                 int size) {
+    public Slice<ItemSearchDTO> searchItem(String name, Integer itemStock, Type type, String supplier, LocalDate date,
+                                           int page, int size, CountMode count) {
 
         logger.info("Searching item...");
 
@@ -100,11 +200,44 @@ public class ItemService {
         }
 
         PageRequest pageRequest = PageRequest.of(page - 1, size);
+        long[] candidates = itemNgramIndex.search(name, supplier);
+
+        String key = "item " + Arrays.asList(name, itemStock, type, supplier, date);
+
+        Slice<ItemSearchDTO> searchedClient;
+
+        if (candidates == null) {
+
+            searchedClient = searchCounter.count(itemRepository.searchItems(null, name, itemStock, type, supplier,
+                            date, pageRequest), count, key,
+                    () -> itemRepository.countItems(null, name, itemStock, type, supplier, date));
+
+        } else if (candidates.length == 0) {
+
+            searchedClient = searchCounter.count(new SliceImpl<>(List.of(), pageRequest, false), count, 0);
+
+        } else if (itemStock == null && type == null && date == null) {
+
+            // the index answers the whole search, the database only reads the items of the page
+            List<Long> pageIds = NgramIndex.slice(candidates, pageRequest.getOffset(), size);
+            List<ItemSearchDTO> content = pageIds.isEmpty() ? List.of() : itemRepository.searchItems(pageIds, null,
+                    null, null, null, null, PageRequest.of(0, size)).getContent();
+
+            searchedClient = searchCounter.count(new SliceImpl<>(content, pageRequest,
+                    pageRequest.getOffset() + size < candidates.length), count, candidates.length);
+
+        } else {
 
-        Page<Item> searchedClient = itemRepository.searchItems(name, itemStock, type, supplier, date, pageRequest);
+            // the database filters the candidates of the index, a bounded chunk of them per query
+            searchedClient = searchCounter.count(CandidateSearch.page(candidates, pageRequest,
+                            (ids, chunkPage) -> itemRepository.searchItems(ids, null, itemStock, type, null, date,
+                                    chunkPage)), count, key,
+                    () -> CandidateSearch.count(candidates, ids -> itemRepository.countItems(ids, null, itemStock,
+                            type, null, date)));
+        }
 
-        logger.info("Clients found: {}", searchedClient.getContent());
-        return searchedClient.getContent();
+        searchLog.list(logger, "Clients found: {}", searchedClient.getContent(), ItemSearchDTO::getName);
+        return searchedClient;
 
     }
 
@@ -121,30 +254,22 @@ public class ItemService {
 
     public Item updateItem(String name, Item newInfo) throws ItemNotFoundException {
 
+        // the writes never touch the cached items, they are shared and read-only
         logger.info("Updating item with name {}", name);
         Item optionalItem = itemRepository.findByName(name)
                 .orElseThrow(() -> new ItemNotFoundException("Can't update item: Item not found"));
 
         logger.info("New item info: {}", newInfo);
 
-        // ignores the id field
-        modelMapper.typeMap(Item.class, Item.class)
-                .addMappings(mapper -> mapper.skip(Item::setIdItem));
-
-        // ignores the price field
-        modelMapper.typeMap(Item.class, Item.class)
-                .addMappings(mapper -> mapper.skip(Item::setUnitPrice));
-
-        // ignores the null fields
-        modelMapper.getConfiguration().setSkipNullEnabled(true);
-
-        /* copies the values of the Item object (newInfo, any non-null field)
+        /* copies the values of the Item object (newInfo, any non-null field but the id and the price)
         to the existingItem object. */
 
-        modelMapper.map(newInfo, optionalItem);
+        ITEM_PATCHER.patch(newInfo, optionalItem);
 
         logger.info("Updating item {} ...", optionalItem.getName());
         itemRepository.save(optionalItem);
+        itemCatalogCache.evict(optionalItem.getIdItem(), name, optionalItem.getName());
+        itemNgramIndex.put(optionalItem);
 
 
         logger.info("Item {} updated successfully", optionalItem);
@@ -152,13 +277,16 @@ public class ItemService {
     }
 
     /**
-     * Method to delete an item
+     * Method to delete an item with its purchases.
+     * The purchase table has no foreign keys, so the purchases are deleted here, in the same transaction, and taken
+     * out of the summaries of their clients; the daily sales and the stock leases of the item go with them
      *
      * @param name the name of the item
      *
      * @throws ItemNotFoundException the {@link ItemNotFoundException}
      */
 
+    @Transactional
     public void deleteItem(String name) throws ItemNotFoundException {
 
         Item optionalItem = itemRepository.findByName(name)
@@ -167,8 +295,18 @@ public class ItemService {
         Long id = optionalItem.getIdItem();
 
         logger.info("Deleting item: {}", optionalItem);
+
+        List<ClientPurchaseSummary> summaries = clientPurchaseSummaryRepository.sumPurchasesOfItem(id);
+        int purchases = purchaseRepository.deletePurchasesOfItem(id);
+        clientPurchaseSummaryRecorder.purchasesRemoved(summaries);
+
+        salesDailyRepository.deleteItem(id);
+        stockReservationEngine.forget(id);
         itemRepository.deleteById(id);
+        itemCatalogCache.evict(id, name, name);
+        itemNgramIndex.remove(id);
 
+        logger.info("Deleted {} purchases of item {}", purchases, id);
         logger.info("Item with id {} (name: {}) has been deleted successfully.", id, name);
     }
 
@@ -185,12 +323,23 @@ public class ItemService {
 
         logger.info("Client sheet for id {}", idItem);
 
-        Optional<Item> item = itemRepository.findById(idItem);
+        Optional<Item> item = itemCatalogCache.findById(idItem);
 
         return item.orElse(null);
 
     }
 
+    /**
+     * Method to see the statistics of the item catalog cache
+     *
+     * @return the hits, misses and evictions of the cache
+     */
+
+    public ItemCacheStatsDTO catalogCacheStats() {
+
+        return itemCatalogCache.stats();
+    }
+
     // Complementary methods
 
     /**
@@ -213,7 +362,7 @@ public class ItemService {
 
     private void nameValidator(String name) {
 
-        Optional<Item> optionalItem = itemRepository.findByName(name);
+        Optional<Item> optionalItem = itemCatalogCache.findByName(name);
 
         if (optionalItem.isPresent()) {
 
@@ -1,27 +1,75 @@
 package com.sarabarbara.compra.service;
 
+import com.sarabarbara.compra.archive.PurchaseArchive;
+import com.sarabarbara.compra.cache.ItemCatalogCache;
+import com.sarabarbara.compra.dto.purchases.PurchaseBatchLineDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseCreateDTO;
+import com.sarabarbara.compra.dto.purchases.PurchasePartitionDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseTicketDTO;
+import com.sarabarbara.compra.dto.purchases.SalesStatsDTO;
+import com.sarabarbara.compra.enums.CountMode;
+import com.sarabarbara.compra.enums.ExportFormat;
+import com.sarabarbara.compra.enums.PurchaseSort;
+import com.sarabarbara.compra.enums.StatsGroup;
 import com.sarabarbara.compra.exceptions.client.ClientNotFoundException;
 import com.sarabarbara.compra.exceptions.item.ItemNotFoundException;
+import com.sarabarbara.compra.exceptions.item.ItemOutOfStockException;
+import com.sarabarbara.compra.exceptions.purchase.IngestionQueueFullException;
 import com.sarabarbara.compra.exceptions.purchase.PurchaseNotFoundException;
+import com.sarabarbara.compra.export.PurchaseExportWriter;
+import com.sarabarbara.compra.ingestion.PurchaseIngestionQueue;
+import com.sarabarbara.compra.logging.LogSampler;
 import com.sarabarbara.compra.model.Client;
 import com.sarabarbara.compra.model.Item;
 import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.pagination.Cursor;
+import com.sarabarbara.compra.pagination.CursorPage;
+import com.sarabarbara.compra.patch.EntityPatcher;
+import com.sarabarbara.compra.partition.PurchasePartitionManager;
+import com.sarabarbara.compra.pricing.PricingEngine;
 import com.sarabarbara.compra.repository.ClientRepository;
-import com.sarabarbara.compra.repository.ItemRepository;
 import com.sarabarbara.compra.repository.PurchaseRepository;
+import com.sarabarbara.compra.repository.SalesDailyRepository;
+import com.sarabarbara.compra.search.SearchCounter;
+import com.sarabarbara.compra.stock.StockReservationEngine;
+import com.sarabarbara.compra.stock.StockReservationEngine.Reservation;
+import com.sarabarbara.compra.summary.ClientPurchaseSummaryRecorder;
+import com.sarabarbara.compra.summary.SalesDailyRebuilder;
+import com.sarabarbara.compra.summary.SalesDailyRecorder;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * PurchaseService class
@@ -36,51 +84,279 @@ import java.util.Optional;
 public class PurchaseService {
 
     private static final Logger logger = LoggerFactory.getLogger(PurchaseService.class);
+    private static final LogSampler listLog = new LogSampler();
+    private static final LogSampler listAfterLog = new LogSampler();
+    private static final LogSampler searchLog = new LogSampler();
+    private static final LogSampler archivedSearchLog = new LogSampler();
+
+    /**
+     * The patcher of the partial updates of the purchases, which never change the id, the client nor the item
+     */
+
+    public static final EntityPatcher<Purchase> PURCHASE_PATCHER = EntityPatcher.of(Purchase.class, "idPurchase",
+            "client", "item");
+
     private PurchaseRepository purchaseRepository;
     private ClientRepository clientRepository;
-    private ItemRepository itemRepository;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private ItemCatalogCache itemCatalogCache;
+    private StockReservationEngine stockReservationEngine;
+    private PricingEngine pricingEngine;
+    private PurchaseExportWriter purchaseExportWriter;
+    private PurchaseIngestionQueue purchaseIngestionQueue;
+    private ClientPurchaseSummaryRecorder clientPurchaseSummaryRecorder;
+    private SalesDailyRepository salesDailyRepository;
+    private SalesDailyRecorder salesDailyRecorder;
+    private SalesDailyRebuilder salesDailyRebuilder;
+    private PurchasePartitionManager purchasePartitionManager;
+    private PurchaseArchive purchaseArchive;
+    private SearchCounter searchCounter;
+    private TransactionTemplate transactionTemplate;
 
-    private static final BigDecimal iva = BigDecimal.valueOf(21);
+    /**
+     * The maximum lines of a batch of purchases
+     */
+
+    private static final int MAX_BATCH_LINES = 5000;
 
     /**
-     * Method to create a purchase
+     * The deepest purchase a search that also reads the archive can reach
+     */
+
+    private static final int MAX_ARCHIVED_SEARCH_ROWS = 10000;
+
+    /**
+     * Method to create a purchase.
+     * The quantity is held before the transaction of the purchase begins, and taken from the stock of the item in
+     * it, so a hot item that claims a batch of its stock does it before, never inside. If the purchase fails the
+     * units are given back. With an Idempotency-Key the purchase keeps it, and a second purchase with the same key on
+     * the same day fails on commit with a {@link org.springframework.dao.DataIntegrityViolationException}
      *
-     * @param idCliente the id of the client
-     * @param idItem    the id of the item
-     * @param quantity  the quantity to buy
+     * @param idCliente      the id of the client
+     * @param idItem         the id of the item
+     * @param quantity       the quantity to buy
+     * @param idempotencyKey the Idempotency-Key of the request, may be null
      *
      * @return the created purchase
+     *
+     * @throws ItemOutOfStockException the {@link ItemOutOfStockException}
      */
 
-    public Purchase createPurchase(Long idCliente, Long idItem, int quantity) {
+    public Purchase createPurchase(Long idCliente, Long idItem, int quantity, String idempotencyKey) {
 
         logger.info("Creating purchase...");
 
         Client optionalClient = clientRepository.findById(idCliente)
                 .orElseThrow(() -> new ClientNotFoundException("Can't update client: Client not found"));
 
-        Item optionalItem = itemRepository.findById(idItem)
+        // read-only, only its id and unit price are used
+        Item optionalItem = itemCatalogCache.findById(idItem)
                 .orElseThrow(() -> new ItemNotFoundException("Can't update item: Item not found"));
 
-        BigDecimal total = optionalItem.getUnitPrice().multiply(BigDecimal.valueOf(quantity));
-        BigDecimal totalIva = total.multiply(iva).divide(BigDecimal.valueOf(100),
-                MathContext.DECIMAL128);
-        BigDecimal totalPrice = total.add(totalIva);
+        Reservation reservation = stockReservationEngine.hold(idItem, quantity);
 
-        Purchase purchase = Purchase.builder()
-                .client(optionalClient)
-                .item(optionalItem)
-                .purchaseDate(LocalDate.now())
-                .quantity(quantity)
-                .total(total)
-                .iva(iva)
-                .totalIva(totalIva)
-                .totalPrice(totalPrice)
-                .build();
+        try {
+
+            Purchase savedPurchase = transactionTemplate.execute(status -> {
+
+                if (reservation == null || !stockReservationEngine.take(reservation)) {
+
+                    logger.error("The item {} has not {} units in stock", idItem, quantity);
+                    throw new ItemOutOfStockException("Can't create purchase: Not enough stock of item " + idItem);
+                }
+
+                Purchase purchase = newPurchase(optionalClient, optionalItem, quantity, LocalDate.now());
+                purchase.setIdempotencyKey(idempotencyKey);
+
+                Purchase saved = purchaseRepository.save(purchase);
+                clientPurchaseSummaryRecorder.purchaseAdded(saved);
+                salesDailyRecorder.purchaseAdded(saved);
+                return saved;
+            });
+
+            logger.info("Purchase created successfully");
+            return savedPurchase;
+
+        } finally {
+
+            stockReservationEngine.release(reservation);
+        }
+    }
+
+    /**
+     * Method to get the latest purchase created with an Idempotency-Key
+     *
+     * @param idempotencyKey the Idempotency-Key
+     *
+     * @return the purchase, null if no purchase has the key
+     */
+
+    public Purchase purchaseByIdempotencyKey(String idempotencyKey) {
+
+        return purchaseRepository.findFirstByIdempotencyKeyOrderByPurchaseDateDesc(idempotencyKey).orElse(null);
+    }
+
+    /**
+     * Method to submit a purchase to the write-behind queue.
+     * The client, the item and the quantity are checked and the purchase is priced now; the stock is taken and the
+     * purchase saved later, by the writer, and the ticket tells the outcome
+     *
+     * @param idClient the id of the client
+     * @param idItem   the id of the item
+     * @param quantity the quantity
+     *
+     * @return the ticket of the purchase
+     *
+     * @throws IngestionQueueFullException if the write-behind mode is off or its queue is full
+     */
+
+    public PurchaseTicketDTO submitPurchase(Long idClient, Long idItem, int quantity) {
+
+        logger.info("Submitting purchase...");
+
+        if (!purchaseIngestionQueue.isEnabled()) {
+            throw new IngestionQueueFullException("The asynchronous purchase ingestion is disabled");
+        }
+
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+
+        Client client = clientRepository.findById(idClient)
+                .orElseThrow(() -> new ClientNotFoundException("Can't create purchase: Client not found"));
+
+        Item item = itemCatalogCache.findById(idItem)
+                .orElseThrow(() -> new ItemNotFoundException("Can't create purchase: Item not found"));
+
+        PurchaseTicketDTO ticket = purchaseIngestionQueue.submit(newPurchase(client, item, quantity,
+                LocalDate.now()));
+
+        logger.info("Purchase submitted: ticket {}", ticket.getTicketId());
+        return ticket;
+    }
+
+    /**
+     * Method to get the ticket of a submitted purchase
+     *
+     * @param ticketId the id of the ticket
+     *
+     * @return the ticket, null if it is unknown or expired
+     */
+
+    public PurchaseTicketDTO purchaseTicket(String ticketId) {
+
+        return purchaseIngestionQueue.ticket(ticketId).orElse(null);
+    }
+
+    /**
+     * Method to create many purchases at once, in one transaction.
+     * The clients and the items are read with one query each, the stock is held before the transaction and taken in
+     * it with one conditional update per item, and the purchases are inserted in JDBC batches. A line that can't be
+     * created is rejected with its reason and the rest go on
+     *
+     * @param lines the purchases to create
+     *
+     * @return the result of every line, in the order of the request
+     */
+
+    public List<PurchaseBatchLineDTO> createPurchaseBatch(List<PurchaseCreateDTO> lines) {
+
+        logger.info("Creating batch of {} purchases...", lines.size());
+
+        if (lines.size() > MAX_BATCH_LINES) {
+            throw new IllegalArgumentException("A batch can't have more than " + MAX_BATCH_LINES + " purchases");
+        }
+
+        Set<Long> idClients = new HashSet<>();
+        Set<Long> idItems = new HashSet<>();
+
+        for (PurchaseCreateDTO line : lines) {
+
+            if (line.getIdClient() != null) {
+                idClients.add(line.getIdClient());
+            }
+
+            if (line.getIdItem() != null) {
+                idItems.add(line.getIdItem());
+            }
+        }
+
+        Map<Long, Client> clients = new HashMap<>();
+        clientRepository.findAllById(idClients).forEach(client -> clients.put(client.getIdClient(), client));
 
-        logger.info("Purchase created successfully");
-        return purchaseRepository.save(purchase);
+        // read-only, only their ids and unit prices are used
+        Map<Long, Item> items = itemCatalogCache.findAllById(idItems);
+
+        PurchaseBatchLineDTO[] results = new PurchaseBatchLineDTO[lines.size()];
+        Map<Long, List<Integer>> linesByItem = new LinkedHashMap<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+
+            PurchaseCreateDTO line = lines.get(i);
+
+            if (line.getQuantity() < 1) {
+                results[i] = rejectedLine(i, "Quantity must be at least 1");
+            } else if (line.getIdClient() == null || !clients.containsKey(line.getIdClient())) {
+                results[i] = rejectedLine(i, "Client not found");
+            } else if (line.getIdItem() == null || !items.containsKey(line.getIdItem())) {
+                results[i] = rejectedLine(i, "Item not found");
+            } else {
+                linesByItem.computeIfAbsent(line.getIdItem(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<Long, Reservation> itemReservations = new HashMap<>();
+        Map<Integer, Reservation> lineReservations = new HashMap<>();
+        List<Purchase> savedPurchases;
+        List<Integer> purchaseLines = new ArrayList<>();
+
+        try {
+
+            holdBatchStock(lines, linesByItem, results, itemReservations, lineReservations);
+
+            savedPurchases = transactionTemplate.execute(status -> {
+
+                takeBatchStock(lines, linesByItem, results, itemReservations, lineReservations);
+
+                LocalDate today = LocalDate.now();
+                List<Purchase> purchases = new ArrayList<>();
+
+                for (List<Integer> itemLines : linesByItem.values()) {
+
+                    for (int i : itemLines) {
+
+                        PurchaseCreateDTO line = lines.get(i);
+                        purchases.add(newPurchase(clients.get(line.getIdClient()), items.get(line.getIdItem()),
+                                line.getQuantity(), today));
+                        purchaseLines.add(i);
+                    }
+                }
+
+                List<Purchase> saved = purchaseRepository.saveAll(purchases);
+                clientPurchaseSummaryRecorder.purchasesAdded(saved);
+                salesDailyRecorder.purchasesAdded(saved);
+                return saved;
+            });
+
+        } finally {
+
+            itemReservations.values().forEach(stockReservationEngine::release);
+            lineReservations.values().forEach(stockReservationEngine::release);
+        }
+
+        for (int k = 0; k < savedPurchases.size(); k++) {
+
+            Purchase saved = savedPurchases.get(k);
+            results[purchaseLines.get(k)] = PurchaseBatchLineDTO.builder()
+                    .line(purchaseLines.get(k))
+                    .success(true)
+                    .idPurchase(saved.getIdPurchase())
+                    .totalPrice(saved.getTotalPrice())
+                    .build();
+        }
+
+        logger.info("Batch created: {} purchases, {} rejected", savedPurchases.size(),
+                lines.size() - savedPurchases.size());
+        return Arrays.asList(results);
     }
 
     /**
@@ -92,35 +368,92 @@ public class PurchaseService {
      * @return the list of all purchases
      */
 
-    public List<Purchase> purchaseList(int page, int size) {
+    public List<PurchaseDTO> purchaseList(int page, int size) {
 
         logger.info("Purchase list. Page {}, size {}", page, size);
 
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<Purchase> pageResult = purchaseRepository.findAll(pageRequest);
+        Page<PurchaseDTO> pageResult = purchaseRepository.findAllPurchaseDTO(pageRequest);
 
-        List<Purchase> purchaseList = pageResult.getContent();
+        List<PurchaseDTO> purchaseList = pageResult.getContent();
 
-        logger.info("Purchase list: {}. ", purchaseList);
+        listLog.list(logger, "Purchase list: {}. ", purchaseList, PurchaseDTO::getIdPurchase);
         return purchaseList;
     }
 
     /**
-     * Method to search a purchase
+     * Method to get the list of all purchases in keyset mode.
+     * It seeks to the cursor instead of skipping rows and it never counts, so every page costs the same
      *
-     * @param idClient     the id of the client
-     * @param idItem       the id of the item
-     * @param purchaseDate the date of the purchase
-     * @param quantity     the quantity of the purchase
-     * @param totalPrice   the total price of the purchase
-     * @param page         the page to search
-     * @param size         the size of the page
+     * @param after      the cursor of the last page, null or empty for the first page
+     * @param size       the size of the page
+     * @param sortByDate true to walk the purchases by date and id, false to walk them by id
      *
-     * @return the searched client
+     * @return the page of purchases and the cursor of the next one
      */
 
-    public List<Purchase> searchPurchase(Long idClient, Long idItem, LocalDate purchaseDate, Integer quantity,
-                                         BigDecimal totalPrice, int page, int size) {
+    public CursorPage<PurchaseDTO> purchaseListAfter(String after, int size, boolean sortByDate) {
+
+        logger.info("Purchase list. After {}, size {}, sorted by date {}", after, size, sortByDate);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        Cursor cursor = Cursor.decode(after);
+        Limit limit = Limit.of(size + 1);
+        List<PurchaseDTO> purchaseList;
+        CursorPage<PurchaseDTO> purchasePage;
+
+        if (sortByDate) {
+
+            if (cursor.isStart()) {
+
+                purchaseList = purchaseRepository.findFirstPurchaseDTOByDate(limit);
+
+            } else if (cursor.getDate() != null) {
+
+                purchaseList = purchaseRepository.findPurchaseDTOAfterDate(cursor.getDate(), cursor.getId(), limit);
+
+            } else {
+
+                throw new IllegalArgumentException("The cursor was not built for a list sorted by date");
+            }
+
+            purchasePage = CursorPage.of(purchaseList, size,
+                    purchase -> Cursor.of(purchase.getPurchaseDate(), purchase.getIdPurchase()));
+
+        } else {
+
+            if (cursor.getDate() != null) {
+                throw new IllegalArgumentException("The cursor was built for a list sorted by date");
+            }
+
+            purchaseList = purchaseRepository.findPurchaseDTOAfter(cursor.getId(), limit);
+            purchasePage = CursorPage.of(purchaseList, size, purchase -> Cursor.of(purchase.getIdPurchase()));
+        }
+
+        listAfterLog.list(logger, "Purchase list: {}. ", purchasePage.getContent(), PurchaseDTO::getIdPurchase);
+        return purchasePage;
+    }
+
+    /**
+     * Method to search a purchase.
+     * The purchases are sorted by the given attribute and then by id, so the pages are stable. When the dates reach
+     * an archived month, the first purchases of the table and of the archive are merged into the page
+     *
+     * @param filter    the filters
+     * @param sort      the attribute to sort by, purchaseDate, totalPrice, quantity or idPurchase
+     * @param ascending if the sort is ascending
+     * @param page      the page to search
+     * @param size      the size of the page
+     * @param count     how the purchases are counted
+     *
+     * @return the searched purchases, a page when counted
+     */
+
+    public Slice<PurchaseSearchDTO> searchPurchase(PurchaseSearchFilter filter, String sort, boolean ascending,
+                                                   int page, int size, CountMode count) {
 
         logger.info("Searching purchase...");
 
@@ -128,18 +461,73 @@ public class PurchaseService {
             throw new IllegalArgumentException("Page index must be at least 1");
         }
 
-        PageRequest pageRequest = PageRequest.of(page - 1, size);
+        checkRange("fromDate", filter.getFromDate(), "toDate", filter.getToDate());
+        checkRange("minTotal", filter.getMinTotal(), "maxTotal", filter.getMaxTotal());
+        checkRange("minQuantity", filter.getMinQuantity(), "maxQuantity", filter.getMaxQuantity());
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        PurchaseSort purchaseSort = PurchaseSort.of(sort);
+        Sort order = Sort.by(direction, purchaseSort.getAttribute());
+
+        if (purchaseSort != PurchaseSort.ID_PURCHASE) {
+            order = order.and(Sort.by(direction, PurchaseSort.ID_PURCHASE.getAttribute()));
+        }
+
+        if (purchaseArchive.covers(filter)) {
+            return searchWithArchived(filter, order, searchOrder(purchaseSort, ascending), page, size, count);
+        }
+
+        PageRequest pageRequest = PageRequest.of(page - 1, size, order);
+
+        Slice<PurchaseSearchDTO> searchedPurchase = searchCounter.count(
+                purchaseRepository.searchPurchase(filter, pageRequest), count, "purchase " + filter,
+                () -> purchaseRepository.countPurchase(filter));
+
+        searchLog.list(logger, "Purchases found: {}", searchedPurchase.getContent(),
+                PurchaseSearchDTO::getIdPurchase);
+        return searchedPurchase;
+
+    }
+
+    /**
+     * Method to export the purchases between two dates.
+     * The purchases are written while they are read from the database and the archive, never held all together
+     *
+     * @param from   the first date, included
+     * @param to     the last date, included
+     * @param format the format of the export
+     * @param out    the output, not closed
+     *
+     * @return the number of purchases exported
+     *
+     * @throws IOException if the output fails
+     */
+
+    @Transactional(readOnly = true)
+    public long exportPurchases(LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException {
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The first date can't be after the last one");
+        }
+
+        logger.info("Exporting purchases from {} to {} as {}...", from, to, format);
 
-        Page<Purchase> searchedPurchase = purchaseRepository.searchPurchase(idClient, idItem, purchaseDate, quantity,
-                totalPrice, pageRequest);
+        long rows;
 
-        logger.info("Purchases found: {}", searchedPurchase.getContent());
-        return searchedPurchase.getContent();
+        try (Stream<PurchaseDTO> purchases = purchaseRepository.streamPurchaseDTOBetween(from, to)) {
+            rows = purchaseExportWriter.write(purchaseArchive.withArchived(purchases.iterator(), from, to), format,
+                    out);
+        }
 
+        logger.info("Purchases exported: {}", rows);
+        return rows;
     }
 
     /**
-     * Method to update purchase's data
+     * Method to update purchase's data.
+     * A new quantity takes the units it adds from the stock of the item, or gives back the ones it removes, in the
+     * same transaction
      *
      * @param idPurchase the id of the purchase
      * @param newInfo    the new info to be updated
@@ -147,61 +535,69 @@ public class PurchaseService {
      * @return the updated purchase
      *
      * @throws PurchaseNotFoundException the {@link PurchaseNotFoundException}
+     * @throws ItemOutOfStockException  if the item has not the units the new quantity adds
      */
 
+    @Transactional
     public Purchase updatePurchase(Long idPurchase, Purchase newInfo) throws PurchaseNotFoundException {
 
         logger.info("Updating purchase with id {}", idPurchase);
         Purchase optionalPurchase = purchaseRepository.findByIdPurchase(idPurchase)
                 .orElseThrow(() -> new PurchaseNotFoundException("Can't update purchase: Purchase not found"));
 
-        logger.info("New purchase info: {}", newInfo);
+        LocalDate dayBefore = optionalPurchase.getPurchaseDate();
+        int quantityBefore = optionalPurchase.getQuantity();
+        BigDecimal totalBefore = optionalPurchase.getTotal();
+        BigDecimal totalIvaBefore = optionalPurchase.getTotalIva();
+        BigDecimal totalPriceBefore = optionalPurchase.getTotalPrice();
 
-        // ignore fields
-        modelMapper.typeMap(Purchase.class, Purchase.class).addMappings(mapper -> {
-
-            mapper.skip(Purchase::setIdPurchase);
-            mapper.skip(Purchase::setClient);
-            mapper.skip(Purchase::setItem);
-
-        });
-
-        // ignores the null fields
-        modelMapper.getConfiguration().setSkipNullEnabled(true);
+        logger.info("New purchase info: {}", newInfo);
 
         logger.info("Updating purchase {}...", optionalPurchase);
 
         if (newInfo.getQuantity() != null && !newInfo.getQuantity().equals(optionalPurchase.getQuantity())) {
 
-            BigDecimal unitPrice = optionalPurchase.getItem().getUnitPrice();
-            BigDecimal total = unitPrice.multiply(BigDecimal.valueOf(newInfo.getQuantity()));
+            if (newInfo.getQuantity() < 1) {
+                throw new IllegalArgumentException("Quantity must be at least 1");
+            }
 
-            BigDecimal totalIva = total.multiply(iva).divide(BigDecimal.valueOf(100), MathContext.DECIMAL128);
-            BigDecimal totalPrice = total.add(totalIva);
+            Item item = optionalPurchase.getItem();
 
-            optionalPurchase.setTotal(total);
-            optionalPurchase.setTotalIva(totalIva);
-            optionalPurchase.setTotalPrice(totalPrice);
+            if (!stockReservationEngine.adjust(item.getIdItem(), newInfo.getQuantity() - quantityBefore)) {
+
+                logger.error("The item {} has not {} more units in stock", item.getIdItem(),
+                        newInfo.getQuantity() - quantityBefore);
+                throw new ItemOutOfStockException("Can't update purchase: Not enough stock of item " +
+                        item.getIdItem());
+            }
+
+            pricingEngine.price(optionalPurchase, item.getUnitPrice(), item.getType(), newInfo.getQuantity());
         }
 
-        /* copies the values of the Purchase object (newInfo, any non-null field)
+        /* copies the values of the Purchase object (newInfo, any non-null field but the id, the client and the item)
         to the existingPurchase object. */
 
-        modelMapper.map(newInfo, optionalPurchase);
+        PURCHASE_PATCHER.patch(newInfo, optionalPurchase);
         purchaseRepository.save(optionalPurchase);
+        clientPurchaseSummaryRecorder.purchaseChanged(optionalPurchase, quantityBefore, totalBefore,
+                totalPriceBefore);
+        salesDailyRecorder.purchaseChanged(optionalPurchase, dayBefore, quantityBefore, totalBefore, totalIvaBefore,
+                totalPriceBefore);
 
         logger.info("Purchase {} updated successfully", optionalPurchase);
         return optionalPurchase;
     }
 
     /**
-     * Method to delete a purchase
+     * Method to delete a purchase.
+     * Its units are given back to the stock of the item in the same transaction
      *
      * @param idPurchase the phone number of the client
      *
      * @throws PurchaseNotFoundException the {@link PurchaseNotFoundException}
      */
 
+    @Transactional
     public void deletePurchase(Long idPurchase) throws PurchaseNotFoundException {
 
         Purchase optionalPurchase = purchaseRepository.findByIdPurchase(idPurchase)
@@ -211,10 +607,127 @@ public class PurchaseService {
 
         logger.info("Deleting purchase: {}", optionalPurchase);
         purchaseRepository.deleteById(id);
+        stockReservationEngine.adjust(optionalPurchase.getItem().getIdItem(), -optionalPurchase.getQuantity());
+        clientPurchaseSummaryRecorder.purchaseRemoved(optionalPurchase);
+        salesDailyRecorder.purchaseRemoved(optionalPurchase);
 
         logger.info("Purchase with id {} has been deleted successfully.", id);
     }
 
+    /**
+     * Method to get the sales between two dates, by day, item or type of item.
+     * It reads only the daily rollup, one row per day and item sold, never the purchases
+     *
+     * @param from    the first day, included
+     * @param to      the last day, included
+     * @param groupBy the group
+     *
+     * @return the sales of every group with sales
+     */
+
+    @Transactional(readOnly = true)
+    public List<SalesStatsDTO> salesStats(LocalDate from, LocalDate to, StatsGroup groupBy) {
+
+        logger.info("Sales stats from {} to {} by {}", from, to, groupBy);
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The first day is after the last one");
+        }
+
+        return switch (groupBy) {
+            case ITEM -> salesDailyRepository.statsByItem(from, to);
+            case TYPE -> salesDailyRepository.statsByType(from, to);
+            case DAY -> salesDailyRepository.statsByDay(from, to);
+        };
+    }
+
+    /**
+     * Method to build the daily sales rollup between two dates again from the purchases
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     *
+     * @return the rows written
+     *
+     * @throws IllegalArgumentException if a day is archived or may be of a dropped partition, its purchases are no
+     *                                  longer in the table
+     */
+
+    public long rebuildSalesStats(LocalDate from, LocalDate to) {
+
+        if (purchaseArchive.covers(from, to)) {
+            throw new IllegalArgumentException("The sales of the archived months can't be rebuilt");
+        }
+
+        LocalDate firstKeptDay = purchasePartitionManager.firstKeptDay();
+
+        if (firstKeptDay != null && from.isBefore(firstKeptDay)) {
+            throw new IllegalArgumentException("The sales before " + firstKeptDay + " can't be rebuilt, their " +
+                    "partitions may have been dropped");
+        }
+
+        logger.info("Rebuilding the sales rollup from {} to {}", from, to);
+        return salesDailyRebuilder.rebuild(from, to);
+    }
+
+    /**
+     * Method to get the monthly partitions of the purchases and their sizes
+     *
+     * @return the partitions, in date order
+     */
+
+    public List<PurchasePartitionDTO> purchasePartitions() {
+
+        return purchasePartitionManager.partitions();
+    }
+
+    /**
+     * Method to create the partitions of the coming months now, without waiting for the daily run
+     *
+     * @return the names of the partitions created
+     */
+
+    public List<String> createPurchasePartitions() {
+
+        logger.info("Creating the purchase partitions...");
+        return purchasePartitionManager.createFuturePartitions();
+    }
+
+    /**
+     * Method to drop all the purchases of a past month at once, dropping its partition
+     *
+     * @param month the month
+     */
+
+    public void dropPurchasePartition(YearMonth month) {
+
+        logger.info("Dropping the purchases of {}...", month);
+        purchasePartitionManager.dropMonth(month);
+    }
+
+    /**
+     * Method to get the segments of the purchase archive
+     *
+     * @return the segments, in month order
+     */
+
+    public List<PurchaseSegmentDTO> purchaseSegments() {
+
+        return purchaseArchive.segments();
+    }
+
+    /**
+     * Method to archive the old purchases now, without waiting for the daily run
+     *
+     * @return the segments written
+     */
+
+    public List<PurchaseSegmentDTO> archivePurchases() {
+
+        logger.info("Archiving the old purchases...");
+        return purchaseArchive.archive();
+    }
+
     /**
      * Method to see the sheet of the purchase
      * In this method it searched the id of the purchase to see their sheet
@@ -228,10 +741,237 @@ public class PurchaseService {
 
         logger.info("Client sheet for id {}", idPurchase);
 
-        Optional<Purchase> purchase = purchaseRepository.findById(idPurchase);
+        Optional<Purchase> purchase = purchaseRepository.findByIdPurchase(idPurchase);
 
         return purchase.orElse(null);
 
     }
 
+    // Complementary methods
+
+    /**
+     * Builds a purchase, with its totals
+     *
+     * @param client       the client
+     * @param item         the item
+     * @param quantity     the quantity
+     * @param purchaseDate the date of the purchase
+     *
+     * @return the purchase, not saved
+     */
+
+    private Purchase newPurchase(Client client, Item item, int quantity, LocalDate purchaseDate) {
+
+        PricingEngine.Totals totals = pricingEngine.totals(item.getUnitPrice(), item.getType(), quantity);
+
+        return Purchase.builder()
+                .client(client)
+                .item(item)
+                .purchaseDate(purchaseDate)
+                .quantity(quantity)
+                .total(totals.getTotal())
+                .iva(totals.getIva())
+                .totalIva(totals.getTotalIva())
+                .totalPrice(totals.getTotalPrice())
+                .build();
+    }
+
+    /**
+     * Holds the stock of the lines of a batch before its transaction, all the lines of an item at once. If the item
+     * has not enough stock for all of them, the lines go one by one and those that don't fit are rejected
+     *
+     * @param lines            the lines of the batch
+     * @param linesByItem      the valid lines by item, the rejected ones are removed
+     * @param results          the results of the lines
+     * @param itemReservations the reservations of all the lines of an item, by item
+     * @param lineReservations the reservations of a line, by line, for the items held one by one
+     */
+
+    private void holdBatchStock(List<PurchaseCreateDTO> lines, Map<Long, List<Integer>> linesByItem,
+                                PurchaseBatchLineDTO[] results, Map<Long, Reservation> itemReservations,
+                                Map<Integer, Reservation> lineReservations) {
+
+        for (Map.Entry<Long, List<Integer>> entry : linesByItem.entrySet()) {
+
+            Long idItem = entry.getKey();
+            long quantity = 0;
+
+            for (int i : entry.getValue()) {
+                quantity += lines.get(i).getQuantity();
+            }
+
+            Reservation reservation = quantity <= Integer.MAX_VALUE
+                    ? stockReservationEngine.hold(idItem, (int) quantity)
+                    : null;
+
+            if (reservation != null) {
+
+                itemReservations.put(idItem, reservation);
+                continue;
+            }
+
+            Iterator<Integer> itemLines = entry.getValue().iterator();
+
+            while (itemLines.hasNext()) {
+
+                int i = itemLines.next();
+                Reservation lineReservation = stockReservationEngine.hold(idItem, lines.get(i).getQuantity());
+
+                if (lineReservation == null) {
+
+                    results[i] = rejectedLine(i, "Not enough stock of item " + idItem);
+                    itemLines.remove();
+
+                } else {
+
+                    lineReservations.put(i, lineReservation);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the stock held for the lines of a batch, in its transaction. If an item has not enough stock for all of
+     * its lines, and only the items that are not hot may lack it, the lines go one by one and those that don't fit
+     * are rejected
+     *
+     * @param lines            the lines of the batch
+     * @param linesByItem      the valid lines by item, the rejected ones are removed
+     * @param results          the results of the lines
+     * @param itemReservations the reservations of all the lines of an item, by item
+     * @param lineReservations the reservations of a line, by line, for the items held one by one
+     */
+
+    private void takeBatchStock(List<PurchaseCreateDTO> lines, Map<Long, List<Integer>> linesByItem,
+                                PurchaseBatchLineDTO[] results, Map<Long, Reservation> itemReservations,
+                                Map<Integer, Reservation> lineReservations) {
+
+        for (Map.Entry<Long, List<Integer>> entry : linesByItem.entrySet()) {
+
+            Long idItem = entry.getKey();
+            Reservation reservation = itemReservations.get(idItem);
+
+            if (reservation != null && stockReservationEngine.take(reservation)) {
+                continue;
+            }
+
+            Iterator<Integer> itemLines = entry.getValue().iterator();
+
+            while (itemLines.hasNext()) {
+
+                int i = itemLines.next();
+                Reservation lineReservation = reservation == null
+                        ? lineReservations.get(i)
+                        : stockReservationEngine.hold(idItem, lines.get(i).getQuantity());
+
+                if (!stockReservationEngine.take(lineReservation)) {
+
+                    results[i] = rejectedLine(i, "Not enough stock of item " + idItem);
+                    itemLines.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a range is not reversed
+     *
+     * @param minName the name of the lowest value
+     * @param min     the lowest value, may be null
+     * @param maxName the name of the highest value
+     * @param max     the highest value, may be null
+     * @param <C>     the type of the values
+     */
+
+    private static <C extends Comparable<? super C>> void checkRange(String minName, C min, String maxName, C max) {
+
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new IllegalArgumentException(minName + " can't be greater than " + maxName);
+        }
+    }
+
+    /**
+     * Searches a page of purchases in the table and in the archive: the first purchases of both up to the end of the
+     * page are merged in the order of the search
+     *
+     * @param filter     the filters
+     * @param order      the order of the table
+     * @param comparator the same order, for the merge
+     * @param page       the page, from 1
+     * @param size       the size of the page
+     * @param count      how the purchases are counted
+     *
+     * @return the purchases of the page
+     */
+
+    private Slice<PurchaseSearchDTO> searchWithArchived(PurchaseSearchFilter filter, Sort order,
+                                                        Comparator<PurchaseSearchDTO> comparator, int page, int size,
+                                                        CountMode count) {
+
+        if ((long) page * size > MAX_ARCHIVED_SEARCH_ROWS) {
+            throw new IllegalArgumentException("A search of archived purchases can't go past the purchase " +
+                    MAX_ARCHIVED_SEARCH_ROWS + ", narrow the dates or the filters");
+        }
+
+        int limit = page * size;
+        Slice<PurchaseSearchDTO> table = purchaseRepository.searchPurchase(filter, PageRequest.of(0, limit, order));
+        Page<PurchaseSearchDTO> archived = purchaseArchive.search(filter, comparator, limit);
+
+        List<PurchaseSearchDTO> searchedPurchase = Stream.concat(table.getContent().stream(),
+                        archived.getContent().stream())
+                .sorted(comparator)
+                .skip((long) (page - 1) * size)
+                .limit(size)
+                .toList();
+
+        boolean hasNext = table.hasNext() || table.getNumberOfElements() + archived.getTotalElements() > limit;
+        Slice<PurchaseSearchDTO> slice = new SliceImpl<>(searchedPurchase, PageRequest.of(page - 1, size, order),
+                hasNext);
+
+        archivedSearchLog.list(logger, "Purchases found, {} of them archived: {}", archived.getTotalElements(),
+                searchedPurchase, PurchaseSearchDTO::getIdPurchase);
+        return searchCounter.count(slice, count, "purchase " + filter,
+                () -> purchaseRepository.countPurchase(filter) + archived.getTotalElements());
+    }
+
+    /**
+     * The order of a search, for the purchases already read: by the attribute and then by id
+     *
+     * @param sort      the attribute
+     * @param ascending if the order is ascending
+     *
+     * @return the order
+     */
+
+    private static Comparator<PurchaseSearchDTO> searchOrder(PurchaseSort sort, boolean ascending) {
+
+        Comparator<PurchaseSearchDTO> order = switch (sort) {
+            case PURCHASE_DATE -> Comparator.comparing(PurchaseSearchDTO::getPurchaseDate);
+            case TOTAL_PRICE -> Comparator.comparing(PurchaseSearchDTO::getTotalPrice);
+            case QUANTITY -> Comparator.comparingInt(PurchaseSearchDTO::getQuantity);
+            case ID_PURCHASE -> Comparator.comparing(PurchaseSearchDTO::getIdPurchase);
+        };
+
+        order = order.thenComparing(PurchaseSearchDTO::getIdPurchase);
+        return ascending ? order : order.reversed();
+    }
+
+    /**
+     * Builds the result of a rejected line
+     *
+     * @param line    the line
+     * @param message the reason
+     *
+     * @return the result of the line
+     */
+
+    private static PurchaseBatchLineDTO rejectedLine(int line, String message) {
+
+        return PurchaseBatchLineDTO.builder()
+                .line(line)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
 }
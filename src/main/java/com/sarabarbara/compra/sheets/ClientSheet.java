@@ -2,12 +2,14 @@ package com.sarabarbara.compra.sheets;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.sarabarbara.compra.dto.clients.ClientPurchaseDTO;
+import com.sarabarbara.compra.dto.clients.ClientPurchaseSummaryDTO;
 import jakarta.persistence.Column;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * ClientSheet class
@@ -92,6 +94,22 @@ public class ClientSheet {
     @Column(name = "birth_date")
     private LocalDate birthDate;
 
-    private ClientPurchaseDTO purchases;
+    /**
+     * The most recent purchases, the latest first
+     */
+
+    private List<ClientPurchaseDTO> purchases;
+
+    /**
+     * The cursor of the older purchases, null if there are no more
+     */
+
+    private String nextPurchasesCursor;
+
+    /**
+     * The lifetime totals of the purchases
+     */
+
+    private ClientPurchaseSummaryDTO purchaseSummary;
 
 }
@@ -0,0 +1,42 @@
+package com.sarabarbara.compra.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SqlBudget annotation
+ * <p>
+ * The statements an endpoint may run in one request. A request over the budget is logged as a warning and counted in
+ * the statistics of its endpoint. The endpoints without it have the budget of the {@code compra.sql.budget}
+ * properties.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * The statements the request may run, negative for the default
+     *
+     * @return the statements
+     */
+
+    int statements() default -1;
+
+    /**
+     * The times the request may run the same statement, negative for the default
+     *
+     * @return the times
+     */
+
+    int repeated() default -1;
+
+}
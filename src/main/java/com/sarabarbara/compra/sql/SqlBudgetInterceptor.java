@@ -0,0 +1,139 @@
+package com.sarabarbara.compra.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SqlBudgetInterceptor class
+ * <p>
+ * Counts the statements of every request to a controller and checks them against the {@link SqlBudget} of its
+ * endpoint: the statements run, and the times the same statement ran, which is how an N+1 shows. A request over the
+ * budget is logged as a warning; every request is recorded in the {@link SqlStatementMetrics}.
+ * <p>
+ * Only the statements run in the thread of the request are counted; the body of an asynchronous response, as the
+ * exports, runs in another one.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetInterceptor.class);
+
+    /**
+     * The statistics of the endpoints
+     */
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    /**
+     * The statements a request may run, if its endpoint has no budget
+     */
+
+    private final int defaultStatements;
+
+    /**
+     * The times a request may run the same statement, if its endpoint has no budget
+     */
+
+    private final int defaultRepeated;
+
+    /**
+     * The constructor
+     *
+     * @param sqlStatementMetrics the statistics of the endpoints
+     * @param defaultStatements   the statements a request may run, if its endpoint has no budget
+     * @param defaultRepeated     the times a request may run the same statement, if its endpoint has no budget
+     */
+
+    public SqlBudgetInterceptor(SqlStatementMetrics sqlStatementMetrics,
+                                @Value("${compra.sql.budget.statements:20}") int defaultStatements,
+                                @Value("${compra.sql.budget.repeated:5}") int defaultRepeated) {
+
+        this.sqlStatementMetrics = sqlStatementMetrics;
+        this.defaultStatements = defaultStatements;
+        this.defaultRepeated = defaultRepeated;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (handler instanceof HandlerMethod) {
+            SqlStatementCounter.start();
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+
+        SqlStatementCounter.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+
+        SqlStatementCounter counter = SqlStatementCounter.stop();
+
+        if (counter == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+
+        String endpoint = request.getMethod() + " " +
+                request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String overBudget = overBudget(counter, handlerMethod.getMethodAnnotation(SqlBudget.class));
+
+        if (overBudget != null) {
+            logger.warn("{} is over its SQL budget: {}", endpoint, overBudget);
+        }
+
+        sqlStatementMetrics.record(endpoint, counter, overBudget);
+    }
+
+    // Complementary methods
+
+    /**
+     * Checks the statements of a request against its budget
+     *
+     * @param counter the statements of the request
+     * @param budget  the budget of the endpoint, or null for the default
+     *
+     * @return why the request is over the budget, or null if it isn't
+     */
+
+    private String overBudget(SqlStatementCounter counter, SqlBudget budget) {
+
+        int statements = budget != null && budget.statements() >= 0 ? budget.statements() : defaultStatements;
+        int repeated = budget != null && budget.repeated() >= 0 ? budget.repeated() : defaultRepeated;
+
+        List<String> reasons = new ArrayList<>();
+
+        if (counter.statements() > statements) {
+            reasons.add(counter.statements() + " statements, budget " + statements);
+        }
+
+        for (Map.Entry<String, Integer> shape : counter.repeatedShapes(repeated).entrySet()) {
+            reasons.add(shape.getValue() + " times [" + shape.getKey() + "], budget " + repeated);
+        }
+
+        return reasons.isEmpty() ? null : String.join("; ", reasons);
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.sarabarbara.compra.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SqlStatementCounter class
+ * <p>
+ * The statements a request runs: how many, the time spent executing them and how many times each shape ran. A shape
+ * is the statement without its literals and with its lists of parameters collapsed, so the same query run once per
+ * row of a previous one, the N+1, shows as one shape repeated.
+ * <p>
+ * The counter of a request is kept in its thread, between {@link #start()} and {@link #stop()}; the statements run
+ * outside a request aren't counted.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class SqlStatementCounter {
+
+    /**
+     * The counter of the request of the current thread
+     */
+
+    private static final ThreadLocal<SqlStatementCounter> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The quoted literals
+     */
+
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+
+    /**
+     * The numeric literals
+     */
+
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * The lists of parameters, as the ones of an IN
+     */
+
+    private static final Pattern LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    /**
+     * The whitespace
+     */
+
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+
+    /**
+     * The statements run
+     */
+
+    private int statements;
+
+    /**
+     * The nanoseconds spent executing the statements
+     */
+
+    private long jdbcNanos;
+
+    /**
+     * The start of the running execution
+     */
+
+    private long executionStart;
+
+    /**
+     * The times each shape ran, in the order they first ran
+     */
+
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+
+    /**
+     * The private constructor
+     */
+
+    private SqlStatementCounter() {
+
+    }
+
+    /**
+     * Starts counting the statements of the current thread
+     *
+     * @return the counter
+     */
+
+    public static SqlStatementCounter start() {
+
+        SqlStatementCounter counter = new SqlStatementCounter();
+        CURRENT.set(counter);
+
+        return counter;
+    }
+
+    /**
+     * The counter of the current thread
+     *
+     * @return the counter, or null if the thread isn't counting
+     */
+
+    public static SqlStatementCounter current() {
+
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops counting the statements of the current thread
+     *
+     * @return the counter, or null if the thread wasn't counting
+     */
+
+    public static SqlStatementCounter stop() {
+
+        SqlStatementCounter counter = CURRENT.get();
+        CURRENT.remove();
+
+        return counter;
+    }
+
+    /**
+     * The shape of a statement
+     *
+     * @param sql the statement
+     *
+     * @return the statement without literals, lists of parameters nor repeated whitespace
+     */
+
+    public static String shape(String sql) {
+
+        String shape = STRING.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = LIST.matcher(shape).replaceAll("?");
+
+        return SPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * Counts a statement
+     *
+     * @param sql the statement
+     */
+
+    void statement(String sql) {
+
+        statements++;
+        shapes.merge(shape(sql), 1, Integer::sum);
+    }
+
+    /**
+     * Marks the start of an execution
+     */
+
+    void executionStarted() {
+
+        executionStart = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of an execution
+     */
+
+    void executionEnded() {
+
+        if (executionStart != 0) {
+
+            jdbcNanos += System.nanoTime() - executionStart;
+            executionStart = 0;
+        }
+    }
+
+    /**
+     * The statements run
+     *
+     * @return the number of statements
+     */
+
+    public int statements() {
+
+        return statements;
+    }
+
+    /**
+     * The time spent executing the statements
+     *
+     * @return the nanoseconds
+     */
+
+    public long jdbcNanos() {
+
+        return jdbcNanos;
+    }
+
+    /**
+     * The times the most repeated shape ran
+     *
+     * @return the times, 0 if nothing ran
+     */
+
+    public int maxRepeated() {
+
+        return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    /**
+     * The shapes that ran more than some times
+     *
+     * @param times the times
+     *
+     * @return the times each of those shapes ran
+     */
+
+    public Map<String, Integer> repeatedShapes(int times) {
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+
+        shapes.forEach((shape, count) -> {
+
+            if (count > times) {
+                repeated.put(shape, count);
+            }
+        });
+
+        return repeated;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.sarabarbara.compra.sql;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * SqlStatementHeaders class
+ * <p>
+ * Adds the statements run by the request to the headers of its response, when its body is written: the statements,
+ * the milliseconds spent executing them and the times the most repeated one ran.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@ControllerAdvice
+public class SqlStatementHeaders implements ResponseBodyAdvice<Object> {
+
+    /**
+     * The header with the statements run
+     */
+
+    public static final String STATEMENTS = "X-Sql-Statements";
+
+    /**
+     * The header with the milliseconds spent executing the statements
+     */
+
+    public static final String TIME = "X-Sql-Time-Ms";
+
+    /**
+     * The header with the times the most repeated statement ran
+     */
+
+    public static final String MAX_REPEATED = "X-Sql-Max-Repeated";
+
+    @Override
+    public boolean supports(@NotNull MethodParameter returnType,
+                            @NotNull Class<? extends HttpMessageConverter<?>> converterType) {
+
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NotNull MethodParameter returnType,
+                                  @NotNull MediaType selectedContentType,
+                                  @NotNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NotNull ServerHttpRequest request, @NotNull ServerHttpResponse response) {
+
+        SqlStatementCounter counter = SqlStatementCounter.current();
+
+        if (counter != null) {
+
+            HttpHeaders headers = response.getHeaders();
+            headers.set(STATEMENTS, String.valueOf(counter.statements()));
+            headers.set(TIME, String.format(Locale.ROOT, "%.3f", counter.jdbcNanos() / 1_000_000.0));
+            headers.set(MAX_REPEATED, String.valueOf(counter.maxRepeated()));
+        }
+
+        return body;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.sarabarbara.compra.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * SqlStatementInspector class
+ * <p>
+ * Counts every statement Hibernate prepares in the {@link SqlStatementCounter} of the current request. The statement
+ * is returned as it is.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class SqlStatementInspector implements StatementInspector {
+
+    /**
+     * Counts a statement
+     *
+     * @param sql the statement
+     *
+     * @return the same statement
+     */
+
+    @Override
+    public String inspect(String sql) {
+
+        SqlStatementCounter counter = SqlStatementCounter.current();
+
+        if (counter != null) {
+            counter.statement(sql);
+        }
+
+        return sql;
+    }
+
+}
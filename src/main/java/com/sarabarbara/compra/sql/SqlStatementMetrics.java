@@ -0,0 +1,179 @@
+package com.sarabarbara.compra.sql;
+
+import com.sarabarbara.compra.dto.sql.SqlEndpointDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SqlStatementMetrics class
+ * <p>
+ * The statements run by the requests of every endpoint since the application started: how many, the time spent
+ * executing them, the most run by one request and the requests over the budget.
+ * <p>
+ * They are also published as the {@code compra.sql.statements}, {@code compra.sql.time} and
+ * {@code compra.sql.over.budget} metrics, tagged by the method and the uri of the endpoint. The meters of an endpoint
+ * are created with its first request, so recording the next ones only updates them.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SqlStatementMetrics {
+
+    /**
+     * The statistics, by endpoint
+     */
+
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * The registry of the metrics
+     */
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The constructor
+     *
+     * @param meterRegistry the registry of the metrics
+     */
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry) {
+
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the statements of a request
+     *
+     * @param endpoint   the endpoint
+     * @param counter    the statements of the request
+     * @param overBudget why the request was over the budget, or null if it wasn't
+     */
+
+    public void record(String endpoint, SqlStatementCounter counter, String overBudget) {
+
+        EndpointStatistics statistics = endpoints.computeIfAbsent(endpoint, this::endpointStatistics);
+
+        statistics.requests.increment();
+        statistics.statements.add(counter.statements());
+        statistics.maxStatements.accumulate(counter.statements());
+        statistics.jdbcNanos.add(counter.jdbcNanos());
+        statistics.statementsSummary.record(counter.statements());
+        statistics.jdbcTimer.record(counter.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (overBudget != null) {
+
+            statistics.overBudget.increment();
+            statistics.overBudgetCounter.increment();
+            statistics.lastOverBudget = overBudget;
+        }
+    }
+
+    /**
+     * The statistics of every endpoint
+     *
+     * @return the endpoints, by name
+     */
+
+    public List<SqlEndpointDTO> endpoints() {
+
+        return endpoints.entrySet().stream()
+                .map(entry -> toSqlEndpointDTO(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(SqlEndpointDTO::getEndpoint))
+                .toList();
+    }
+
+    // Complementary methods
+
+    /**
+     * The statistics of a new endpoint, with its meters
+     *
+     * @param endpoint the endpoint, as its method and path
+     *
+     * @return the statistics
+     */
+
+    private EndpointStatistics endpointStatistics(String endpoint) {
+
+        int space = endpoint.indexOf(' ');
+        Tags tags = Tags.of("method", endpoint.substring(0, space), "uri", endpoint.substring(space + 1));
+
+        return new EndpointStatistics(
+                DistributionSummary.builder("compra.sql.statements")
+                        .description("The statements run by a request")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Timer.builder("compra.sql.time")
+                        .description("The time a request spent executing statements")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Counter.builder("compra.sql.over.budget")
+                        .description("The requests over their SQL budget")
+                        .tags(tags)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * The statistics of an endpoint as a DTO
+     *
+     * @param endpoint   the endpoint
+     * @param statistics the statistics
+     *
+     * @return the DTO
+     */
+
+    private static SqlEndpointDTO toSqlEndpointDTO(String endpoint, EndpointStatistics statistics) {
+
+        return SqlEndpointDTO.builder()
+                .endpoint(endpoint)
+                .requests(statistics.requests.sum())
+                .statements(statistics.statements.sum())
+                .maxStatements(statistics.maxStatements.get())
+                .jdbcMillis(statistics.jdbcNanos.sum() / 1_000_000.0)
+                .overBudget(statistics.overBudget.sum())
+                .lastOverBudget(statistics.lastOverBudget)
+                .build();
+    }
+
+    /**
+     * The statistics of an endpoint
+     */
+
+    private static final class EndpointStatistics {
+
+        private final DistributionSummary statementsSummary;
+        private final Timer jdbcTimer;
+        private final Counter overBudgetCounter;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder jdbcNanos = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private volatile String lastOverBudget;
+
+        private EndpointStatistics(DistributionSummary statementsSummary, Timer jdbcTimer,
+                                   Counter overBudgetCounter) {
+
+            this.statementsSummary = statementsSummary;
+            this.jdbcTimer = jdbcTimer;
+            this.overBudgetCounter = overBudgetCounter;
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.sarabarbara.compra.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * SqlTimingListener class
+ * <p>
+ * Adds the time of every statement and batch executed by Hibernate to the {@link SqlStatementCounter} of the current
+ * request. Hibernate creates one for every session, from its name.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class SqlTimingListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+
+        ended();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+
+        started();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+
+        ended();
+    }
+
+    // Complementary methods
+
+    /**
+     * Marks the start of an execution in the counter of the request
+     */
+
+    private static void started() {
+
+        SqlStatementCounter counter = SqlStatementCounter.current();
+
+        if (counter != null) {
+            counter.executionStarted();
+        }
+    }
+
+    /**
+     * Marks the end of an execution in the counter of the request
+     */
+
+    private static void ended() {
+
+        SqlStatementCounter counter = SqlStatementCounter.current();
+
+        if (counter != null) {
+            counter.executionEnded();
+        }
+    }
+
+}
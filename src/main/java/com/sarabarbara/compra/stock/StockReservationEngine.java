@@ -0,0 +1,642 @@
+package com.sarabarbara.compra.stock;
+
+import com.sarabarbara.compra.model.StockLease;
+import com.sarabarbara.compra.model.StockLeaseSale;
+import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.repository.StockLeaseRepository;
+import com.sarabarbara.compra.repository.StockLeaseSaleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * StockReservationEngine class
+ * <p>
+ * Takes the stock of the purchases, in two steps: {@link #hold} before the purchase transaction begins and
+ * {@link #take} inside it; {@link #release} gives back what was held and never taken, when the purchase fails before
+ * its transaction. By default holding does nothing, and taking runs a conditional update on the item, inside the
+ * purchase transaction, so a rolled back purchase gives its units back with it.
+ * <p>
+ * The hot items ({@code compra.stock.reservation.hot-items}) lease the stock instead: holding takes the units from
+ * one of the in-memory stripes of the item with a compare-and-set, and only when its stripe runs dry it claims a
+ * batch of {@code compra.stock.reservation.batch-size} units from the database in a transaction of its own. That
+ * transaction runs before the purchase one, never inside it, so a buyer never waits for a second connection of the
+ * pool while holding one. So the row lock of the item is taken once per batch, not once per purchase, and the buyers
+ * of the item spread over as many stripes as cores. The leased units that are not sold yet count as sold in the
+ * database, at most a batch per stripe; they are published as the {@code compra.stock.leased} gauge of each hot item.
+ * <p>
+ * The purchases already saved change their stock with {@link #adjust}, straight on the database, in their own
+ * transaction.
+ * <p>
+ * The leases are kept in the database too, so a crash doesn't lose their units: a claim adds its units to the
+ * {@link StockLease} of the item in the claim transaction, and every purchase from a lease records a
+ * {@link StockLeaseSale} in the purchase transaction, an insert that locks nothing the other buyers need. The next
+ * claim of the item takes the committed sales off the lease. The units go back to the stock when the application
+ * stops and, if it didn't stop cleanly, when it starts again: then the lease minus its sales are the units leased and
+ * never sold. Each instance of the application needs its own {@code compra.stock.reservation.owner}, kept across
+ * restarts, or it would give back the units another instance is still selling: with hot items the application
+ * doesn't start without it. Deleting an item drops its leases.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class StockReservationEngine implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationEngine.class);
+
+    /**
+     * The longs of a cache line, the stripes are this far apart so they don't share one
+     */
+
+    private static final int PADDING = 8;
+
+    /**
+     * The most sales deleted by one statement
+     */
+
+    private static final int MAX_BOUND_IDS = 1000;
+
+    /**
+     * The itemRepository
+     */
+
+    private final ItemRepository itemRepository;
+
+    /**
+     * The stockLeaseRepository
+     */
+
+    private final StockLeaseRepository stockLeaseRepository;
+
+    /**
+     * The stockLeaseSaleRepository
+     */
+
+    private final StockLeaseSaleRepository stockLeaseSaleRepository;
+
+    /**
+     * The transaction of the claims and releases, never inside a purchase one
+     */
+
+    private final TransactionTemplate ownTransaction;
+
+    /**
+     * The ids of the hot items
+     */
+
+    private final Set<Long> hotItems;
+
+    /**
+     * The units claimed from the database at once
+     */
+
+    private final int batchSize;
+
+    /**
+     * The instance of the application that holds the leases
+     */
+
+    private final String owner;
+
+    /**
+     * The stripes of each lease
+     */
+
+    private final int stripes = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The leases of the hot items
+     */
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * The constructor
+     *
+     * @param itemRepository           the item repository
+     * @param stockLeaseRepository     the stock lease repository
+     * @param stockLeaseSaleRepository the stock lease sale repository
+     * @param transactionManager       the transaction manager
+     * @param hotItems                 the ids of the hot items
+     * @param batchSize                the units claimed from the database at once
+     * @param owner                    the instance of the application that holds the leases
+     */
+
+    public StockReservationEngine(ItemRepository itemRepository, StockLeaseRepository stockLeaseRepository,
+                                  StockLeaseSaleRepository stockLeaseSaleRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${compra.stock.reservation.hot-items:}") Set<Long> hotItems,
+                                  @Value("${compra.stock.reservation.batch-size:50}") int batchSize,
+                                  @Value("${compra.stock.reservation.owner:}") String owner) {
+
+        if (!hotItems.isEmpty() && owner.isBlank()) {
+            throw new IllegalStateException("The hot items need compra.stock.reservation.owner, unique to each " +
+                    "instance of the application and kept across restarts");
+        }
+
+        this.itemRepository = itemRepository;
+        this.stockLeaseRepository = stockLeaseRepository;
+        this.stockLeaseSaleRepository = stockLeaseSaleRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.hotItems = Set.copyOf(hotItems);
+        this.batchSize = batchSize;
+        this.owner = owner;
+    }
+
+    /**
+     * Gives back to the stock the units leased and never sold before the last stop, if it wasn't clean
+     */
+
+    @PostConstruct
+    public void reconcile() {
+
+        for (StockLease stockLease : stockLeaseRepository.findLeasesOf(owner)) {
+
+            Long idItem = stockLease.getIdItem();
+            Long units = ownTransaction.execute(status -> {
+
+                long unsold = stockLease.getUnits() - account(idItem);
+
+                if (unsold > 0) {
+                    itemRepository.incrementStock(idItem, (int) unsold);
+                }
+
+                stockLeaseRepository.deleteLease(owner, idItem);
+                return unsold;
+            });
+
+            if (units != null && units != 0) {
+                logger.warn("Gave back {} units of item {} leased before the last stop", units, idItem);
+            }
+        }
+    }
+
+    /**
+     * Holds units of an item for a purchase. Must run before the purchase transaction begins: a hot item may claim a
+     * batch from the database in a transaction of its own. The other items hold nothing yet, and may be held inside it
+     *
+     * @param idItem   the id of the item
+     * @param quantity the units to hold
+     *
+     * @return the reservation, to take in the purchase transaction or to release, null if there is not enough stock
+     *
+     * @throws IllegalStateException if the item is hot and a transaction is active
+     */
+
+    public Reservation hold(Long idItem, int quantity) {
+
+        if (quantity < 1) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+
+        if (!hotItems.contains(idItem)) {
+            return new Reservation(idItem, quantity, null, 0);
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("The stock of the hot item " + idItem + " must be held before the " +
+                    "purchase transaction begins");
+        }
+
+        Lease lease = leases.computeIfAbsent(idItem, id -> new Lease(stripes));
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+
+        if (!lease.take(stripe, quantity)) {
+
+            int batch = Math.max(batchSize, quantity);
+
+            if (claim(idItem, batch)) {
+
+                lease.give(stripe, batch - quantity);
+
+            } else if (!claim(idItem, quantity)) {
+
+                return null;
+            }
+        }
+
+        return new Reservation(idItem, quantity, lease, stripe);
+    }
+
+    /**
+     * Takes the units of a reservation. Must run in the purchase transaction: if it rolls back the units are given
+     * back
+     *
+     * @param reservation the reservation, held and not taken yet
+     *
+     * @return true if the units were taken, false if there is not enough stock
+     */
+
+    public boolean take(Reservation reservation) {
+
+        if (reservation.lease == null) {
+            return itemRepository.decrementStock(reservation.idItem, reservation.quantity) == 1;
+        }
+
+        if (!reservation.held) {
+            throw new IllegalStateException("The reservation was already taken or released");
+        }
+
+        reservation.held = false;
+        giveBackOnRollback(reservation);
+        stockLeaseSaleRepository.addSale(owner, reservation.idItem, reservation.quantity);
+        return true;
+    }
+
+    /**
+     * Gives back the units of a reservation that were held and never taken, after the purchase failed. Does nothing
+     * for the reservations taken, their transaction gives them back if it rolls back
+     *
+     * @param reservation the reservation, may be null
+     */
+
+    public void release(Reservation reservation) {
+
+        if (reservation != null && reservation.lease != null && reservation.held) {
+
+            reservation.held = false;
+            reservation.lease.give(reservation.stripe, reservation.quantity);
+        }
+    }
+
+    /**
+     * Changes the units taken by a purchase already saved, when its quantity changes or it is deleted, straight on
+     * the stock of the item in the database. Must run in the transaction of the purchase: the conditional update
+     * holds the row lock of the item until it commits, which is fine for the updates and the deletes, seldom
+     * compared to the purchases
+     *
+     * @param idItem the id of the item
+     * @param units  the units to take, negative to give them back
+     *
+     * @return true if the units were taken or given back, false if there is not enough stock
+     */
+
+    public boolean adjust(Long idItem, int units) {
+
+        if (units > 0) {
+            return itemRepository.decrementStock(idItem, units) == 1;
+        }
+
+        if (units < 0) {
+            itemRepository.incrementStock(idItem, -units);
+        }
+
+        return true;
+    }
+
+    /**
+     * Drops the leases of an item being deleted, its leased units go with it. Must run in the transaction that
+     * deletes the item: the lease in memory is dropped when it commits
+     *
+     * @param idItem the id of the item
+     */
+
+    public void forget(Long idItem) {
+
+        stockLeaseSaleRepository.deleteItem(idItem);
+        stockLeaseRepository.deleteItem(idItem);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            leases.remove(idItem);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                leases.remove(idItem);
+            }
+        });
+    }
+
+    /**
+     * The units of an item leased and not sold yet
+     *
+     * @param idItem the id of the item
+     *
+     * @return the units, 0 if the item is not hot
+     */
+
+    public long leasedUnits(Long idItem) {
+
+        Lease lease = leases.get(idItem);
+        return lease == null ? 0 : lease.units();
+    }
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+
+        for (Long idItem : hotItems) {
+
+            Gauge.builder("compra.stock.leased", this, engine -> engine.leasedUnits(idItem))
+                    .description("The units of a hot item leased and not sold yet")
+                    .tag("item", String.valueOf(idItem))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Gives the leased units that were not sold back to the database
+     */
+
+    @PreDestroy
+    public void releaseAll() {
+
+        leases.forEach((idItem, lease) -> {
+
+            long units = lease.drain();
+
+            if (units > 0) {
+
+                ownTransaction.executeWithoutResult(status -> {
+
+                    stockLeaseRepository.addToLease(owner, idItem, -units);
+                    stockLeaseRepository.addToLease(owner, idItem, -account(idItem));
+                    itemRepository.incrementStock(idItem, (int) units);
+                });
+
+                logger.info("Released {} leased units of item {}", units, idItem);
+            }
+        });
+    }
+
+    // Complementary methods
+
+    /**
+     * Claims units from the database for the lease of an item, committed at once, and takes the sales committed
+     * since the last claim off the lease
+     *
+     * @param idItem   the id of the item
+     * @param quantity the units
+     *
+     * @return true if the item had the units
+     */
+
+    private boolean claim(Long idItem, int quantity) {
+
+        Boolean claimed = ownTransaction.execute(status -> {
+
+            if (itemRepository.decrementStock(idItem, quantity) != 1) {
+                return false;
+            }
+
+            if (stockLeaseRepository.addToLease(owner, idItem, quantity) > 1) {
+
+                long sold = account(idItem);
+
+                if (sold > 0) {
+                    stockLeaseRepository.addToLease(owner, idItem, -sold);
+                }
+            }
+
+            return true;
+        });
+
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    /**
+     * Deletes the committed sales from the lease of an item, at most {@value #MAX_BOUND_IDS} per statement. Must run
+     * in a transaction that holds the row of the lease, so no other claim deletes them too
+     *
+     * @param idItem the id of the item
+     *
+     * @return the units of the sales
+     */
+
+    private long account(Long idItem) {
+
+        List<StockLeaseSale> sales = stockLeaseSaleRepository.findSalesOf(owner, idItem);
+        List<Long> idSales = sales.stream().map(StockLeaseSale::getIdSale).toList();
+        long units = 0;
+
+        for (StockLeaseSale sale : sales) {
+            units += sale.getQuantity();
+        }
+
+        for (int from = 0; from < idSales.size(); from += MAX_BOUND_IDS) {
+            stockLeaseSaleRepository.deleteSales(idSales.subList(from, Math.min(from + MAX_BOUND_IDS, idSales.size())));
+        }
+
+        return units;
+    }
+
+    /**
+     * Gives the units of a reservation back to its stripe if the purchase transaction rolls back
+     *
+     * @param reservation the reservation
+     */
+
+    private static void giveBackOnRollback(Reservation reservation) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCompletion(int status) {
+
+                if (status != STATUS_COMMITTED) {
+                    reservation.lease.give(reservation.stripe, reservation.quantity);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reservation class
+     * <p>
+     * The units of an item held for a purchase: taken from a stripe of the lease of a hot item, or nothing yet for
+     * the other items
+     */
+
+    public static final class Reservation {
+
+        /**
+         * The id of the item
+         */
+
+        private final Long idItem;
+
+        /**
+         * The units
+         */
+
+        private final int quantity;
+
+        /**
+         * The lease the units were taken from, null if the item is not hot
+         */
+
+        private final Lease lease;
+
+        /**
+         * The stripe the units were taken from
+         */
+
+        private final int stripe;
+
+        /**
+         * If the units are held, not taken nor released yet
+         */
+
+        private boolean held;
+
+        /**
+         * The constructor
+         *
+         * @param idItem   the id of the item
+         * @param quantity the units
+         * @param lease    the lease the units were taken from, null if the item is not hot
+         * @param stripe   the stripe the units were taken from
+         */
+
+        private Reservation(Long idItem, int quantity, Lease lease, int stripe) {
+
+            this.idItem = idItem;
+            this.quantity = quantity;
+            this.lease = lease;
+            this.stripe = stripe;
+            this.held = lease != null;
+        }
+
+    }
+
+    /**
+     * Lease class
+     * <p>
+     * The units of a hot item claimed from the database and not sold yet, split in stripes
+     */
+
+    private static final class Lease {
+
+        /**
+         * The units of each stripe, one every {@link #PADDING} slots
+         */
+
+        private final AtomicLongArray units;
+
+        /**
+         * The number of stripes
+         */
+
+        private final int stripes;
+
+        /**
+         * The constructor
+         *
+         * @param stripes the number of stripes
+         */
+
+        private Lease(int stripes) {
+
+            this.units = new AtomicLongArray(stripes * PADDING);
+            this.stripes = stripes;
+        }
+
+        /**
+         * Takes units from a stripe, or from the next ones if it has not enough
+         *
+         * @param stripe   the first stripe to try
+         * @param quantity the units
+         *
+         * @return true if the units were taken
+         */
+
+        private boolean take(int stripe, int quantity) {
+
+            for (int k = 0; k < stripes; k++) {
+
+                int slot = ((stripe + k) % stripes) * PADDING;
+                long available = units.get(slot);
+
+                while (available >= quantity) {
+
+                    if (units.compareAndSet(slot, available, available - quantity)) {
+                        return true;
+                    }
+
+                    available = units.get(slot);
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Gives units to a stripe
+         *
+         * @param stripe   the stripe
+         * @param quantity the units
+         */
+
+        private void give(int stripe, long quantity) {
+
+            if (quantity > 0) {
+                units.addAndGet(stripe * PADDING, quantity);
+            }
+        }
+
+        /**
+         * The units of every stripe
+         *
+         * @return the units
+         */
+
+        private long units() {
+
+            long total = 0;
+
+            for (int k = 0; k < stripes; k++) {
+                total += units.get(k * PADDING);
+            }
+
+            return total;
+        }
+
+        /**
+         * Empties every stripe
+         *
+         * @return the units there were
+         */
+
+        private long drain() {
+
+            long total = 0;
+
+            for (int k = 0; k < stripes; k++) {
+                total += units.getAndSet(k * PADDING, 0);
+            }
+
+            return total;
+        }
+
+    }
+
+}
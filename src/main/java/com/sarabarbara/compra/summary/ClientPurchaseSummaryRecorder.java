@@ -0,0 +1,184 @@
+package com.sarabarbara.compra.summary;
+
+import com.sarabarbara.compra.archive.PurchaseArchive;
+import com.sarabarbara.compra.model.ClientPurchaseSummary;
+import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.repository.ClientPurchaseSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ClientPurchaseSummaryRecorder class
+ * <p>
+ * Keeps the {@link ClientPurchaseSummary} of the clients in step with their purchases. It must be called in the
+ * transaction that writes the purchases, after the write, so the totals commit or roll back with them; each client
+ * costs one upsert relative to the current totals.
+ * <p>
+ * A client without summary, a new one or one whose purchases were loaded before the summaries existed, gets it built
+ * from its purchases the first time one of them changes, the ones of the purchase table and the archived ones. The
+ * summary is created by the upsert, so the concurrent first purchases of a client wait for each other instead of
+ * both inserting it. The purchases of a dropped partition are gone, so a summary built after the drop misses them.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class ClientPurchaseSummaryRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientPurchaseSummaryRecorder.class);
+
+    /**
+     * The clientPurchaseSummaryRepository
+     */
+
+    private final ClientPurchaseSummaryRepository clientPurchaseSummaryRepository;
+
+    /**
+     * The purchaseArchive
+     */
+
+    private final PurchaseArchive purchaseArchive;
+
+    /**
+     * The constructor
+     *
+     * @param clientPurchaseSummaryRepository the client purchase summary repository
+     * @param purchaseArchive                 the purchase archive
+     */
+
+    public ClientPurchaseSummaryRecorder(ClientPurchaseSummaryRepository clientPurchaseSummaryRepository,
+                                         PurchaseArchive purchaseArchive) {
+
+        this.clientPurchaseSummaryRepository = clientPurchaseSummaryRepository;
+        this.purchaseArchive = purchaseArchive;
+    }
+
+    /**
+     * Adds a new purchase to the totals of its client
+     *
+     * @param purchase the purchase, saved
+     */
+
+    public void purchaseAdded(Purchase purchase) {
+
+        add(purchase.getClient().getIdClient(), 1, purchase.getQuantity(), purchase.getTotal(),
+                purchase.getTotalPrice());
+    }
+
+    /**
+     * Adds new purchases to the totals of their clients, one update per client
+     *
+     * @param purchases the purchases, saved
+     */
+
+    public void purchasesAdded(Collection<Purchase> purchases) {
+
+        Map<Long, ClientPurchaseSummary> deltas = new LinkedHashMap<>();
+
+        for (Purchase purchase : purchases) {
+
+            ClientPurchaseSummary delta = deltas.computeIfAbsent(purchase.getClient().getIdClient(),
+                    id -> new ClientPurchaseSummary(id, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+
+            delta.setPurchaseCount(delta.getPurchaseCount() + 1);
+            delta.setUnits(delta.getUnits() + purchase.getQuantity());
+            delta.setTotal(delta.getTotal().add(purchase.getTotal()));
+            delta.setTotalPrice(delta.getTotalPrice().add(purchase.getTotalPrice()));
+        }
+
+        deltas.values().forEach(delta -> add(delta.getIdClient(), delta.getPurchaseCount(), delta.getUnits(),
+                delta.getTotal(), delta.getTotalPrice()));
+    }
+
+    /**
+     * Moves the totals of the client of a purchase from its old amounts to the new ones
+     *
+     * @param purchase         the purchase, updated
+     * @param quantityBefore   the quantity before the update
+     * @param totalBefore      the total before the update
+     * @param totalPriceBefore the totalPrice before the update
+     */
+
+    public void purchaseChanged(Purchase purchase, int quantityBefore, BigDecimal totalBefore,
+                                BigDecimal totalPriceBefore) {
+
+        long units = (long) purchase.getQuantity() - quantityBefore;
+        BigDecimal total = purchase.getTotal().subtract(totalBefore);
+        BigDecimal totalPrice = purchase.getTotalPrice().subtract(totalPriceBefore);
+
+        if (units == 0 && total.signum() == 0 && totalPrice.signum() == 0) {
+            return;
+        }
+
+        add(purchase.getClient().getIdClient(), 0, units, total, totalPrice);
+    }
+
+    /**
+     * Takes a deleted purchase out of the totals of its client
+     *
+     * @param purchase the purchase, deleted
+     */
+
+    public void purchaseRemoved(Purchase purchase) {
+
+        add(purchase.getClient().getIdClient(), -1, -(long) purchase.getQuantity(), purchase.getTotal().negate(),
+                purchase.getTotalPrice().negate());
+    }
+
+    /**
+     * Takes deleted purchases out of the totals of their clients, one update per client. It must be called after
+     * the purchases are deleted
+     *
+     * @param removed the totals of the deleted purchases, by client
+     */
+
+    public void purchasesRemoved(Collection<ClientPurchaseSummary> removed) {
+
+        removed.forEach(delta -> add(delta.getIdClient(), -delta.getPurchaseCount(), -delta.getUnits(),
+                delta.getTotal().negate(), delta.getTotalPrice().negate()));
+    }
+
+    // Complementary methods
+
+    /**
+     * Adds to the totals of a client, or builds them from its purchases and its archived ones if the upsert created
+     * the summary. The purchases written in the transaction are flushed before they are added up, so they are
+     * already counted; the ones of concurrent transactions are not, and add their own amounts once this one commits
+     *
+     * @param idClient      the id of the client
+     * @param purchaseCount the purchases to add
+     * @param units         the units to add
+     * @param total         the total to add
+     * @param totalPrice    the totalPrice to add
+     */
+
+    private void add(Long idClient, long purchaseCount, long units, BigDecimal total, BigDecimal totalPrice) {
+
+        if (clientPurchaseSummaryRepository.addToSummary(idClient, purchaseCount, units, total, totalPrice) > 1) {
+            return;
+        }
+
+        ClientPurchaseSummary summary = purchaseArchive.summaryOf(idClient);
+
+        clientPurchaseSummaryRepository.sumPurchasesOf(idClient).ifPresent(live -> {
+
+            summary.setPurchaseCount(summary.getPurchaseCount() + live.getPurchaseCount());
+            summary.setUnits(summary.getUnits() + live.getUnits());
+            summary.setTotal(summary.getTotal().add(live.getTotal()));
+            summary.setTotalPrice(summary.getTotalPrice().add(live.getTotalPrice()));
+        });
+
+        logger.info("Building the purchase summary of client {}: {}", idClient, summary);
+        clientPurchaseSummaryRepository.replaceSummary(idClient, summary.getPurchaseCount(), summary.getUnits(),
+                summary.getTotal(), summary.getTotalPrice());
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.sarabarbara.compra.summary;
+
+import com.sarabarbara.compra.model.SalesDaily;
+import com.sarabarbara.compra.repository.SalesDailyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * SalesDailyRebuilder class
+ * <p>
+ * Builds the {@link SalesDaily} rollup of a range of days again from the purchases, to fill it for the purchases
+ * made before it existed or to repair it. Each day is rebuilt in its own transaction, so a long range doesn't hold
+ * one big transaction; the purchases written to a day while it is rebuilt may be counted twice or missed, so it is
+ * meant to run while the purchases are quiet.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SalesDailyRebuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesDailyRebuilder.class);
+
+    /**
+     * The maximum days of a rebuild
+     */
+
+    public static final long MAX_DAYS = 3660;
+
+    /**
+     * The salesDailyRepository
+     */
+
+    private final SalesDailyRepository salesDailyRepository;
+
+    /**
+     * The transaction of each day
+     */
+
+    private final TransactionTemplate dayTransaction;
+
+    /**
+     * The constructor
+     *
+     * @param salesDailyRepository the sales daily repository
+     * @param transactionManager   the transaction manager
+     */
+
+    public SalesDailyRebuilder(SalesDailyRepository salesDailyRepository,
+                               PlatformTransactionManager transactionManager) {
+
+        this.salesDailyRepository = salesDailyRepository;
+        this.dayTransaction = new TransactionTemplate(transactionManager);
+        this.dayTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Rebuilds the rollup of the days between two dates
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     *
+     * @return the rows written
+     *
+     * @throws IllegalArgumentException if from is after to or the range is longer than {@value #MAX_DAYS} days
+     */
+
+    public long rebuild(LocalDate from, LocalDate to) {
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The first day is after the last one");
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("A rebuild can't be longer than " + MAX_DAYS + " days");
+        }
+
+        long rows = 0;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            rows += rebuildDay(day);
+        }
+
+        logger.info("Sales rollup rebuilt from {} to {}: {} rows", from, to, rows);
+        return rows;
+    }
+
+    // Complementary methods
+
+    /**
+     * Rebuilds the rollup of a day, in its own transaction
+     *
+     * @param day the day
+     *
+     * @return the rows written
+     */
+
+    private int rebuildDay(LocalDate day) {
+
+        Integer rows = dayTransaction.execute(status -> {
+
+            salesDailyRepository.deleteDay(day);
+
+            List<SalesDaily> sales = salesDailyRepository.sumPurchasesOn(day);
+            salesDailyRepository.saveAll(sales);
+
+            return sales.size();
+        });
+
+        return rows == null ? 0 : rows;
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.sarabarbara.compra.summary;
+
+import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.model.SalesDaily;
+import com.sarabarbara.compra.model.SalesDailyId;
+import com.sarabarbara.compra.repository.SalesDailyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SalesDailyRecorder class
+ * <p>
+ * Keeps the {@link SalesDaily} rollup in step with the purchases. It must be called in the transaction that writes
+ * the purchases, after the write, so the rollup commits or rolls back with them; each day and item costs one upsert
+ * relative to the current sums.
+ * <p>
+ * The upsert locks its row until the purchase commits, so with a single row per day and item every buyer of a hot
+ * item would wait for the one before, undoing the stripes of the stock leases of the hot items. So the sales are
+ * split in {@value #SHARDS} shards, and each change adds to one of them at random: the buyers of an item only wait
+ * for those that hit the same shard, and the reports add the shards up.
+ * <p>
+ * A day and item without base shard, the first sale of the day or one sold before the rollup existed, gets it built
+ * from its purchases the first time one of them changes. The base is created by the upsert, so the concurrent first
+ * sales of an item in a day, e.g. of every hot item at midnight, wait for each other instead of both inserting it;
+ * once it is there, the changes go to a random shard.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@Component
+public class SalesDailyRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesDailyRecorder.class);
+
+    /**
+     * The shards of the sales of a day and item
+     */
+
+    private static final int SHARDS = 8;
+
+    /**
+     * The salesDailyRepository
+     */
+
+    private final SalesDailyRepository salesDailyRepository;
+
+    /**
+     * The constructor
+     *
+     * @param salesDailyRepository the sales daily repository
+     */
+
+    public SalesDailyRecorder(SalesDailyRepository salesDailyRepository) {
+
+        this.salesDailyRepository = salesDailyRepository;
+    }
+
+    /**
+     * Adds a new purchase to the sales of its day and item
+     *
+     * @param purchase the purchase, saved
+     */
+
+    public void purchaseAdded(Purchase purchase) {
+
+        add(purchase.getPurchaseDate(), purchase.getItem().getIdItem(), 1, purchase.getQuantity(),
+                purchase.getTotal(), purchase.getTotalIva(), purchase.getTotalPrice());
+    }
+
+    /**
+     * Adds new purchases to the sales of their days and items, one update per day and item
+     *
+     * @param purchases the purchases, saved
+     */
+
+    public void purchasesAdded(Collection<Purchase> purchases) {
+
+        Map<SalesDailyId, SalesDaily> deltas = new LinkedHashMap<>();
+
+        for (Purchase purchase : purchases) {
+
+            SalesDaily delta = deltas.computeIfAbsent(
+                    new SalesDailyId(purchase.getPurchaseDate(), purchase.getItem().getIdItem(), 0),
+                    id -> new SalesDaily(id.getDay(), id.getIdItem(), 0, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                            BigDecimal.ZERO));
+
+            delta.setPurchaseCount(delta.getPurchaseCount() + 1);
+            delta.setQuantity(delta.getQuantity() + purchase.getQuantity());
+            delta.setNet(delta.getNet().add(purchase.getTotal()));
+            delta.setTax(delta.getTax().add(purchase.getTotalIva()));
+            delta.setGross(delta.getGross().add(purchase.getTotalPrice()));
+        }
+
+        deltas.values().forEach(delta -> add(delta.getDay(), delta.getIdItem(), delta.getPurchaseCount(),
+                delta.getQuantity(), delta.getNet(), delta.getTax(), delta.getGross()));
+    }
+
+    /**
+     * Moves the sales of a purchase from its old day and amounts to the new ones
+     *
+     * @param purchase         the purchase, updated
+     * @param dayBefore        the purchaseDate before the update
+     * @param quantityBefore   the quantity before the update
+     * @param totalBefore      the total before the update
+     * @param totalIvaBefore   the totalIva before the update
+     * @param totalPriceBefore the totalPrice before the update
+     */
+
+    public void purchaseChanged(Purchase purchase, LocalDate dayBefore, int quantityBefore, BigDecimal totalBefore,
+                                BigDecimal totalIvaBefore, BigDecimal totalPriceBefore) {
+
+        Long idItem = purchase.getItem().getIdItem();
+
+        if (!dayBefore.equals(purchase.getPurchaseDate())) {
+
+            add(dayBefore, idItem, -1, -(long) quantityBefore, totalBefore.negate(), totalIvaBefore.negate(),
+                    totalPriceBefore.negate());
+            purchaseAdded(purchase);
+            return;
+        }
+
+        long quantity = (long) purchase.getQuantity() - quantityBefore;
+        BigDecimal net = purchase.getTotal().subtract(totalBefore);
+        BigDecimal tax = purchase.getTotalIva().subtract(totalIvaBefore);
+        BigDecimal gross = purchase.getTotalPrice().subtract(totalPriceBefore);
+
+        if (quantity == 0 && net.signum() == 0 && tax.signum() == 0 && gross.signum() == 0) {
+            return;
+        }
+
+        add(dayBefore, idItem, 0, quantity, net, tax, gross);
+    }
+
+    /**
+     * Takes a deleted purchase out of the sales of its day and item
+     *
+     * @param purchase the purchase, deleted
+     */
+
+    public void purchaseRemoved(Purchase purchase) {
+
+        add(purchase.getPurchaseDate(), purchase.getItem().getIdItem(), -1, -(long) purchase.getQuantity(),
+                purchase.getTotal().negate(), purchase.getTotalIva().negate(), purchase.getTotalPrice().negate());
+    }
+
+    /**
+     * Takes deleted purchases out of the sales of their days and items, one update per day and item. It must be
+     * called after the purchases are deleted
+     *
+     * @param removed the sales of the deleted purchases, by day and item
+     */
+
+    public void purchasesRemoved(Collection<SalesDaily> removed) {
+
+        removed.forEach(delta -> add(delta.getDay(), delta.getIdItem(), -delta.getPurchaseCount(),
+                -delta.getQuantity(), delta.getNet().negate(), delta.getTax().negate(), delta.getGross().negate()));
+    }
+
+    // Complementary methods
+
+    /**
+     * Adds to a random shard of the sales of an item in a day, once they have their base, or to the base, building it
+     * from its purchases if the upsert created it. The purchases written in the transaction are flushed before they
+     * are added up, so they are already counted; the ones of concurrent transactions are not, and add their own
+     * amounts once this one commits
+     *
+     * @param day           the day
+     * @param idItem        the id of the item
+     * @param purchaseCount the purchases to add
+     * @param quantity      the units to add
+     * @param net           the net amount to add
+     * @param tax           the tax to add
+     * @param gross         the gross amount to add
+     */
+
+    private void add(LocalDate day, Long idItem, long purchaseCount, long quantity, BigDecimal net, BigDecimal tax,
+                     BigDecimal gross) {
+
+        if (salesDailyRepository.hasBase(day, idItem)) {
+
+            salesDailyRepository.addToDay(day, idItem, ThreadLocalRandom.current().nextInt(SHARDS), purchaseCount,
+                    quantity, net, tax, gross);
+            return;
+        }
+
+        if (salesDailyRepository.addToDay(day, idItem, 0, purchaseCount, quantity, net, tax, gross) > 1) {
+            return;
+        }
+
+        SalesDaily sales = salesDailyRepository.sumPurchasesOf(day, idItem).orElseGet(() -> new SalesDaily(day,
+                idItem, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+
+        logger.info("Building the sales of item {} on {}: {}", idItem, day, sales);
+        salesDailyRepository.replaceDay(day, idItem, sales.getPurchaseCount(), sales.getQuantity(), sales.getNet(),
+                sales.getTax(), sales.getGross());
+    }
+
+}
@@ -10,7 +10,20 @@ CREATE TABLE IF NOT EXISTS CLIENT (
     zip_code VARCHAR(10) NOT NULL,  -- Postal code of the client
     province VARCHAR(45) NOT NULL,  -- Province of the client
     phone_number VARCHAR(45) NOT NULL UNIQUE,  -- Phone number of the client (Unique)
-    birth_date DATE NOT NULL  -- Birth date of the client
+    birth_date DATE NOT NULL,  -- Birth date of the client
+    name_norm VARCHAR(45),  -- Name without accents and in lower case, for the searches
+    surname_norm VARCHAR(45),  -- Surname without accents and in lower case, for the searches
+    company_norm VARCHAR(45),  -- Company without accents and in lower case, for the searches
+    position_norm VARCHAR(45),  -- Position without accents and in lower case, for the searches
+    province_norm VARCHAR(45),  -- Province without accents and in lower case, for the searches
+
+    -- Indexes
+    INDEX idx_client_name_norm (name_norm),  -- Prefix searches by name
+    INDEX idx_client_surname_norm (surname_norm),  -- Prefix searches by surname
+    INDEX idx_client_company_norm (company_norm),  -- Prefix searches by company
+    INDEX idx_client_position_norm (position_norm),  -- Prefix searches by position
+    INDEX idx_client_province_norm (province_norm),  -- Prefix searches by province
+    INDEX idx_client_zip_code (zip_code)  -- Prefix searches by zip code
 );
 
 -- Create ITEM table
@@ -22,12 +35,22 @@ CREATE TABLE IF NOT EXISTS ITEM (
     unit_stock INT NOT NULL,  -- Stock quantity of the item
     type VARCHAR(30) NOT NULL,  -- Type of the item (e.g., electronic, clothing)
     supplier VARCHAR(45) NOT NULL,  -- Supplier of the item
-    date DATE NOT NULL  -- Creation date of the item
+    date DATE NOT NULL,  -- Creation date of the item
+    name_norm VARCHAR(45),  -- Name without accents and in lower case, for the searches
+    supplier_norm VARCHAR(45),  -- Supplier without accents and in lower case, for the searches
+
+    -- Indexes
+    INDEX idx_item_name_norm (name_norm),  -- Prefix searches by name
+    INDEX idx_item_supplier_norm (supplier_norm)  -- Prefix searches by supplier
 );
 
--- Create PURCHASE table
+-- Create PURCHASE table, partitioned by month of purchase_date: the queries with a date range read only the
+-- partitions of the range and a month is removed by dropping its partition. Every unique key of a partitioned table
+-- must have purchase_date, and it can't have foreign keys: the application checks the client and the item of every
+-- new purchase, and deleting a client or an item deletes their purchases in the same transaction.
+-- The application creates the partitions of the coming months (compra.purchase.partitions.enabled=true)
 CREATE TABLE IF NOT EXISTS PURCHASE (
-    id_purchase INT AUTO_INCREMENT PRIMARY KEY,  -- Unique ID for the purchase
+    id_purchase INT AUTO_INCREMENT,  -- Unique ID for the purchase
     id_client INT NOT NULL,  -- Reference to CLIENT table
     id_item INT NOT NULL,  -- Reference to ITEM table
     purchase_date DATE NOT NULL,  -- Purchase date
@@ -36,8 +59,72 @@ CREATE TABLE IF NOT EXISTS PURCHASE (
     iva DECIMAL(38,2) NOT NULL,  -- VAT percentage
     total_iva DECIMAL(38,2) NOT NULL,  -- Total VAT amount
     total_price DECIMAL(38,2) NOT NULL,  -- Total price (with VAT)
+    idempotency_key VARCHAR(64) NULL,  -- Idempotency-Key of the creation request, if any
+
+    -- Indexes
+    INDEX idx_purchase_date (purchase_date),  -- Keyset pages sorted by date (InnoDB appends id_purchase)
+    INDEX idx_purchase_client_date (id_client, purchase_date),  -- Purchases of a client in a range of dates, newest first
+    INDEX idx_purchase_item_date (id_item, purchase_date),  -- Purchases of an item in a range of dates
+    UNIQUE INDEX uk_purchase_idempotency_key (idempotency_key, purchase_date),  -- A retry can't insert twice a day
+
+    PRIMARY KEY (id_purchase, purchase_date)  -- The partitioning column is part of the key
+)
+PARTITION BY RANGE COLUMNS (purchase_date) (
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),  -- March 2025 and before
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),  -- April 2025
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)  -- Later dates, until the application splits their months off
+);
+
+-- Create CLIENT_PURCHASE_SUMMARY table
+CREATE TABLE IF NOT EXISTS CLIENT_PURCHASE_SUMMARY (
+    id_client INT PRIMARY KEY,  -- Reference to CLIENT table
+    purchase_count BIGINT NOT NULL,  -- Number of purchases of the client
+    units BIGINT NOT NULL,  -- Units bought by the client
+    total DECIMAL(38,2) NOT NULL,  -- Total amount of the purchases (without VAT)
+    total_price DECIMAL(38,2) NOT NULL,  -- Total price of the purchases (with VAT)
+
+    -- Foreign keys
+    FOREIGN KEY (id_client) REFERENCES CLIENT(id_client) ON DELETE CASCADE  -- Relationship with CLIENT table
+);
+
+-- Create SALES_DAILY table
+CREATE TABLE IF NOT EXISTS SALES_DAILY (
+    sales_day DATE NOT NULL,  -- Day of the sales
+    id_item INT NOT NULL,  -- Reference to ITEM table
+    shard TINYINT NOT NULL,  -- Shard of the sales of the item in the day, 0 for the base
+    purchase_count BIGINT NOT NULL,  -- Number of purchases of the item in the day
+    quantity BIGINT NOT NULL,  -- Units of the item sold in the day
+    net DECIMAL(38,2) NOT NULL,  -- Net amount of the sales (without VAT)
+    tax DECIMAL(38,2) NOT NULL,  -- VAT amount of the sales
+    gross DECIMAL(38,2) NOT NULL,  -- Gross amount of the sales (with VAT)
+
+    PRIMARY KEY (sales_day, id_item, shard),  -- Ranges of days read in day order
+
+    -- Foreign keys
+    FOREIGN KEY (id_item) REFERENCES ITEM(id_item) ON DELETE CASCADE  -- Relationship with ITEM table
+);
+
+-- Create STOCK_LEASE table
+CREATE TABLE IF NOT EXISTS STOCK_LEASE (
+    owner VARCHAR(64) NOT NULL,  -- Instance of the application that holds the lease
+    id_item INT NOT NULL,  -- Reference to ITEM table
+    units BIGINT NOT NULL,  -- Units claimed from the stock and not accounted yet
+
+    PRIMARY KEY (owner, id_item),
+
+    -- Foreign keys
+    FOREIGN KEY (id_item) REFERENCES ITEM(id_item) ON DELETE CASCADE  -- Relationship with ITEM table
+);
+
+-- Create STOCK_LEASE_SALE table
+CREATE TABLE IF NOT EXISTS STOCK_LEASE_SALE (
+    id_sale BIGINT AUTO_INCREMENT PRIMARY KEY,  -- Unique ID for the sale
+    owner VARCHAR(64) NOT NULL,  -- Instance of the application that holds the lease
+    id_item INT NOT NULL,  -- Reference to ITEM table
+    quantity INT NOT NULL,  -- Units of a purchase taken from the lease
+
+    INDEX idx_stock_lease_sale_lease (owner, id_item),  -- Sales accounted by the next claim of the lease
 
     -- Foreign keys
-    FOREIGN KEY (client_id) REFERENCES CLIENT(id) ON DELETE CASCADE,  -- Relationship with CLIENT table
-    FOREIGN KEY (item_id) REFERENCES ITEM(id) ON DELETE CASCADE  -- Relationship with ITEM table
+    FOREIGN KEY (id_item) REFERENCES ITEM(id_item) ON DELETE CASCADE  -- Relationship with ITEM table
 );
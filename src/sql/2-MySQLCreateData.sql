@@ -10,8 +10,25 @@ VALUES
     ('Laptop', 'High-performance laptop for work and gaming', 1200.00, 100, 'Electronics', 'Supplier A', '2025-03-15'),
     ('Chair', 'Ergonomic office chair', 150.00, 50, 'Furniture', 'Supplier B', '2025-03-16');
 
+-- The normalized search columns of the examples are left empty: MySQL can't strip the accents as the application
+-- does, so start it once with compra.search.backfill.enabled=true to fill them (SearchColumnsBackfill); every save
+-- through the application fills them too
+
 -- Insert example into PURCHASE table
 INSERT INTO PURCHASE (id_client, id_item, purchase_date, quantity, total, iva, total_iva, total_price)
 VALUES 
     (1, 1, '2025-03-15', 2, 2400.00, 21.00, 504.00, 2904.00),
     (2, 2, '2025-03-16', 1, 150.00, 21.00, 31.50, 181.50);
+
+-- Build the purchase summaries of the clients from their purchases (the application keeps them up to date)
+INSERT INTO CLIENT_PURCHASE_SUMMARY (id_client, purchase_count, units, total, total_price)
+SELECT id_client, COUNT(*), SUM(quantity), SUM(total), SUM(total_price) FROM PURCHASE GROUP BY id_client
+ON DUPLICATE KEY UPDATE purchase_count = VALUES(purchase_count), units = VALUES(units), total = VALUES(total),
+    total_price = VALUES(total_price);
+
+-- Build the daily sales rollup from the purchases (the application keeps it up to date)
+INSERT INTO SALES_DAILY (sales_day, id_item, purchase_count, quantity, net, tax, gross)
+SELECT purchase_date, id_item, COUNT(*), SUM(quantity), SUM(total), SUM(total_iva), SUM(total_price) FROM PURCHASE
+GROUP BY purchase_date, id_item
+ON DUPLICATE KEY UPDATE purchase_count = VALUES(purchase_count), quantity = VALUES(quantity), net = VALUES(net),
+    tax = VALUES(tax), gross = VALUES(gross);
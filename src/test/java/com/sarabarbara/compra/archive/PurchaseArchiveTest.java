@@ -0,0 +1,155 @@
+package com.sarabarbara.compra.archive;
+
+import com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import com.sarabarbara.compra.repository.ClientRepository;
+import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * PurchaseArchiveTest class
+ * <p>
+ * Archives the purchases of a month into a temporary directory, with the repositories mocked, and searches them.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@ExtendWith(MockitoExtension.class)
+class PurchaseArchiveTest {
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PurchaseArchive purchaseArchive;
+
+    private final YearMonth month = YearMonth.now().minusMonths(3);
+
+    private final Comparator<PurchaseSearchDTO> byId = Comparator.comparing(PurchaseSearchDTO::getIdPurchase);
+
+    @BeforeEach
+    void setUp() {
+
+        purchaseArchive = new PurchaseArchive(purchaseRepository, clientRepository, itemRepository,
+                transactionManager, directory.toString(), true, 1, 1000);
+
+        lenient().when(clientRepository.findIdClientIn(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+        lenient().when(itemRepository.findIdItemIn(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Long>>getArgument(0)));
+    }
+
+    @Test
+    void archiveMergesLatePurchaseTest() {
+
+        archiveMonth(List.of(purchase(1L, 5L, 3L, 2), purchase(2L, 6L, 3L, 9)));
+
+        assertEquals(2, search(PurchaseSearchFilter.builder().build()).getTotalElements());
+
+        List<PurchaseSegmentDTO> written = archiveMonth(List.of(purchase(3L, 7L, 4L, 1)));
+
+        assertEquals(1, written.size());
+        assertEquals(3, written.get(0).getRows());
+        assertEquals(1L, written.get(0).getMinId());
+        assertEquals(3L, written.get(0).getMaxId());
+        assertEquals(month.atDay(1), written.get(0).getMinDate());
+
+        Page<PurchaseSearchDTO> all = search(PurchaseSearchFilter.builder().build());
+
+        assertEquals(3, all.getTotalElements());
+        assertEquals(List.of(1L, 2L, 3L), all.getContent().stream().map(PurchaseSearchDTO::getIdPurchase).toList());
+        assertEquals(List.of(3L), search(PurchaseSearchFilter.builder().idItem(4L).build()).getContent().stream()
+                .map(PurchaseSearchDTO::getIdPurchase).toList());
+    }
+
+    @Test
+    void searchSkipsDeletedClientTest() {
+
+        archiveMonth(List.of(purchase(1L, 5L, 3L, 2), purchase(2L, 6L, 3L, 9), purchase(3L, 6L, 4L, 10)));
+
+        when(clientRepository.findIdClientIn(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> !id.equals(6L)).toList());
+
+        Page<PurchaseSearchDTO> all = search(PurchaseSearchFilter.builder().build());
+
+        assertEquals(1, all.getTotalElements());
+        assertEquals(List.of(1L), all.getContent().stream().map(PurchaseSearchDTO::getIdPurchase).toList());
+        assertTrue(search(PurchaseSearchFilter.builder().idClient(6L).build()).getContent().isEmpty());
+    }
+
+    @Test
+    void coversFilterTest() {
+
+        archiveMonth(List.of(purchase(1L, 5L, 3L, 2), purchase(2L, 6L, 3L, 9)));
+
+        assertTrue(purchaseArchive.covers(PurchaseSearchFilter.builder().idClient(5L).build()));
+        assertFalse(purchaseArchive.covers(PurchaseSearchFilter.builder().idClient(8L).build()));
+        assertFalse(purchaseArchive.covers(PurchaseSearchFilter.builder().idItem(4L).build()));
+        assertFalse(purchaseArchive.covers(PurchaseSearchFilter.builder().idClient(5L)
+                .fromDate(month.plusMonths(1).atDay(1)).build()));
+    }
+
+    private List<PurchaseSegmentDTO> archiveMonth(List<ArchivedPurchaseDTO> purchases) {
+
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.atEndOfMonth();
+
+        when(purchaseRepository.findOldestPurchaseDateBefore(YearMonth.now().minusMonths(1).atDay(1)))
+                .thenReturn(purchases.get(0).getPurchaseDate());
+        when(purchaseRepository.findArchivedPurchaseDTOBetween(from, to)).thenReturn(purchases);
+        when(purchaseRepository.deletePurchasesBetween(from, to)).thenReturn(purchases.size());
+
+        return purchaseArchive.archive();
+    }
+
+    private Page<PurchaseSearchDTO> search(PurchaseSearchFilter filter) {
+
+        return purchaseArchive.search(filter, byId, 10);
+    }
+
+    private ArchivedPurchaseDTO purchase(Long idPurchase, Long idClient, Long idItem, int day) {
+
+        return new ArchivedPurchaseDTO(idPurchase, idClient, idItem, month.atDay(day), 1, new BigDecimal("10.00"),
+                new BigDecimal("2.10"), new BigDecimal("12.10"), new BigDecimal("12.10"));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.sarabarbara.compra.archive;
+
+import com.sarabarbara.compra.dto.purchases.ArchivedPurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchFilter;
+import com.sarabarbara.compra.dto.purchases.PurchaseSegmentDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PurchaseSegmentTest class
+ * <p>
+ * Writes segments to a temporary directory and reads them back: the columns, the header and the filters.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+class PurchaseSegmentTest {
+
+    @TempDir
+    private Path directory;
+
+    private final YearMonth month = YearMonth.of(2024, 3);
+
+    private final List<ArchivedPurchaseDTO> purchases = List.of(
+            purchase(12L, 7L, 3L, 20, 2, "20.10", "4.221", "24.321", "48.64"),
+            purchase(10L, 5L, 3L, 4, 1, "10.05", "2.110", "12.160", "12.16"),
+            purchase(11L, 5L, 4L, 4, 5, "3.50", "0.735", "4.235", "21.18"),
+            purchase(13L, 9L, 4L, 31, 3, "7.00", "1.470", "8.470", "25.41"));
+
+    @Test
+    void writeReadSegmentTest() throws Exception {
+
+        Path file = directory.resolve("segment.seg");
+        PurchaseSegment.of(month, purchases).write(file);
+
+        PurchaseSegment segment = PurchaseSegment.read(file);
+
+        assertEquals(4, segment.size());
+        assertEquals(purchases.get(1), segment.get(0));
+        assertEquals(purchases.get(2), segment.get(1));
+        assertEquals(purchases.get(0), segment.get(2));
+        assertEquals(purchases.get(3), segment.get(3));
+        assertEquals(new BigDecimal("48.64"), segment.totalPrice(2));
+    }
+
+    @Test
+    void readHeaderTest() throws Exception {
+
+        Path file = directory.resolve("segment.seg");
+        PurchaseSegment.of(month, purchases).write(file);
+
+        PurchaseSegmentHeader header = PurchaseSegment.readHeader(file);
+        PurchaseSegmentDTO info = header.getInfo();
+
+        assertEquals(month, info.getMonth());
+        assertEquals(4, info.getRows());
+        assertEquals(LocalDate.of(2024, 3, 4), info.getMinDate());
+        assertEquals(LocalDate.of(2024, 3, 31), info.getMaxDate());
+        assertEquals(10L, info.getMinId());
+        assertEquals(13L, info.getMaxId());
+        assertEquals(5L, info.getMinIdClient());
+        assertEquals(9L, info.getMaxIdClient());
+        assertEquals(3L, info.getMinIdItem());
+        assertEquals(4L, info.getMaxIdItem());
+        assertEquals(Files.size(file), info.getBytes());
+
+        assertTrue(header.mayHave(5L, 4L));
+        assertTrue(header.mayHave(null, 3L));
+        assertFalse(header.mayHave(4L, null));
+        assertFalse(header.mayHave(null, 5L));
+        assertTrue(header.mayHaveDates(LocalDate.of(2024, 3, 31), null));
+        assertFalse(header.mayHaveDates(LocalDate.of(2024, 4, 1), null));
+    }
+
+    @Test
+    void findTest() throws Exception {
+
+        Path file = directory.resolve("segment.seg");
+        PurchaseSegment.of(month, purchases).write(file);
+
+        PurchaseSegment segment = PurchaseSegment.read(file);
+
+        assertEquals(rows(0, 1), segment.find(PurchaseSearchFilter.builder().idClient(5L).build()));
+        assertEquals(rows(1, 3), segment.find(PurchaseSearchFilter.builder().idItem(4L).build()));
+        assertEquals(rows(0, 1, 2), segment.find(PurchaseSearchFilter.builder()
+                .toDate(LocalDate.of(2024, 3, 20)).build()));
+        assertEquals(rows(1), segment.find(PurchaseSearchFilter.builder()
+                .purchaseDate(LocalDate.of(2024, 3, 4)).minQuantity(2).build()));
+        assertEquals(rows(1, 3), segment.find(PurchaseSearchFilter.builder()
+                .minTotal(new BigDecimal("20")).maxTotal(new BigDecimal("30")).build()));
+        assertEquals(rows(), segment.find(PurchaseSearchFilter.builder().idClient(7L).idItem(4L).build()));
+    }
+
+    private static ArchivedPurchaseDTO purchase(Long idPurchase, Long idClient, Long idItem, int day, int quantity,
+                                                String total, String iva, String totalIva, String totalPrice) {
+
+        return new ArchivedPurchaseDTO(idPurchase, idClient, idItem, LocalDate.of(2024, 3, day), quantity,
+                new BigDecimal(total), new BigDecimal(iva), new BigDecimal(totalIva), new BigDecimal(totalPrice));
+    }
+
+    private static BitSet rows(int... rows) {
+
+        BitSet set = new BitSet();
+
+        for (int row : rows) {
+            set.set(row);
+        }
+
+        return set;
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.sarabarbara.compra.benchmarks;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * BaselineRunner class
+ * <p>
+ * Runs the benchmarks like the JMH main, and compares the scores with the ones of a baseline file. A score worse
+ * than the baseline by more than the threshold is a regression, and the run fails; the allocation per operation of
+ * {@code -prof gc} is compared too. Without a baseline, or with {@code -Dbenchmark.record=true}, the scores are
+ * written as the new baseline. Run with
+ * {@code mvn -P benchmarks clean test-compile exec:exec -Djmh.main=com.sarabarbara.compra.benchmarks.BaselineRunner}.
+ * <p>
+ * The system properties are {@code benchmark.baseline}, the file, {@code benchmark.threshold}, the allowed
+ * regression, and {@code benchmark.record}.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public final class BaselineRunner {
+
+    /**
+     * The secondary result with the bytes allocated per operation
+     */
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    /**
+     * The private constructor
+     */
+
+    private BaselineRunner() {
+
+    }
+
+    /**
+     * Runs the benchmarks and compares them with the baseline
+     *
+     * @param args the arguments of JMH
+     *
+     * @throws CommandLineOptionException if the arguments are wrong
+     * @throws RunnerException            if a benchmark fails
+     * @throws IOException                if the baseline can't be read or written
+     */
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+
+        Path baseline = Path.of(System.getProperty("benchmark.baseline", "benchmarks/baseline.properties"));
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.10"));
+        boolean record = Boolean.getBoolean("benchmark.record");
+
+        Collection<RunResult> results = new Runner(new CommandLineOptions(args)).run();
+        Map<String, Score> scores = scores(results);
+
+        if (record || !Files.exists(baseline)) {
+
+            write(baseline, scores);
+            System.out.println("Baseline written to " + baseline.toAbsolutePath());
+            return;
+        }
+
+        List<String> regressions = compare(read(baseline), scores, threshold);
+
+        if (!regressions.isEmpty()) {
+
+            System.out.println("Regressions against " + baseline + " (threshold " + threshold * 100 + "%):");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+
+        System.out.println("No regressions against " + baseline + " (threshold " + threshold * 100 + "%)");
+    }
+
+    // Complementary methods
+
+    /**
+     * The scores of a run, by benchmark, parameters and metric
+     *
+     * @param results the results of the run
+     *
+     * @return the scores
+     */
+
+    private static Map<String, Score> scores(Collection<RunResult> results) {
+
+        Map<String, Score> scores = new TreeMap<>();
+
+        for (RunResult result : results) {
+
+            String key = key(result);
+            Result<?> primary = result.getPrimaryResult();
+            boolean higherIsBetter = result.getParams().getMode().shortLabel().equals("thrpt");
+
+            scores.put(key, new Score(primary.getScore(), higherIsBetter));
+
+            Result<?> allocation = result.getSecondaryResults().get(ALLOCATION);
+
+            if (allocation != null) {
+                scores.put(key + ":" + ALLOCATION, new Score(allocation.getScore(), false));
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * The key of a result: the benchmark, the mode and the parameters
+     *
+     * @param result the result
+     *
+     * @return the key
+     */
+
+    private static String key(RunResult result) {
+
+        StringBuilder key = new StringBuilder(result.getParams().getBenchmark())
+                .append('.').append(result.getParams().getMode().shortLabel());
+
+        for (String param : result.getParams().getParamsKeys()) {
+            key.append('[').append(param).append('=').append(result.getParams().getParam(param)).append(']');
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * The regressions of the scores against the baseline
+     *
+     * @param baseline  the baseline
+     * @param scores    the scores
+     * @param threshold the allowed regression, as a fraction of the baseline
+     *
+     * @return the description of every regression
+     */
+
+    private static List<String> compare(Properties baseline, Map<String, Score> scores, double threshold) {
+
+        List<String> regressions = new ArrayList<>();
+
+        scores.forEach((key, score) -> {
+
+            String value = baseline.getProperty(key);
+
+            if (value == null) {
+                return;
+            }
+
+            double expected = Double.parseDouble(value);
+
+            if (expected == 0) {
+                return;
+            }
+
+            double change = (score.value() - expected) / expected;
+            double regression = score.higherIsBetter() ? -change : change;
+
+            if (regression > threshold) {
+                regressions.add(String.format("%s: %.3f, baseline %.3f (%+.1f%%)", key, score.value(), expected,
+                        change * 100));
+            }
+        });
+
+        return regressions;
+    }
+
+    /**
+     * Reads a baseline
+     *
+     * @param baseline the file
+     *
+     * @return the scores of the baseline
+     *
+     * @throws IOException if the file can't be read
+     */
+
+    private static Properties read(Path baseline) throws IOException {
+
+        Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(baseline)) {
+            properties.load(reader);
+        }
+
+        return properties;
+    }
+
+    /**
+     * Writes a baseline
+     *
+     * @param baseline the file
+     * @param scores   the scores
+     *
+     * @throws IOException if the file can't be written
+     */
+
+    private static void write(Path baseline, Map<String, Score> scores) throws IOException {
+
+        Properties properties = new Properties();
+        scores.forEach((key, score) -> properties.setProperty(key, Double.toString(score.value())));
+
+        Files.createDirectories(baseline.toAbsolutePath().getParent());
+
+        try (Writer writer = Files.newBufferedWriter(baseline)) {
+            properties.store(writer, "JMH baseline");
+        }
+    }
+
+    /**
+     * A score of a benchmark
+     *
+     * @param value          the score
+     * @param higherIsBetter if a higher score is better, as the throughput, or worse, as the time or the allocation
+     */
+
+    private record Score(double value, boolean higherIsBetter) {
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.sarabarbara.compra.benchmarks;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.model.Purchase;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BenchmarkData class
+ * <p>
+ * The clients, items and purchases of the benchmarks, with values of the sizes the application stores.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+final class BenchmarkData {
+
+    /**
+     * The private constructor
+     */
+
+    private BenchmarkData() {
+
+    }
+
+    /**
+     * A client
+     *
+     * @param id the id of the client
+     *
+     * @return the client
+     */
+
+    static Client client(long id) {
+
+        return Client.builder()
+                .idClient(id)
+                .name("Name" + id)
+                .surname("Surname Surname")
+                .company("Company " + id + " S.L.")
+                .position("Purchasing manager")
+                .address("Calle Mayor 10, 3B")
+                .zipCode("28001")
+                .province("Madrid")
+                .phoneNumber(String.valueOf(600000000 + id))
+                .birthDate(LocalDate.of(1990, 1, 1).plusDays(id % 3650))
+                .build();
+    }
+
+    /**
+     * An item
+     *
+     * @param id the id of the item
+     *
+     * @return the item
+     */
+
+    static Item item(long id) {
+
+        return Item.builder()
+                .idItem(id)
+                .name("Item " + id)
+                .description("The description of the item " + id + ", as long as the ones of the catalog")
+                .unitPrice(BigDecimal.valueOf(1995 + id % 1000, 2))
+                .itemStock((int) (id % 500))
+                .type(Type.values()[(int) (id % Type.values().length)])
+                .supplier("Supplier " + id % 20)
+                .date(LocalDate.of(2026, 1, 1).plusDays(id % 365))
+                .build();
+    }
+
+    /**
+     * A purchase, with its client and item
+     *
+     * @param id the id of the purchase
+     *
+     * @return the purchase
+     */
+
+    static Purchase purchase(long id) {
+
+        int quantity = 1 + (int) (id % 9);
+        BigDecimal total = BigDecimal.valueOf(1995 + id % 1000, 2).multiply(BigDecimal.valueOf(quantity));
+        BigDecimal totalIva = total.multiply(new BigDecimal("0.21")).setScale(2, RoundingMode.HALF_EVEN);
+
+        return Purchase.builder()
+                .idPurchase(id)
+                .client(client(id % 50))
+                .item(item(id % 200))
+                .purchaseDate(LocalDate.of(2026, 1, 1).plusDays(id % 365))
+                .quantity(quantity)
+                .total(total)
+                .iva(new BigDecimal("21.00"))
+                .totalIva(totalIva)
+                .totalPrice(total.add(totalIva))
+                .build();
+    }
+
+    /**
+     * Many clients
+     *
+     * @param size the number of clients
+     *
+     * @return the clients
+     */
+
+    static List<Client> clients(int size) {
+
+        List<Client> clients = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            clients.add(client(i));
+        }
+
+        return clients;
+    }
+
+    /**
+     * Many items
+     *
+     * @param size the number of items
+     *
+     * @return the items
+     */
+
+    static List<Item> items(int size) {
+
+        List<Item> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            items.add(item(i));
+        }
+
+        return items;
+    }
+
+    /**
+     * Many purchases
+     *
+     * @param size the number of purchases
+     *
+     * @return the purchases
+     */
+
+    static List<Purchase> purchases(int size) {
+
+        List<Purchase> purchases = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            purchases.add(purchase(i));
+        }
+
+        return purchases;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.sarabarbara.compra.benchmarks;
+
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.items.ItemDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.model.Purchase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.sarabarbara.compra.mapper.ClientMapper.toClientDTOListMapper;
+import static com.sarabarbara.compra.mapper.ItemMapper.toItemDTOListMapper;
+import static com.sarabarbara.compra.mapper.PurchaseMapper.toPurchaseDTOListMapper;
+import static com.sarabarbara.compra.mapper.PurchaseMapper.toPurchaseSearchDTOMapper;
+
+/**
+ * MapperBenchmark class
+ * <p>
+ * The mappers of the entities to the DTOs of the responses, over pages of the sizes the endpoints return, and the
+ * Lombok builders they use. Run with
+ * {@code mvn -P benchmarks clean test-compile exec:exec -Djmh.args="MapperBenchmark -prof gc"}.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Client> clients;
+    private List<Item> items;
+    private List<Purchase> purchases;
+    private long id;
+
+    @Setup
+    public void setup() {
+
+        clients = BenchmarkData.clients(size);
+        items = BenchmarkData.items(size);
+        purchases = BenchmarkData.purchases(size);
+    }
+
+    @Benchmark
+    public List<ClientDTO> clients() {
+
+        return toClientDTOListMapper(clients);
+    }
+
+    @Benchmark
+    public List<ItemDTO> items() {
+
+        return toItemDTOListMapper(items);
+    }
+
+    @Benchmark
+    public List<PurchaseDTO> purchases() {
+
+        return toPurchaseDTOListMapper(purchases);
+    }
+
+    @Benchmark
+    public List<PurchaseSearchDTO> purchaseSearch() {
+
+        return toPurchaseSearchDTOMapper(purchases);
+    }
+
+    @Benchmark
+    public Purchase purchaseBuilder() {
+
+        return BenchmarkData.purchase(id++);
+    }
+
+}
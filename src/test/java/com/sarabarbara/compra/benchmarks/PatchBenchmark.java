@@ -0,0 +1,109 @@
+package com.sarabarbara.compra.benchmarks;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.patch.EntityPatcher;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PatchBenchmark class
+ * <p>
+ * The partial update of an item as {@code ItemService.updateItem} did it, configuring the {@link ModelMapper} on
+ * every call, against a {@link ModelMapper} configured once and against the {@link EntityPatcher}.
+ * Run with {@code mvn -P benchmarks clean test-compile exec:exec -Djmh.args=PatchBenchmark}.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatchBenchmark {
+
+    private ModelMapper perCallMapper;
+    private ModelMapper configuredMapper;
+    private EntityPatcher<Item> itemPatcher;
+    private Item newInfo;
+
+    @Setup
+    public void setup() {
+
+        perCallMapper = new ModelMapper();
+
+        configuredMapper = new ModelMapper();
+        configuredMapper.typeMap(Item.class, Item.class).addMappings(mapper -> {
+
+            mapper.skip(Item::setIdItem);
+            mapper.skip(Item::setUnitPrice);
+        });
+        configuredMapper.getConfiguration().setSkipNullEnabled(true);
+
+        itemPatcher = EntityPatcher.of(Item.class, "idItem", "unitPrice");
+
+        newInfo = new Item();
+        newInfo.setSupplier("Acme");
+        newInfo.setDescription("A new description");
+        newInfo.setItemStock(40);
+    }
+
+    @Benchmark
+    public Item modelMapperPerCall() {
+
+        Item item = item();
+
+        perCallMapper.typeMap(Item.class, Item.class)
+                .addMappings(mapper -> mapper.skip(Item::setIdItem));
+        perCallMapper.typeMap(Item.class, Item.class)
+                .addMappings(mapper -> mapper.skip(Item::setUnitPrice));
+        perCallMapper.getConfiguration().setSkipNullEnabled(true);
+        perCallMapper.map(newInfo, item);
+
+        return item;
+    }
+
+    @Benchmark
+    public Item modelMapperConfigured() {
+
+        Item item = item();
+        configuredMapper.map(newInfo, item);
+
+        return item;
+    }
+
+    @Benchmark
+    public Item entityPatcher() {
+
+        Item item = item();
+        itemPatcher.patch(newInfo, item);
+
+        return item;
+    }
+
+    // Complementary methods
+
+    private static Item item() {
+
+        return new Item(1L, "Laptop", "A laptop", new BigDecimal("10.05"), 29, Type.HOME, "Supplier",
+                LocalDate.of(2026, 10, 18), "laptop", "supplier");
+    }
+
+}
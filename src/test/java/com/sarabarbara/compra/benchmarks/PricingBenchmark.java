@@ -0,0 +1,85 @@
+package com.sarabarbara.compra.benchmarks;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Purchase;
+import com.sarabarbara.compra.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PricingBenchmark class
+ * <p>
+ * The totals of a purchase with the former {@link BigDecimal} arithmetic against the {@link PricingEngine}.
+ * Run with {@code mvn -P benchmarks clean test-compile exec:exec -Djmh.args=PricingBenchmark}.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    private static final BigDecimal IVA = BigDecimal.valueOf(21);
+
+    private PricingEngine pricingEngine;
+    private BigDecimal unitPrice;
+    private int quantity;
+
+    @Setup
+    public void setup() {
+
+        pricingEngine = new PricingEngine(new MockEnvironment());
+        unitPrice = new BigDecimal("19.95");
+        quantity = 7;
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+
+        BigDecimal total = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        BigDecimal totalIva = total.multiply(IVA).divide(BigDecimal.valueOf(100), MathContext.DECIMAL128);
+        BigDecimal totalPrice = total.add(totalIva);
+
+        blackhole.consume(total);
+        blackhole.consume(totalIva);
+        blackhole.consume(totalPrice);
+    }
+
+    @Benchmark
+    public Purchase pricingEngine() {
+
+        Purchase purchase = new Purchase();
+        pricingEngine.price(purchase, unitPrice, Type.BOOKS, quantity);
+
+        return purchase;
+    }
+
+    @Benchmark
+    public long fixedPointOnly() {
+
+        long total = PricingEngine.total(PricingEngine.toMinor(unitPrice), quantity);
+
+        return total + PricingEngine.tax(total, 2100);
+    }
+
+}
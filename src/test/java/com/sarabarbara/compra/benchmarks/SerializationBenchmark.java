@@ -0,0 +1,79 @@
+package com.sarabarbara.compra.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sarabarbara.compra.config.AppConfig;
+import com.sarabarbara.compra.dto.clients.ClientDTO;
+import com.sarabarbara.compra.dto.purchases.PurchaseSearchDTO;
+import com.sarabarbara.compra.responses.SearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.sarabarbara.compra.mapper.ClientMapper.toClientDTOListMapper;
+import static com.sarabarbara.compra.mapper.PurchaseMapper.toPurchaseSearchDTOMapper;
+
+/**
+ * SerializationBenchmark class
+ * <p>
+ * The {@link SearchResponse} pages written to JSON by the {@link ObjectMapper} of {@link AppConfig}, as the
+ * endpoints answer them. Run with
+ * {@code mvn -P benchmarks clean test-compile exec:exec -Djmh.args="SerializationBenchmark -prof gc"}.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private SearchResponse<ClientDTO> clients;
+    private SearchResponse<PurchaseSearchDTO> purchases;
+
+    @Setup
+    public void setup() {
+
+        objectMapper = new AppConfig().objectMapper();
+
+        PageRequest pageRequest = PageRequest.of(0, size);
+        clients = new SearchResponse<>(new PageImpl<>(toClientDTOListMapper(BenchmarkData.clients(size)),
+                pageRequest, size * 10L), false, "Successfully");
+        purchases = new SearchResponse<>(new PageImpl<>(toPurchaseSearchDTOMapper(BenchmarkData.purchases(size)),
+                pageRequest, size * 10L), false, "Successfully");
+    }
+
+    @Benchmark
+    public byte[] clients() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(clients);
+    }
+
+    @Benchmark
+    public byte[] purchases() throws JsonProcessingException {
+
+        return objectMapper.writeValueAsBytes(purchases);
+    }
+
+}
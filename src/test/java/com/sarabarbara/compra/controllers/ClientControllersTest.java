@@ -1,6 +1,8 @@
 package com.sarabarbara.compra.controllers;
 
 import com.sarabarbara.compra.controller.ClientController;
+import com.sarabarbara.compra.dto.clients.ClientSearchDTO;
+import com.sarabarbara.compra.enums.CountMode;
 import com.sarabarbara.compra.exceptions.client.ClientValidateException;
 import com.sarabarbara.compra.model.Client;
 import com.sarabarbara.compra.service.ClientService;
@@ -10,6 +12,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,6 +22,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.LocalDate;
 import java.util.List;
 
+import static com.sarabarbara.compra.mapper.ClientMapper.toClientDTOMapper;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -139,7 +144,7 @@ class ClientControllersTest {
     @Test
     void clientListControllerTest() throws Exception {
 
-        when(clientService.clientList(anyInt(), anyInt())).thenReturn(List.of(client));
+        when(clientService.clientList(anyInt(), anyInt())).thenReturn(List.of(toClientDTOMapper(client)));
 
         mockMvc.perform(get("/client")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -165,14 +170,32 @@ class ClientControllersTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    void clientListInvalidCursorControllerTest() throws Exception {
+
+        when(clientService.clientListAfter(anyString(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor !!"));
+
+        mockMvc.perform(get("/client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("after", "!!")
+                        .param("size", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor !!"));
+    }
+
     @Test
     void searchClientControllerTest() throws Exception {
 
         when(clientService.searchClient(
                 nullable(String.class), nullable(String.class), nullable(String.class),
                 nullable(String.class), nullable(String.class), nullable(String.class),
-                nullable(String.class), anyInt(), anyInt()))
-                .thenReturn(List.of(client));
+                nullable(String.class), anyInt(), anyInt(), any(CountMode.class)))
+                .thenReturn(new PageImpl<>(List.of(ClientSearchDTO.builder()
+                        .name(client.getName())
+                        .surname(client.getSurname())
+                        .company(client.getCompany())
+                        .build())));
 
 
         mockMvc.perform(get("/client/search")
@@ -183,7 +206,9 @@ class ClientControllersTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.results[0].name").value("Name"))
                 .andExpect(jsonPath("$.results[0].surname").value("Surname"))
-                .andExpect(jsonPath("$.results[0].company").value("Company"));
+                .andExpect(jsonPath("$.results[0].company").value("Company"))
+                .andExpect(jsonPath("$.totalResults").value(1))
+                .andExpect(jsonPath("$.totalPage").value(1));
     }
 
     @Test
@@ -192,8 +217,8 @@ class ClientControllersTest {
         when(clientService.searchClient(
                 nullable(String.class), nullable(String.class), nullable(String.class),
                 nullable(String.class), nullable(String.class), nullable(String.class),
-                nullable(String.class), anyInt(), anyInt()))
-                .thenReturn(List.of());
+                nullable(String.class), anyInt(), anyInt(), any(CountMode.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
 
         mockMvc.perform(get("/client/search")
@@ -210,7 +235,7 @@ class ClientControllersTest {
         when(clientService.searchClient(
                 nullable(String.class), nullable(String.class), nullable(String.class),
                 nullable(String.class), nullable(String.class), nullable(String.class),
-                nullable(String.class), anyInt(), anyInt()))
+                nullable(String.class), anyInt(), anyInt(), any(CountMode.class)))
                 .thenThrow(new RuntimeException("Can't search client: Some internal error occurred."));
 
         mockMvc.perform(get("/client/search")
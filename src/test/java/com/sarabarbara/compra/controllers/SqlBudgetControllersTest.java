@@ -0,0 +1,161 @@
+package com.sarabarbara.compra.controllers;
+
+import com.sarabarbara.compra.repository.ClientRepository;
+import com.sarabarbara.compra.repository.ItemRepository;
+import com.sarabarbara.compra.repository.PurchaseRepository;
+import com.sarabarbara.compra.sql.SqlBudgetExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static com.sarabarbara.compra.sql.SqlStatementHeaders.STATEMENTS;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SqlBudgetControllersTest class
+ * <p>
+ * Calls the read endpoints over an H2 database with some clients, items and purchases; the {@link SqlBudgetExtension}
+ * fails the test if one goes over its SQL budget.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@ExtendWith(SqlBudgetExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlBudgetControllersTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    private Long idClient;
+
+    private Long idItem;
+
+    private Long idPurchase;
+
+    @BeforeAll
+    void setUp() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+
+            mockMvc.perform(post("/client/create").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Name\", \"surname\":\"Surname\", \"company\":\"Company " + i + "\", " +
+                            "\"position\":\"Position\", \"address\":\"Address\", \"zipCode\":\"28001\", " +
+                            "\"province\":\"Province\", \"phoneNumber\":\"65456765" + i + "\", " +
+                            "\"birthDate\":\"01/01/1997\"}"))
+                    .andExpect(status().isCreated());
+
+            mockMvc.perform(post("/item/create").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"Item " + i + "\", \"description\":\"An item\", \"unitPrice\":10.05, " +
+                            "\"itemStock\":100, \"type\":\"HOME\", \"supplier\":\"Supplier\", " +
+                            "\"date\":\"01/01/2025\"}"))
+                    .andExpect(status().isCreated());
+        }
+
+        idClient = clientRepository.findAll().get(0).getIdClient();
+        idItem = itemRepository.findAll().get(0).getIdItem();
+
+        for (var client : clientRepository.findAll()) {
+
+            for (var item : itemRepository.findAll()) {
+
+                mockMvc.perform(post("/purchase/create").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"idClient\":" + client.getIdClient() + ", \"idItem\":" +
+                                        item.getIdItem() + ", \"quantity\":2}"))
+                        .andExpect(status().isCreated());
+            }
+        }
+
+        idPurchase = purchaseRepository.findAll().get(0).getIdPurchase();
+    }
+
+    @Test
+    void clientListTest() throws Exception {
+
+        perform(get("/client"));
+    }
+
+    @Test
+    void searchClientTest() throws Exception {
+
+        perform(get("/client/search").param("name", "na"));
+    }
+
+    @Test
+    void clientSheetTest() throws Exception {
+
+        perform(get("/client/profile/" + idClient));
+    }
+
+    @Test
+    void itemListTest() throws Exception {
+
+        perform(get("/item"));
+    }
+
+    @Test
+    void searchItemTest() throws Exception {
+
+        perform(post("/item/search").param("name", "item"));
+    }
+
+    @Test
+    void itemSheetTest() throws Exception {
+
+        perform(get("/item/" + idItem));
+    }
+
+    @Test
+    void purchaseListTest() throws Exception {
+
+        perform(get("/purchase"));
+    }
+
+    @Test
+    void searchPurchaseTest() throws Exception {
+
+        perform(get("/purchase/search").param("idClient", idClient.toString()));
+    }
+
+    @Test
+    void purchaseSheetTest() throws Exception {
+
+        perform(get("/purchase/" + idPurchase));
+    }
+
+    // Complementary methods
+
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+
+        return mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(STATEMENTS));
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.sarabarbara.compra.patch;
+
+import com.sarabarbara.compra.enums.Type;
+import com.sarabarbara.compra.model.Client;
+import com.sarabarbara.compra.model.Item;
+import com.sarabarbara.compra.model.Purchase;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.sarabarbara.compra.service.ClientService.CLIENT_PATCHER;
+import static com.sarabarbara.compra.service.ItemService.ITEM_PATCHER;
+import static com.sarabarbara.compra.service.PurchaseService.PURCHASE_PATCHER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * EntityPatcherTest class
+ * <p>
+ * The partial updates of the clients, the items and the purchases, with the patchers of their services.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+class EntityPatcherTest {
+
+    private final LocalDate date = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void skippedPropertiesTest() {
+
+        Item target = item();
+        Item source = new Item();
+        source.setIdItem(2L);
+        source.setUnitPrice(new BigDecimal("99.99"));
+        source.setName("New name");
+        source.setItemStock(100);
+
+        ITEM_PATCHER.patch(source, target);
+
+        assertEquals(1L, target.getIdItem());
+        assertEquals(new BigDecimal("10.05"), target.getUnitPrice());
+        assertEquals("New name", target.getName());
+        assertFalse(ITEM_PATCHER.properties().contains("idItem"));
+        assertFalse(ITEM_PATCHER.properties().contains("unitPrice"));
+    }
+
+    @Test
+    void clientIdSkippedTest() {
+
+        Client target = client(1L);
+        target.setName("Name");
+        Client source = client(2L);
+        source.setName("New name");
+
+        CLIENT_PATCHER.patch(source, target);
+
+        assertEquals(1L, target.getIdClient());
+        assertEquals("New name", target.getName());
+        assertFalse(CLIENT_PATCHER.properties().contains("idClient"));
+    }
+
+    @Test
+    void skippedAssociationsTest() {
+
+        Client client = client(1L);
+        Item item = item();
+        Purchase target = new Purchase();
+        target.setIdPurchase(1L);
+        target.setClient(client);
+        target.setItem(item);
+        target.setPurchaseDate(date);
+        target.setQuantity(1);
+
+        Purchase source = new Purchase();
+        source.setIdPurchase(2L);
+        source.setClient(client(2L));
+        source.setItem(new Item());
+        source.setQuantity(3);
+
+        PURCHASE_PATCHER.patch(source, target);
+
+        assertEquals(1L, target.getIdPurchase());
+        assertSame(client, target.getClient());
+        assertSame(item, target.getItem());
+        assertEquals(3, target.getQuantity());
+        assertEquals(date, target.getPurchaseDate());
+    }
+
+    @Test
+    void nullsIgnoredTest() {
+
+        Item target = item();
+        Item source = new Item();
+        source.setItemStock(target.getItemStock());
+
+        ITEM_PATCHER.patch(source, target);
+
+        assertEquals("Name", target.getName());
+        assertEquals("Description", target.getDescription());
+        assertEquals(Type.HOME, target.getType());
+        assertEquals("Supplier", target.getSupplier());
+        assertEquals(date, target.getDate());
+    }
+
+    @Test
+    void primitivesCopiedTest() {
+
+        Item target = item();
+        Item source = new Item();
+        source.setSupplier("Other supplier");
+
+        ITEM_PATCHER.patch(source, target);
+
+        assertEquals(0, target.getItemStock());
+        assertEquals("Other supplier", target.getSupplier());
+        assertTrue(ITEM_PATCHER.properties().contains("itemStock"));
+    }
+
+    @Test
+    void unknownSkippedPropertyTest() {
+
+        assertThrows(IllegalArgumentException.class, () -> EntityPatcher.of(Item.class, "price"));
+    }
+
+    private static Client client(Long idClient) {
+
+        Client client = new Client();
+        client.setIdClient(idClient);
+
+        return client;
+    }
+
+    private Item item() {
+
+        return Item.builder()
+                .idItem(1L)
+                .name("Name")
+                .description("Description")
+                .unitPrice(new BigDecimal("10.05"))
+                .itemStock(50)
+                .type(Type.HOME)
+                .supplier("Supplier")
+                .date(date)
+                .build();
+    }
+
+}
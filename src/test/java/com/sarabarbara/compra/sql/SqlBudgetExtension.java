@@ -0,0 +1,81 @@
+package com.sarabarbara.compra.sql;
+
+import com.sarabarbara.compra.dto.sql.SqlEndpointDTO;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * SqlBudgetExtension class
+ * <p>
+ * Fails a Spring test if a request it made went over the {@link SqlBudget} of its endpoint, with the statements that
+ * went over it, so an N+1 fails the build instead of reaching production.
+ *
+ * @author sarabarbaraam
+ * @version 1.0
+ * @since 18/10/2026
+ */
+
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+
+        context.getStore(NAMESPACE).put(context.getUniqueId(), overBudget(metrics(context).endpoints()));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> before = context.getStore(NAMESPACE).remove(context.getUniqueId(), Map.class);
+
+        List<String> exceeded = metrics(context).endpoints().stream()
+                .filter(endpoint -> endpoint.getOverBudget() > before.getOrDefault(endpoint.getEndpoint(), 0L))
+                .map(endpoint -> endpoint.getEndpoint() + ": " + endpoint.getLastOverBudget())
+                .toList();
+
+        if (!exceeded.isEmpty()) {
+            fail("Over the SQL budget:\n" + String.join("\n", exceeded));
+        }
+    }
+
+    // Complementary methods
+
+    /**
+     * The statistics of the endpoints of the application of the test
+     *
+     * @param context the context of the test
+     *
+     * @return the statistics
+     */
+
+    private static SqlStatementMetrics metrics(ExtensionContext context) {
+
+        return SpringExtension.getApplicationContext(context).getBean(SqlStatementMetrics.class);
+    }
+
+    /**
+     * The requests over the budget, by endpoint
+     *
+     * @param endpoints the statistics of the endpoints
+     *
+     * @return the requests over the budget
+     */
+
+    private static Map<String, Long> overBudget(List<SqlEndpointDTO> endpoints) {
+
+        return endpoints.stream().collect(Collectors.toMap(SqlEndpointDTO::getEndpoint, SqlEndpointDTO::getOverBudget));
+    }
+
+}